@@ -15,6 +15,17 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+    }
+
+    sourceSets {
+        // Exported Room schemas, read by MigrationTestHelper
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -30,8 +41,15 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // android.util.Log and friends return defaults instead of throwing in JVM tests
+        unitTests.isReturnDefaultValues = true
+        // Benchmarks are skipped unless asked for with -Pbenchmarks=true
+        unitTests.all { it.systemProperty("benchmarks", project.findProperty("benchmarks") ?: "false") }
+    }
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
@@ -58,9 +76,16 @@ dependencies {
     // WorkManager
     implementation(libs.workmanager)
     
+    // Paging
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.guava)
+    
     testImplementation(libs.junit)
+    // The real org.json, for the benchmark's baseline; android.jar only has stubs
+    testImplementation(libs.json)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation(libs.room.testing)
     implementation(platform("com.google.firebase:firebase-bom:34.7.0"))
     implementation("com.google.firebase:firebase-analytics")
     implementation("com.google.firebase:firebase-firestore")
@@ -0,0 +1,136 @@
+package com.example.foodbikeandroid.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderStatus;
+import com.example.foodbikeandroid.data.model.PaymentMethod;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The daily_restaurant_stats triggers against the device's own SQLite, which on older
+ * API levels rejects syntax the host's newer SQLite accepts.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DailyStatsTriggerTest {
+
+    // 12:00 UTC, which is 00:00 to 02:00 at the earliest and latest offsets; orders a minute
+    // apart then share a local day in every time zone
+    private static final long NOON = 1_700_000_000_000L - 1_700_000_000_000L % 86_400_000L + 43_200_000L;
+
+    private FoodBikeDatabase database;
+    private SupportSQLiteDatabase db;
+    private OrderDao orderDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, FoodBikeDatabase.class).build();
+        db = database.getOpenHelper().getWritableDatabase();
+        FoodBikeDatabase.createDailyStatsTriggers(db);
+        orderDao = database.orderDao();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void insertUpdateDelete_keepTheDayRowCurrent() {
+        orderDao.insertOrder(order("o1", "r1", 100.0, NOON));
+        orderDao.insertOrder(order("o2", "r1", 50.0, NOON + 60_000));
+        orderDao.insertOrder(order("o3", "r2", 80.0, NOON));
+
+        assertStats("r1", 2, 150.0, 0, 0);
+        assertStats("r2", 1, 80.0, 0, 0);
+
+        orderDao.updateOrderStatus("o2", OrderStatus.CANCELLED);
+        orderDao.updateRefundStatus("o2", true);
+        assertStats("r1", 2, 100.0, 1, 1);
+
+        orderDao.deleteOrder(order("o1", "r1", 100.0, NOON));
+        orderDao.deleteOrder(order("o2", "r1", 50.0, NOON + 60_000));
+        // The emptied bucket is removed rather than left at zero
+        assertFalse(hasRow("r1"));
+        assertStats("r2", 1, 80.0, 0, 0);
+    }
+
+    @Test
+    public void replaceFromSync_countsTheOrderOnce() {
+        orderDao.insertOrder(order("o1", "r1", 100.0, NOON));
+        orderDao.insertOrder(order("o1", "r1", 120.0, NOON));
+
+        assertStats("r1", 1, 120.0, 0, 0);
+    }
+
+    @Test
+    public void triggers_matchRebuild() {
+        for (int i = 0; i < 20; i++) {
+            orderDao.insertOrder(order("o" + i, "r" + (i % 3), 10.0 * i, NOON + i * 3_600_000L));
+        }
+        orderDao.updateOrderStatus("o4", OrderStatus.CANCELLED);
+        String before = dump();
+
+        database.dailyStatsDao().rebuild();
+
+        assertTrue(before.length() > 0);
+        assertEquals(before, dump());
+    }
+
+    private static Order order(String orderId, String restaurantId, double totalPrice, long createdAt) {
+        Order order = new Order("u1", restaurantId, "Dhaka", "Road 1", new ArrayList<>(), totalPrice,
+                PaymentMethod.CASH_ON_DELIVERY, null);
+        order.setOrderId(orderId);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    private void assertStats(String restaurantId, int orders, double revenue, int cancellations, int refunds) {
+        try (Cursor cursor = db.query("SELECT orders, revenue, cancellations, refunds FROM daily_restaurant_stats "
+                + "WHERE restaurantId = ?", new Object[]{restaurantId})) {
+            assertEquals(1, cursor.getCount());
+            cursor.moveToFirst();
+            assertEquals(orders, cursor.getInt(0));
+            assertEquals(revenue, cursor.getDouble(1), 0.001);
+            assertEquals(cancellations, cursor.getInt(2));
+            assertEquals(refunds, cursor.getInt(3));
+        }
+    }
+
+    private boolean hasRow(String restaurantId) {
+        try (Cursor cursor = db.query("SELECT 1 FROM daily_restaurant_stats WHERE restaurantId = ?",
+                new Object[]{restaurantId})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private String dump() {
+        StringBuilder rows = new StringBuilder();
+        try (Cursor cursor = db.query("SELECT restaurantId, day, orders, revenue, cancellations, refunds "
+                + "FROM daily_restaurant_stats ORDER BY restaurantId, day")) {
+            while (cursor.moveToNext()) {
+                rows.append(cursor.getString(0)).append(' ').append(cursor.getString(1)).append(' ')
+                        .append(cursor.getInt(2)).append(' ').append(cursor.getDouble(3)).append(' ')
+                        .append(cursor.getInt(4)).append(' ').append(cursor.getInt(5)).append('\n');
+            }
+        }
+        return rows.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.foodbikeandroid.data.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class OrderIndexMigrationTest {
+
+    private static final String TEST_DB = "order-index-migration-test";
+    // The @Database version; its schema JSON must be committed under app/schemas
+    private static final int LATEST_VERSION = 31;
+
+    // The OrderDao filters the order lists, feeds and auto-cancel sweep run on every load
+    private static final Object[][] HOT_QUERIES = {
+            {"SELECT * FROM orders WHERE userId = ? ORDER BY createdAt DESC", "u1"},
+            {"SELECT * FROM orders WHERE userId = ? AND status IN (?, ?) "
+                    + "AND (? IS NULL OR orderId LIKE ? ESCAPE '\\' "
+                    + "OR restaurantId IN (SELECT id FROM restaurants WHERE name LIKE ? ESCAPE '\\')) "
+                    + "AND createdAt <= ? AND (createdAt < ? OR orderId < ?) "
+                    + "ORDER BY createdAt DESC, orderId DESC LIMIT ?",
+                    "u1", "PENDING", "DELIVERED", null, null, null, 1L, 1L, "o1", 20},
+            {"SELECT * FROM orders WHERE restaurantId = ? AND status IN (?, ?) "
+                    + "AND createdAt <= ? AND (createdAt < ? OR orderId < ?) "
+                    + "ORDER BY createdAt DESC, orderId DESC LIMIT ?",
+                    "r1", "PENDING", "READY", 1L, 1L, "o1", 20},
+            {"SELECT * FROM orders WHERE bikerId = ? AND (status = 'PREPARING' OR status = 'READY') "
+                    + "AND createdAt <= ? AND (createdAt < ? OR orderId < ?) "
+                    + "ORDER BY createdAt DESC, orderId DESC LIMIT ?",
+                    "b1", 1L, 1L, "o1", 20},
+            {"SELECT * FROM orders WHERE bikerId = ? AND status = 'DELIVERED' "
+                    + "AND deliveredAt <= ? AND (deliveredAt < ? OR orderId < ?) "
+                    + "ORDER BY deliveredAt DESC, orderId DESC LIMIT ?",
+                    "b1", 1L, 1L, "o1", 20},
+            {"SELECT * FROM orders WHERE status = ? ORDER BY createdAt DESC", "READY"},
+            {"SELECT * FROM orders WHERE district = ? AND status = ? ORDER BY createdAt DESC", "Dhaka", "READY"},
+            {"SELECT orderId FROM orders WHERE status = 'PENDING' AND createdAt < ?", 1L},
+            {"SELECT MIN(createdAt) FROM orders WHERE status = 'PENDING'"},
+    };
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), FoodBikeDatabase.class);
+
+    // Starts from the baseline schema and checks the result against the schema the
+    // build exports for the current version
+    @Test
+    public void migrate17ToLatest_validatesAndHotQueriesUseIndexes() throws Exception {
+        helper.createDatabase(TEST_DB, 17).close();
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true,
+                FoodBikeDatabase.MIGRATIONS);
+        // Recreated on open in the app; the helper doesn't run the builder's callbacks
+        FoodBikeDatabase.createPartialIndexes(db);
+        FoodBikeDatabase.createDailyStatsTriggers(db);
+
+        for (Object[] query : HOT_QUERIES) {
+            assertSearchesIndex(db, query);
+        }
+        db.close();
+    }
+
+    @Test
+    public void currentSchema_hotQueriesUseIndexes() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FoodBikeDatabase database = Room.inMemoryDatabaseBuilder(context, FoodBikeDatabase.class).build();
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        FoodBikeDatabase.createPartialIndexes(db);
+
+        for (Object[] query : HOT_QUERIES) {
+            assertSearchesIndex(db, query);
+        }
+        // Active deliveries go through the partial index, which replaced (bikerId, createdAt)
+        assertTrue(queryPlan(db, HOT_QUERIES[3]).toString().contains("partial_orders_biker_active"));
+        assertFalse(indexExists(db, "index_orders_bikerId_createdAt"));
+        database.close();
+    }
+
+    private static void assertSearchesIndex(SupportSQLiteDatabase db, Object[] query) {
+        List<String> plan = queryPlan(db, query);
+        for (String step : plan) {
+            // "SCAN orders" without an index is a full table scan
+            if (step.contains(" orders") && !step.contains("USING")) {
+                fail(query[0] + " scans orders: " + plan);
+            }
+        }
+    }
+
+    private static List<String> queryPlan(SupportSQLiteDatabase db, Object[] query) {
+        Object[] args = new Object[query.length - 1];
+        System.arraycopy(query, 1, args, 0, args.length);
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + query[0], args)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail));
+            }
+        }
+        return plan;
+    }
+
+    private static boolean indexExists(SupportSQLiteDatabase db, String name) {
+        try (Cursor cursor = db.query("SELECT 1 FROM sqlite_master WHERE type = 'index' AND name = ?",
+                new Object[]{name})) {
+            return cursor.moveToFirst();
+        }
+    }
+}
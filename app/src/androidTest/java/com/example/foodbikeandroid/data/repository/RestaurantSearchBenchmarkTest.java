@@ -0,0 +1,139 @@
+package com.example.foodbikeandroid.data.repository;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.model.Restaurant;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Restaurant search over a 10k-row catalog: RestaurantDao's FTS4 MATCH against the
+ * LIKE '%q%' scan it replaced, both filtered by division. Timings are logged, not
+ * asserted, since they depend on the device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RestaurantSearchBenchmarkTest {
+
+    private static final String TAG = "RestaurantSearchBench";
+    private static final int RESTAURANTS = 10_000;
+    private static final int QUERIES = 600;
+
+    private static final String[] WORDS = {"Dhaka", "Biryani", "Kacchi", "Pizza", "House", "Burger",
+            "Grill", "Chillox", "Sultan", "Dine", "Kebab", "Corner", "Tehari", "Ghor", "Cafe", "Bhai",
+            "Naan", "Curry", "Star", "Royal", "Fuchka", "Spice", "Garden", "Express"};
+    private static final String[] CUISINES = {"Bangladeshi", "Chinese", "Indian", "Thai", "Italian",
+            "Fast Food", "Mughlai", "Street Food"};
+    private static final String[] DIVISIONS = {"Dhaka", "Chattogram", "Rajshahi", "Khulna",
+            "Barishal", "Sylhet", "Rangpur", "Mymensingh"};
+
+    // The search RestaurantDao ran before FTS4, no longer in the DAO. Whole rows are read,
+    // as the DAO does.
+    private static final String LIKE_SQL = "SELECT * FROM restaurants "
+            + "WHERE (name LIKE '%' || ? || '%' OR cuisineType LIKE '%' || ? || '%') AND division = ? "
+            + "ORDER BY rating DESC";
+
+    private FoodBikeDatabase database;
+    private SupportSQLiteDatabase db;
+    private RestaurantDao restaurantDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, FoodBikeDatabase.class).build();
+        db = database.getOpenHelper().getWritableDatabase();
+
+        Random random = new Random(42);
+        List<Restaurant> restaurants = new ArrayList<>(RESTAURANTS);
+        for (int i = 0; i < RESTAURANTS; i++) {
+            Restaurant restaurant = new Restaurant("r" + i,
+                    WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    DIVISIONS[random.nextInt(DIVISIONS.length)], "District " + random.nextInt(64),
+                    "Road " + i);
+            restaurant.setCuisineType(CUISINES[random.nextInt(CUISINES.length)]);
+            restaurant.setRating(1 + random.nextInt(5));
+            restaurants.add(restaurant);
+        }
+        restaurantDao = database.restaurantDao();
+        restaurantDao.insertAll(restaurants);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void ftsPrefixSearch_vsLikeScan() {
+        Random random = new Random(7);
+        String[] terms = new String[QUERIES];
+        String[] divisions = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            terms[i] = word.substring(0, 2 + random.nextInt(word.length() - 1));
+            divisions[i] = DIVISIONS[random.nextInt(DIVISIONS.length)];
+        }
+
+        // Warm both paths so the first run doesn't pay for page cache misses
+        ids(LIKE_SQL, terms[0], terms[0], divisions[0]);
+        search(terms[0], divisions[0]);
+
+        long likeNanos = 0;
+        long ftsNanos = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            Set<String> likeHits = ids(LIKE_SQL, terms[i], terms[i], divisions[i]);
+            likeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Set<String> ftsHits = search(terms[i], divisions[i]);
+            ftsNanos += System.nanoTime() - start;
+
+            // A word-prefix hit is always a substring hit
+            assertTrue(terms[i], likeHits.containsAll(ftsHits));
+            assertTrue(terms[i], !ftsHits.isEmpty() || likeHits.isEmpty());
+        }
+
+        Log.i(TAG, String.format(java.util.Locale.US, "%d queries over %d restaurants: LIKE %.3f ms/query, FTS4 %.3f ms/query",
+                QUERIES, RESTAURANTS, likeNanos / 1e6 / QUERIES, ftsNanos / 1e6 / QUERIES));
+    }
+
+    private Set<String> search(String term, String division) {
+        Set<String> ids = new HashSet<>();
+        for (Restaurant restaurant : restaurantDao.searchRestaurantsInDivisionSync(
+                RestaurantRepository.toFtsQuery(term), division)) {
+            ids.add(restaurant.getId());
+        }
+        return ids;
+    }
+
+    private Set<String> ids(String sql, Object... args) {
+        Set<String> ids = new HashSet<>();
+        try (Cursor cursor = db.query(sql, args)) {
+            int id = cursor.getColumnIndexOrThrow("id");
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(id));
+            }
+        }
+        return ids;
+    }
+}
@@ -9,6 +9,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.foodbikeandroid.data.model.UserType;
 import com.example.foodbikeandroid.data.repository.UserRepository;
+import com.example.foodbikeandroid.data.remote.RemoteStoreMetrics;
 import com.example.foodbikeandroid.data.repository.RestaurantRepository;
 import com.example.foodbikeandroid.ui.auth.NavigationHelper;
 import com.example.foodbikeandroid.ui.auth.SignInActivity;
@@ -24,6 +25,9 @@ public class MainActivity extends AppCompatActivity {
         setContentView(R.layout.activity_main);
 
         WorkManagerInitializer.initialize(this);
+        if (BuildConfig.DEBUG) {
+            RemoteStoreMetrics.getInstance().install(getApplication());
+        }
         
         // Seed database if needed (Cloud First)
         RestaurantRepository.getInstance(this.getApplication()).initializeSampleData();
@@ -17,6 +17,9 @@ public interface AdminActionDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(AdminAction action);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<AdminAction> actions);
+
     @Query("SELECT * FROM admin_actions ORDER BY timestamp DESC")
     LiveData<List<AdminAction>> getAll();
 
@@ -6,17 +6,15 @@ import com.example.foodbikeandroid.data.model.ActionType;
 import com.example.foodbikeandroid.data.model.ApplicationStatus;
 import com.example.foodbikeandroid.data.model.CartItem;
 import com.example.foodbikeandroid.data.model.MenuItem;
+import com.example.foodbikeandroid.data.model.MutationType;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 import com.example.foodbikeandroid.data.model.PaymentMethod;
 import com.example.foodbikeandroid.data.model.UserType;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 
@@ -39,6 +37,16 @@ public class Converters {
             return result;
         }
 
+    @TypeConverter
+    public static Long fromDate(Date date) {
+        return date == null ? null : date.getTime();
+    }
+
+    @TypeConverter
+    public static Date toDate(Long value) {
+        return value == null ? null : new Date(value);
+    }
+
     @TypeConverter
     public static String fromLocalDateTime(LocalDateTime dateTime) {
         return dateTime == null ? null : dateTime.format(formatter);
@@ -89,6 +97,16 @@ public class Converters {
         return value == null ? null : OrderStatus.valueOf(value);
     }
 
+    @TypeConverter
+    public static String fromMutationType(MutationType type) {
+        return type == null ? null : type.name();
+    }
+
+    @TypeConverter
+    public static MutationType toMutationType(String value) {
+        return value == null ? null : MutationType.valueOf(value);
+    }
+
     @TypeConverter
     public static String fromPaymentMethod(PaymentMethod method) {
         return method == null ? null : method.name();
@@ -101,94 +119,21 @@ public class Converters {
 
     @TypeConverter
     public static String fromMenuItemList(List<MenuItem> menuItems) {
-        if (menuItems == null) return null;
-        JSONArray jsonArray = new JSONArray();
-        for (MenuItem item : menuItems) {
-            try {
-                JSONObject jsonObject = new JSONObject();
-                jsonObject.put("id", item.getId());
-                jsonObject.put("name", item.getName());
-                jsonObject.put("description", item.getDescription());
-                jsonObject.put("price", item.getPrice());
-                jsonObject.put("category", item.getCategory());
-                jsonObject.put("available", item.isAvailable());
-                jsonArray.put(jsonObject);
-            } catch (JSONException e) {
-                e.printStackTrace();
-            }
-        }
-        return jsonArray.toString();
+        return ItemListCodec.encodeMenuItems(menuItems);
     }
 
     @TypeConverter
     public static List<MenuItem> toMenuItemList(String value) {
-        if (value == null) return null;
-        List<MenuItem> menuItems = new ArrayList<>();
-        try {
-            JSONArray jsonArray = new JSONArray(value);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject jsonObject = jsonArray.getJSONObject(i);
-                MenuItem item = new MenuItem(
-                        jsonObject.optString("id", "ITEM_" + System.currentTimeMillis() + i),
-                        jsonObject.getString("name"),
-                        jsonObject.getString("description"),
-                        jsonObject.getDouble("price"),
-                        jsonObject.getString("category"),
-                        jsonObject.optBoolean("available", true)
-                );
-                menuItems.add(item);
-            }
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
-        return menuItems;
+        return ItemListCodec.decodeMenuItems(value);
     }
 
     @TypeConverter
     public static String fromCartItemList(List<CartItem> cartItems) {
-        if (cartItems == null) return null;
-        JSONArray jsonArray = new JSONArray();
-        for (CartItem cartItem : cartItems) {
-            try {
-                JSONObject jsonObject = new JSONObject();
-                MenuItem item = cartItem.getMenuItem();
-                jsonObject.put("id", item.getId());
-                jsonObject.put("name", item.getName());
-                jsonObject.put("description", item.getDescription());
-                jsonObject.put("price", item.getPrice());
-                jsonObject.put("category", item.getCategory());
-                jsonObject.put("available", item.isAvailable());
-                jsonObject.put("quantity", cartItem.getQuantity());
-                jsonArray.put(jsonObject);
-            } catch (JSONException e) {
-                e.printStackTrace();
-            }
-        }
-        return jsonArray.toString();
+        return ItemListCodec.encodeCartItems(cartItems);
     }
 
     @TypeConverter
     public static List<CartItem> toCartItemList(String value) {
-        if (value == null) return null;
-        List<CartItem> cartItems = new ArrayList<>();
-        try {
-            JSONArray jsonArray = new JSONArray(value);
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject jsonObject = jsonArray.getJSONObject(i);
-                MenuItem menuItem = new MenuItem(
-                        jsonObject.optString("id", "ITEM_" + System.currentTimeMillis() + i),
-                        jsonObject.getString("name"),
-                        jsonObject.getString("description"),
-                        jsonObject.getDouble("price"),
-                        jsonObject.getString("category"),
-                        jsonObject.optBoolean("available", true)
-                );
-                int quantity = jsonObject.getInt("quantity");
-                cartItems.add(new CartItem(menuItem, quantity));
-            }
-        } catch (JSONException e) {
-            e.printStackTrace();
-        }
-        return cartItems;
+        return ItemListCodec.decodeCartItems(value);
     }
 }
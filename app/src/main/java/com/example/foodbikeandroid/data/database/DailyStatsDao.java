@@ -0,0 +1,63 @@
+package com.example.foodbikeandroid.data.database;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.foodbikeandroid.data.model.DailyRestaurantStats;
+import com.example.foodbikeandroid.data.model.StatsTotals;
+
+import java.util.List;
+
+/**
+ * Range reads over daily_restaurant_stats. Days are "yyyy-MM-dd" strings, so ranges are
+ * plain string comparisons and a month is about thirty rows per restaurant.
+ */
+@Dao
+public interface DailyStatsDao {
+
+    // The local day an order was placed on, matching the dashboards' start-of-day calendars
+    String ORDER_DAY = "date(createdAt / 1000, 'unixepoch', 'localtime')";
+
+    // One day's figures aggregated from the orders table; shared with the triggers
+    String STATS_COLUMNS = "COUNT(*), "
+            + "COALESCE(SUM(CASE WHEN status IN ('CANCELLED', 'AUTO_CANCELLED') THEN 0 ELSE totalPrice END), 0), "
+            + "COALESCE(SUM(status IN ('CANCELLED', 'AUTO_CANCELLED')), 0), "
+            + "COALESCE(SUM(isRefunded), 0)";
+
+    String REBUILD = "INSERT INTO daily_restaurant_stats (restaurantId, day, orders, revenue, cancellations, refunds) "
+            + "SELECT restaurantId, " + ORDER_DAY + " AS orderDay, " + STATS_COLUMNS
+            + " FROM orders GROUP BY restaurantId, orderDay";
+
+    String TOTALS = "SELECT COALESCE(SUM(orders), 0) AS orders, COALESCE(SUM(revenue), 0) AS revenue, "
+            + "COALESCE(SUM(cancellations), 0) AS cancellations, COALESCE(SUM(refunds), 0) AS refunds "
+            + "FROM daily_restaurant_stats ";
+
+    @Query("SELECT * FROM daily_restaurant_stats WHERE restaurantId = :restaurantId "
+            + "AND day BETWEEN :fromDay AND :toDay ORDER BY day")
+    LiveData<List<DailyRestaurantStats>> getDays(String restaurantId, String fromDay, String toDay);
+
+    @Query(TOTALS + "WHERE restaurantId = :restaurantId AND day BETWEEN :fromDay AND :toDay")
+    LiveData<StatsTotals> getTotals(String restaurantId, String fromDay, String toDay);
+
+    @Query(TOTALS + "WHERE restaurantId IN (:restaurantIds) AND day BETWEEN :fromDay AND :toDay")
+    LiveData<StatsTotals> getTotalsForRestaurants(List<String> restaurantIds, String fromDay, String toDay);
+
+    // Every restaurant, e.g. the admin dashboard
+    @Query(TOTALS + "WHERE day BETWEEN :fromDay AND :toDay")
+    StatsTotals getAllTotalsSync(String fromDay, String toDay);
+
+    @Query("DELETE FROM daily_restaurant_stats")
+    void deleteAll();
+
+    @Query(REBUILD)
+    void insertFromOrders();
+
+    // Recomputes every row from the orders table, e.g. after the device's time zone changed
+    @Transaction
+    default void rebuild() {
+        deleteAll();
+        insertFromOrders();
+    }
+}
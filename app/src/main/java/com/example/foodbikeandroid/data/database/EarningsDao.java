@@ -0,0 +1,22 @@
+package com.example.foodbikeandroid.data.database;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.foodbikeandroid.data.model.EarningsEntry;
+
+import java.util.List;
+
+@Dao
+public interface EarningsDao {
+
+    // Returns -1 if the entry was already recorded
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(EarningsEntry entry);
+
+    @Query("SELECT * FROM earnings_ledger WHERE collection = :collection AND accountId = :accountId ORDER BY createdAt DESC")
+    LiveData<List<EarningsEntry>> getEntries(String collection, String accountId);
+}
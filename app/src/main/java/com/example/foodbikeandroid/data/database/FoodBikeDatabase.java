@@ -7,16 +7,24 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.room.TypeConverters;
 
+import com.example.foodbikeandroid.data.model.DailyRestaurantStats;
+import com.example.foodbikeandroid.data.model.EarningsEntry;
+import com.example.foodbikeandroid.data.model.MenuItem;
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.PendingMutation;
 import com.example.foodbikeandroid.data.model.Restaurant;
 import com.example.foodbikeandroid.data.model.RestaurantApplication;
+import com.example.foodbikeandroid.data.model.RestaurantFts;
 import com.example.foodbikeandroid.data.model.User;
 import com.example.foodbikeandroid.data.model.AdminAction;
 import com.example.foodbikeandroid.data.model.Review;
+import com.example.foodbikeandroid.data.model.SyncState;
 
 import com.example.foodbikeandroid.data.model.Withdrawal;
 
-@Database(entities = {User.class, Restaurant.class, Order.class, RestaurantApplication.class, AdminAction.class, Review.class, Withdrawal.class}, version = 17, exportSchema = false)
+import java.util.List;
+
+@Database(entities = {User.class, Restaurant.class, RestaurantFts.class, MenuItem.class, Order.class, RestaurantApplication.class, AdminAction.class, Review.class, Withdrawal.class, SyncState.class, PendingMutation.class, EarningsEntry.class, DailyRestaurantStats.class}, version = 31, exportSchema = true)
 @TypeConverters(Converters.class)
 public abstract class FoodBikeDatabase extends RoomDatabase {
 
@@ -33,17 +41,26 @@ public abstract class FoodBikeDatabase extends RoomDatabase {
     public abstract AdminActionDao adminActionDao();
     public abstract ReviewDao reviewDao();
     public abstract WithdrawalDao withdrawalDao();
+    public abstract SyncStateDao syncStateDao();
+    public abstract PendingMutationDao pendingMutationDao();
+    public abstract EarningsDao earningsDao();
+    public abstract DailyStatsDao dailyStatsDao();
 
     public static FoodBikeDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (FoodBikeDatabase.class) {
                 if (INSTANCE == null) {
+                    // No prepackaged catalog (createFromAsset): the asset has to be exported from
+                    // a build at this schema version and refreshed with every migration, or the
+                    // first open fails. Fresh installs get the catalog from the first cloud sync.
                     INSTANCE = Room.databaseBuilder(
                             context.getApplicationContext(),
                             FoodBikeDatabase.class,
                             DATABASE_NAME
                     )
-                    .addMigrations(MIGRATION_8_9, MIGRATION_12_13, MIGRATION_14_15, MIGRATION_15_16, MIGRATION_16_17)
+                    .addMigrations(MIGRATIONS)
+                    .addCallback(PARTIAL_INDEX_CALLBACK)
+                    .addCallback(DAILY_STATS_CALLBACK)
                     .fallbackToDestructiveMigration()
                     .build();
                 }
@@ -95,4 +112,288 @@ public abstract class FoodBikeDatabase extends RoomDatabase {
             database.execSQL("ALTER TABLE orders ADD COLUMN isRefunded INTEGER NOT NULL DEFAULT 0");
         }
     };
+
+    public static final androidx.room.migration.Migration MIGRATION_17_18 = new androidx.room.migration.Migration(17, 18) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            // Composite indexes matching the OrderDao filters (must mirror @Index on Order)
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_userId_createdAt` ON `orders` (`userId`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_restaurantId_createdAt` ON `orders` (`restaurantId`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_bikerId_createdAt` ON `orders` (`bikerId`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_bikerId_status_deliveredAt` ON `orders` (`bikerId`, `status`, `deliveredAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_status_createdAt` ON `orders` (`status`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_district_status_createdAt` ON `orders` (`district`, `status`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_createdAt` ON `orders` (`createdAt`)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_18_19 = new androidx.room.migration.Migration(18, 19) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Move menus out of the restaurants.menuItems JSON column into menu_items
+            database.execSQL("CREATE TABLE IF NOT EXISTS `menu_items` (`id` TEXT NOT NULL, `restaurantId` TEXT NOT NULL, `name` TEXT, `description` TEXT, `price` REAL NOT NULL, `category` TEXT, `available` INTEGER NOT NULL, `position` INTEGER NOT NULL, PRIMARY KEY(`restaurantId`, `id`), FOREIGN KEY(`restaurantId`) REFERENCES `restaurants`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_menu_items_restaurantId` ON `menu_items` (`restaurantId`)");
+
+            try (android.database.Cursor cursor = database.query("SELECT id, menuItems FROM restaurants WHERE menuItems IS NOT NULL")) {
+                while (cursor.moveToNext()) {
+                    String restaurantId = cursor.getString(0);
+                    List<MenuItem> items = Converters.toMenuItemList(cursor.getString(1));
+                    if (items == null) continue;
+                    for (int i = 0; i < items.size(); i++) {
+                        MenuItem item = items.get(i);
+                        database.execSQL("INSERT OR REPLACE INTO menu_items (id, restaurantId, name, description, price, category, available, position) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                                new Object[]{item.getId(), restaurantId, item.getName(), item.getDescription(),
+                                        item.getPrice(), item.getCategory(), item.isAvailable() ? 1 : 0, i});
+                    }
+                }
+            }
+
+            // Rebuild restaurants without the menuItems column
+            database.execSQL("CREATE TABLE IF NOT EXISTS `restaurants_new` (`id` TEXT NOT NULL, `name` TEXT NOT NULL, `division` TEXT NOT NULL, `district` TEXT NOT NULL, `address` TEXT NOT NULL, `rating` REAL NOT NULL, `cuisineType` TEXT, `imageUrl` TEXT, `isOpen` INTEGER NOT NULL, `openingHours` TEXT, `createdAt` INTEGER NOT NULL, `earnings` REAL NOT NULL, PRIMARY KEY(`id`))");
+            database.execSQL("INSERT INTO restaurants_new (id, name, division, district, address, rating, cuisineType, imageUrl, isOpen, openingHours, createdAt, earnings) SELECT id, name, division, district, address, rating, cuisineType, imageUrl, isOpen, openingHours, createdAt, earnings FROM restaurants");
+            database.execSQL("DROP TABLE restaurants");
+            database.execSQL("ALTER TABLE restaurants_new RENAME TO restaurants");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_19_20 = new androidx.room.migration.Migration(19, 20) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // FTS4 index for restaurant search, plus the sync triggers Room generates for content tables
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `restaurants_fts` USING FTS4(`name` TEXT, `cuisineType` TEXT, tokenize=unicode61, content=`restaurants`)");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_restaurants_fts_BEFORE_UPDATE BEFORE UPDATE ON `restaurants` BEGIN DELETE FROM `restaurants_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_restaurants_fts_BEFORE_DELETE BEFORE DELETE ON `restaurants` BEGIN DELETE FROM `restaurants_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_restaurants_fts_AFTER_UPDATE AFTER UPDATE ON `restaurants` BEGIN INSERT INTO `restaurants_fts`(`docid`, `name`, `cuisineType`) VALUES (NEW.`rowid`, NEW.`name`, NEW.`cuisineType`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_restaurants_fts_AFTER_INSERT AFTER INSERT ON `restaurants` BEGIN INSERT INTO `restaurants_fts`(`docid`, `name`, `cuisineType`) VALUES (NEW.`rowid`, NEW.`name`, NEW.`cuisineType`); END");
+            database.execSQL("INSERT INTO restaurants_fts(restaurants_fts) VALUES ('rebuild')");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_20_21 = new androidx.room.migration.Migration(20, 21) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Delta sync: remote updatedAt per order plus a watermark per synced query
+            database.execSQL("ALTER TABLE orders ADD COLUMN updatedAt INTEGER");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `sync_state` (`queryKey` TEXT NOT NULL, `watermark` INTEGER NOT NULL, PRIMARY KEY(`queryKey`))");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_21_22 = new androidx.room.migration.Migration(21, 22) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Write-behind outbox
+            database.execSQL("CREATE TABLE IF NOT EXISTS `pending_mutations` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `idempotencyKey` TEXT NOT NULL, `collection` TEXT NOT NULL, `documentId` TEXT NOT NULL, `type` TEXT NOT NULL, `mergeFields` TEXT, `createdAt` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, `nextAttemptAt` INTEGER NOT NULL, `lastError` TEXT, `failed` INTEGER NOT NULL)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_pending_mutations_idempotencyKey` ON `pending_mutations` (`idempotencyKey`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_pending_mutations_failed_nextAttemptAt` ON `pending_mutations` (`failed`, `nextAttemptAt`)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_22_23 = new androidx.room.migration.Migration(22, 23) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Earnings move by server-side increments recorded in a local ledger
+            database.execSQL("ALTER TABLE pending_mutations ADD COLUMN incrementBy REAL NOT NULL DEFAULT 0");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `earnings_ledger` (`entryKey` TEXT NOT NULL, `collection` TEXT NOT NULL, `accountId` TEXT NOT NULL, `amount` REAL NOT NULL, `createdAt` INTEGER NOT NULL, PRIMARY KEY(`entryKey`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_earnings_ledger_collection_accountId` ON `earnings_ledger` (`collection`, `accountId`)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_23_24 = new androidx.room.migration.Migration(23, 24) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Review lists sorted by rating or date within a restaurant
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_reviews_restaurantId_rating_createdAt` ON `reviews` (`restaurantId`, `rating`, `createdAt`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_reviews_restaurantId_createdAt` ON `reviews` (`restaurantId`, `createdAt`)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_24_25 = new androidx.room.migration.Migration(24, 25) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+
+            // Running rating totals and star histogram, seeded from the reviews cached so far
+            database.execSQL("ALTER TABLE restaurants ADD COLUMN ratingSum INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE restaurants ADD COLUMN ratingCount INTEGER NOT NULL DEFAULT 0");
+            for (int stars = 1; stars <= 5; stars++) {
+                database.execSQL("ALTER TABLE restaurants ADD COLUMN rating" + stars + "Count INTEGER NOT NULL DEFAULT 0");
+            }
+            database.execSQL("UPDATE restaurants SET "
+                    + "ratingSum = (SELECT COALESCE(SUM(rating), 0) FROM reviews WHERE restaurantId = restaurants.id), "
+                    + "ratingCount = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id), "
+                    + "rating1Count = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id AND rating = 1), "
+                    + "rating2Count = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id AND rating = 2), "
+                    + "rating3Count = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id AND rating = 3), "
+                    + "rating4Count = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id AND rating = 4), "
+                    + "rating5Count = (SELECT COUNT(*) FROM reviews WHERE restaurantId = restaurants.id AND rating = 5)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_25_26 = new androidx.room.migration.Migration(25, 26) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            dropDailyStatsTriggers(database);
+
+            // Per-restaurant daily rollup for the dashboards, seeded from the orders already stored
+            database.execSQL("CREATE TABLE IF NOT EXISTS `daily_restaurant_stats` (`restaurantId` TEXT NOT NULL, `day` TEXT NOT NULL, `orders` INTEGER NOT NULL, `revenue` REAL NOT NULL, `cancellations` INTEGER NOT NULL, `refunds` INTEGER NOT NULL, PRIMARY KEY(`restaurantId`, `day`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_daily_restaurant_stats_day` ON `daily_restaurant_stats` (`day`)");
+            database.execSQL(DailyStatsDao.REBUILD);
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_26_27 = new androidx.room.migration.Migration(26, 27) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            dropDailyStatsTriggers(database);
+
+            // Duplicated by partial_orders_biker_active for the only query that ranged on it
+            database.execSQL("DROP INDEX IF EXISTS `index_orders_bikerId_createdAt`");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_27_28 = new androidx.room.migration.Migration(27, 28) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            dropDailyStatsTriggers(database);
+
+            // Lowest-rated first sorts createdAt DESC within each rating, which the ascending index can't give
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_reviews_restaurantId_rating_createdAt_desc` ON `reviews` (`restaurantId` ASC, `rating` ASC, `createdAt` DESC)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_28_29 = new androidx.room.migration.Migration(28, 29) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            dropDailyStatsTriggers(database);
+
+            // Local totals may lack the older reviews; rating stays the stored average until
+            // the server's backfilled totals arrive with the next restaurant sync
+            database.execSQL("ALTER TABLE restaurants ADD COLUMN ratingTotalsComplete INTEGER NOT NULL DEFAULT 0");
+
+            // One increment may carry several counters, so amounts become a list beside mergeFields
+            database.execSQL("CREATE TABLE IF NOT EXISTS `pending_mutations_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `idempotencyKey` TEXT NOT NULL, `collection` TEXT NOT NULL, `documentId` TEXT NOT NULL, `type` TEXT NOT NULL, `mergeFields` TEXT, `incrementAmounts` TEXT, `createdAt` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, `nextAttemptAt` INTEGER NOT NULL, `lastError` TEXT, `failed` INTEGER NOT NULL)");
+            database.execSQL("INSERT INTO pending_mutations_new (id, idempotencyKey, collection, documentId, type, mergeFields, incrementAmounts, createdAt, attempts, nextAttemptAt, lastError, failed) "
+                    + "SELECT id, idempotencyKey, collection, documentId, type, mergeFields, "
+                    + "CASE WHEN type = 'INCREMENT' THEN CAST(incrementBy AS TEXT) END, "
+                    + "createdAt, attempts, nextAttemptAt, lastError, failed FROM pending_mutations");
+            database.execSQL("DROP TABLE pending_mutations");
+            database.execSQL("ALTER TABLE pending_mutations_new RENAME TO pending_mutations");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_pending_mutations_idempotencyKey` ON `pending_mutations` (`idempotencyKey`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_pending_mutations_failed_nextAttemptAt` ON `pending_mutations` (`failed`, `nextAttemptAt`)");
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_29_30 = new androidx.room.migration.Migration(29, 30) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            // The daily stats triggers are recreated on open without HAVING, which older SQLite rejects
+            dropDailyStatsTriggers(database);
+        }
+    };
+
+    public static final androidx.room.migration.Migration MIGRATION_30_31 = new androidx.room.migration.Migration(30, 31) {
+        @Override
+        public void migrate(androidx.sqlite.db.SupportSQLiteDatabase database) {
+            dropPartialIndexes(database);
+            dropDailyStatsTriggers(database);
+            // Order history is paged in from a stored cursor. Existing rows start incomplete,
+            // so queries whose first sync kept only the newest page fetch the rest
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN historyCursorTime INTEGER");
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN historyCursorId TEXT");
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN historyComplete INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN historySyncedAt INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    // Declared after the migrations it lists, which static initialisation needs. The
+    // migration test runs the same array, so a migration missing here fails it.
+    static final androidx.room.migration.Migration[] MIGRATIONS = {
+            MIGRATION_8_9, MIGRATION_12_13, MIGRATION_14_15, MIGRATION_15_16, MIGRATION_16_17, MIGRATION_17_18,
+            MIGRATION_18_19, MIGRATION_19_20, MIGRATION_20_21, MIGRATION_21_22, MIGRATION_22_23, MIGRATION_23_24,
+            MIGRATION_24_25, MIGRATION_25_26, MIGRATION_26_27, MIGRATION_27_28, MIGRATION_28_29, MIGRATION_29_30,
+            MIGRATION_30_31
+    };
+
+    // Partial indexes cannot be declared through @Index, and Room's post-migration schema
+    // check rejects indexes it doesn't know about. They are therefore (re)created on open,
+    // and every later migration must call dropPartialIndexes() first.
+    private static final RoomDatabase.Callback PARTIAL_INDEX_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@androidx.annotation.NonNull androidx.sqlite.db.SupportSQLiteDatabase db) {
+            createPartialIndexes(db);
+        }
+    };
+
+    static void createPartialIndexes(androidx.sqlite.db.SupportSQLiteDatabase db) {
+        // Biker "my deliveries": bikerId = ? AND (status = 'PREPARING' OR status = 'READY')
+        db.execSQL("CREATE INDEX IF NOT EXISTS `partial_orders_biker_active` ON `orders` (`bikerId`, `createdAt`) WHERE (status = 'PREPARING' OR status = 'READY')");
+    }
+
+    static void dropPartialIndexes(androidx.sqlite.db.SupportSQLiteDatabase db) {
+        db.execSQL("DROP INDEX IF EXISTS `partial_orders_biker_active`");
+    }
+
+    // daily_restaurant_stats is maintained by triggers, which Room has no annotation for.
+    // Like the partial indexes they are (re)created on open; a migration that touches
+    // orders or the rollup drops them first. Each trigger recomputes the affected
+    // (restaurant, day) row from orders instead of applying a delta, so REPLACE inserts
+    // from sync, whose implicit delete fires no trigger, can't count an order twice.
+    private static final RoomDatabase.Callback DAILY_STATS_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@androidx.annotation.NonNull androidx.sqlite.db.SupportSQLiteDatabase db) {
+            createDailyStatsTriggers(db);
+        }
+    };
+
+    static void createDailyStatsTriggers(androidx.sqlite.db.SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_stats_order_insert` AFTER INSERT ON `orders` BEGIN "
+                + recomputeDailyStats("NEW") + " END");
+        // Only changes that move a figure; acceptance, pickup and the like leave the row alone
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_stats_order_update` AFTER UPDATE ON `orders` "
+                + "WHEN OLD.status IS NOT NEW.status OR OLD.totalPrice IS NOT NEW.totalPrice "
+                + "OR OLD.isRefunded IS NOT NEW.isRefunded OR OLD.restaurantId IS NOT NEW.restaurantId "
+                + "OR OLD.createdAt IS NOT NEW.createdAt BEGIN "
+                + recomputeDailyStats("OLD") + " " + recomputeDailyStats("NEW") + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_stats_order_delete` AFTER DELETE ON `orders` BEGIN "
+                + recomputeDailyStats("OLD") + " END");
+    }
+
+    static void dropDailyStatsTriggers(androidx.sqlite.db.SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS `daily_stats_order_insert`");
+        db.execSQL("DROP TRIGGER IF EXISTS `daily_stats_order_update`");
+        db.execSQL("DROP TRIGGER IF EXISTS `daily_stats_order_delete`");
+    }
+
+    // Rewrites the row's (restaurant, day) bucket. Delete-then-insert rather than INSERT OR
+    // REPLACE: trigger statements take the outer statement's conflict policy, and Room's
+    // writes are OR ABORT. The +/- 2 day createdAt window keeps the scan on the
+    // (restaurantId, createdAt) index; the date() check then picks the local day.
+    // GROUP BY makes a bucket with no orders left produce no row; HAVING without it
+    // needs SQLite 3.39 (API 34), while API 24 ships 3.9.
+    private static String recomputeDailyStats(String row) {
+        String day = "date(" + row + ".createdAt / 1000, 'unixepoch', 'localtime')";
+        return "DELETE FROM daily_restaurant_stats WHERE restaurantId = " + row + ".restaurantId AND day = " + day + "; "
+                + "INSERT INTO daily_restaurant_stats (restaurantId, day, orders, revenue, cancellations, refunds) "
+                + "SELECT " + row + ".restaurantId, " + day + ", " + DailyStatsDao.STATS_COLUMNS
+                + " FROM orders WHERE restaurantId = " + row + ".restaurantId"
+                + " AND createdAt BETWEEN " + row + ".createdAt - 172800000 AND " + row + ".createdAt + 172800000"
+                + " AND " + DailyStatsDao.ORDER_DAY + " = " + day + " GROUP BY restaurantId;";
+    }
 }
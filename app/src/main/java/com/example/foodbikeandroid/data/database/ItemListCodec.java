@@ -0,0 +1,614 @@
+package com.example.foodbikeandroid.data.database;
+
+import com.example.foodbikeandroid.data.model.CartItem;
+import com.example.foodbikeandroid.data.model.MenuItem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming codec for the MenuItem / CartItem list columns.
+ *
+ * Version 2 rows are a positional array led by the format version:
+ *   [2,["id","name","description",price,"category",available,quantity],...]
+ * Legacy rows written by the old org.json converters are an array of objects:
+ *   [{"id":"..","name":"..",...,"quantity":1},...]
+ * The decoder peeks at the first element and reads either layout.
+ *
+ * A row that is malformed or written by a newer version throws rather than decoding to
+ * a short list: the entity would otherwise be saved back with its items missing.
+ *
+ * The JSON reader and writer are the small ones below rather than android.util's, so the
+ * codec has no framework dependency and runs in plain JVM tests.
+ */
+final class ItemListCodec {
+
+    static final int VERSION = 2;
+
+    private ItemListCodec() {
+    }
+
+    static String encodeMenuItems(List<MenuItem> items) {
+        if (items == null) return null;
+        JsonWriter writer = new JsonWriter(items.size() * 64 + 4);
+        writer.beginArray();
+        writer.value(VERSION);
+        for (MenuItem item : items) {
+            writer.beginArray();
+            writeMenuItemFields(writer, item);
+            writer.endArray();
+        }
+        writer.endArray();
+        return writer.toString();
+    }
+
+    static String encodeCartItems(List<CartItem> items) {
+        if (items == null) return null;
+        JsonWriter writer = new JsonWriter(items.size() * 64 + 4);
+        writer.beginArray();
+        writer.value(VERSION);
+        for (CartItem cartItem : items) {
+            writer.beginArray();
+            writeMenuItemFields(writer, cartItem.getMenuItem());
+            writer.value(cartItem.getQuantity());
+            writer.endArray();
+        }
+        writer.endArray();
+        return writer.toString();
+    }
+
+    static List<MenuItem> decodeMenuItems(String value) {
+        if (value == null) return null;
+        List<MenuItem> items = new ArrayList<>();
+        try {
+            JsonReader reader = new JsonReader(value);
+            reader.beginArray();
+            boolean positional = readVersion(reader);
+            while (reader.hasNext()) {
+                if (positional) {
+                    reader.beginArray();
+                    items.add(readMenuItemFields(reader, items.size()));
+                    skipRemaining(reader);
+                    reader.endArray();
+                } else {
+                    items.add(readLegacyItem(reader, items.size(), null));
+                }
+            }
+            reader.endArray();
+            reader.endDocument();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw unreadable(value, e);
+        }
+        return items;
+    }
+
+    static List<CartItem> decodeCartItems(String value) {
+        if (value == null) return null;
+        List<CartItem> items = new ArrayList<>();
+        try {
+            JsonReader reader = new JsonReader(value);
+            reader.beginArray();
+            boolean positional = readVersion(reader);
+            while (reader.hasNext()) {
+                if (positional) {
+                    reader.beginArray();
+                    MenuItem menuItem = readMenuItemFields(reader, items.size());
+                    int quantity = reader.nextInt();
+                    skipRemaining(reader);
+                    reader.endArray();
+                    items.add(new CartItem(menuItem, quantity));
+                } else {
+                    int[] quantity = new int[1];
+                    MenuItem menuItem = readLegacyItem(reader, items.size(), quantity);
+                    items.add(new CartItem(menuItem, quantity[0]));
+                }
+            }
+            reader.endArray();
+            reader.endDocument();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw unreadable(value, e);
+        }
+        return items;
+    }
+
+    private static IllegalArgumentException unreadable(String value, Exception cause) {
+        return new IllegalArgumentException("Unreadable item list of " + value.length() + " chars: "
+                + cause.getMessage(), cause);
+    }
+
+    // Consumes the version marker if present; returns true for the positional layout
+    private static boolean readVersion(JsonReader reader) throws IOException {
+        if (reader.hasNext() && reader.peek() == JsonToken.NUMBER) {
+            int version = reader.nextInt();
+            if (version > VERSION) {
+                throw new IllegalStateException("Unsupported item list version " + version);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void writeMenuItemFields(JsonWriter writer, MenuItem item) {
+        writer.value(item.getId());
+        writer.value(item.getName());
+        writer.value(item.getDescription());
+        writer.value(item.getPrice());
+        writer.value(item.getCategory());
+        writer.value(item.isAvailable());
+    }
+
+    private static MenuItem readMenuItemFields(JsonReader reader, int index) throws IOException {
+        String id = nextNullableString(reader);
+        String name = nextNullableString(reader);
+        String description = nextNullableString(reader);
+        double price = reader.nextDouble();
+        String category = nextNullableString(reader);
+        boolean available = reader.nextBoolean();
+        return new MenuItem(id != null ? id : fallbackId(index), name, description, price, category, available);
+    }
+
+    private static MenuItem readLegacyItem(JsonReader reader, int index, int[] quantityOut) throws IOException {
+        String id = null;
+        String name = null;
+        String description = null;
+        double price = 0;
+        String category = null;
+        boolean available = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = nextNullableString(reader);
+                    break;
+                case "name":
+                    name = nextNullableString(reader);
+                    break;
+                case "description":
+                    description = nextNullableString(reader);
+                    break;
+                case "price":
+                    price = reader.nextDouble();
+                    break;
+                case "category":
+                    category = nextNullableString(reader);
+                    break;
+                case "available":
+                    available = reader.nextBoolean();
+                    break;
+                case "quantity":
+                    if (quantityOut != null) {
+                        quantityOut[0] = reader.nextInt();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new MenuItem(id != null ? id : fallbackId(index), name, description, price, category, available);
+    }
+
+    private static String nextNullableString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    // Fields appended by newer writers are ignored
+    private static void skipRemaining(JsonReader reader) throws IOException {
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+    }
+
+    // Stable across reads, unlike the old time-based fallback
+    private static String fallbackId(int index) {
+        return "ITEM_" + index;
+    }
+
+    enum JsonToken {
+        BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // Minimal JSON writer for the two list layouts; separators are inserted automatically
+    static final class JsonWriter {
+        private final StringBuilder out;
+        private boolean needsComma;
+
+        JsonWriter(int capacity) {
+            out = new StringBuilder(capacity);
+        }
+
+        void beginArray() {
+            separate();
+            out.append('[');
+            needsComma = false;
+        }
+
+        void endArray() {
+            out.append(']');
+            needsComma = true;
+        }
+
+        void value(String value) {
+            separate();
+            if (value == null) {
+                out.append("null");
+            } else {
+                writeString(value);
+            }
+            needsComma = true;
+        }
+
+        void value(long value) {
+            separate();
+            out.append(value);
+            needsComma = true;
+        }
+
+        void value(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+            }
+            separate();
+            out.append(value);
+            needsComma = true;
+        }
+
+        void value(boolean value) {
+            separate();
+            out.append(value);
+            needsComma = true;
+        }
+
+        private void separate() {
+            if (needsComma) out.append(',');
+        }
+
+        private void writeString(String value) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        out.append('\\').append(c);
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    default:
+                        // Control characters, and the separators JavaScript treats as line breaks
+                        if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('"');
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+
+    // Strict pull reader over one JSON document: separators are checked against the
+    // enclosing array or object, and anything after the top-level value is an error.
+    static final class JsonReader {
+        private static final int EMPTY_DOCUMENT = 0;
+        private static final int NONEMPTY_DOCUMENT = 1;
+        private static final int EMPTY_ARRAY = 2;
+        private static final int NONEMPTY_ARRAY = 3;
+        private static final int EMPTY_OBJECT = 4;
+        private static final int DANGLING_NAME = 5;
+        private static final int NONEMPTY_OBJECT = 6;
+
+        private final String in;
+        private int pos;
+        private int[] stack = new int[8];
+        private int depth = 1;
+        // Set once peek() has consumed the separator before the next token
+        private JsonToken peeked;
+
+        JsonReader(String in) {
+            this.in = in;
+            stack[0] = EMPTY_DOCUMENT;
+        }
+
+        JsonToken peek() throws IOException {
+            if (peeked != null) return peeked;
+            skipWhitespace();
+            switch (stack[depth - 1]) {
+                case NONEMPTY_ARRAY:
+                    if (at(']')) return peeked = JsonToken.END_ARRAY;
+                    consume(',');
+                    return peeked = valueToken();
+                case EMPTY_ARRAY:
+                    if (at(']')) return peeked = JsonToken.END_ARRAY;
+                    return peeked = valueToken();
+                case NONEMPTY_OBJECT:
+                    if (at('}')) return peeked = JsonToken.END_OBJECT;
+                    consume(',');
+                    return peeked = nameToken();
+                case EMPTY_OBJECT:
+                    if (at('}')) return peeked = JsonToken.END_OBJECT;
+                    return peeked = nameToken();
+                case DANGLING_NAME:
+                    consume(':');
+                    return peeked = valueToken();
+                case NONEMPTY_DOCUMENT:
+                    if (pos < in.length()) throw syntaxError("Unexpected data after the document");
+                    return peeked = JsonToken.END_DOCUMENT;
+                case EMPTY_DOCUMENT:
+                default:
+                    return peeked = valueToken();
+            }
+        }
+
+        boolean hasNext() throws IOException {
+            JsonToken token = peek();
+            return token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT
+                    && token != JsonToken.END_DOCUMENT;
+        }
+
+        void beginArray() throws IOException {
+            expect(JsonToken.BEGIN_ARRAY);
+            pos++;
+            push(EMPTY_ARRAY);
+        }
+
+        void endArray() throws IOException {
+            expect(JsonToken.END_ARRAY);
+            pos++;
+            depth--;
+        }
+
+        void beginObject() throws IOException {
+            expect(JsonToken.BEGIN_OBJECT);
+            pos++;
+            push(EMPTY_OBJECT);
+        }
+
+        void endObject() throws IOException {
+            expect(JsonToken.END_OBJECT);
+            pos++;
+            depth--;
+        }
+
+        void endDocument() throws IOException {
+            expect(JsonToken.END_DOCUMENT);
+        }
+
+        String nextName() throws IOException {
+            int scope = stack[depth - 1];
+            if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) throw syntaxError("Expected a value");
+            expect(JsonToken.STRING);
+            String name = readString();
+            stack[depth - 1] = DANGLING_NAME;
+            return name;
+        }
+
+        String nextString() throws IOException {
+            expect(JsonToken.STRING);
+            consumeValue();
+            return readString();
+        }
+
+        double nextDouble() throws IOException {
+            expect(JsonToken.NUMBER);
+            consumeValue();
+            int start = pos;
+            while (pos < in.length() && "+-.eE0123456789".indexOf(in.charAt(pos)) >= 0) {
+                pos++;
+            }
+            return Double.parseDouble(in.substring(start, pos));
+        }
+
+        int nextInt() throws IOException {
+            double value = nextDouble();
+            int result = (int) value;
+            if (result != value) throw new NumberFormatException("Expected an int but was " + value);
+            return result;
+        }
+
+        boolean nextBoolean() throws IOException {
+            expect(JsonToken.BOOLEAN);
+            consumeValue();
+            if (in.startsWith("true", pos)) {
+                pos += 4;
+                return true;
+            }
+            if (in.startsWith("false", pos)) {
+                pos += 5;
+                return false;
+            }
+            throw syntaxError("Expected a boolean");
+        }
+
+        void nextNull() throws IOException {
+            expect(JsonToken.NULL);
+            consumeValue();
+            if (!in.startsWith("null", pos)) throw syntaxError("Expected null");
+            pos += 4;
+        }
+
+        void skipValue() throws IOException {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    while (hasNext()) skipValue();
+                    endArray();
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    while (hasNext()) {
+                        nextName();
+                        skipValue();
+                    }
+                    endObject();
+                    break;
+                case STRING:
+                    nextString();
+                    break;
+                case NUMBER:
+                    nextDouble();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw syntaxError("Expected a value");
+            }
+        }
+
+        private JsonToken valueToken() throws IOException {
+            skipWhitespace();
+            if (pos >= in.length()) throw syntaxError("Unexpected end of input");
+            char c = in.charAt(pos);
+            switch (c) {
+                case '[':
+                    return JsonToken.BEGIN_ARRAY;
+                case '{':
+                    return JsonToken.BEGIN_OBJECT;
+                case '"':
+                    return JsonToken.STRING;
+                case 't':
+                case 'f':
+                    return JsonToken.BOOLEAN;
+                case 'n':
+                    return JsonToken.NULL;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) return JsonToken.NUMBER;
+                    throw syntaxError("Unexpected character '" + c + "'");
+            }
+        }
+
+        private JsonToken nameToken() throws IOException {
+            skipWhitespace();
+            if (!at('"')) throw syntaxError("Expected a name");
+            return JsonToken.STRING;
+        }
+
+        // Marks the enclosing array, object member or document as holding a value
+        private void consumeValue() {
+            int scope = stack[depth - 1];
+            if (scope == EMPTY_ARRAY) {
+                stack[depth - 1] = NONEMPTY_ARRAY;
+            } else if (scope == DANGLING_NAME) {
+                stack[depth - 1] = NONEMPTY_OBJECT;
+            } else if (scope == EMPTY_DOCUMENT) {
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+            }
+        }
+
+        private void push(int scope) {
+            consumeValue();
+            if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+            stack[depth++] = scope;
+        }
+
+        // The opening quote is at pos
+        private String readString() throws IOException {
+            pos++;
+            StringBuilder value = null;
+            int start = pos;
+            while (pos < in.length()) {
+                char c = in.charAt(pos);
+                if (c == '"') {
+                    String result = value == null
+                            ? in.substring(start, pos)
+                            : value.append(in, start, pos).toString();
+                    pos++;
+                    return result;
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (value == null) value = new StringBuilder();
+                value.append(in, start, pos);
+                pos++;
+                if (pos >= in.length()) break;
+                char escaped = in.charAt(pos++);
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > in.length()) throw syntaxError("Unterminated escape");
+                        value.append((char) Integer.parseInt(in.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    case '"':
+                    case '\\':
+                    case '/':
+                        value.append(escaped);
+                        break;
+                    default:
+                        throw syntaxError("Invalid escape '\\" + escaped + "'");
+                }
+                start = pos;
+            }
+            throw syntaxError("Unterminated string");
+        }
+
+        private void expect(JsonToken expected) throws IOException {
+            JsonToken actual = peek();
+            if (actual != expected) throw syntaxError("Expected " + expected + " but was " + actual);
+            peeked = null;
+        }
+
+        private boolean at(char c) {
+            return pos < in.length() && in.charAt(pos) == c;
+        }
+
+        private void consume(char c) throws IOException {
+            if (!at(c)) throw syntaxError("Expected '" + c + "'");
+            pos++;
+            skipWhitespace();
+        }
+
+        private void skipWhitespace() {
+            while (pos < in.length()) {
+                char c = in.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+                pos++;
+            }
+        }
+
+        private IOException syntaxError(String message) {
+            return new IOException(message + " at offset " + pos);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 
 import java.util.List;
@@ -16,9 +18,19 @@ import java.util.List;
 @Dao
 public interface OrderDao {
 
+    // Orders with the names list rows show. Both tables share column names with orders
+    // (district, createdAt), so the row queries below qualify every order column.
+    String LIST_ROW = "SELECT orders.*, restaurants.name AS restaurantName, users.username AS customerName "
+            + "FROM orders LEFT JOIN restaurants ON restaurants.id = orders.restaurantId "
+            + "LEFT JOIN users ON users.username = orders.userId ";
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertOrder(Order order);
 
+    // One transaction and one invalidation for a whole sync batch
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOrders(List<Order> orders);
+
     @Update
     void updateOrder(Order order);
 
@@ -46,11 +58,34 @@ public interface OrderDao {
     @Query("SELECT * FROM orders WHERE district = :district AND status = :status ORDER BY createdAt DESC")
     LiveData<List<Order>> getOrdersByDistrictAndStatus(String district, OrderStatus status);
 
+    @Query("SELECT * FROM orders WHERE district IN (:districts) AND status = :status ORDER BY createdAt DESC")
+    LiveData<List<Order>> getOrdersByDistrictsAndStatus(List<String> districts, OrderStatus status);
+
+    // Orders that left the available feed: drop them unless this device has claimed them
+    @Query("DELETE FROM orders WHERE orderId IN (:orderIds) AND bikerId IS NULL AND status IN ('PENDING', 'READY')")
+    void deleteUnclaimedOrders(List<String> orderIds);
+
     @Query("SELECT * FROM orders ORDER BY createdAt DESC")
     LiveData<List<Order>> getAllOrders();
 
-    @Query("SELECT * FROM orders WHERE status = 'PENDING' AND createdAt < :threshold")
-    List<Order> getPendingOrdersOlderThan(long threshold);
+    @Query("SELECT orderId FROM orders WHERE status = 'PENDING' AND createdAt < :threshold")
+    List<String> getExpiredPendingOrderIds(long threshold);
+
+    @Query("UPDATE orders SET status = 'AUTO_CANCELLED' WHERE status = 'PENDING' AND createdAt < :threshold")
+    int cancelExpiredPendingOrders(long threshold);
+
+    // Android's SQLite predates UPDATE ... RETURNING, so the ids are read inside the same transaction
+    @Transaction
+    default List<String> autoCancelPendingOlderThan(long threshold) {
+        List<String> orderIds = getExpiredPendingOrderIds(threshold);
+        if (!orderIds.isEmpty()) {
+            cancelExpiredPendingOrders(threshold);
+        }
+        return orderIds;
+    }
+
+    @Query("SELECT MIN(createdAt) FROM orders WHERE status = 'PENDING'")
+    Long getOldestPendingCreatedAt();
 
     @Query("UPDATE orders SET status = :status WHERE orderId = :orderId")
     void updateOrderStatus(String orderId, OrderStatus status);
@@ -61,18 +96,9 @@ public interface OrderDao {
     @Query("UPDATE orders SET bikerId = :bikerId WHERE orderId = :orderId")
     void assignBiker(String orderId, String bikerId);
 
-    @Query("SELECT COUNT(*) FROM orders WHERE restaurantId = :restaurantId AND createdAt >= :startOfDay")
-    LiveData<Integer> getTodayOrderCountByRestaurant(String restaurantId, long startOfDay);
-
-    @Query("SELECT SUM(totalPrice) FROM orders WHERE restaurantId = :restaurantId AND createdAt >= :startOfDay AND status != 'CANCELLED' AND status != 'AUTO_CANCELLED'")
-    LiveData<Double> getTodayRevenueByRestaurant(String restaurantId, long startOfDay);
-
     @Query("SELECT COUNT(*) FROM orders WHERE bikerId = :bikerId AND createdAt >= :startOfDay AND status = 'DELIVERED'")
     LiveData<Integer> getTodayDeliveryCountByBiker(String bikerId, long startOfDay);
 
-    @Query("SELECT COUNT(*) FROM orders WHERE createdAt >= :timestamp")
-    int getOrderCountAfterTimestamp(long timestamp);
-
     @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND (status = 'PREPARING' OR status = 'READY') ORDER BY createdAt DESC")
     LiveData<List<Order>> getActiveOrdersByBiker(String bikerId);
 
@@ -103,8 +129,6 @@ public interface OrderDao {
     @Query("SELECT SUM(totalPrice) FROM orders WHERE bikerId = :bikerId AND status = 'DELIVERED' AND deliveredAt >= :startTime")
     LiveData<Double> getDeliveryValueByBikerAfter(String bikerId, long startTime);
 
-    @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND status = 'DELIVERED' ORDER BY deliveredAt DESC")
-    List<Order> getCompletedOrdersByBikerSync(String bikerId);
     
     @Query("SELECT * FROM orders WHERE status = :status")
     List<Order> getOrdersByStatusSync(OrderStatus status);
@@ -112,9 +136,108 @@ public interface OrderDao {
     @Query("UPDATE orders SET bikerId = :bikerId, status = :status, acceptedAt = :timestamp WHERE orderId = :orderId")
     int tryAcceptOrderAtomic(String orderId, String bikerId, OrderStatus status, long timestamp);
 
-    @Query("SELECT * FROM orders WHERE userId = :userId AND isRefunded = 1 ORDER BY createdAt DESC")
-    LiveData<List<Order>> getRefundedOrdersByUserId(String userId);
-
     @Query("UPDATE orders SET isRefunded = :isRefunded WHERE orderId = :orderId")
     void updateRefundStatus(String orderId, boolean isRefunded);
+
+    // Keyset pages: rows strictly before / after the (createdAt, orderId) cursor.
+    // The outer range term lets SQLite seek the (x, createdAt) indexes; row values need SQLite 3.15.
+    // "After" pages come back ascending and are reversed by OrderKeysetPagingSource.
+
+    @Query("SELECT * FROM orders WHERE userId = :userId AND status IN (:statuses) "
+            + "AND (:pattern IS NULL OR orderId LIKE :pattern ESCAPE '\\' "
+            + "OR restaurantId IN (SELECT id FROM restaurants WHERE name LIKE :pattern ESCAPE '\\')) "
+            + "AND createdAt <= :createdAt AND (createdAt < :createdAt OR orderId < :orderId) "
+            + "ORDER BY createdAt DESC, orderId DESC LIMIT :limit")
+    List<Order> getUserOrdersBefore(String userId, List<OrderStatus> statuses, String pattern,
+                                    long createdAt, String orderId, int limit);
+
+    @Query("SELECT * FROM orders WHERE userId = :userId AND status IN (:statuses) "
+            + "AND (:pattern IS NULL OR orderId LIKE :pattern ESCAPE '\\' "
+            + "OR restaurantId IN (SELECT id FROM restaurants WHERE name LIKE :pattern ESCAPE '\\')) "
+            + "AND createdAt >= :createdAt AND (createdAt > :createdAt OR orderId > :orderId) "
+            + "ORDER BY createdAt ASC, orderId ASC LIMIT :limit")
+    List<Order> getUserOrdersAfter(String userId, List<OrderStatus> statuses, String pattern,
+                                   long createdAt, String orderId, int limit);
+
+    @Query("SELECT COUNT(*) FROM orders WHERE userId = :userId AND status IN (:statuses) "
+            + "AND (:pattern IS NULL OR orderId LIKE :pattern ESCAPE '\\' "
+            + "OR restaurantId IN (SELECT id FROM restaurants WHERE name LIKE :pattern ESCAPE '\\'))")
+    LiveData<Integer> countUserOrders(String userId, List<OrderStatus> statuses, String pattern);
+
+    @Query("SELECT * FROM orders WHERE restaurantId = :restaurantId AND status IN (:statuses) "
+            + "AND createdAt <= :createdAt AND (createdAt < :createdAt OR orderId < :orderId) "
+            + "ORDER BY createdAt DESC, orderId DESC LIMIT :limit")
+    List<Order> getRestaurantOrdersBefore(String restaurantId, List<OrderStatus> statuses,
+                                          long createdAt, String orderId, int limit);
+
+    @Query("SELECT * FROM orders WHERE restaurantId = :restaurantId AND status IN (:statuses) "
+            + "AND createdAt >= :createdAt AND (createdAt > :createdAt OR orderId > :orderId) "
+            + "ORDER BY createdAt ASC, orderId ASC LIMIT :limit")
+    List<Order> getRestaurantOrdersAfter(String restaurantId, List<OrderStatus> statuses,
+                                         long createdAt, String orderId, int limit);
+
+    @Query("SELECT COUNT(*) FROM orders WHERE restaurantId = :restaurantId AND status IN (:statuses)")
+    LiveData<Integer> countRestaurantOrders(String restaurantId, List<OrderStatus> statuses);
+
+    @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND (status = 'PREPARING' OR status = 'READY') "
+            + "AND createdAt <= :createdAt AND (createdAt < :createdAt OR orderId < :orderId) "
+            + "ORDER BY createdAt DESC, orderId DESC LIMIT :limit")
+    List<Order> getActiveBikerOrdersBefore(String bikerId, long createdAt, String orderId, int limit);
+
+    @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND (status = 'PREPARING' OR status = 'READY') "
+            + "AND createdAt >= :createdAt AND (createdAt > :createdAt OR orderId > :orderId) "
+            + "ORDER BY createdAt ASC, orderId ASC LIMIT :limit")
+    List<Order> getActiveBikerOrdersAfter(String bikerId, long createdAt, String orderId, int limit);
+
+    @Query("SELECT COUNT(*) FROM orders WHERE bikerId = :bikerId AND (status = 'PREPARING' OR status = 'READY')")
+    LiveData<Integer> getActiveOrderCountByBiker(String bikerId);
+
+    // Completed deliveries keep their deliveredAt ordering, so the cursor is (deliveredAt, orderId)
+    @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND status = 'DELIVERED' "
+            + "AND deliveredAt <= :deliveredAt AND (deliveredAt < :deliveredAt OR orderId < :orderId) "
+            + "ORDER BY deliveredAt DESC, orderId DESC LIMIT :limit")
+    List<Order> getCompletedBikerOrdersBefore(String bikerId, long deliveredAt, String orderId, int limit);
+
+    @Query("SELECT * FROM orders WHERE bikerId = :bikerId AND status = 'DELIVERED' "
+            + "AND deliveredAt >= :deliveredAt AND (deliveredAt > :deliveredAt OR orderId > :orderId) "
+            + "ORDER BY deliveredAt ASC, orderId ASC LIMIT :limit")
+    List<Order> getCompletedBikerOrdersAfter(String bikerId, long deliveredAt, String orderId, int limit);
+
+    // Row variants of the queries above for screens that show restaurant and customer names
+
+    @Query(LIST_ROW + "WHERE orders.district = :district AND orders.status = :status ORDER BY orders.createdAt DESC")
+    LiveData<List<OrderListRow>> getOrderRowsByDistrictAndStatus(String district, OrderStatus status);
+
+    @Query(LIST_ROW + "WHERE orders.district IN (:districts) AND orders.status = :status ORDER BY orders.createdAt DESC")
+    LiveData<List<OrderListRow>> getOrderRowsByDistrictsAndStatus(List<String> districts, OrderStatus status);
+
+    @Query(LIST_ROW + "WHERE orders.bikerId = :bikerId AND orders.status = 'DELIVERED' ORDER BY orders.deliveredAt DESC")
+    LiveData<List<OrderListRow>> getCompletedOrderRowsByBiker(String bikerId);
+
+    @Query(LIST_ROW + "WHERE orders.bikerId = :bikerId AND orders.status = 'DELIVERED' "
+            + "AND orders.deliveredAt >= :startTime ORDER BY orders.deliveredAt DESC")
+    LiveData<List<OrderListRow>> getCompletedOrderRowsByBikerAfter(String bikerId, long startTime);
+
+    @Query(LIST_ROW + "WHERE orders.bikerId = :bikerId AND orders.status = 'DELIVERED' ORDER BY orders.deliveredAt DESC")
+    List<OrderListRow> getCompletedOrderRowsByBikerSync(String bikerId);
+
+    @Query(LIST_ROW + "WHERE orders.userId = :userId AND orders.isRefunded = 1 ORDER BY orders.createdAt DESC")
+    LiveData<List<OrderListRow>> getRefundedOrderRowsByUserId(String userId);
+
+    // Search matches the joined name directly instead of a restaurants subquery
+    @Query(LIST_ROW + "WHERE orders.userId = :userId AND orders.status IN (:statuses) "
+            + "AND (:pattern IS NULL OR orders.orderId LIKE :pattern ESCAPE '\\' "
+            + "OR restaurants.name LIKE :pattern ESCAPE '\\') "
+            + "AND orders.createdAt <= :createdAt AND (orders.createdAt < :createdAt OR orders.orderId < :orderId) "
+            + "ORDER BY orders.createdAt DESC, orders.orderId DESC LIMIT :limit")
+    List<OrderListRow> getUserOrderRowsBefore(String userId, List<OrderStatus> statuses, String pattern,
+                                              long createdAt, String orderId, int limit);
+
+    @Query(LIST_ROW + "WHERE orders.userId = :userId AND orders.status IN (:statuses) "
+            + "AND (:pattern IS NULL OR orders.orderId LIKE :pattern ESCAPE '\\' "
+            + "OR restaurants.name LIKE :pattern ESCAPE '\\') "
+            + "AND orders.createdAt >= :createdAt AND (orders.createdAt > :createdAt OR orders.orderId > :orderId) "
+            + "ORDER BY orders.createdAt ASC, orders.orderId ASC LIMIT :limit")
+    List<OrderListRow> getUserOrderRowsAfter(String userId, List<OrderStatus> statuses, String pattern,
+                                             long createdAt, String orderId, int limit);
 }
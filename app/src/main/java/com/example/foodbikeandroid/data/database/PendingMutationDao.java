@@ -0,0 +1,49 @@
+package com.example.foodbikeandroid.data.database;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.foodbikeandroid.data.model.PendingMutation;
+
+import java.util.List;
+
+@Dao
+public interface PendingMutationDao {
+
+    // A duplicate idempotency key keeps the mutation already queued
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    long insert(PendingMutation mutation);
+
+    // Oldest first, so a document's writes reach the server in the order they were made
+    @Query("SELECT * FROM pending_mutations WHERE failed = 0 AND nextAttemptAt <= :now ORDER BY id LIMIT :limit")
+    List<PendingMutation> getDue(long now, int limit);
+
+    @Query("SELECT MIN(nextAttemptAt) FROM pending_mutations WHERE failed = 0")
+    Long getNextAttemptAt();
+
+    @Query("DELETE FROM pending_mutations WHERE id IN (:ids)")
+    void deleteByIds(List<Long> ids);
+
+    @Query("UPDATE pending_mutations SET attempts = attempts + 1, nextAttemptAt = :nextAttemptAt, lastError = :error WHERE id IN (:ids)")
+    void markRetry(List<Long> ids, long nextAttemptAt, String error);
+
+    @Query("UPDATE pending_mutations SET attempts = attempts + 1, failed = 1, lastError = :error WHERE id IN (:ids)")
+    void markFailed(List<Long> ids, String error);
+
+    // Documents with local changes the server hasn't seen yet; sync must not overwrite them
+    @Query("SELECT DISTINCT documentId FROM pending_mutations WHERE collection = :collection AND failed = 0")
+    List<String> getPendingDocumentIds(String collection);
+
+    // Increments to this document queued locally but not yet applied on the server
+    @Query("SELECT * FROM pending_mutations WHERE collection = :collection AND documentId = :documentId AND type = 'INCREMENT' AND failed = 0")
+    List<PendingMutation> getPendingIncrements(String collection, String documentId);
+
+    @Query("SELECT COUNT(*) FROM pending_mutations WHERE failed = 0")
+    LiveData<Integer> getPendingCount();
+
+    @Query("SELECT COUNT(*) FROM pending_mutations WHERE failed = 1")
+    int getFailedCount();
+}
@@ -18,6 +18,9 @@ public interface RestaurantApplicationDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(RestaurantApplication application);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<RestaurantApplication> applications);
+
     @Update
     void update(RestaurantApplication application);
 
@@ -4,21 +4,31 @@ import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.MapInfo;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
+import com.example.foodbikeandroid.data.model.MenuItem;
+import com.example.foodbikeandroid.data.model.RatingSummary;
 import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.RestaurantSummary;
+import com.example.foodbikeandroid.data.model.RestaurantWithMenu;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Dao
 public interface RestaurantDao {
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    // Upsert instead of REPLACE: REPLACE deletes the old row, which cascades to menu_items
+    @Upsert
     void insert(Restaurant restaurant);
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Upsert
     void insertAll(List<Restaurant> restaurants);
 
     @Update
@@ -36,6 +46,18 @@ public interface RestaurantDao {
     @Query("SELECT * FROM restaurants WHERE id = :id")
     LiveData<Restaurant> getRestaurantById(String id);
 
+    @Query("SELECT * FROM restaurants WHERE name = :name LIMIT 1")
+    LiveData<Restaurant> getRestaurantByName(String name);
+
+    @Query("SELECT id, name, division, district, rating, cuisineType, isOpen FROM restaurants ORDER BY rating DESC")
+    LiveData<List<RestaurantSummary>> getAllRestaurantSummaries();
+
+    @Query("SELECT id, name, division, district, rating, cuisineType, isOpen FROM restaurants ORDER BY rating DESC")
+    List<RestaurantSummary> getAllRestaurantSummariesSync();
+
+    @Query("SELECT id, name, division, district, rating, cuisineType, isOpen FROM restaurants WHERE id = :id")
+    RestaurantSummary getRestaurantSummaryByIdSync(String id);
+
     @Query("SELECT * FROM restaurants WHERE id = :id")
     Restaurant getRestaurantByIdSync(String id);
 
@@ -48,13 +70,28 @@ public interface RestaurantDao {
     @Query("SELECT * FROM restaurants WHERE division = :division AND district = :district ORDER BY rating DESC")
     LiveData<List<Restaurant>> getRestaurantsByLocation(String division, String district);
 
-    @Query("SELECT * FROM restaurants WHERE name LIKE '%' || :query || '%' OR cuisineType LIKE '%' || :query || '%' ORDER BY rating DESC")
+    // :query is an FTS4 MATCH expression (see RestaurantRepository.toFtsQuery). Each term
+    // matches the start of a word, unlike the LIKE '%q%' search these replaced: "burger"
+    // finds "Burger Lab" and "Chillox Burgers" but no longer "Cheeseburger Corner".
+    // Name hits rank above cuisine-only hits: offsets() lists matches by column, name being column 0.
+    @Query("SELECT restaurants.* FROM restaurants JOIN restaurants_fts ON restaurants.rowid = restaurants_fts.docid " +
+            "WHERE restaurants_fts MATCH :query " +
+            "ORDER BY (substr(offsets(restaurants_fts), 1, 2) = '0 ') DESC, restaurants.rating DESC")
     LiveData<List<Restaurant>> searchRestaurants(String query);
 
-    @Query("SELECT * FROM restaurants WHERE (name LIKE '%' || :query || '%' OR cuisineType LIKE '%' || :query || '%') AND division = :division ORDER BY rating DESC")
+    @Query("SELECT restaurants.* FROM restaurants JOIN restaurants_fts ON restaurants.rowid = restaurants_fts.docid " +
+            "WHERE restaurants_fts MATCH :query AND restaurants.division = :division " +
+            "ORDER BY (substr(offsets(restaurants_fts), 1, 2) = '0 ') DESC, restaurants.rating DESC")
     LiveData<List<Restaurant>> searchRestaurantsInDivision(String query, String division);
 
-    @Query("SELECT * FROM restaurants WHERE (name LIKE '%' || :query || '%' OR cuisineType LIKE '%' || :query || '%') AND division = :division AND district = :district ORDER BY rating DESC")
+    @Query("SELECT restaurants.* FROM restaurants JOIN restaurants_fts ON restaurants.rowid = restaurants_fts.docid " +
+            "WHERE restaurants_fts MATCH :query AND restaurants.division = :division " +
+            "ORDER BY (substr(offsets(restaurants_fts), 1, 2) = '0 ') DESC, restaurants.rating DESC")
+    List<Restaurant> searchRestaurantsInDivisionSync(String query, String division);
+
+    @Query("SELECT restaurants.* FROM restaurants JOIN restaurants_fts ON restaurants.rowid = restaurants_fts.docid " +
+            "WHERE restaurants_fts MATCH :query AND restaurants.division = :division AND restaurants.district = :district " +
+            "ORDER BY (substr(offsets(restaurants_fts), 1, 2) = '0 ') DESC, restaurants.rating DESC")
     LiveData<List<Restaurant>> searchRestaurantsInLocation(String query, String division, String district);
 
     @Query("SELECT * FROM restaurants WHERE cuisineType = :cuisineType ORDER BY rating DESC")
@@ -69,12 +106,88 @@ public interface RestaurantDao {
     @Query("SELECT COUNT(*) FROM restaurants WHERE id LIKE :prefix || '%'")
     int getRestaurantCountByPrefix(String prefix);
 
-    @Query("UPDATE restaurants SET rating = :rating WHERE id = :restaurantId")
-    void updateRating(String restaurantId, double rating);
+    // Counts one review; SET terms read the old row, so rating is the new total over the new count.
+    // Until the totals hold the older reviews too, rating keeps the stored average
+    @Query("UPDATE restaurants SET ratingSum = ratingSum + :stars, ratingCount = ratingCount + 1, "
+            + "rating1Count = rating1Count + (:stars = 1), rating2Count = rating2Count + (:stars = 2), "
+            + "rating3Count = rating3Count + (:stars = 3), rating4Count = rating4Count + (:stars = 4), "
+            + "rating5Count = rating5Count + (:stars = 5), "
+            + "rating = CASE WHEN ratingTotalsComplete THEN CAST(ratingSum + :stars AS REAL) / (ratingCount + 1) "
+            + "ELSE rating END WHERE id = :restaurantId")
+    int addRating(String restaurantId, int stars);
+
+    // Null until the totals hold the restaurant's older reviews too
+    @Query("SELECT ratingSum, ratingCount, rating1Count, rating2Count, rating3Count, rating4Count, rating5Count "
+            + "FROM restaurants WHERE id = :restaurantId AND ratingTotalsComplete = 1")
+    RatingSummary getRatingSummary(String restaurantId);
+
+    @Query("SELECT ratingSum, ratingCount, rating1Count, rating2Count, rating3Count, rating4Count, rating5Count "
+            + "FROM restaurants WHERE id = :restaurantId AND ratingTotalsComplete = 1")
+    LiveData<RatingSummary> observeRatingSummary(String restaurantId);
 
     @Query("UPDATE restaurants SET earnings = earnings + :amount WHERE id = :restaurantId")
     void addEarnings(String restaurantId, double amount);
 
     @Query("DELETE FROM restaurants")
     void deleteAll();
+
+    @Transaction
+    @Query("SELECT * FROM restaurants WHERE id = :id")
+    LiveData<RestaurantWithMenu> getRestaurantWithMenu(String id);
+
+    @Transaction
+    @Query("SELECT * FROM restaurants WHERE id = :id")
+    RestaurantWithMenu getRestaurantWithMenuSync(String id);
+
+    @Query("SELECT * FROM menu_items WHERE restaurantId = :restaurantId ORDER BY position")
+    List<MenuItem> getMenuItemsSync(String restaurantId);
+
+    @MapInfo(keyColumn = "restaurantId", valueColumn = "itemCount")
+    @Query("SELECT restaurantId, COUNT(*) AS itemCount FROM menu_items GROUP BY restaurantId")
+    LiveData<Map<String, Integer>> getMenuItemCounts();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertMenuItems(List<MenuItem> menuItems);
+
+    @Query("DELETE FROM menu_items WHERE restaurantId = :restaurantId")
+    void deleteMenuItems(String restaurantId);
+
+    @Transaction
+    default void replaceMenu(String restaurantId, List<MenuItem> menuItems) {
+        deleteMenuItems(restaurantId);
+        if (menuItems == null || menuItems.isEmpty()) return;
+        for (int i = 0; i < menuItems.size(); i++) {
+            MenuItem item = menuItems.get(i);
+            if (item.getId() == null || item.getId().isEmpty()) {
+                item.setId(UUID.randomUUID().toString());
+            }
+            item.setRestaurantId(restaurantId);
+            item.setPosition(i);
+        }
+        insertMenuItems(menuItems);
+    }
+
+    // A null menu means "not loaded" and leaves the stored menu untouched
+    @Transaction
+    default void insertWithMenu(Restaurant restaurant) {
+        insert(restaurant);
+        if (restaurant.getMenuItems() != null) {
+            replaceMenu(restaurant.getId(), restaurant.getMenuItems());
+        }
+    }
+
+    @Transaction
+    default void insertAllWithMenus(List<Restaurant> restaurants) {
+        for (Restaurant restaurant : restaurants) {
+            insertWithMenu(restaurant);
+        }
+    }
+
+    @Transaction
+    default void updateWithMenu(Restaurant restaurant) {
+        update(restaurant);
+        if (restaurant.getMenuItems() != null) {
+            replaceMenu(restaurant.getId(), restaurant.getMenuItems());
+        }
+    }
 }
@@ -7,6 +7,7 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
 import com.example.foodbikeandroid.data.model.Review;
+import com.example.foodbikeandroid.data.model.ReviewWithUserInfo;
 
 import java.util.List;
 
@@ -16,6 +17,9 @@ public interface ReviewDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(Review review);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<Review> reviews);
+
     @Query("SELECT * FROM reviews WHERE restaurantId = :restaurantId ORDER BY createdAt DESC")
     LiveData<List<Review>> getByRestaurant(String restaurantId);
 
@@ -31,6 +35,9 @@ public interface ReviewDao {
     @Query("SELECT * FROM reviews WHERE orderId = :orderId LIMIT 1")
     Review getByOrderId(String orderId);
 
+    @Query("SELECT * FROM reviews WHERE reviewId = :reviewId")
+    Review getByIdSync(String reviewId);
+
     @Query("SELECT * FROM reviews WHERE orderId = :orderId LIMIT 1")
     LiveData<Review> getByOrderIdLiveData(String orderId);
 
@@ -54,4 +61,28 @@ public interface ReviewDao {
 
     @Query("SELECT * FROM reviews WHERE restaurantId = :restaurantId ORDER BY rating ASC, createdAt DESC")
     LiveData<List<Review>> getByRestaurantLowestRatedLiveData(String restaurantId);
+
+    // Reviews with their author in one query instead of a user lookup per review.
+    // LEFT JOIN keeps reviews whose author isn't cached locally.
+
+    String WITH_USER = "SELECT reviews.*, COALESCE(users.username, 'Anonymous') AS username FROM reviews "
+            + "LEFT JOIN users ON users.username = reviews.userId WHERE reviews.restaurantId = :restaurantId ";
+
+    @Query(WITH_USER + "ORDER BY reviews.createdAt DESC")
+    List<ReviewWithUserInfo> getWithUserNewest(String restaurantId);
+
+    @Query(WITH_USER + "ORDER BY reviews.rating DESC, reviews.createdAt DESC")
+    List<ReviewWithUserInfo> getWithUserHighestRated(String restaurantId);
+
+    @Query(WITH_USER + "ORDER BY reviews.rating ASC, reviews.createdAt DESC")
+    List<ReviewWithUserInfo> getWithUserLowestRated(String restaurantId);
+
+    @Query(WITH_USER + "ORDER BY reviews.createdAt DESC")
+    LiveData<List<ReviewWithUserInfo>> getWithUserNewestLiveData(String restaurantId);
+
+    @Query(WITH_USER + "ORDER BY reviews.rating DESC, reviews.createdAt DESC")
+    LiveData<List<ReviewWithUserInfo>> getWithUserHighestRatedLiveData(String restaurantId);
+
+    @Query(WITH_USER + "ORDER BY reviews.rating ASC, reviews.createdAt DESC")
+    LiveData<List<ReviewWithUserInfo>> getWithUserLowestRatedLiveData(String restaurantId);
 }
@@ -0,0 +1,17 @@
+package com.example.foodbikeandroid.data.database;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Upsert;
+
+import com.example.foodbikeandroid.data.model.SyncState;
+
+@Dao
+public interface SyncStateDao {
+
+    @Query("SELECT * FROM sync_state WHERE queryKey = :queryKey")
+    SyncState get(String queryKey);
+
+    @Upsert
+    void upsert(SyncState state);
+}
@@ -27,6 +27,9 @@ public interface UserDao {
     @Query("SELECT * FROM users WHERE username = :username LIMIT 1")
     LiveData<User> getUserByUsernameLive(String username);
 
+    @Query("SELECT * FROM users WHERE username IN (:usernames)")
+    List<User> getUsersByUsernames(List<String> usernames);
+
     @Query("SELECT * FROM users WHERE email = :email LIMIT 1")
     User getUserByEmail(String email);
 
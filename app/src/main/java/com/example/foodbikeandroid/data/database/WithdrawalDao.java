@@ -3,6 +3,7 @@ package com.example.foodbikeandroid.data.database;
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 
 import com.example.foodbikeandroid.data.model.Withdrawal;
@@ -14,6 +15,10 @@ public interface WithdrawalDao {
     @Insert
     void insert(Withdrawal withdrawal);
 
+    // Sync keeps rows that already exist locally, as the per-row insert did
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertAllIfAbsent(List<Withdrawal> withdrawals);
+
     @Query("SELECT * FROM withdrawals ORDER BY timestamp DESC")
     LiveData<List<Withdrawal>> getAllWithdrawals();
 
@@ -0,0 +1,145 @@
+package com.example.foodbikeandroid.data.dispatch;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contention counters for order claims. An attempt is one runTransaction call made by
+ * OrderClaimer; a run is one execution of the transaction function, so runs beyond
+ * attempts are the store re-running the function after a conflicting commit.
+ */
+public class DispatchMetrics {
+
+    // Upper bounds in milliseconds; the last bucket is everything slower
+    private static final long[] LATENCY_BOUNDS_MS = {25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong won = new AtomicLong();
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong transactionRuns = new AtomicLong();
+    private final AtomicLong aborts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLongArray latency = new AtomicLongArray(LATENCY_BOUNDS_MS.length + 1);
+
+    void attempt() {
+        attempts.incrementAndGet();
+    }
+
+    void transactionRun() {
+        transactionRuns.incrementAndGet();
+    }
+
+    // A transient failure of a whole attempt, e.g. ABORTED once the store gave up re-running
+    void abort() {
+        aborts.incrementAndGet();
+    }
+
+    void retry() {
+        retries.incrementAndGet();
+    }
+
+    void finished(OrderClaimer.Outcome outcome, long latencyMillis) {
+        claims.incrementAndGet();
+        switch (outcome) {
+            case WON:
+                won.incrementAndGet();
+                break;
+            case TAKEN:
+                taken.incrementAndGet();
+                break;
+            case NOT_FOUND:
+                notFound.incrementAndGet();
+                break;
+            case FAILED:
+                failed.incrementAndGet();
+                break;
+        }
+        totalLatencyMillis.addAndGet(latencyMillis);
+        latency.incrementAndGet(bucket(latencyMillis));
+    }
+
+    public Snapshot snapshot() {
+        long[] histogram = new long[latency.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = latency.get(i);
+        }
+        return new Snapshot(claims.get(), won.get(), taken.get(), notFound.get(), failed.get(), attempts.get(),
+                transactionRuns.get(), aborts.get(), retries.get(), totalLatencyMillis.get(), histogram);
+    }
+
+    private static int bucket(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (latencyMillis <= LATENCY_BOUNDS_MS[i]) return i;
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+
+    public static final class Snapshot {
+        public final long claims;
+        public final long won;
+        // Another biker had the order by the time this claim read it
+        public final long taken;
+        public final long notFound;
+        // Gave up: permanent error or out of retries
+        public final long failed;
+        public final long attempts;
+        public final long transactionRuns;
+        public final long aborts;
+        public final long retries;
+        private final long totalLatencyMillis;
+        private final long[] latency;
+
+        Snapshot(long claims, long won, long taken, long notFound, long failed, long attempts,
+                 long transactionRuns, long aborts, long retries, long totalLatencyMillis, long[] latency) {
+            this.claims = claims;
+            this.won = won;
+            this.taken = taken;
+            this.notFound = notFound;
+            this.failed = failed;
+            this.attempts = attempts;
+            this.transactionRuns = transactionRuns;
+            this.aborts = aborts;
+            this.retries = retries;
+            this.totalLatencyMillis = totalLatencyMillis;
+            this.latency = latency;
+        }
+
+        // Transaction functions re-run by the store because another commit got in first
+        public long getConflicts() {
+            return Math.max(0, transactionRuns - attempts);
+        }
+
+        public long getAverageLatencyMillis() {
+            return claims > 0 ? totalLatencyMillis / claims : -1;
+        }
+
+        // Upper bound of the bucket holding the percentile, Long.MAX_VALUE past the last one
+        public long percentileMillis(int percentile) {
+            if (claims == 0) return -1;
+            long target = (long) Math.ceil(percentile / 100.0 * claims);
+            long seen = 0;
+            for (int i = 0; i < latency.length; i++) {
+                seen += latency[i];
+                if (seen >= target) {
+                    return i < LATENCY_BOUNDS_MS.length ? LATENCY_BOUNDS_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "dispatch{claims=" + claims + ", won=" + won + ", taken=" + taken + ", notFound=" + notFound
+                    + ", failed=" + failed + ", attempts=" + attempts + ", conflicts=" + getConflicts()
+                    + ", aborts=" + aborts + ", retries=" + retries + ", avgMs=" + getAverageLatencyMillis()
+                    + ", p50<=" + percentileMillis(50) + "ms, p95<=" + percentileMillis(95) + "ms}";
+        }
+    }
+}
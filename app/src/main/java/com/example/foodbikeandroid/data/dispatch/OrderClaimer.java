@@ -0,0 +1,155 @@
+package com.example.foodbikeandroid.data.dispatch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderStatus;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims a pending order for a biker with one transaction on the order document.
+ *
+ * Losing the race is an answer, not an error: the transaction returns TAKEN as soon as
+ * it reads an order that already has a biker. Only transient failures (the store giving
+ * up after repeated conflicts, or the network) are retried, after a full-jitter backoff
+ * so bikers who collided don't collide again in lockstep. A retry that finds the order
+ * already assigned to the same biker counts as won, since the earlier commit landed.
+ *
+ * Plain Java apart from the store, so it runs unchanged in DispatchSimulation.
+ */
+public class OrderClaimer {
+
+    static final int MAX_ATTEMPTS = 4;
+    static final long BASE_BACKOFF_MS = 50;
+    static final long MAX_BACKOFF_MS = 1000;
+
+    public enum Outcome {
+        WON,
+        TAKEN,
+        NOT_FOUND,
+        FAILED
+    }
+
+    public static final class Result {
+        public final Outcome outcome;
+        public final int attempts;
+        public final long latencyMillis;
+        // Set when the outcome is FAILED
+        @Nullable
+        public final RemoteStoreException error;
+
+        Result(Outcome outcome, int attempts, long latencyMillis, @Nullable RemoteStoreException error) {
+            this.outcome = outcome;
+            this.attempts = attempts;
+            this.latencyMillis = latencyMillis;
+            this.error = error;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return outcome + " after " + attempts + " attempt(s), " + latencyMillis + "ms";
+        }
+    }
+
+    private final RemoteStore remoteStore;
+    private final ScheduledExecutorService scheduler;
+    private final DispatchMetrics metrics;
+    private final Random random;
+
+    public OrderClaimer(RemoteStore remoteStore, ScheduledExecutorService scheduler, DispatchMetrics metrics, Random random) {
+        this.remoteStore = remoteStore;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.random = random;
+    }
+
+    public CompletableFuture<Result> claim(String orderId, String bikerId) {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        attempt(orderId, bikerId, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    public DispatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void attempt(String orderId, String bikerId, int attempt, long startNanos, CompletableFuture<Result> result) {
+        metrics.attempt();
+        remoteStore.runTransaction(transaction -> {
+            metrics.transactionRun();
+            Order order = transaction.get(RemoteStore.Collection.ORDERS, orderId, Order.class);
+            if (order == null) {
+                return Outcome.NOT_FOUND;
+            }
+            if (bikerId.equals(order.getBikerId())) {
+                return Outcome.WON;
+            }
+            if (order.getBikerId() != null || order.getStatus() != OrderStatus.PENDING) {
+                return Outcome.TAKEN;
+            }
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("bikerId", bikerId);
+            fields.put("status", OrderStatus.PREPARING);
+            fields.put("acceptedAt", System.currentTimeMillis());
+            fields.put("updatedAt", RemoteValue.serverTimestamp());
+            transaction.update(RemoteStore.Collection.ORDERS, orderId, fields);
+            return Outcome.WON;
+        }).whenComplete((outcome, error) -> {
+            if (error == null) {
+                finish(result, outcome, attempt, startNanos, null);
+                return;
+            }
+            RemoteStoreException e = RemoteStoreException.from(error);
+            if (!isTransient(e)) {
+                finish(result, Outcome.FAILED, attempt, startNanos, e);
+                return;
+            }
+            metrics.abort();
+            if (attempt >= MAX_ATTEMPTS) {
+                finish(result, Outcome.FAILED, attempt, startNanos, e);
+                return;
+            }
+            metrics.retry();
+            scheduler.schedule(() -> attempt(orderId, bikerId, attempt + 1, startNanos, result),
+                    backoffMillis(attempt), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void finish(CompletableFuture<Result> result, Outcome outcome, int attempts, long startNanos,
+                        @Nullable RemoteStoreException error) {
+        long latencyMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        metrics.finished(outcome, latencyMillis);
+        result.complete(new Result(outcome, attempts, latencyMillis, error));
+    }
+
+    // Full jitter: uniform in [0, min(cap, base * 2^(attempt - 1))]
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt - 1, 16));
+        synchronized (random) {
+            return (long) (random.nextDouble() * (ceiling + 1));
+        }
+    }
+
+    static boolean isTransient(RemoteStoreException e) {
+        switch (e.getCode()) {
+            case ABORTED:
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
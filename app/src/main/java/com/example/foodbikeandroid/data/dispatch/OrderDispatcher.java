@@ -0,0 +1,90 @@
+package com.example.foodbikeandroid.data.dispatch;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.foodbikeandroid.data.executor.AppExecutors;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * App-wide front door for accepting orders. Keeps the set of orders this device is
+ * claiming right now, so lists can disable them the moment the biker taps instead of
+ * after the transaction round trip, and a second tap joins the claim in flight.
+ */
+public class OrderDispatcher {
+
+    private static final String TAG = "OrderDispatcher";
+
+    private static volatile OrderDispatcher INSTANCE;
+
+    private final OrderClaimer claimer;
+    private final Map<String, CompletableFuture<OrderClaimer.Result>> inFlight = new HashMap<>();
+    private final MutableLiveData<Set<String>> claiming = new MutableLiveData<>(Collections.emptySet());
+
+    private OrderDispatcher() {
+        claimer = new OrderClaimer(RemoteStoreProvider.get(), AppExecutors.getInstance().scheduled(),
+                new DispatchMetrics(), new Random());
+    }
+
+    public static OrderDispatcher getInstance() {
+        if (INSTANCE == null) {
+            synchronized (OrderDispatcher.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new OrderDispatcher();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public CompletableFuture<OrderClaimer.Result> claim(String orderId, String bikerId) {
+        CompletableFuture<OrderClaimer.Result> future;
+        synchronized (this) {
+            CompletableFuture<OrderClaimer.Result> running = inFlight.get(orderId);
+            if (running != null) {
+                return running;
+            }
+            future = new CompletableFuture<>();
+            inFlight.put(orderId, future);
+            publishClaiming();
+        }
+        claimer.claim(orderId, bikerId).whenComplete((result, error) -> {
+            synchronized (this) {
+                inFlight.remove(orderId);
+                publishClaiming();
+            }
+            if (result != null && result.attempts > 1) {
+                Log.d(TAG, "Claim for " + orderId + ": " + result);
+            }
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    // Order ids with a claim in flight from this device
+    public LiveData<Set<String>> getClaimingOrderIds() {
+        return claiming;
+    }
+
+    public DispatchMetrics.Snapshot getMetrics() {
+        return claimer.getMetrics().snapshot();
+    }
+
+    private void publishClaiming() {
+        claiming.postValue(Collections.unmodifiableSet(new HashSet<>(inFlight.keySet())));
+    }
+}
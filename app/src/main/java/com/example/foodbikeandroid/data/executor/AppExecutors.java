@@ -0,0 +1,256 @@
+package com.example.foodbikeandroid.data.executor;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * App-wide background execution, split into lanes so a long sync or cleanup pass
+ * cannot starve the reads a screen is waiting on.
+ *
+ * Every lane has a fixed thread cap, a bounded queue and its own thread priority.
+ * Idle threads time out, so an unused lane costs nothing.
+ *
+ * Delayed work (retry backoff, timeouts) goes through the single scheduled thread.
+ * Its tasks should be short and hand anything heavy to a lane.
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+    private static final long RETRY_DELAY_MS = 50;
+
+    public enum Lane {
+        // Lookups whose result a screen is waiting on
+        INTERACTIVE(3, 128, Process.THREAD_PRIORITY_DEFAULT),
+        // Local writes; one thread keeps SQLite's single writer uncontended
+        WRITE(1, 256, Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE),
+        // Applying remote snapshots to Room
+        SYNC(2, 64, Process.THREAD_PRIORITY_BACKGROUND),
+        // Periodic sweeps and cleanup
+        MAINTENANCE(1, 32, Process.THREAD_PRIORITY_LOWEST);
+
+        final int threads;
+        final int queueCapacity;
+        final int priority;
+
+        Lane(int threads, int queueCapacity, int priority) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.priority = priority;
+        }
+    }
+
+    private static volatile AppExecutors INSTANCE;
+
+    private final Map<Lane, LaneExecutor> lanes = new EnumMap<>(Lane.class);
+    private final ScheduledThreadPoolExecutor scheduled;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private AppExecutors() {
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new LaneExecutor(lane, mainHandler));
+        }
+        scheduled = new ScheduledThreadPoolExecutor(1,
+                new LaneThreadFactory("scheduled", Process.THREAD_PRIORITY_BACKGROUND));
+        scheduled.setKeepAliveTime(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        scheduled.allowCoreThreadTimeOut(true);
+        // Cancelled retries leave the queue at once instead of at their deadline
+        scheduled.setRemoveOnCancelPolicy(true);
+    }
+
+    public static AppExecutors getInstance() {
+        if (INSTANCE == null) {
+            synchronized (AppExecutors.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new AppExecutors();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public ExecutorService interactive() {
+        return lanes.get(Lane.INTERACTIVE);
+    }
+
+    public ExecutorService writes() {
+        return lanes.get(Lane.WRITE);
+    }
+
+    public ExecutorService sync() {
+        return lanes.get(Lane.SYNC);
+    }
+
+    public ExecutorService maintenance() {
+        return lanes.get(Lane.MAINTENANCE);
+    }
+
+    public ScheduledExecutorService scheduled() {
+        return scheduled;
+    }
+
+    public List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>();
+        for (LaneExecutor executor : lanes.values()) {
+            stats.add(executor.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * Drains every lane and the scheduled thread, and drops the shared instance, so the next getInstance()
+     * starts fresh. Returns false if work was still running after the timeout.
+     */
+    @VisibleForTesting
+    public static boolean shutdownForTesting(long timeout, TimeUnit unit) throws InterruptedException {
+        AppExecutors executors;
+        synchronized (AppExecutors.class) {
+            executors = INSTANCE;
+            INSTANCE = null;
+        }
+        if (executors == null) {
+            return true;
+        }
+        for (LaneExecutor executor : executors.lanes.values()) {
+            executor.shutdown();
+        }
+        executors.scheduled.shutdown();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean terminated = true;
+        for (LaneExecutor executor : executors.lanes.values()) {
+            long remaining = deadline - System.nanoTime();
+            terminated &= executor.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        }
+        long remaining = deadline - System.nanoTime();
+        terminated &= executors.scheduled.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        return terminated;
+    }
+
+    public static final class LaneStats {
+        public final Lane lane;
+        public final int poolSize;
+        public final int activeCount;
+        public final int largestPoolSize;
+        public final int queueSize;
+        public final long completedTasks;
+        public final long rejectedTasks;
+
+        LaneStats(Lane lane, int poolSize, int activeCount, int largestPoolSize,
+                  int queueSize, long completedTasks, long rejectedTasks) {
+            this.lane = lane;
+            this.poolSize = poolSize;
+            this.activeCount = activeCount;
+            this.largestPoolSize = largestPoolSize;
+            this.queueSize = queueSize;
+            this.completedTasks = completedTasks;
+            this.rejectedTasks = rejectedTasks;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return lane + "{threads=" + poolSize + ", active=" + activeCount
+                    + ", peak=" + largestPoolSize + ", queued=" + queueSize
+                    + ", completed=" + completedTasks + ", rejected=" + rejectedTasks + "}";
+        }
+    }
+
+    private static final class LaneExecutor extends ThreadPoolExecutor {
+
+        private final Lane lane;
+        private final AtomicLong rejected;
+
+        LaneExecutor(Lane lane, Handler mainHandler) {
+            this(lane, mainHandler, new AtomicLong());
+        }
+
+        private LaneExecutor(Lane lane, Handler mainHandler, AtomicLong rejected) {
+            super(lane.threads, lane.threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(lane.queueCapacity),
+                    new LaneThreadFactory(lane.name().toLowerCase(Locale.ROOT), lane.priority),
+                    new BackPressurePolicy(lane, mainHandler, rejected));
+            this.lane = lane;
+            this.rejected = rejected;
+            allowCoreThreadTimeOut(true);
+        }
+
+        LaneStats snapshot() {
+            return new LaneStats(lane, getPoolSize(), getActiveCount(), getLargestPoolSize(),
+                    getQueue().size(), getCompletedTaskCount(), rejected.get());
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        LaneThreadFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            String name = "foodbike-" + this.name + "-" + count.getAndIncrement();
+            return new Thread(() -> {
+                Process.setThreadPriority(priority);
+                runnable.run();
+            }, name);
+        }
+    }
+
+    /**
+     * A full queue pushes back on the submitter: background callers run the task
+     * themselves, while the main thread (which must not touch the database) retries
+     * shortly instead. Nothing is dropped unless the lane has been shut down.
+     */
+    private static final class BackPressurePolicy implements RejectedExecutionHandler {
+
+        private final Lane lane;
+        private final Handler mainHandler;
+        private final AtomicLong rejected;
+
+        BackPressurePolicy(Lane lane, Handler mainHandler, AtomicLong rejected) {
+            this.lane = lane;
+            this.mainHandler = mainHandler;
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.incrementAndGet();
+            if (executor.isShutdown()) {
+                Log.w(TAG, lane + " lane is shut down, dropping task");
+                return;
+            }
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                mainHandler.postDelayed(() -> executor.execute(task), RETRY_DELAY_MS);
+            } else {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * One restaurant's orders for one local calendar day. Rows are kept up to date by
+ * triggers on the orders table (see FoodBikeDatabase) and can be rebuilt from scratch
+ * by DailyStatsRebuildWorker, so dashboards read a row per day instead of the orders.
+ */
+@Entity(tableName = "daily_restaurant_stats",
+        primaryKeys = {"restaurantId", "day"},
+        indices = {@Index({"day"})})
+public class DailyRestaurantStats {
+
+    @NonNull
+    private String restaurantId;
+
+    // Local date the orders were placed on, "yyyy-MM-dd"
+    @NonNull
+    private String day;
+
+    private int orders;
+
+    // Total of orders that weren't cancelled, as the dashboards have always counted it
+    private double revenue;
+
+    private int cancellations;
+
+    private int refunds;
+
+    public DailyRestaurantStats(@NonNull String restaurantId, @NonNull String day, int orders,
+                                double revenue, int cancellations, int refunds) {
+        this.restaurantId = restaurantId;
+        this.day = day;
+        this.orders = orders;
+        this.revenue = revenue;
+        this.cancellations = cancellations;
+        this.refunds = refunds;
+    }
+
+    @NonNull
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    @NonNull
+    public String getDay() {
+        return day;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public int getCancellations() {
+        return cancellations;
+    }
+
+    public int getRefunds() {
+        return refunds;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One credit or debit to a user's or restaurant's earnings, e.g. "delivery:ORD1:biker".
+ * The key is the primary key, so recording the same delivery twice is a no-op and the
+ * balance column only moves once per entry.
+ */
+@Entity(tableName = "earnings_ledger",
+        indices = {@Index({"collection", "accountId"})})
+public class EarningsEntry {
+
+    @PrimaryKey
+    @NonNull
+    private String entryKey;
+
+    // Cloud collection of the account, users or restaurants
+    @NonNull
+    private String collection;
+
+    @NonNull
+    private String accountId;
+
+    private double amount; // Negative for withdrawals
+
+    private long createdAt;
+
+    public EarningsEntry(@NonNull String entryKey, @NonNull String collection,
+                         @NonNull String accountId, double amount, long createdAt) {
+        this.entryKey = entryKey;
+        this.collection = collection;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    @NonNull
+    public String getEntryKey() {
+        return entryKey;
+    }
+
+    public void setEntryKey(@NonNull String entryKey) {
+        this.entryKey = entryKey;
+    }
+
+    @NonNull
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(@NonNull String collection) {
+        this.collection = collection;
+    }
+
+    @NonNull
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(@NonNull String accountId) {
+        this.accountId = accountId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
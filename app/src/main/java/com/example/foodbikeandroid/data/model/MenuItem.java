@@ -1,16 +1,37 @@
 package com.example.foodbikeandroid.data.model;
 
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Ignore;
+import androidx.room.Index;
+
+import com.google.firebase.firestore.Exclude;
+
 import java.util.UUID;
 
+@Entity(tableName = "menu_items",
+        primaryKeys = {"restaurantId", "id"},
+        foreignKeys = @ForeignKey(entity = Restaurant.class,
+                parentColumns = "id",
+                childColumns = "restaurantId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index("restaurantId")})
 public class MenuItem {
 
-    private String id;
+    @NonNull
+    private String id = "";
+    // Local-only columns; the cloud keeps menus embedded in the restaurant document
+    @NonNull
+    private String restaurantId = "";
     private String name;
     private String description;
     private double price;
     private String category;
     private boolean available;
+    private int position;
 
+    @Ignore
     public MenuItem(String id, String name, String description, double price, String category, boolean available) {
         this.id = id;
         this.name = name;
@@ -20,6 +41,7 @@ public class MenuItem {
         this.available = available;
     }
 
+    @Ignore
     public MenuItem(String name, String description, double price, String category) {
         this.id = UUID.randomUUID().toString();
         this.name = name;
@@ -81,4 +103,25 @@ public class MenuItem {
     public void setAvailable(boolean available) {
         this.available = available;
     }
+
+    @Exclude
+    @NonNull
+    public String getRestaurantId() {
+        return restaurantId;
+    }
+
+    @Exclude
+    public void setRestaurantId(@NonNull String restaurantId) {
+        this.restaurantId = restaurantId;
+    }
+
+    @Exclude
+    public int getPosition() {
+        return position;
+    }
+
+    @Exclude
+    public void setPosition(int position) {
+        this.position = position;
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.foodbikeandroid.data.model;
+
+public enum MutationType {
+    // Full document write from the current local row
+    SET,
+    // Only the listed fields of the local row
+    MERGE,
+    DELETE,
+    // Adds each of incrementAmounts to the matching field in mergeFields on the server
+    INCREMENT
+}
@@ -2,14 +2,25 @@ package com.example.foodbikeandroid.data.model;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
 import com.example.foodbikeandroid.data.database.Converters;
+import com.google.firebase.firestore.ServerTimestamp;
 
+import java.util.Date;
 import java.util.List;
 
-@Entity(tableName = "orders")
+@Entity(tableName = "orders",
+        indices = {
+                @Index({"userId", "createdAt"}),
+                @Index({"restaurantId", "createdAt"}),
+                @Index({"bikerId", "status", "deliveredAt"}),
+                @Index({"status", "createdAt"}),
+                @Index({"district", "status", "createdAt"}),
+                @Index({"createdAt"})
+        })
 @TypeConverters(Converters.class)
 public class Order {
 
@@ -52,6 +63,10 @@ public class Order {
 
     private boolean isRefunded;  // True if order was cancelled and refunded
 
+    // Filled in by Firestore on every remote write (leave null when writing); drives delta sync
+    @ServerTimestamp
+    private Date updatedAt;
+
     public Order(@NonNull String userId, @NonNull String restaurantId, @NonNull String district, String deliveryAddress,
                  List<CartItem> items, double totalPrice, @NonNull PaymentMethod paymentMethod, String paymentSourceAccount) {
         this.orderId = "ORD_" + System.currentTimeMillis();
@@ -206,6 +221,14 @@ public class Order {
         isRefunded = refunded;
     }
 
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public boolean isPending() {
         return status == OrderStatus.PENDING;
     }
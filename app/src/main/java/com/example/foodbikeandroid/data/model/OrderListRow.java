@@ -0,0 +1,53 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Embedded;
+
+import java.util.Objects;
+
+/**
+ * An order with the names its list rows display, loaded by OrderDao's JOIN queries.
+ * Names are null when the restaurant or customer isn't in Room yet.
+ */
+public class OrderListRow {
+
+    @Embedded
+    @NonNull
+    private final Order order;
+    @Nullable
+    private final String restaurantName;
+    @Nullable
+    private final String customerName;
+
+    public OrderListRow(@NonNull Order order, @Nullable String restaurantName, @Nullable String customerName) {
+        this.order = order;
+        this.restaurantName = restaurantName;
+        this.customerName = customerName;
+    }
+
+    @NonNull
+    public Order getOrder() {
+        return order;
+    }
+
+    @Nullable
+    public String getRestaurantName() {
+        return restaurantName;
+    }
+
+    @Nullable
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getOrderId() {
+        return order.getOrderId();
+    }
+
+    // For DiffUtil: the fields the lists show besides the order itself
+    public boolean sameNames(@NonNull OrderListRow other) {
+        return Objects.equals(restaurantName, other.restaurantName)
+                && Objects.equals(customerName, other.customerName);
+    }
+}
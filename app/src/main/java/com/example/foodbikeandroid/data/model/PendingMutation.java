@@ -0,0 +1,168 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One local change waiting to be written to Firestore. The document body is not
+ * stored: it is read from the local row when the outbox flushes, so several edits
+ * to the same document before a flush all go out as its latest state.
+ */
+@Entity(tableName = "pending_mutations",
+        indices = {
+                @Index(value = {"idempotencyKey"}, unique = true),
+                @Index({"failed", "nextAttemptAt"})
+        })
+public class PendingMutation {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    // Re-enqueueing the same key is ignored, so callers can retry an action safely
+    @NonNull
+    private String idempotencyKey;
+
+    @NonNull
+    private String collection;
+
+    @NonNull
+    private String documentId;
+
+    @NonNull
+    private MutationType type;
+
+    private String mergeFields; // Comma separated, MERGE only; the counter fields for INCREMENT
+
+    private String incrementAmounts; // INCREMENT only; comma separated, one per counter field
+
+    private long createdAt;
+
+    private int attempts;
+
+    private long nextAttemptAt;
+
+    private String lastError;
+
+    private boolean failed; // Rejected permanently by the server; kept for inspection
+
+    public PendingMutation(@NonNull String idempotencyKey, @NonNull String collection,
+                           @NonNull String documentId, @NonNull MutationType type,
+                           String mergeFields, long createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.collection = collection;
+        this.documentId = documentId;
+        this.type = type;
+        this.mergeFields = mergeFields;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    @Ignore
+    public PendingMutation(@NonNull String idempotencyKey, @NonNull String collection,
+                           @NonNull String documentId, @NonNull MutationType type) {
+        this(idempotencyKey, collection, documentId, type, null, System.currentTimeMillis());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(@NonNull String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @NonNull
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(@NonNull String collection) {
+        this.collection = collection;
+    }
+
+    @NonNull
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(@NonNull String documentId) {
+        this.documentId = documentId;
+    }
+
+    @NonNull
+    public MutationType getType() {
+        return type;
+    }
+
+    public void setType(@NonNull MutationType type) {
+        this.type = type;
+    }
+
+    public String getMergeFields() {
+        return mergeFields;
+    }
+
+    public void setMergeFields(String mergeFields) {
+        this.mergeFields = mergeFields;
+    }
+
+    public String getIncrementAmounts() {
+        return incrementAmounts;
+    }
+
+    public void setIncrementAmounts(String incrementAmounts) {
+        this.incrementAmounts = incrementAmounts;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(long nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.foodbikeandroid.data.model;
+
+/**
+ * A restaurant's rating totals and 1-5 star histogram, read from its row in the
+ * restaurants table so breakdowns never scan reviews.
+ */
+public class RatingSummary {
+
+    private final long ratingSum;
+    private final int ratingCount;
+    private final int rating1Count;
+    private final int rating2Count;
+    private final int rating3Count;
+    private final int rating4Count;
+    private final int rating5Count;
+
+    public RatingSummary(long ratingSum, int ratingCount, int rating1Count, int rating2Count,
+                         int rating3Count, int rating4Count, int rating5Count) {
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+        this.rating1Count = rating1Count;
+        this.rating2Count = rating2Count;
+        this.rating3Count = rating3Count;
+        this.rating4Count = rating4Count;
+        this.rating5Count = rating5Count;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public int getRating1Count() {
+        return rating1Count;
+    }
+
+    public int getRating2Count() {
+        return rating2Count;
+    }
+
+    public int getRating3Count() {
+        return rating3Count;
+    }
+
+    public int getRating4Count() {
+        return rating4Count;
+    }
+
+    public int getRating5Count() {
+        return rating5Count;
+    }
+
+    public double getAverage() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
+    // Reviews with the given number of stars, 0 outside 1-5
+    public int getStarCount(int stars) {
+        switch (stars) {
+            case 1:
+                return rating1Count;
+            case 2:
+                return rating2Count;
+            case 3:
+                return rating3Count;
+            case 4:
+                return rating4Count;
+            case 5:
+                return rating5Count;
+            default:
+                return 0;
+        }
+    }
+
+    // Share of reviews with the given number of stars, for breakdown bars
+    public float getStarFraction(int stars) {
+        return ratingCount > 0 ? (float) getStarCount(stars) / ratingCount : 0f;
+    }
+}
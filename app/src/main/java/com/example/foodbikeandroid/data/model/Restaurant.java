@@ -2,6 +2,7 @@ package com.example.foodbikeandroid.data.model;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
@@ -31,6 +32,28 @@ public class Restaurant {
 
     private double rating;
 
+    // Running rating totals, kept by ReviewRepository alongside each review insert;
+    // rating is ratingSum / ratingCount once there is at least one counted review
+    private long ratingSum;
+
+    // Whether the totals also hold the reviews written before they existed; until then
+    // rating stays the stored average, see ReviewRepository.backfillRatingTotals
+    private boolean ratingTotalsComplete;
+
+    private int ratingCount;
+
+    private int rating1Count;
+
+    private int rating2Count;
+
+    private int rating3Count;
+
+    private int rating4Count;
+
+    private int rating5Count;
+
+    // Stored in the menu_items table; only populated when loaded through RestaurantWithMenu
+    @Ignore
     private List<MenuItem> menuItems;
 
     private String cuisineType;
@@ -53,6 +76,8 @@ public class Restaurant {
         this.district = district;
         this.address = address;
         this.rating = 4.5;
+        // A new restaurant has no older reviews to count
+        this.ratingTotalsComplete = true;
         this.isOpen = true;
         this.openingHours = "9:00 AM - 10:00 PM";
         this.createdAt = System.currentTimeMillis();
@@ -110,13 +135,77 @@ public class Restaurant {
     }
 
     public double getRating() {
-        return rating;
+        return ratingTotalsComplete && ratingCount > 0 ? (double) ratingSum / ratingCount : rating;
     }
 
     public void setRating(double rating) {
         this.rating = rating;
     }
 
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public boolean isRatingTotalsComplete() {
+        return ratingTotalsComplete;
+    }
+
+    public void setRatingTotalsComplete(boolean ratingTotalsComplete) {
+        this.ratingTotalsComplete = ratingTotalsComplete;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public int getRating1Count() {
+        return rating1Count;
+    }
+
+    public void setRating1Count(int rating1Count) {
+        this.rating1Count = rating1Count;
+    }
+
+    public int getRating2Count() {
+        return rating2Count;
+    }
+
+    public void setRating2Count(int rating2Count) {
+        this.rating2Count = rating2Count;
+    }
+
+    public int getRating3Count() {
+        return rating3Count;
+    }
+
+    public void setRating3Count(int rating3Count) {
+        this.rating3Count = rating3Count;
+    }
+
+    public int getRating4Count() {
+        return rating4Count;
+    }
+
+    public void setRating4Count(int rating4Count) {
+        this.rating4Count = rating4Count;
+    }
+
+    public int getRating5Count() {
+        return rating5Count;
+    }
+
+    public void setRating5Count(int rating5Count) {
+        this.rating5Count = rating5Count;
+    }
+
     public List<MenuItem> getMenuItems() {
         return menuItems;
     }
@@ -0,0 +1,34 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+/**
+ * External-content FTS4 index over restaurants.name and restaurants.cuisineType.
+ * Room keeps it in sync with the restaurants table through generated triggers.
+ */
+@Fts4(contentEntity = Restaurant.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "restaurants_fts")
+public class RestaurantFts {
+
+    private String name;
+
+    private String cuisineType;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCuisineType() {
+        return cuisineType;
+    }
+
+    public void setCuisineType(String cuisineType) {
+        this.cuisineType = cuisineType;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Lightweight projection of the restaurants table for lists and id -> name lookups.
+ * Never touches menu data.
+ */
+public class RestaurantSummary {
+
+    @NonNull
+    private String id;
+
+    @NonNull
+    private String name;
+
+    @NonNull
+    private String division;
+
+    @NonNull
+    private String district;
+
+    private double rating;
+
+    private String cuisineType;
+
+    private boolean isOpen;
+
+    public RestaurantSummary(@NonNull String id, @NonNull String name, @NonNull String division,
+                             @NonNull String district, double rating, String cuisineType, boolean isOpen) {
+        this.id = id;
+        this.name = name;
+        this.division = division;
+        this.district = district;
+        this.rating = rating;
+        this.cuisineType = cuisineType;
+        this.isOpen = isOpen;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @NonNull
+    public String getDivision() {
+        return division;
+    }
+
+    @NonNull
+    public String getDistrict() {
+        return district;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public String getCuisineType() {
+        return cuisineType;
+    }
+
+    public boolean isOpen() {
+        return isOpen;
+    }
+
+    public String getFullLocation() {
+        return district + ", " + division;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Restaurant row together with its menu_items rows.
+ * Only loaded by screens that actually show or edit the menu.
+ */
+public class RestaurantWithMenu {
+
+    @Embedded
+    public Restaurant restaurant;
+
+    @Relation(parentColumn = "id", entityColumn = "restaurantId")
+    public List<MenuItem> menuItems;
+
+    public Restaurant toRestaurant() {
+        List<MenuItem> ordered = menuItems != null ? new ArrayList<>(menuItems) : new ArrayList<>();
+        ordered.sort(Comparator.comparingInt(MenuItem::getPosition));
+        restaurant.setMenuItems(ordered);
+        return restaurant;
+    }
+}
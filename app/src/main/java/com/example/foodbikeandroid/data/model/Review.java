@@ -3,9 +3,19 @@ package com.example.foodbikeandroid.data.model;
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "reviews")
+// Highest first (rating DESC, createdAt DESC) walks (restaurantId, rating, createdAt) backwards;
+// lowest first (rating ASC, createdAt DESC) mixes directions, so it has its own index
+@Entity(tableName = "reviews",
+        indices = {
+                @Index({"restaurantId", "rating", "createdAt"}),
+                @Index(value = {"restaurantId", "rating", "createdAt"},
+                        orders = {Index.Order.ASC, Index.Order.ASC, Index.Order.DESC},
+                        name = "index_reviews_restaurantId_rating_createdAt_desc"),
+                @Index({"restaurantId", "createdAt"})
+        })
 public class Review {
 
     @PrimaryKey
@@ -27,6 +37,11 @@ public class Review {
 
     private long createdAt;
 
+    // Set on the cloud copy of reviews already in the restaurant's rating totals;
+    // reviews from before the totals lack it and are counted once by the backfill
+    @Ignore
+    private boolean counted;
+
     // Constructor for Room
     public Review(@NonNull String reviewId, @NonNull String restaurantId, @NonNull String userId,
                   @NonNull String orderId, int rating, String comment, long createdAt) {
@@ -117,4 +132,12 @@ public class Review {
     public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
     }
+
+    public boolean isCounted() {
+        return counted;
+    }
+
+    public void setCounted(boolean counted) {
+        this.counted = counted;
+    }
 }
@@ -1,15 +1,22 @@
 package com.example.foodbikeandroid.data.model;
 
 import androidx.annotation.NonNull;
+import androidx.room.Embedded;
+import androidx.room.Ignore;
 
 /**
  * Model combining Review data with User information
  * Used to display reviews with user details (username, avatar initial)
+ * Loaded by ReviewDao's JOIN queries, so username is "Anonymous" for unknown users.
  */
 public class ReviewWithUserInfo {
     
+    @Embedded
+    @NonNull
     private final Review review;
+    @NonNull
     private final String username;
+    @Ignore
     private final String userInitial;
 
     public ReviewWithUserInfo(@NonNull Review review, @NonNull String username) {
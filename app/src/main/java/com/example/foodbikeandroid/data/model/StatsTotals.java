@@ -0,0 +1,35 @@
+package com.example.foodbikeandroid.data.model;
+
+/**
+ * daily_restaurant_stats rows summed over a range of days and restaurants.
+ */
+public class StatsTotals {
+
+    private final int orders;
+    private final double revenue;
+    private final int cancellations;
+    private final int refunds;
+
+    public StatsTotals(int orders, double revenue, int cancellations, int refunds) {
+        this.orders = orders;
+        this.revenue = revenue;
+        this.cancellations = cancellations;
+        this.refunds = refunds;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public int getCancellations() {
+        return cancellations;
+    }
+
+    public int getRefunds() {
+        return refunds;
+    }
+}
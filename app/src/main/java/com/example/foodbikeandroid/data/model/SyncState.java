@@ -0,0 +1,96 @@
+package com.example.foodbikeandroid.data.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Local-only bookkeeping for delta sync: the highest remote updatedAt already
+ * applied for one query, e.g. "orders:user:alice".
+ *
+ * Before the first delta a query's whole history is paged in, newest first. The
+ * history cursor is the (createdAt, id) of the last document fetched, kept here
+ * rather than derived from Room, where delta sync may have stored any older
+ * document out of order. historySyncedAt is when the last full pass finished.
+ */
+@Entity(tableName = "sync_state")
+public class SyncState {
+
+    @PrimaryKey
+    @NonNull
+    private String queryKey;
+
+    private long watermark;
+
+    private Long historyCursorTime;
+
+    private String historyCursorId;
+
+    private boolean historyComplete;
+
+    private long historySyncedAt;
+
+    public SyncState(@NonNull String queryKey, long watermark) {
+        this.queryKey = queryKey;
+        this.watermark = watermark;
+    }
+
+    @Ignore
+    public SyncState(@NonNull SyncState other) {
+        this(other.queryKey, other.watermark);
+        this.historyCursorTime = other.historyCursorTime;
+        this.historyCursorId = other.historyCursorId;
+        this.historyComplete = other.historyComplete;
+        this.historySyncedAt = other.historySyncedAt;
+    }
+
+    @NonNull
+    public String getQueryKey() {
+        return queryKey;
+    }
+
+    public void setQueryKey(@NonNull String queryKey) {
+        this.queryKey = queryKey;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    public Long getHistoryCursorTime() {
+        return historyCursorTime;
+    }
+
+    public void setHistoryCursorTime(Long historyCursorTime) {
+        this.historyCursorTime = historyCursorTime;
+    }
+
+    public String getHistoryCursorId() {
+        return historyCursorId;
+    }
+
+    public void setHistoryCursorId(String historyCursorId) {
+        this.historyCursorId = historyCursorId;
+    }
+
+    public boolean isHistoryComplete() {
+        return historyComplete;
+    }
+
+    public void setHistoryComplete(boolean historyComplete) {
+        this.historyComplete = historyComplete;
+    }
+
+    public long getHistorySyncedAt() {
+        return historySyncedAt;
+    }
+
+    public void setHistorySyncedAt(long historySyncedAt) {
+        this.historySyncedAt = historySyncedAt;
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.database.OrderDao;
+import com.example.foodbikeandroid.data.database.PendingMutationDao;
+import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.database.ReviewDao;
+import com.example.foodbikeandroid.data.model.MutationType;
+import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.PendingMutation;
+import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.Review;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.work.WorkManagerInitializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Write-behind queue for changes made offline-first. A repository applies its change to
+ * Room and records a PendingMutation in the same transaction, then returns; the user
+ * never waits for the network. OutboxFlushWorker later sends the queue to the remote
+ * in batches of up to 500, oldest first, backing off per mutation on failure.
+ */
+public class Outbox {
+
+    private static final String TAG = "Outbox";
+    private static final long BASE_BACKOFF_MILLIS = 5_000;
+    private static final long MAX_BACKOFF_MILLIS = 30 * 60 * 1000;
+
+    // Reads the current local state of one document, or null if the row is gone
+    interface LocalDocumentReader {
+        Object read(String documentId);
+    }
+
+    private static volatile Outbox INSTANCE;
+
+    private final Context context;
+    private final FoodBikeDatabase database;
+    private final PendingMutationDao pendingMutationDao;
+    private final Map<String, LocalDocumentReader> readers = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Random jitter = new Random();
+    private final OutboxRemote remote;
+
+    private Outbox(Context context) {
+        this.context = context;
+        database = FoodBikeDatabase.getInstance(context);
+        pendingMutationDao = database.pendingMutationDao();
+        remote = new RemoteStoreOutboxRemote(RemoteStoreProvider.get());
+
+        OrderDao orderDao = database.orderDao();
+        RestaurantDao restaurantDao = database.restaurantDao();
+        ReviewDao reviewDao = database.reviewDao();
+        readers.put(FirestoreHelper.COLLECTION_ORDERS, id -> {
+            Order order = orderDao.getOrderByIdSync(id);
+            if (order != null) {
+                // Let the server stamp the write time
+                order.setUpdatedAt(null);
+            }
+            return order;
+        });
+        readers.put(FirestoreHelper.COLLECTION_RESTAURANTS, id -> {
+            // The cloud document embeds the menu
+            Restaurant restaurant = restaurantDao.getRestaurantByIdSync(id);
+            if (restaurant != null) {
+                restaurant.setMenuItems(restaurantDao.getMenuItemsSync(id));
+            }
+            return restaurant;
+        });
+        readers.put(FirestoreHelper.COLLECTION_REVIEWS, id -> {
+            // Reviews are only uploaded by ReviewRepository.insert, which counts them
+            Review review = reviewDao.getByIdSync(id);
+            if (review != null) {
+                review.setCounted(true);
+            }
+            return review;
+        });
+    }
+
+    public static Outbox getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (Outbox.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new Outbox(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Flush-only instance over a given queue and remote, for unit tests; there is no
+    // database, so applyLocally and requestFlush must not be called on it
+    @VisibleForTesting
+    Outbox(PendingMutationDao pendingMutationDao, OutboxRemote remote, Map<String, LocalDocumentReader> readers) {
+        this.context = null;
+        this.database = null;
+        this.pendingMutationDao = pendingMutationDao;
+        this.remote = remote;
+        this.readers.putAll(readers);
+    }
+
+    public static PendingMutation set(String collection, String documentId, String idempotencyKey) {
+        return new PendingMutation(idempotencyKey, collection, documentId, MutationType.SET);
+    }
+
+    public static PendingMutation merge(String collection, String documentId, String idempotencyKey, String... fields) {
+        PendingMutation mutation = new PendingMutation(idempotencyKey, collection, documentId, MutationType.MERGE);
+        mutation.setMergeFields(String.join(",", fields));
+        return mutation;
+    }
+
+    public static PendingMutation delete(String collection, String documentId, String idempotencyKey) {
+        return new PendingMutation(idempotencyKey, collection, documentId, MutationType.DELETE);
+    }
+
+    // Adds amount to field on the server; concurrent increments from other devices all count
+    public static PendingMutation increment(String collection, String documentId, String idempotencyKey,
+                                            String field, double amount) {
+        return increment(collection, documentId, idempotencyKey, Collections.singletonMap(field, amount));
+    }
+
+    // Adds to several counters of one document in a single write, so they land together or not at all
+    public static PendingMutation increment(String collection, String documentId, String idempotencyKey,
+                                            Map<String, Double> amounts) {
+        PendingMutation mutation = new PendingMutation(idempotencyKey, collection, documentId, MutationType.INCREMENT);
+        List<String> values = new ArrayList<>(amounts.size());
+        for (Double amount : amounts.values()) {
+            values.add(Double.toString(amount));
+        }
+        mutation.setMergeFields(String.join(",", amounts.keySet()));
+        mutation.setIncrementAmounts(String.join(",", values));
+        return mutation;
+    }
+
+    /**
+     * Runs the local change and queues the mutations in one transaction, then schedules
+     * a flush. Throws whatever the local change throws; nothing is queued in that case.
+     */
+    @WorkerThread
+    public void applyLocally(Runnable localChange, PendingMutation... mutations) {
+        database.runInTransaction(() -> {
+            localChange.run();
+            for (PendingMutation mutation : mutations) {
+                pendingMutationDao.insert(mutation);
+            }
+        });
+        requestFlush();
+    }
+
+    /**
+     * Like applyLocally, but the mutations are only queued if the local change returns
+     * true, e.g. when a ledger entry was actually inserted. Returns that result.
+     */
+    @WorkerThread
+    public boolean applyLocallyIf(BooleanSupplier localChange, PendingMutation... mutations) {
+        boolean applied = database.runInTransaction(() -> {
+            if (!localChange.getAsBoolean()) return false;
+            for (PendingMutation mutation : mutations) {
+                pendingMutationDao.insert(mutation);
+            }
+            return true;
+        });
+        if (applied) {
+            requestFlush();
+        }
+        return applied;
+    }
+
+    public void requestFlush() {
+        WorkManagerInitializer.scheduleOutboxFlush(context);
+    }
+
+    // Queued increments not yet on the server, to add to a freshly fetched remote value
+    @WorkerThread
+    public double getPendingIncrement(String collection, String documentId, String field) {
+        Double total = getPendingIncrements(collection, documentId).get(field);
+        return total != null ? total : 0;
+    }
+
+    // The same per counter field, for documents with several counters
+    @WorkerThread
+    public Map<String, Double> getPendingIncrements(String collection, String documentId) {
+        Map<String, Double> totals = new HashMap<>();
+        for (PendingMutation mutation : pendingMutationDao.getPendingIncrements(collection, documentId)) {
+            for (Map.Entry<String, Double> amount : incrementAmounts(mutation).entrySet()) {
+                totals.merge(amount.getKey(), amount.getValue(), Double::sum);
+            }
+        }
+        return totals;
+    }
+
+    // Drops remote copies of documents with queued local changes, which are newer
+    @WorkerThread
+    public <T> List<T> withoutPendingChanges(String collection, List<T> documents, Function<T, String> idOf) {
+        if (documents.isEmpty()) return documents;
+        Set<String> pending = new HashSet<>(pendingMutationDao.getPendingDocumentIds(collection));
+        if (pending.isEmpty()) return documents;
+        List<T> result = new ArrayList<>(documents.size());
+        for (T document : documents) {
+            if (!pending.contains(idOf.apply(document))) {
+                result.add(document);
+            }
+        }
+        return result;
+    }
+
+    public LiveData<Integer> getPendingCount() {
+        return pendingMutationDao.getPendingCount();
+    }
+
+    public static final class FlushResult {
+        public final int written;
+        public final int retrying;
+        public final int failed;
+        // Mutations are still queued, whether due now or backing off
+        public final boolean hasPending;
+
+        FlushResult(int written, int retrying, int failed, boolean hasPending) {
+            this.written = written;
+            this.retrying = retrying;
+            this.failed = failed;
+            this.hasPending = hasPending;
+        }
+    }
+
+    /**
+     * Sends every due mutation. Stops at the first transient failure, since the rest
+     * would most likely fail the same way. Returns immediately if a flush is running.
+     */
+    @WorkerThread
+    public FlushResult flush() {
+        if (!flushLock.tryLock()) {
+            Log.d(TAG, "Flush already in progress, skipping");
+            return new FlushResult(0, 0, 0, true);
+        }
+        int written = 0;
+        int retrying = 0;
+        int failed = 0;
+        try {
+            while (true) {
+                List<PendingMutation> due = pendingMutationDao.getDue(System.currentTimeMillis(), OutboxRemote.MAX_BATCH_SIZE);
+                if (due.isEmpty()) break;
+
+                List<PendingMutation> batch = new ArrayList<>(due.size());
+                List<OutboxRemote.RemoteWrite> writes = new ArrayList<>(due.size());
+                List<Long> orphaned = new ArrayList<>();
+                for (PendingMutation mutation : due) {
+                    OutboxRemote.RemoteWrite write = toRemoteWrite(mutation);
+                    Boolean applied = write != null ? alreadyApplied(mutation) : Boolean.FALSE;
+                    if (applied == null) {
+                        retrying++;
+                    } else if (write == null || applied) {
+                        orphaned.add(mutation.getId());
+                    } else {
+                        batch.add(mutation);
+                        writes.add(write);
+                    }
+                }
+                if (!orphaned.isEmpty()) {
+                    // The local row was deleted before it was ever sent, or an increment whose
+                    // acknowledgement was lost did land; nothing left to write
+                    pendingMutationDao.deleteByIds(orphaned);
+                }
+                if (batch.isEmpty()) continue;
+
+                Exception error = commit(batch, writes);
+                if (error == null) {
+                    written += batch.size();
+                } else if (remote.isPermanent(error)) {
+                    int[] isolated = commitIndividually(batch, writes);
+                    written += isolated[0];
+                    failed += isolated[1];
+                } else {
+                    retry(batch, error);
+                    retrying += batch.size();
+                    break;
+                }
+            }
+            boolean hasPending = pendingMutationDao.getNextAttemptAt() != null;
+            if (written + retrying + failed > 0) {
+                Log.d(TAG, "Flushed " + written + ", retrying " + retrying + ", failed " + failed);
+            }
+            return new FlushResult(written, retrying, failed, hasPending);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Only an increment that was sent before, with an unknown outcome, needs the extra
+     * read. Returns null if the check itself failed; the mutation is then retried later
+     * rather than sent blind, which could count it twice.
+     */
+    private Boolean alreadyApplied(PendingMutation mutation) {
+        if (mutation.getType() != MutationType.INCREMENT || mutation.getAttempts() == 0) return false;
+        try {
+            return remote.isApplied(mutation.getIdempotencyKey());
+        } catch (Exception e) {
+            retry(Collections.singletonList(mutation), e);
+            return null;
+        }
+    }
+
+    private OutboxRemote.RemoteWrite toRemoteWrite(PendingMutation mutation) {
+        Object data = null;
+        List<String> mergeFields = null;
+        if (mutation.getType() == MutationType.INCREMENT) {
+            Map<String, Double> amounts = incrementAmounts(mutation);
+            data = amounts;
+            mergeFields = new ArrayList<>(amounts.keySet());
+        } else if (mutation.getType() != MutationType.DELETE) {
+            LocalDocumentReader reader = readers.get(mutation.getCollection());
+            if (reader == null) {
+                throw new IllegalStateException("No local reader for " + mutation.getCollection());
+            }
+            data = reader.read(mutation.getDocumentId());
+            if (data == null) return null;
+            if (mutation.getType() == MutationType.MERGE) {
+                mergeFields = Arrays.asList(mutation.getMergeFields().split(","));
+            }
+        }
+        return new OutboxRemote.RemoteWrite(mutation.getIdempotencyKey(), mutation.getCollection(),
+                mutation.getDocumentId(), mutation.getType(), data, mergeFields);
+    }
+
+    private static Map<String, Double> incrementAmounts(PendingMutation mutation) {
+        String[] fields = mutation.getMergeFields().split(",");
+        String[] amounts = mutation.getIncrementAmounts().split(",");
+        Map<String, Double> result = new LinkedHashMap<>(fields.length);
+        for (int i = 0; i < fields.length; i++) {
+            result.put(fields[i], Double.parseDouble(amounts[i]));
+        }
+        return result;
+    }
+
+    // Returns null on success; on success the mutations are removed from the queue
+    private Exception commit(List<PendingMutation> batch, List<OutboxRemote.RemoteWrite> writes) {
+        try {
+            remote.commit(writes);
+        } catch (Exception e) {
+            return e;
+        }
+        pendingMutationDao.deleteByIds(ids(batch));
+        return null;
+    }
+
+    // A rejected batch is all-or-nothing, so find the offending writes one at a time
+    private int[] commitIndividually(List<PendingMutation> batch, List<OutboxRemote.RemoteWrite> writes) {
+        int written = 0;
+        int failed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            List<PendingMutation> single = Collections.singletonList(batch.get(i));
+            Exception error = commit(single, Collections.singletonList(writes.get(i)));
+            if (error == null) {
+                written++;
+            } else if (remote.isPermanent(error)) {
+                Log.w(TAG, "Dropping " + batch.get(i).getIdempotencyKey(), error);
+                pendingMutationDao.markFailed(ids(single), String.valueOf(error.getMessage()));
+                failed++;
+            } else {
+                retry(batch.subList(i, batch.size()), error);
+                break;
+            }
+        }
+        return new int[]{written, failed};
+    }
+
+    private void retry(List<PendingMutation> batch, Exception error) {
+        int attempts = 0;
+        for (PendingMutation mutation : batch) {
+            attempts = Math.max(attempts, mutation.getAttempts());
+        }
+        pendingMutationDao.markRetry(ids(batch), System.currentTimeMillis() + backoffMillis(attempts),
+                String.valueOf(error.getMessage()));
+    }
+
+    // Exponential with +/-20% jitter so devices coming back online don't retry in step
+    private long backoffMillis(int attempts) {
+        long delay = BASE_BACKOFF_MILLIS << Math.min(attempts, 20);
+        delay = Math.min(delay, MAX_BACKOFF_MILLIS);
+        double factor = 0.8 + 0.4 * jitter.nextDouble();
+        return (long) (delay * factor);
+    }
+
+    @NonNull
+    private static List<Long> ids(List<PendingMutation> mutations) {
+        List<Long> ids = new ArrayList<>(mutations.size());
+        for (PendingMutation mutation : mutations) {
+            ids.add(mutation.getId());
+        }
+        return ids;
+    }
+}
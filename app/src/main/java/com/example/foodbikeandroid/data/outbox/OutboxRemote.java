@@ -0,0 +1,56 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.example.foodbikeandroid.data.model.MutationType;
+
+import java.util.List;
+
+/**
+ * Where the outbox sends its writes. RemoteStoreOutboxRemote is the real one; the unit
+ * tests' InMemoryOutboxRemote lets the flush logic run without a network.
+ */
+public interface OutboxRemote {
+
+    // Firestore's limit on writes per batch
+    int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Applies all writes atomically, or none of them, and throws on failure.
+     * A set, merge or delete can be replayed after an unknown outcome. An increment
+     * cannot, so it is committed together with a marker keyed by its idempotency key.
+     */
+    @WorkerThread
+    void commit(@NonNull List<RemoteWrite> writes) throws Exception;
+
+    // Whether the increment with this key already reached the server, i.e. its marker exists
+    @WorkerThread
+    boolean isApplied(@NonNull String idempotencyKey) throws Exception;
+
+    // True if retrying the same writes cannot succeed, e.g. a rules rejection
+    boolean isPermanent(@NonNull Exception e);
+
+    final class RemoteWrite {
+        public final String idempotencyKey;
+        public final String collection;
+        public final String documentId;
+        public final MutationType type;
+        public final Object data; // null for DELETE, a Map of field to Double amount for INCREMENT
+        public final List<String> mergeFields; // MERGE, or the counter fields for INCREMENT
+
+        public RemoteWrite(String idempotencyKey, String collection, String documentId,
+                           MutationType type, Object data, List<String> mergeFields) {
+            this.idempotencyKey = idempotencyKey;
+            this.collection = collection;
+            this.documentId = documentId;
+            this.type = type;
+            this.data = data;
+            this.mergeFields = mergeFields;
+        }
+
+        public String getPath() {
+            return collection + "/" + documentId;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class RemoteStoreOutboxRemote implements OutboxRemote {
+
+    // Offline, the SDK keeps the batch queued and the task never completes, so give up
+    // waiting and let the outbox retry; the replayed batch is idempotent.
+    private static final long COMMIT_TIMEOUT_SECONDS = 30;
+
+    private final RemoteStore remoteStore;
+
+    public RemoteStoreOutboxRemote(RemoteStore remoteStore) {
+        this.remoteStore = remoteStore;
+    }
+
+    @WorkerThread
+    @Override
+    public void commit(@NonNull List<RemoteWrite> writes) throws Exception {
+        RemoteStore.Batch batch = remoteStore.batch();
+        for (RemoteWrite write : writes) {
+            RemoteStore.Collection collection = RemoteStore.Collection.fromPath(write.collection);
+            if (collection == null) {
+                throw new RemoteStoreException("Unknown collection " + write.collection,
+                        RemoteStoreException.Code.INVALID_ARGUMENT);
+            }
+            switch (write.type) {
+                case SET:
+                    batch.set(collection, write.documentId, write.data);
+                    break;
+                case MERGE:
+                    batch.merge(collection, write.documentId, write.data, write.mergeFields);
+                    break;
+                case DELETE:
+                    batch.delete(collection, write.documentId);
+                    break;
+                case INCREMENT:
+                    Map<String, Object> increments = new HashMap<>();
+                    for (Map.Entry<?, ?> amount : ((Map<?, ?>) write.data).entrySet()) {
+                        increments.put((String) amount.getKey(), RemoteValue.increment((Double) amount.getValue()));
+                    }
+                    batch.merge(collection, write.documentId, increments, write.mergeFields);
+                    Map<String, Object> marker = new HashMap<>();
+                    marker.put("path", write.getPath());
+                    marker.put("appliedAt", RemoteValue.serverTimestamp());
+                    batch.set(RemoteStore.Collection.APPLIED_MUTATIONS, write.idempotencyKey, marker);
+                    break;
+            }
+        }
+        try {
+            batch.commit().get(COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw RemoteStoreException.from(e);
+        }
+    }
+
+    @WorkerThread
+    @Override
+    public boolean isApplied(@NonNull String idempotencyKey) throws Exception {
+        try {
+            RemoteStore.DocumentResult<Map> marker = remoteStore.get(RemoteStore.Collection.APPLIED_MUTATIONS,
+                    idempotencyKey, Map.class).get(COMMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!marker.exists() && marker.fromCache) {
+                // Only the server can say the mutation never landed; resending on a stale
+                // answer would apply it twice
+                throw new RemoteStoreException("Applied marker read from cache", RemoteStoreException.Code.UNAVAILABLE);
+            }
+            return marker.exists();
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw RemoteStoreException.from(e);
+        }
+    }
+
+    @Override
+    public boolean isPermanent(@NonNull Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            // Thrown while serializing a document the server could never accept
+            return true;
+        }
+        return e instanceof RemoteStoreException && ((RemoteStoreException) e).isPermanent();
+    }
+}
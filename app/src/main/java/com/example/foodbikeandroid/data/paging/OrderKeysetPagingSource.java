@@ -0,0 +1,162 @@
+package com.example.foodbikeandroid.data.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.example.foodbikeandroid.data.model.Order;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import kotlin.Unit;
+
+/**
+ * PagingSource over the orders table using keyset cursors instead of OFFSET, so every
+ * page is an index range scan no matter how deep the user has scrolled.
+ *
+ * Appends read rows strictly before the last loaded row; prepends read rows strictly
+ * after the first one. Any write to "orders", or to a table the rows are joined with,
+ * invalidates the source, and the refresh resumes just above the visible position
+ * instead of jumping back to the top.
+ *
+ * T is Order itself, or a projection such as OrderListRow that embeds one.
+ */
+public class OrderKeysetPagingSource<T> extends ListenableFuturePagingSource<OrderPageKey, T> {
+
+    public interface PageQuery<T> {
+        List<T> load(long sortValue, String orderId, int limit);
+    }
+
+    private final Consumer<InvalidationTracker.Observer> addObserver;
+    private final ListeningExecutorService executor;
+    private final Function<T, Order> orderOf;
+    private final ToLongFunction<Order> sortKey;
+    private final PageQuery<T> loadBefore;
+    private final PageQuery<T> loadAfter;
+    private final AtomicBoolean observerRegistered = new AtomicBoolean(false);
+    private final InvalidationTracker.Observer observer;
+
+    /**
+     * @param orderOf      the order a row holds, e.g. Function.identity() for plain orders
+     * @param sortKey      column the queries order by, e.g. Order::getCreatedAt
+     * @param loadBefore   rows before the cursor, ordered by (sortKey, orderId) DESC
+     * @param loadAfter    rows after the cursor, ordered by (sortKey, orderId) ASC
+     * @param joinedTables tables the queries join besides "orders"
+     */
+    public OrderKeysetPagingSource(InvalidationTracker invalidationTracker,
+                                   ExecutorService executor,
+                                   Function<T, Order> orderOf,
+                                   ToLongFunction<Order> sortKey,
+                                   PageQuery<T> loadBefore,
+                                   PageQuery<T> loadAfter,
+                                   String... joinedTables) {
+        this(invalidationTracker::addObserver, invalidationTracker::removeObserver, executor, orderOf, sortKey,
+                loadBefore, loadAfter, joinedTables);
+    }
+
+    // Takes the tracker's add/removeObserver, so JVM tests can stand in for Room
+    @VisibleForTesting
+    OrderKeysetPagingSource(Consumer<InvalidationTracker.Observer> addObserver,
+                            Consumer<InvalidationTracker.Observer> removeObserver,
+                            ExecutorService executor,
+                            Function<T, Order> orderOf,
+                            ToLongFunction<Order> sortKey,
+                            PageQuery<T> loadBefore,
+                            PageQuery<T> loadAfter,
+                            String... joinedTables) {
+        this.addObserver = addObserver;
+        this.executor = MoreExecutors.listeningDecorator(executor);
+        this.orderOf = orderOf;
+        this.sortKey = sortKey;
+        this.loadBefore = loadBefore;
+        this.loadAfter = loadAfter;
+        this.observer = new InvalidationTracker.Observer("orders", joinedTables) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        registerInvalidatedCallback(() -> {
+            if (observerRegistered.get()) {
+                removeObserver.accept(observer);
+            }
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<OrderPageKey, T>> loadFuture(
+            @NonNull LoadParams<OrderPageKey> params) {
+        return executor.submit(() -> load(params));
+    }
+
+    private LoadResult<OrderPageKey, T> load(LoadParams<OrderPageKey> params) {
+        // Registering syncs Room's triggers, so it is done here rather than on the main thread
+        if (observerRegistered.compareAndSet(false, true)) {
+            addObserver.accept(observer);
+        }
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+
+        OrderPageKey key = params.getKey();
+        int limit = params.getLoadSize();
+        try {
+            if (params instanceof LoadParams.Prepend) {
+                List<T> rows = new ArrayList<>(loadAfter.load(key.getSortValue(), key.getOrderId(), limit));
+                Collections.reverse(rows);
+                OrderPageKey prevKey = rows.size() < limit ? null : keyOf(rows.get(0));
+                OrderPageKey nextKey = rows.isEmpty() ? null : keyOf(rows.get(rows.size() - 1));
+                return new LoadResult.Page<>(rows, prevKey, nextKey);
+            }
+
+            OrderPageKey start = key != null ? key : OrderPageKey.FIRST;
+            List<T> rows = loadBefore.load(start.getSortValue(), start.getOrderId(), limit);
+            OrderPageKey nextKey = rows.size() < limit ? null : keyOf(rows.get(rows.size() - 1));
+            OrderPageKey prevKey = null;
+            if (params instanceof LoadParams.Refresh && key != null) {
+                // Refreshed mid-list: newer rows are reachable by prepending
+                prevKey = rows.isEmpty() ? key : keyOf(rows.get(0));
+            }
+            return new LoadResult.Page<>(rows, prevKey, nextKey);
+        } catch (RuntimeException e) {
+            return new LoadResult.Error<>(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public OrderPageKey getRefreshKey(@NonNull PagingState<OrderPageKey, T> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        int firstPosition = anchorPosition - state.getConfig().initialLoadSize / 2;
+        if (firstPosition <= 0) {
+            return null;
+        }
+        // Cursors are exclusive, so start from the row just above the new first row
+        T boundary = state.closestItemToPosition(firstPosition - 1);
+        return boundary != null ? keyOf(boundary) : null;
+    }
+
+    private OrderPageKey keyOf(T row) {
+        Order order = orderOf.apply(row);
+        return new OrderPageKey(sortKey.applyAsLong(order), order.getOrderId());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.foodbikeandroid.data.paging;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Keyset cursor for order lists: the sort column value (createdAt or deliveredAt)
+ * of a boundary row plus its orderId as the tie-breaker.
+ */
+public final class OrderPageKey {
+
+    // Sorts after every real row, so a "before" query from here returns the newest page
+    static final OrderPageKey FIRST = new OrderPageKey(Long.MAX_VALUE, "");
+
+    private final long sortValue;
+    @NonNull
+    private final String orderId;
+
+    public OrderPageKey(long sortValue, @NonNull String orderId) {
+        this.sortValue = sortValue;
+        this.orderId = orderId;
+    }
+
+    public long getSortValue() {
+        return sortValue;
+    }
+
+    @NonNull
+    public String getOrderId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderPageKey)) return false;
+        OrderPageKey other = (OrderPageKey) o;
+        return sortValue == other.sortValue && orderId.equals(other.orderId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortValue, orderId);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "OrderPageKey{" + sortValue + ", " + orderId + "}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.foodbikeandroid.data.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a remote history in Room behind a paged list. The refresh syncs the whole
+ * remote scope, paging older history in from a cursor stored with the sync state,
+ * so the Room-backed list already holds everything there is once it completes.
+ * Reaching the end of the list runs the refresh again, which coalesces with one in
+ * flight and resumes a history sync that an earlier failure cut short.
+ *
+ * The list keeps reading Room, so cached history shows at once and offline scrolling
+ * stops at whatever was fetched before.
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+public class RemoteHistoryMediator<Key, T> extends ListenableFutureRemoteMediator<Key, T> {
+
+    private final Supplier<CompletableFuture<Void>> refresh;
+
+    public RemoteHistoryMediator(Supplier<CompletableFuture<Void>> refresh) {
+        this.refresh = refresh;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType, @NonNull PagingState<Key, T> state) {
+        switch (loadType) {
+            case REFRESH:
+                return toListenable(refresh.get().thenApply(ignored -> new MediatorResult.Success(false)));
+            case APPEND:
+                return toListenable(refresh.get().thenApply(ignored -> new MediatorResult.Success(true)));
+            case PREPEND:
+            default:
+                // Newer records arrive through refresh, never by scrolling up
+                return Futures.immediateFuture(new MediatorResult.Success(true));
+        }
+    }
+
+    private static ListenableFuture<MediatorResult> toListenable(CompletableFuture<? extends MediatorResult> future) {
+        SettableFuture<MediatorResult> result = SettableFuture.create();
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.set(value);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                result.set(new MediatorResult.Error(cause));
+            }
+        });
+        return result;
+    }
+}
@@ -9,13 +9,17 @@ public class FirestoreHelper {
     private final FirebaseFirestore db;
 
     // Collection Constants
-    private static final String COLLECTION_USERS = "users";
-    private static final String COLLECTION_RESTAURANTS = "restaurants";
-    private static final String COLLECTION_ORDERS = "orders";
-    private static final String COLLECTION_REVIEWS = "reviews";
-    private static final String COLLECTION_WITHDRAWALS = "withdrawals";
-    private static final String COLLECTION_APPLICATIONS = "restaurant_applications";
-    private static final String COLLECTION_ADMIN_ACTIONS = "admin_actions";
+    public static final String COLLECTION_USERS = "users";
+    public static final String COLLECTION_RESTAURANTS = "restaurants";
+    public static final String COLLECTION_ORDERS = "orders";
+    public static final String COLLECTION_REVIEWS = "reviews";
+    public static final String COLLECTION_WITHDRAWALS = "withdrawals";
+    public static final String COLLECTION_APPLICATIONS = "restaurant_applications";
+    public static final String COLLECTION_ADMIN_ACTIONS = "admin_actions";
+    // One marker per applied outbox increment, written in the same batch
+    public static final String COLLECTION_APPLIED_MUTATIONS = "applied_mutations";
+    // App-wide bookkeeping documents, such as the catalog seed marker
+    public static final String COLLECTION_APP_META = "app_meta";
     
     // Sub-collection Constants
     private static final String SUB_COLLECTION_MENU = "menu";
@@ -0,0 +1,342 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class FirestoreRemoteStore implements RemoteStore {
+
+    private static volatile FirestoreRemoteStore INSTANCE;
+    private final FirebaseFirestore db;
+
+    private FirestoreRemoteStore(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public static FirestoreRemoteStore getInstance() {
+        if (INSTANCE == null) {
+            synchronized (FirestoreRemoteStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new FirestoreRemoteStore(FirestoreHelper.getInstance().getDb());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    @Override
+    public <T> CompletableFuture<DocumentResult<T>> get(Collection collection, String id, Class<T> type) {
+        CompletableFuture<DocumentResult<T>> future = new CompletableFuture<>();
+        ref(collection, id).get().addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                DocumentSnapshot snapshot = task.getResult();
+                if (snapshot == null) {
+                    future.complete(new DocumentResult<>(null, false));
+                } else {
+                    future.complete(new DocumentResult<>(snapshot.exists() ? toValue(snapshot, type) : null,
+                            snapshot.getMetadata().isFromCache()));
+                }
+            } else {
+                future.completeExceptionally(map(task.getException()));
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <T> CompletableFuture<QueryResult<T>> query(RemoteQuery query, Class<T> type) {
+        CompletableFuture<QueryResult<T>> future = new CompletableFuture<>();
+        toFirestore(query).get().addOnCompleteListener(task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                List<T> items = new ArrayList<>();
+                List<String> ids = new ArrayList<>();
+                for (QueryDocumentSnapshot document : task.getResult()) {
+                    items.add(toValue(document, type));
+                    ids.add(document.getId());
+                }
+                future.complete(new QueryResult<>(items, ids, task.getResult().getMetadata().isFromCache()));
+            } else {
+                future.completeExceptionally(map(task.getException()));
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> set(Collection collection, String id, Object data) {
+        return toFuture(ref(collection, id).set(toFirestoreData(data)));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(Collection collection, String id, Map<String, Object> fields) {
+        return toFuture(ref(collection, id).update(toFirestoreFields(fields)));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Collection collection, String id) {
+        return toFuture(ref(collection, id).delete());
+    }
+
+    @Override
+    public <R> CompletableFuture<R> runTransaction(TransactionFunction<R> function) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        db.runTransaction((com.google.firebase.firestore.Transaction.Function<R>) transaction -> {
+            try {
+                return function.apply(new FirestoreTransaction(transaction));
+            } catch (RemoteStoreException e) {
+                // Firestore only lets its own exception type out of the function
+                throw new FirebaseFirestoreException(String.valueOf(e.getMessage()),
+                        FirebaseFirestoreException.Code.valueOf(e.getCode().name()), e);
+            }
+        }).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                future.complete(task.getResult());
+            } else {
+                future.completeExceptionally(map(task.getException()));
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public Batch batch() {
+        return new FirestoreBatch(db.batch());
+    }
+
+    @Override
+    public <T> ListenerHandle listen(RemoteQuery query, Class<T> type, ChangeListener<T> listener) {
+        ListenerRegistration registration = toFirestore(query).addSnapshotListener((snapshots, e) -> {
+            if (e != null) {
+                listener.onError(map(e));
+                return;
+            }
+            if (snapshots == null) return;
+            List<Change<T>> changes = new ArrayList<>();
+            for (DocumentChange change : snapshots.getDocumentChanges()) {
+                Change.Type changeType;
+                switch (change.getType()) {
+                    case ADDED:
+                        changeType = Change.Type.ADDED;
+                        break;
+                    case REMOVED:
+                        changeType = Change.Type.REMOVED;
+                        break;
+                    default:
+                        changeType = Change.Type.MODIFIED;
+                        break;
+                }
+                changes.add(new Change<>(changeType, change.getDocument().getId(), change.getDocument().toObject(type)));
+            }
+            listener.onChanges(changes, snapshots.getMetadata().isFromCache());
+        });
+        return registration::remove;
+    }
+
+    private DocumentReference ref(Collection collection, String id) {
+        return db.collection(collection.path).document(id);
+    }
+
+    private Query toFirestore(RemoteQuery remoteQuery) {
+        Query query = db.collection(remoteQuery.collection.path);
+        for (RemoteQuery.Filter filter : remoteQuery.filters) {
+            switch (filter.operator) {
+                case EQUAL:
+                    query = query.whereEqualTo(filter.field, filter.value);
+                    break;
+                case IN:
+                    query = query.whereIn(filter.field, (List<?>) filter.value);
+                    break;
+                case GREATER_THAN:
+                    query = query.whereGreaterThan(filter.field, filter.value);
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    query = query.whereGreaterThanOrEqualTo(filter.field, filter.value);
+                    break;
+                case LESS_THAN:
+                    query = query.whereLessThan(filter.field, filter.value);
+                    break;
+                case LESS_THAN_OR_EQUAL:
+                    query = query.whereLessThanOrEqualTo(filter.field, filter.value);
+                    break;
+            }
+        }
+        for (RemoteQuery.Order order : remoteQuery.orderBy) {
+            query = query.orderBy(order.field, order.descending ? Query.Direction.DESCENDING : Query.Direction.ASCENDING);
+        }
+        if (!remoteQuery.startAfter.isEmpty()) {
+            query = query.startAfter(remoteQuery.startAfter.toArray());
+        }
+        if (remoteQuery.limit > 0) {
+            query = query.limit(remoteQuery.limit);
+        }
+        return query;
+    }
+
+    // Map.class reads the raw fields, e.g. for marker documents without a model class
+    private static <T> T toValue(DocumentSnapshot snapshot, Class<T> type) {
+        if (type == Map.class) {
+            return type.cast(snapshot.getData());
+        }
+        return snapshot.toObject(type);
+    }
+
+    private static Object toFirestoreData(Object data) {
+        if (data instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> fields = (Map<String, Object>) data;
+            return toFirestoreFields(fields);
+        }
+        return data;
+    }
+
+    private static Map<String, Object> toFirestoreFields(Map<String, Object> fields) {
+        Map<String, Object> converted = new HashMap<>(fields.size());
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof RemoteValue) {
+                RemoteValue remoteValue = (RemoteValue) value;
+                switch (remoteValue.kind) {
+                    case SERVER_TIMESTAMP:
+                        value = FieldValue.serverTimestamp();
+                        break;
+                    case INCREMENT:
+                        value = remoteValue.amount instanceof Double
+                                ? FieldValue.increment(remoteValue.amount.doubleValue())
+                                : FieldValue.increment(remoteValue.amount.longValue());
+                        break;
+                    case DELETE:
+                        value = FieldValue.delete();
+                        break;
+                }
+            }
+            converted.put(entry.getKey(), value);
+        }
+        return converted;
+    }
+
+    private static CompletableFuture<Void> toFuture(Task<Void> task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        task.addOnCompleteListener(t -> {
+            if (t.isSuccessful()) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(map(t.getException()));
+            }
+        });
+        return future;
+    }
+
+    @NonNull
+    static RemoteStoreException map(Exception e) {
+        if (e instanceof FirebaseFirestoreException) {
+            if (e.getCause() instanceof RemoteStoreException) {
+                // Thrown by our own transaction function
+                return (RemoteStoreException) e.getCause();
+            }
+            FirebaseFirestoreException fe = (FirebaseFirestoreException) e;
+            return new RemoteStoreException(String.valueOf(fe.getMessage()),
+                    RemoteStoreException.Code.valueOf(fe.getCode().name()), fe);
+        }
+        if (e instanceof IllegalArgumentException) {
+            // The SDK rejects unserializable data before anything is sent
+            return new RemoteStoreException(String.valueOf(e.getMessage()), RemoteStoreException.Code.INVALID_ARGUMENT, e);
+        }
+        return RemoteStoreException.from(e != null ? e : new IllegalStateException("Unknown failure"));
+    }
+
+    private final class FirestoreTransaction implements Transaction {
+        private final com.google.firebase.firestore.Transaction transaction;
+
+        FirestoreTransaction(com.google.firebase.firestore.Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public <T> T get(Collection collection, String id, Class<T> type) throws RemoteStoreException {
+            try {
+                DocumentSnapshot snapshot = transaction.get(ref(collection, id));
+                return snapshot.exists() ? toValue(snapshot, type) : null;
+            } catch (FirebaseFirestoreException e) {
+                throw map(e);
+            }
+        }
+
+        @Override
+        public void set(Collection collection, String id, Object data) {
+            transaction.set(ref(collection, id), toFirestoreData(data));
+        }
+
+        @Override
+        public void update(Collection collection, String id, Map<String, Object> fields) {
+            transaction.update(ref(collection, id), toFirestoreFields(fields));
+        }
+
+        @Override
+        public void delete(Collection collection, String id) {
+            transaction.delete(ref(collection, id));
+        }
+    }
+
+    private final class FirestoreBatch implements Batch {
+        private final com.google.firebase.firestore.WriteBatch batch;
+        private int size;
+
+        FirestoreBatch(com.google.firebase.firestore.WriteBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public Batch set(Collection collection, String id, Object data) {
+            batch.set(ref(collection, id), toFirestoreData(data));
+            size++;
+            return this;
+        }
+
+        @Override
+        public Batch merge(Collection collection, String id, Object data, List<String> fields) {
+            batch.set(ref(collection, id), toFirestoreData(data), SetOptions.mergeFields(fields));
+            size++;
+            return this;
+        }
+
+        @Override
+        public Batch update(Collection collection, String id, Map<String, Object> fields) {
+            batch.update(ref(collection, id), toFirestoreFields(fields));
+            size++;
+            return this;
+        }
+
+        @Override
+        public Batch delete(Collection collection, String id) {
+            batch.delete(ref(collection, id));
+            size++;
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public CompletableFuture<Void> commit() {
+            return toFuture(batch.commit());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that reports every call on the wrapped store to RemoteStoreMetrics.
+ * Call site and screen are captured on the calling thread; counts, sizes and latency
+ * are recorded when the future completes.
+ */
+public class InstrumentedRemoteStore implements RemoteStore {
+
+    private final RemoteStore delegate;
+    private final RemoteStoreMetrics metrics;
+
+    public InstrumentedRemoteStore(RemoteStore delegate, RemoteStoreMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> CompletableFuture<DocumentResult<T>> get(Collection collection, String id, Class<T> type) {
+        Call call = new Call(collection.path, "get");
+        return delegate.get(collection, id, type).whenComplete((result, error) -> {
+            if (result == null) {
+                call.finish(1, 0, 0, null, error);
+                return;
+            }
+            call.finish(1, 0, RemoteStoreMetrics.estimateDocumentSize(collection.path, id, result.value),
+                    result.fromCache, null);
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<QueryResult<T>> query(RemoteQuery query, Class<T> type) {
+        Call call = new Call(query.collection.path, "query");
+        return delegate.query(query, type).whenComplete((result, error) -> {
+            if (result == null) {
+                call.finish(0, 0, 0, null, error);
+                return;
+            }
+            long bytes = 0;
+            for (int i = 0; i < result.items.size(); i++) {
+                bytes += RemoteStoreMetrics.estimateDocumentSize(query.collection.path, result.ids.get(i), result.items.get(i));
+            }
+            // An empty result is still billed as one read
+            call.finish(Math.max(1, result.items.size()), 0, bytes, result.fromCache, null);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> set(Collection collection, String id, Object data) {
+        Call call = new Call(collection.path, "set");
+        long bytes = RemoteStoreMetrics.estimateDocumentSize(collection.path, id, data);
+        return delegate.set(collection, id, data).whenComplete((aVoid, error) ->
+                call.finish(0, 1, bytes, null, error));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(Collection collection, String id, Map<String, Object> fields) {
+        Call call = new Call(collection.path, "update");
+        long bytes = RemoteStoreMetrics.estimateDocumentSize(collection.path, id, fields);
+        return delegate.update(collection, id, fields).whenComplete((aVoid, error) ->
+                call.finish(0, 1, bytes, null, error));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Collection collection, String id) {
+        Call call = new Call(collection.path, "delete");
+        long bytes = RemoteStoreMetrics.estimateDocumentSize(collection.path, id, null);
+        return delegate.delete(collection, id).whenComplete((aVoid, error) ->
+                call.finish(0, 1, bytes, null, error));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> runTransaction(TransactionFunction<R> function) {
+        // Reads and writes are counted over every attempt, as each one is billed
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger writes = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        Call call = new Call("transaction", "transaction");
+        return delegate.runTransaction((TransactionFunction<R>) transaction ->
+                function.apply(new CountingTransaction(transaction, reads, writes, bytes)))
+                .whenComplete((result, error) -> call.finish(reads.get(), writes.get(), bytes.get(), null, error));
+    }
+
+    @Override
+    public Batch batch() {
+        return new InstrumentedBatch(delegate.batch());
+    }
+
+    @Override
+    public <T> ListenerHandle listen(RemoteQuery query, Class<T> type, ChangeListener<T> listener) {
+        String callSite = metrics.captureCallSite();
+        long start = RemoteStoreMetrics.now();
+        String path = query.collection.path;
+        return delegate.listen(query, type, new ChangeListener<T>() {
+            private boolean first = true;
+
+            @Override
+            public void onChanges(@NonNull List<Change<T>> changes, boolean fromCache) {
+                long bytes = 0;
+                for (Change<T> change : changes) {
+                    if (change.type != Change.Type.REMOVED) {
+                        bytes += RemoteStoreMetrics.estimateDocumentSize(path, change.id, change.value);
+                    }
+                }
+                // Only the first snapshot has a meaningful latency: time to initial results
+                long latency = first ? RemoteStoreMetrics.elapsedMillis(start) : -1;
+                metrics.record(path, first ? "listen:initial" : "listen:update", callSite, metrics.getCurrentScreen(),
+                        changes.size(), 0, bytes, latency, fromCache, false);
+                first = false;
+                listener.onChanges(changes, fromCache);
+            }
+
+            @Override
+            public void onError(@NonNull RemoteStoreException e) {
+                metrics.record(path, "listen:error", callSite, metrics.getCurrentScreen(), 0, 0, 0, -1, null, true);
+                listener.onError(e);
+            }
+        });
+    }
+
+    private final class Call {
+        final String collection;
+        final String operation;
+        final String callSite;
+        final String screen;
+        final long start;
+
+        Call(String collection, String operation) {
+            this.collection = collection;
+            this.operation = operation;
+            this.callSite = metrics.captureCallSite();
+            this.screen = metrics.getCurrentScreen();
+            this.start = RemoteStoreMetrics.now();
+        }
+
+        void finish(int reads, int writes, long bytes, @Nullable Boolean fromCache, @Nullable Throwable error) {
+            metrics.record(collection, operation, callSite, screen, reads, writes, bytes,
+                    RemoteStoreMetrics.elapsedMillis(start), fromCache, error != null);
+        }
+    }
+
+    private static final class CountingTransaction implements Transaction {
+        private final Transaction delegate;
+        private final AtomicInteger reads;
+        private final AtomicInteger writes;
+        private final AtomicLong bytes;
+
+        CountingTransaction(Transaction delegate, AtomicInteger reads, AtomicInteger writes, AtomicLong bytes) {
+            this.delegate = delegate;
+            this.reads = reads;
+            this.writes = writes;
+            this.bytes = bytes;
+        }
+
+        @Nullable
+        @Override
+        public <T> T get(Collection collection, String id, Class<T> type) throws RemoteStoreException {
+            reads.incrementAndGet();
+            T value = delegate.get(collection, id, type);
+            bytes.addAndGet(RemoteStoreMetrics.estimateDocumentSize(collection.path, id, value));
+            return value;
+        }
+
+        @Override
+        public void set(Collection collection, String id, Object data) {
+            writes.incrementAndGet();
+            bytes.addAndGet(RemoteStoreMetrics.estimateDocumentSize(collection.path, id, data));
+            delegate.set(collection, id, data);
+        }
+
+        @Override
+        public void update(Collection collection, String id, Map<String, Object> fields) {
+            writes.incrementAndGet();
+            bytes.addAndGet(RemoteStoreMetrics.estimateDocumentSize(collection.path, id, fields));
+            delegate.update(collection, id, fields);
+        }
+
+        @Override
+        public void delete(Collection collection, String id) {
+            writes.incrementAndGet();
+            delegate.delete(collection, id);
+        }
+    }
+
+    private final class InstrumentedBatch implements Batch {
+        private final Batch delegate;
+        private String collection; // The first one written; batches rarely span collections
+        private long bytes;
+
+        InstrumentedBatch(Batch delegate) {
+            this.delegate = delegate;
+        }
+
+        private void note(Collection collection, String id, Object data) {
+            if (this.collection == null) this.collection = collection.path;
+            bytes += RemoteStoreMetrics.estimateDocumentSize(collection.path, id, data);
+        }
+
+        @Override
+        public Batch set(Collection collection, String id, Object data) {
+            note(collection, id, data);
+            delegate.set(collection, id, data);
+            return this;
+        }
+
+        @Override
+        public Batch merge(Collection collection, String id, Object data, List<String> fields) {
+            note(collection, id, data);
+            delegate.merge(collection, id, data, fields);
+            return this;
+        }
+
+        @Override
+        public Batch update(Collection collection, String id, Map<String, Object> fields) {
+            note(collection, id, fields);
+            delegate.update(collection, id, fields);
+            return this;
+        }
+
+        @Override
+        public Batch delete(Collection collection, String id) {
+            note(collection, id, null);
+            delegate.delete(collection, id);
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public CompletableFuture<Void> commit() {
+            int writes = delegate.size();
+            long batchBytes = bytes;
+            Call call = new Call(collection != null ? collection : "batch", "batch");
+            return delegate.commit().whenComplete((aVoid, error) ->
+                    call.finish(0, writes, batchBytes, null, error));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Store-neutral description of a collection query. Immutable; each call returns a copy.
+ */
+public final class RemoteQuery {
+
+    public enum Operator {
+        EQUAL,
+        IN,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL
+    }
+
+    public static final class Filter {
+        public final String field;
+        public final Operator operator;
+        public final Object value;
+
+        Filter(String field, Operator operator, Object value) {
+            this.field = field;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    public static final class Order {
+        public final String field;
+        public final boolean descending;
+
+        Order(String field, boolean descending) {
+            this.field = field;
+            this.descending = descending;
+        }
+    }
+
+    public final RemoteStore.Collection collection;
+    public final List<Filter> filters;
+    public final List<Order> orderBy;
+    public final int limit; // 0 means no limit
+    // Cursor: one value per orderBy field, or empty to start from the top
+    public final List<Object> startAfter;
+
+    private RemoteQuery(RemoteStore.Collection collection, List<Filter> filters, List<Order> orderBy, int limit,
+                        List<Object> startAfter) {
+        this.collection = collection;
+        this.filters = Collections.unmodifiableList(filters);
+        this.orderBy = Collections.unmodifiableList(orderBy);
+        this.limit = limit;
+        this.startAfter = Collections.unmodifiableList(startAfter);
+    }
+
+    public static RemoteQuery of(@NonNull RemoteStore.Collection collection) {
+        return new RemoteQuery(collection, new ArrayList<>(), new ArrayList<>(), 0, new ArrayList<>());
+    }
+
+    public RemoteQuery whereEqualTo(String field, Object value) {
+        return where(field, Operator.EQUAL, value);
+    }
+
+    public RemoteQuery whereIn(String field, List<?> values) {
+        return where(field, Operator.IN, values);
+    }
+
+    public RemoteQuery whereGreaterThan(String field, Object value) {
+        return where(field, Operator.GREATER_THAN, value);
+    }
+
+    public RemoteQuery whereGreaterThanOrEqualTo(String field, Object value) {
+        return where(field, Operator.GREATER_THAN_OR_EQUAL, value);
+    }
+
+    public RemoteQuery whereLessThan(String field, Object value) {
+        return where(field, Operator.LESS_THAN, value);
+    }
+
+    public RemoteQuery whereLessThanOrEqualTo(String field, Object value) {
+        return where(field, Operator.LESS_THAN_OR_EQUAL, value);
+    }
+
+    public RemoteQuery orderBy(String field) {
+        return orderBy(field, false);
+    }
+
+    public RemoteQuery orderBy(String field, boolean descending) {
+        List<Order> order = new ArrayList<>(orderBy);
+        order.add(new Order(field, descending));
+        return new RemoteQuery(collection, new ArrayList<>(filters), order, limit, new ArrayList<>(startAfter));
+    }
+
+    public RemoteQuery limit(int limit) {
+        return new RemoteQuery(collection, new ArrayList<>(filters), new ArrayList<>(orderBy), limit, new ArrayList<>(startAfter));
+    }
+
+    /**
+     * Starts the results after the row whose orderBy fields equal values, in orderBy
+     * order. Paging with a unique last field (e.g. the id) never skips or repeats rows.
+     */
+    public RemoteQuery startAfter(Object... values) {
+        if (values.length > orderBy.size()) {
+            throw new IllegalArgumentException("startAfter has more values than orderBy fields");
+        }
+        return new RemoteQuery(collection, new ArrayList<>(filters), new ArrayList<>(orderBy), limit,
+                new ArrayList<>(Arrays.asList(values)));
+    }
+
+    private RemoteQuery where(String field, Operator operator, Object value) {
+        List<Filter> where = new ArrayList<>(filters);
+        where.add(new Filter(field, operator, value));
+        return new RemoteQuery(collection, where, new ArrayList<>(orderBy), limit, new ArrayList<>(startAfter));
+    }
+}
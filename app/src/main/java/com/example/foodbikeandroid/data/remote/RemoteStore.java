@@ -0,0 +1,159 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The app's view of the cloud database: documents in the FoodBike collections.
+ * FirestoreRemoteStore is the production implementation; the unit tests run the same
+ * sync, transaction and caching code against InMemoryRemoteStore.
+ *
+ * Futures complete on an arbitrary thread. Post to the main thread before touching UI,
+ * and fail with a RemoteStoreException (possibly wrapped; see RemoteStoreException.from).
+ */
+public interface RemoteStore {
+
+    enum Collection {
+        USERS(FirestoreHelper.COLLECTION_USERS),
+        RESTAURANTS(FirestoreHelper.COLLECTION_RESTAURANTS),
+        ORDERS(FirestoreHelper.COLLECTION_ORDERS),
+        REVIEWS(FirestoreHelper.COLLECTION_REVIEWS),
+        WITHDRAWALS(FirestoreHelper.COLLECTION_WITHDRAWALS),
+        APPLICATIONS(FirestoreHelper.COLLECTION_APPLICATIONS),
+        ADMIN_ACTIONS(FirestoreHelper.COLLECTION_ADMIN_ACTIONS),
+        APPLIED_MUTATIONS(FirestoreHelper.COLLECTION_APPLIED_MUTATIONS),
+        APP_META(FirestoreHelper.COLLECTION_APP_META);
+
+        public final String path;
+
+        Collection(String path) {
+            this.path = path;
+        }
+
+        @Nullable
+        public static Collection fromPath(String path) {
+            for (Collection collection : values()) {
+                if (collection.path.equals(path)) return collection;
+            }
+            return null;
+        }
+    }
+
+    <T> CompletableFuture<DocumentResult<T>> get(Collection collection, String id, Class<T> type);
+
+    <T> CompletableFuture<QueryResult<T>> query(RemoteQuery query, Class<T> type);
+
+    // Replaces the whole document
+    CompletableFuture<Void> set(Collection collection, String id, Object data);
+
+    // Changes only the given fields; fails with NOT_FOUND if the document doesn't exist
+    CompletableFuture<Void> update(Collection collection, String id, Map<String, Object> fields);
+
+    CompletableFuture<Void> delete(Collection collection, String id);
+
+    /**
+     * Runs the function against a consistent view and commits its writes atomically.
+     * It may run more than once under contention, so it must not have side effects.
+     */
+    <R> CompletableFuture<R> runTransaction(TransactionFunction<R> function);
+
+    Batch batch();
+
+    // The first callback carries every current match as ADDED
+    <T> ListenerHandle listen(RemoteQuery query, Class<T> type, ChangeListener<T> listener);
+
+    interface Transaction {
+        @Nullable
+        <T> T get(Collection collection, String id, Class<T> type) throws RemoteStoreException;
+
+        void set(Collection collection, String id, Object data);
+
+        void update(Collection collection, String id, Map<String, Object> fields);
+
+        void delete(Collection collection, String id);
+    }
+
+    interface TransactionFunction<R> {
+        R apply(Transaction transaction) throws RemoteStoreException;
+    }
+
+    // Writes applied all together or not at all; at most 500 per commit
+    interface Batch {
+        Batch set(Collection collection, String id, Object data);
+
+        // Writes only the listed fields of data, creating the document if needed
+        Batch merge(Collection collection, String id, Object data, List<String> fields);
+
+        Batch update(Collection collection, String id, Map<String, Object> fields);
+
+        Batch delete(Collection collection, String id);
+
+        int size();
+
+        CompletableFuture<Void> commit();
+    }
+
+    interface ListenerHandle {
+        void remove();
+    }
+
+    interface ChangeListener<T> {
+        void onChanges(@NonNull List<Change<T>> changes, boolean fromCache);
+
+        void onError(@NonNull RemoteStoreException e);
+    }
+
+    final class Change<T> {
+        public enum Type {
+            ADDED,
+            MODIFIED,
+            REMOVED
+        }
+
+        public final Type type;
+        public final String id;
+        public final T value; // Last known value, also for REMOVED
+
+        public Change(Type type, String id, T value) {
+            this.type = type;
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    final class DocumentResult<T> {
+        @Nullable
+        public final T value; // null if the document doesn't exist
+        public final boolean fromCache; // May be stale, or missing a document the server has
+
+        public DocumentResult(@Nullable T value, boolean fromCache) {
+            this.value = value;
+            this.fromCache = fromCache;
+        }
+
+        public boolean exists() {
+            return value != null;
+        }
+    }
+
+    final class QueryResult<T> {
+        public final List<T> items;
+        public final List<String> ids; // Parallel to items
+        public final boolean fromCache; // May be missing documents the server has
+
+        public QueryResult(List<T> items, List<String> ids, boolean fromCache) {
+            this.items = Collections.unmodifiableList(items);
+            this.ids = Collections.unmodifiableList(ids);
+            this.fromCache = fromCache;
+        }
+
+        public boolean isEmpty() {
+            return items.isEmpty();
+        }
+    }
+}
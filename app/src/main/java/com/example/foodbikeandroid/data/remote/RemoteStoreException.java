@@ -0,0 +1,75 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Failure from a RemoteStore call. Codes mirror Firestore's, so callers can branch on
+ * NOT_FOUND or ABORTED the same way whichever store is behind the interface.
+ */
+public class RemoteStoreException extends Exception {
+
+    public enum Code {
+        CANCELLED,
+        UNKNOWN,
+        INVALID_ARGUMENT,
+        DEADLINE_EXCEEDED,
+        NOT_FOUND,
+        ALREADY_EXISTS,
+        PERMISSION_DENIED,
+        RESOURCE_EXHAUSTED,
+        FAILED_PRECONDITION,
+        ABORTED,
+        OUT_OF_RANGE,
+        UNIMPLEMENTED,
+        INTERNAL,
+        UNAVAILABLE,
+        DATA_LOSS,
+        UNAUTHENTICATED
+    }
+
+    private final Code code;
+
+    public RemoteStoreException(String message, @NonNull Code code) {
+        super(message);
+        this.code = code;
+    }
+
+    public RemoteStoreException(String message, @NonNull Code code, Throwable cause) {
+        super(message, cause);
+        this.code = code;
+    }
+
+    @NonNull
+    public Code getCode() {
+        return code;
+    }
+
+    // Retrying the same request can't succeed
+    public boolean isPermanent() {
+        switch (code) {
+            case INVALID_ARGUMENT:
+            case PERMISSION_DENIED:
+            case UNAUTHENTICATED:
+            case OUT_OF_RANGE:
+            case UNIMPLEMENTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Strips the wrappers CompletableFuture adds; anything foreign becomes UNKNOWN
+    @NonNull
+    public static RemoteStoreException from(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof RemoteStoreException) {
+            return (RemoteStoreException) t;
+        }
+        return new RemoteStoreException(String.valueOf(t.getMessage()), Code.UNKNOWN, t);
+    }
+}
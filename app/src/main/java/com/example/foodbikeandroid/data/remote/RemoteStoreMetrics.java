@@ -0,0 +1,370 @@
+package com.example.foodbikeandroid.data.remote;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.firebase.firestore.Exclude;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-session cost of cloud access, recorded by InstrumentedRemoteStore. Every call is
+ * attributed to its collection, operation, call site (the first frame outside this
+ * package) and the screen that was resumed at the time. Document counts follow
+ * Firestore billing: a get reads one document even if it is missing, a query reads
+ * every match, and a listener reads every changed document in each snapshot.
+ *
+ * Sizes are estimated with Firestore's storage-size rules, not measured on the wire.
+ * Gets, queries and listener snapshots count towards cache and server hits; writes
+ * and transactions count towards neither.
+ */
+public class RemoteStoreMetrics {
+
+    private static final String TAG = "RemoteStoreMetrics";
+    private static final String PACKAGE = RemoteStoreMetrics.class.getPackage().getName() + ".";
+    private static final Map<Class<?>, Map<String, Method>> GETTERS = new ConcurrentHashMap<>();
+    // Upper bounds in milliseconds; the last bucket is everything slower
+    private static final long[] LATENCY_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private static volatile RemoteStoreMetrics INSTANCE;
+
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private final Map<String, long[]> screenTotals = new TreeMap<>(); // {reads, writes}
+    private long sessionStart = System.currentTimeMillis();
+    private volatile String currentScreen = "none";
+    private boolean lifecycleInstalled;
+
+    private RemoteStoreMetrics() {
+    }
+
+    public static RemoteStoreMetrics getInstance() {
+        if (INSTANCE == null) {
+            synchronized (RemoteStoreMetrics.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new RemoteStoreMetrics();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Tracks the resumed activity for attribution and dumps the session summary to
+     * logcat and a file whenever the app goes to the background.
+     */
+    public synchronized void install(Application application) {
+        if (lifecycleInstalled) return;
+        lifecycleInstalled = true;
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            private int started;
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                currentScreen = activity.getClass().getSimpleName();
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+                started++;
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+                if (--started == 0) {
+                    dumpToLog();
+                    dumpToFile(new File(application.getFilesDir(), "remote_metrics"));
+                }
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+            }
+        });
+    }
+
+    // "Class.method" of the first app frame outside this package; call it on the calling thread
+    String captureCallSite() {
+        for (StackTraceElement frame : Thread.currentThread().getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("dalvik.")
+                    || className.startsWith("android.") || className.startsWith("com.android.")
+                    || className.startsWith(PACKAGE)) {
+                continue;
+            }
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            int inner = simpleName.indexOf('$');
+            if (inner >= 0) simpleName = simpleName.substring(0, inner);
+            return simpleName + "." + cleanMethodName(frame.getMethodName());
+        }
+        return "unknown";
+    }
+
+    String getCurrentScreen() {
+        return currentScreen;
+    }
+
+    /**
+     * Records one finished operation. fromCache is null when the source is unknown.
+     */
+    synchronized void record(String collection, String operation, String callSite, String screen,
+                             int documentsRead, int documentsWritten, long bytes, long latencyMillis,
+                             @Nullable Boolean fromCache, boolean failed) {
+        String key = collection + " " + operation + " @ " + callSite;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+        }
+        entry.calls++;
+        entry.documentsRead += documentsRead;
+        entry.documentsWritten += documentsWritten;
+        entry.bytes += bytes;
+        if (failed) entry.failures++;
+        if (fromCache != null) {
+            if (fromCache) entry.cacheHits++;
+            else entry.serverHits++;
+        }
+        if (latencyMillis >= 0) {
+            entry.latency[bucket(latencyMillis)]++;
+            entry.totalLatencyMillis += latencyMillis;
+            entry.timedCalls++;
+        }
+        long[] totals = screenTotals.get(screen);
+        if (totals == null) {
+            totals = new long[2];
+            screenTotals.put(screen, totals);
+        }
+        totals[0] += documentsRead;
+        totals[1] += documentsWritten;
+    }
+
+    public synchronized long getTotalDocumentsRead() {
+        long total = 0;
+        for (Entry entry : entries.values()) total += entry.documentsRead;
+        return total;
+    }
+
+    public synchronized long getTotalDocumentsWritten() {
+        long total = 0;
+        for (Entry entry : entries.values()) total += entry.documentsWritten;
+        return total;
+    }
+
+    @NonNull
+    public synchronized String summary() {
+        StringBuilder out = new StringBuilder();
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        out.append("Remote store session since ").append(format.format(new Date(sessionStart)))
+                .append(": reads=").append(getTotalDocumentsRead())
+                .append(" writes=").append(getTotalDocumentsWritten()).append('\n');
+        out.append("By screen (reads/writes):\n");
+        for (Map.Entry<String, long[]> screen : screenTotals.entrySet()) {
+            out.append("  ").append(screen.getKey()).append(": ")
+                    .append(screen.getValue()[0]).append('/').append(screen.getValue()[1]).append('\n');
+        }
+        out.append("By call:\n");
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            out.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    public void dumpToLog() {
+        for (String line : summary().split("\n")) {
+            Log.i(TAG, line);
+        }
+    }
+
+    // Writes the summary to a timestamped file in directory and returns it, or null on failure
+    @Nullable
+    public File dumpToFile(File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) return null;
+        String name;
+        synchronized (this) {
+            name = "session-" + new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date(sessionStart)) + ".txt";
+        }
+        File file = new File(directory, name);
+        try (Writer writer = new FileWriter(file, false)) {
+            writer.write(summary());
+            return file;
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write " + file, e);
+            return null;
+        }
+    }
+
+    // Starts a new session, e.g. at the top of a test that compares sync cost
+    public synchronized void reset() {
+        entries.clear();
+        screenTotals.clear();
+        sessionStart = System.currentTimeMillis();
+    }
+
+    @VisibleForTesting
+    public synchronized Map<String, String> snapshotForTesting() {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().toString());
+        }
+        return snapshot;
+    }
+
+    static long elapsedMillis(long startNanos) {
+        return (SystemClock.elapsedRealtimeNanos() - startNanos) / 1_000_000;
+    }
+
+    static long now() {
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    private static int bucket(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+            if (latencyMillis <= LATENCY_BOUNDS_MS[i]) return i;
+        }
+        return LATENCY_BOUNDS_MS.length;
+    }
+
+    // "lambda$syncOrdersSince$3" -> "syncOrdersSince"
+    private static String cleanMethodName(String name) {
+        if (name.startsWith("lambda$")) {
+            int end = name.indexOf('$', 7);
+            return end > 7 ? name.substring(7, end) : name.substring(7);
+        }
+        return name;
+    }
+
+    /**
+     * Firestore's storage-size rules: strings are UTF-8 length + 1, numbers and dates 8,
+     * booleans and null 1, maps and arrays the sum of their parts plus field names.
+     */
+    static long estimateSize(Object value) {
+        if (value == null || value instanceof Boolean) return 1;
+        if (value instanceof String) return ((String) value).getBytes(java.nio.charset.StandardCharsets.UTF_8).length + 1;
+        if (value instanceof Number || value instanceof Date || value instanceof RemoteValue) return 8;
+        if (value instanceof Enum) return ((Enum<?>) value).name().length() + 1;
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + 1 + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof List) {
+            long size = 0;
+            for (Object item : (List<?>) value) size += estimateSize(item);
+            return size;
+        }
+        // A model object: Firestore stores one field per public getter not marked @Exclude
+        long size = 0;
+        for (Map.Entry<String, Method> getter : getters(value.getClass()).entrySet()) {
+            try {
+                size += getter.getKey().length() + 1 + estimateSize(getter.getValue().invoke(value));
+            } catch (ReflectiveOperationException e) {
+                // Skip fields we can't read; this is only an estimate
+            }
+        }
+        return size;
+    }
+
+    private static Map<String, Method> getters(Class<?> type) {
+        return GETTERS.computeIfAbsent(type, t -> {
+            Map<String, Method> getters = new LinkedHashMap<>();
+            for (Method method : t.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                        || method.getDeclaringClass() == Object.class
+                        || method.isAnnotationPresent(Exclude.class)) {
+                    continue;
+                }
+                String name = method.getName();
+                if (name.startsWith("get") && name.length() > 3) {
+                    getters.put(name.substring(3), method);
+                } else if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+                    getters.put(name.substring(2), method);
+                }
+            }
+            return getters;
+        });
+    }
+
+    // Document name overhead plus the fields
+    static long estimateDocumentSize(String collection, String id, Object data) {
+        long size = collection.length() + 1 + (id != null ? id.length() + 1 : 0) + 16;
+        return data != null ? size + estimateSize(data) + 32 : size;
+    }
+
+    private static final class Entry {
+        long calls;
+        long failures;
+        long documentsRead;
+        long documentsWritten;
+        long bytes;
+        long cacheHits;
+        long serverHits;
+        long timedCalls;
+        long totalLatencyMillis;
+        final long[] latency = new long[LATENCY_BOUNDS_MS.length + 1];
+
+        long percentile(int percentile) {
+            if (timedCalls == 0) return -1;
+            long target = (long) Math.ceil(percentile / 100.0 * timedCalls);
+            long seen = 0;
+            for (int i = 0; i < latency.length; i++) {
+                seen += latency[i];
+                if (seen >= target) {
+                    return i < LATENCY_BOUNDS_MS.length ? LATENCY_BOUNDS_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            List<String> buckets = new ArrayList<>();
+            for (int i = 0; i < latency.length; i++) {
+                if (latency[i] == 0) continue;
+                String bound = i < LATENCY_BOUNDS_MS.length ? "<=" + LATENCY_BOUNDS_MS[i] : ">" + LATENCY_BOUNDS_MS[LATENCY_BOUNDS_MS.length - 1];
+                buckets.add(bound + ":" + latency[i]);
+            }
+            long p95 = percentile(95);
+            return "calls=" + calls + " failed=" + failures + " read=" + documentsRead + " written=" + documentsWritten
+                    + " bytes=" + bytes + " cache=" + cacheHits + " server=" + serverHits
+                    + " avgMs=" + (timedCalls > 0 ? totalLatencyMillis / timedCalls : -1)
+                    + " p95Ms=" + (p95 == Long.MAX_VALUE ? ">" + LATENCY_BOUNDS_MS[LATENCY_BOUNDS_MS.length - 1] : String.valueOf(p95))
+                    + " hist=" + buckets;
+        }
+    }
+}
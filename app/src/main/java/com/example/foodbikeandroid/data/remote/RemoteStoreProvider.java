@@ -0,0 +1,38 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.example.foodbikeandroid.BuildConfig;
+
+/**
+ * Hands repositories their RemoteStore. Repositories are singletons that read this once,
+ * so a test must install its store before the first getInstance() call.
+ */
+public final class RemoteStoreProvider {
+
+    private static volatile RemoteStore override;
+    private static volatile RemoteStore instrumented;
+
+    private RemoteStoreProvider() {
+    }
+
+    public static RemoteStore get() {
+        RemoteStore store = override;
+        if (store != null) return store;
+        if (!BuildConfig.DEBUG) return FirestoreRemoteStore.getInstance();
+        // Debug builds count reads, writes and latency per call site
+        if (instrumented == null) {
+            synchronized (RemoteStoreProvider.class) {
+                if (instrumented == null) {
+                    instrumented = new InstrumentedRemoteStore(FirestoreRemoteStore.getInstance(), RemoteStoreMetrics.getInstance());
+                }
+            }
+        }
+        return instrumented;
+    }
+
+    @VisibleForTesting
+    public static void setForTesting(RemoteStore store) {
+        override = store;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.foodbikeandroid.data.remote;
+
+/**
+ * Field values resolved by the store at write time rather than by the caller.
+ * Only valid inside update maps and merge writes.
+ */
+public final class RemoteValue {
+
+    enum Kind {
+        SERVER_TIMESTAMP,
+        INCREMENT,
+        DELETE
+    }
+
+    private static final RemoteValue SERVER_TIMESTAMP = new RemoteValue(Kind.SERVER_TIMESTAMP, null);
+    private static final RemoteValue DELETE = new RemoteValue(Kind.DELETE, null);
+
+    final Kind kind;
+    final Number amount;
+
+    private RemoteValue(Kind kind, Number amount) {
+        this.kind = kind;
+        this.amount = amount;
+    }
+
+    public static RemoteValue serverTimestamp() {
+        return SERVER_TIMESTAMP;
+    }
+
+    public static RemoteValue increment(long amount) {
+        return new RemoteValue(Kind.INCREMENT, amount);
+    }
+
+    public static RemoteValue increment(double amount) {
+        return new RemoteValue(Kind.INCREMENT, amount);
+    }
+
+    public static RemoteValue delete() {
+        return DELETE;
+    }
+}
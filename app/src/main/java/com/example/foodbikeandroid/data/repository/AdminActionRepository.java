@@ -8,26 +8,35 @@ import androidx.lifecycle.LiveData;
 
 import com.example.foodbikeandroid.data.database.AdminActionDao;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.AdminAction;
-import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class AdminActionRepository {
 
     private static volatile AdminActionRepository INSTANCE;
     private final AdminActionDao adminActionDao;
-    private final FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final Handler mainHandler;
 
     private AdminActionRepository(Context context) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
         adminActionDao = database.adminActionDao();
-        firestoreHelper = FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(4);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        AppExecutors executors = AppExecutors.getInstance();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new Handler(Looper.getMainLooper());
     }
 
@@ -43,26 +52,24 @@ public class AdminActionRepository {
     }
 
     public void insert(AdminAction action) {
-        firestoreHelper.getAdminActionsCollection().document(action.getActionId()).set(action)
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> adminActionDao.insert(action)));
+        remoteStore.set(RemoteStore.Collection.ADMIN_ACTIONS, action.getActionId(), action)
+                .thenRun(() -> writeExecutor.execute(() -> adminActionDao.insert(action)));
     }
 
-    public void syncAdminActions() {
-        firestoreHelper.getAdminActionsCollection().orderBy("timestamp", com.google.firebase.firestore.Query.Direction.DESCENDING).limit(100).get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null && !snapshots.isEmpty()) {
-                        List<AdminAction> actions = snapshots.toObjects(AdminAction.class);
-                        executorService.execute(() -> {
-                            for (AdminAction a : actions) {
-                                try {
-                                    adminActionDao.insert(a);
-                                } catch (Exception e) {
+    public CompletableFuture<Void> syncAdminActions() {
+        return syncAdminActions(false);
+    }
 
-                                }
-                            }
-                        });
-                    }
-                });
+    public CompletableFuture<Void> syncAdminActions(boolean force) {
+        return syncCoordinator.run("admin_actions:recent", SyncCoordinator.ADMIN_MIN_INTERVAL_MS, force, () -> {
+            RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.ADMIN_ACTIONS).orderBy("timestamp", true).limit(100);
+            return remoteStore.query(query, AdminAction.class)
+                    .thenAcceptAsync(result -> {
+                        if (!result.isEmpty()) {
+                            adminActionDao.insertAll(result.items);
+                        }
+                    }, syncExecutor);
+        });
     }
 
     public LiveData<List<AdminAction>> getAllActions() {
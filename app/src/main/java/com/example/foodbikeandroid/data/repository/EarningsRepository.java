@@ -0,0 +1,102 @@
+package com.example.foodbikeandroid.data.repository;
+
+import android.content.Context;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+
+import com.example.foodbikeandroid.data.database.EarningsDao;
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.database.UserDao;
+import com.example.foodbikeandroid.data.model.EarningsEntry;
+import com.example.foodbikeandroid.data.outbox.Outbox;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+
+import java.util.List;
+
+/**
+ * Single path for changing a user's or restaurant's earnings. Each change is a ledger
+ * entry with a stable key; the first time a key is recorded the local balance moves
+ * and a server-side increment is queued in the same transaction. Recording it again,
+ * e.g. when a delivery is confirmed twice, changes nothing. Earnings documents are
+ * never written whole, so credits from different devices can't overwrite each other.
+ */
+public class EarningsRepository {
+
+    public static final String FIELD_EARNINGS = "earnings";
+
+    private static volatile EarningsRepository INSTANCE;
+    private final EarningsDao earningsDao;
+    private final UserDao userDao;
+    private final RestaurantDao restaurantDao;
+    private final Outbox outbox;
+
+    private EarningsRepository(Context context) {
+        FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
+        earningsDao = database.earningsDao();
+        userDao = database.userDao();
+        restaurantDao = database.restaurantDao();
+        outbox = Outbox.getInstance(context);
+    }
+
+    public static EarningsRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (EarningsRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new EarningsRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public static String deliveryKey(String orderId, String party) {
+        return "delivery:" + orderId + ":" + party;
+    }
+
+    public static String withdrawalKey(String username, String withdrawalId) {
+        return "withdrawal:" + username + ":" + withdrawalId;
+    }
+
+    // Returns false if this entry was already recorded
+    @WorkerThread
+    public boolean creditUser(String entryKey, String username, double amount) {
+        return record(new EarningsEntry(entryKey, FirestoreHelper.COLLECTION_USERS, username,
+                amount, System.currentTimeMillis()));
+    }
+
+    @WorkerThread
+    public boolean creditRestaurant(String entryKey, String restaurantId, double amount) {
+        return record(new EarningsEntry(entryKey, FirestoreHelper.COLLECTION_RESTAURANTS, restaurantId,
+                amount, System.currentTimeMillis()));
+    }
+
+    @WorkerThread
+    private boolean record(EarningsEntry entry) {
+        return outbox.applyLocallyIf(() -> {
+                    if (earningsDao.insert(entry) == -1) return false;
+                    if (FirestoreHelper.COLLECTION_USERS.equals(entry.getCollection())) {
+                        userDao.addEarnings(entry.getAccountId(), entry.getAmount());
+                    } else {
+                        restaurantDao.addEarnings(entry.getAccountId(), entry.getAmount());
+                    }
+                    return true;
+                },
+                Outbox.increment(entry.getCollection(), entry.getAccountId(), "earnings:" + entry.getEntryKey(),
+                        FIELD_EARNINGS, entry.getAmount()));
+    }
+
+    /**
+     * The balance to show for a freshly fetched remote value: the server total plus
+     * whatever this device has recorded but not yet sent.
+     */
+    @WorkerThread
+    public double reconcile(String collection, String accountId, double remoteEarnings) {
+        return remoteEarnings + outbox.getPendingIncrement(collection, accountId, FIELD_EARNINGS);
+    }
+
+    public LiveData<List<EarningsEntry>> getUserEntries(String username) {
+        return earningsDao.getEntries(FirestoreHelper.COLLECTION_USERS, username);
+    }
+}
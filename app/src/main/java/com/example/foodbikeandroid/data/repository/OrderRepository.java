@@ -1,130 +1,296 @@
 package com.example.foodbikeandroid.data.repository;
 
-import android.app.Application;
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
 import androidx.lifecycle.LiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import androidx.room.InvalidationTracker;
 
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.OrderDao;
-import com.example.foodbikeandroid.data.database.RestaurantDao;
-import com.example.foodbikeandroid.data.database.UserDao;
+import com.example.foodbikeandroid.data.database.SyncStateDao;
+import com.example.foodbikeandroid.data.dispatch.OrderClaimer;
+import com.example.foodbikeandroid.data.dispatch.OrderDispatcher;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 import com.example.foodbikeandroid.data.model.PaymentMethod;
+import com.example.foodbikeandroid.data.model.SyncState;
+import com.example.foodbikeandroid.data.outbox.Outbox;
+import com.example.foodbikeandroid.data.paging.OrderKeysetPagingSource;
+import com.example.foodbikeandroid.data.paging.OrderPageKey;
+import com.example.foodbikeandroid.data.paging.RemoteHistoryMediator;
 import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.remote.RemoteValue;
+import com.example.foodbikeandroid.data.sync.AvailableOrdersFeed;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
+import com.example.foodbikeandroid.work.AutoCancelScheduler;
 
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class OrderRepository {
 
+    private static final String TAG = "OrderRepository";
+    private static volatile OrderRepository INSTANCE;
+    private final FoodBikeDatabase database;
     private final OrderDao orderDao;
-    private final UserDao userDao;
-    private final RestaurantDao restaurantDao;
-    private final UserRepository userRepository;
-    private final FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final SyncStateDao syncStateDao;
+    private final EarningsRepository earningsRepository;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final InvalidationTracker invalidationTracker;
+    private final AutoCancelScheduler autoCancelScheduler;
+    private final AvailableOrdersFeed availableOrdersFeed;
+    private final OrderDispatcher orderDispatcher;
+    private final Outbox outbox;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final Handler mainHandler;
-    private static final long AUTO_CANCEL_CHECK_INTERVAL = 5 * 60 * 1000;
-    private static final long ONE_HOUR_MILLIS = 60 * 60 * 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final long FULL_RESYNC_INTERVAL_MS = 24 * 60 * 60 * 1000L;
 
-    public OrderRepository(Application application) {
-        FoodBikeDatabase database = FoodBikeDatabase.getInstance(application);
+    private OrderRepository(Context context) {
+        database = FoodBikeDatabase.getInstance(context);
         orderDao = database.orderDao();
-        userDao = database.userDao();
-        restaurantDao = database.restaurantDao();
-        userRepository = UserRepository.getInstance(application);
-        firestoreHelper = FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(4);
+        syncStateDao = database.syncStateDao();
+        earningsRepository = EarningsRepository.getInstance(context);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        invalidationTracker = database.getInvalidationTracker();
+        AppExecutors executors = AppExecutors.getInstance();
+        readExecutor = executors.interactive();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new Handler(Looper.getMainLooper());
-        startAutoCancelChecker();
+        autoCancelScheduler = AutoCancelScheduler.getInstance(context);
+        availableOrdersFeed = AvailableOrdersFeed.getInstance(context);
+        orderDispatcher = OrderDispatcher.getInstance();
+        outbox = Outbox.getInstance(context);
+        autoCancelScheduler.start();
+    }
+
+    public static OrderRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (OrderRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new OrderRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
     }
 
+    // Saved locally and queued for upload, so placing an order works offline
     public void insertOrder(Order order, OrderCallback callback) {
-        firestoreHelper.getOrdersCollection().document(order.getOrderId()).set(order)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
-                        try {
-                            orderDao.insertOrder(order);
-                            mainHandler.post(() -> {
-                                if (callback != null) callback.onSuccess(order);
-                            });
-                        } catch (Exception e) {
-                            mainHandler.post(() -> {
-                                if (callback != null) callback.onError("Saved to cloud but local failed: " + e.getMessage());
-                            });
-                        }
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    mainHandler.post(() -> {
-                        if (callback != null) callback.onError("Failed to place order: " + e.getMessage());
-                    });
+        writeExecutor.execute(() -> {
+            try {
+                outbox.applyLocally(() -> orderDao.insertOrder(order),
+                        Outbox.set(FirestoreHelper.COLLECTION_ORDERS, order.getOrderId(), "order-create:" + order.getOrderId()));
+                if (order.getStatus() == OrderStatus.PENDING) {
+                    autoCancelScheduler.onPendingOrder(order.getCreatedAt());
+                }
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onSuccess(order);
                 });
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onError("Failed to place order: " + e.getMessage());
+                });
+            }
+        });
     }
 
-    public void syncUserOrders(String userId) {
-        firestoreHelper.getOrdersCollection()
-                .whereEqualTo("userId", userId)
-                .get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null && !snapshots.isEmpty()) {
-                        List<Order> orders = snapshots.toObjects(Order.class);
-                        executorService.execute(() -> {
-                            for (Order order : orders) {
-                                orderDao.insertOrder(order); // Assumes REPLACE strategy? Need to check Dao.
+    public CompletableFuture<Void> syncUserOrders(String userId) {
+        return syncUserOrders(userId, false);
+    }
+
+    public CompletableFuture<Void> syncUserOrders(String userId, boolean force) {
+        return syncOrdersSince("userId", userId, "orders:user:" + userId, force);
+    }
+
+    public CompletableFuture<Void> syncBikerOrders(String bikerId) {
+        return syncBikerOrders(bikerId, false);
+    }
+
+    public CompletableFuture<Void> syncBikerOrders(String bikerId, boolean force) {
+        return syncOrdersSince("bikerId", bikerId, "orders:biker:" + bikerId, force);
+    }
+
+    public CompletableFuture<Void> syncRestaurantOrders(String restaurantId) {
+        return syncRestaurantOrders(restaurantId, false);
+    }
+
+    public CompletableFuture<Void> syncRestaurantOrders(String restaurantId, boolean force) {
+        return syncOrdersSince("restaurantId", restaurantId, "orders:restaurant:" + restaurantId, force);
+    }
+
+    // The first runs for a query page its whole history into Room, newest first by
+    // createdAt, resuming from the cursor stored in sync_state; only then do runs
+    // switch to delta sync, fetching documents whose server updatedAt is past the
+    // watermark. Runs are coalesced per key, so two callers never read the same
+    // sync state concurrently.
+    //
+    // Delta sync can't see orders without updatedAt: ones written before the field
+    // existed, or rewritten by app versions that don't set it. Each history pass stamps
+    // the ones it finds, and the whole history is paged again once a day to catch
+    // rewrites while such versions are still in use.
+    private CompletableFuture<Void> syncOrdersSince(String field, String value, String syncKey, boolean force) {
+        RemoteQuery scope = RemoteQuery.of(RemoteStore.Collection.ORDERS).whereEqualTo(field, value);
+        return syncCoordinator.run(syncKey, SyncCoordinator.ORDERS_MIN_INTERVAL_MS, force, () ->
+                CompletableFuture.supplyAsync(() -> syncStateDao.get(syncKey), syncExecutor)
+                        .thenCompose(state -> {
+                            if (state == null || !state.isHistoryComplete()) {
+                                return syncOrderHistory(scope, syncKey, state);
                             }
-                        });
-                    }
-                });
+                            if (System.currentTimeMillis() - state.getHistorySyncedAt() >= FULL_RESYNC_INTERVAL_MS) {
+                                SyncState restart = new SyncState(state);
+                                restart.setHistoryCursorTime(null);
+                                restart.setHistoryCursorId(null);
+                                restart.setHistoryComplete(false);
+                                return syncOrderHistory(scope, syncKey, restart);
+                            }
+                            return syncOrderDelta(scope, state);
+                        }));
     }
 
-    public void syncBikerOrders(String bikerId) {
-        firestoreHelper.getOrdersCollection()
-                .whereEqualTo("bikerId", bikerId)
-                .get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null && !snapshots.isEmpty()) {
-                        List<Order> orders = snapshots.toObjects(Order.class);
-                        executorService.execute(() -> {
-                             for (Order order : orders) {
-                                 orderDao.insertOrder(order);
-                             }
-                        });
+    private CompletableFuture<Void> syncOrderDelta(RemoteQuery scope, SyncState state) {
+        RemoteQuery query = scope.whereGreaterThan("updatedAt", new Date(state.getWatermark())).orderBy("updatedAt");
+        return remoteStore.query(query, Order.class).thenAcceptAsync(result -> {
+            SyncState next = new SyncState(state);
+            for (Order order : result.items) {
+                if (order.getUpdatedAt() != null) {
+                    next.setWatermark(Math.max(next.getWatermark(), order.getUpdatedAt().getTime()));
+                }
+            }
+            // Cached results may be missing documents, so they must not advance the watermark
+            storeOrders(result.items, result.fromCache ? null : next);
+        }, syncExecutor);
+    }
+
+    // One page of history after the stored cursor, then the next until a short page
+    private CompletableFuture<Void> syncOrderHistory(RemoteQuery scope, String syncKey, @Nullable SyncState state) {
+        RemoteQuery query = scope.orderBy("createdAt", true).orderBy("orderId", true).limit(HISTORY_PAGE_SIZE);
+        if (state != null && state.getHistoryCursorId() != null) {
+            query = query.startAfter(state.getHistoryCursorTime(), state.getHistoryCursorId());
+        }
+        return remoteStore.query(query, Order.class).thenComposeAsync(result -> {
+            if (result.fromCache) {
+                // Offline: show what the cache has and resume from the same cursor next time
+                storeOrders(result.items, null);
+                return CompletableFuture.completedFuture(null);
+            }
+            SyncState next = state != null ? new SyncState(state) : new SyncState(syncKey, 0);
+            if (next.getHistoryCursorId() == null) {
+                // The first page fixes the delta watermark. Any later change to a document
+                // gets a newer server timestamp, so delta sync picks up whatever changes
+                // while the rest of the history is paged in. Later pages must not raise
+                // it, or changes to documents already fetched could be skipped.
+                for (Order order : result.items) {
+                    if (order.getUpdatedAt() != null) {
+                        next.setWatermark(Math.max(next.getWatermark(), order.getUpdatedAt().getTime()));
                     }
-                });
+                }
+            }
+            if (!result.isEmpty()) {
+                Order last = result.items.get(result.items.size() - 1);
+                next.setHistoryCursorTime(last.getCreatedAt());
+                next.setHistoryCursorId(last.getOrderId());
+            }
+            next.setHistoryComplete(result.items.size() < HISTORY_PAGE_SIZE);
+            if (next.isHistoryComplete()) {
+                next.setHistorySyncedAt(System.currentTimeMillis());
+            }
+            storeOrders(result.items, next);
+            stampMissingUpdatedAt(result.items);
+            return next.isHistoryComplete()
+                    ? CompletableFuture.<Void>completedFuture(null)
+                    : syncOrderHistory(scope, syncKey, next);
+        }, syncExecutor);
+    }
+
+    // Gives orders without updatedAt a server timestamp, so delta sync on every device
+    // picks them up from now on. Best effort: the next history pass retries.
+    private void stampMissingUpdatedAt(List<Order> orders) {
+        RemoteStore.Batch batch = remoteStore.batch();
+        for (Order order : orders) {
+            if (order.getUpdatedAt() == null) {
+                batch.update(RemoteStore.Collection.ORDERS, order.getOrderId(),
+                        Collections.<String, Object>singletonMap("updatedAt", RemoteValue.serverTimestamp()));
+            }
+        }
+        if (batch.size() > 0) {
+            batch.commit().exceptionally(error -> {
+                Log.w(TAG, "Could not stamp updatedAt on " + batch.size() + " orders", error);
+                return null;
+            });
+        }
     }
-    
-    public void syncAvailableOrders() {
-         firestoreHelper.getOrdersCollection()
-                 .whereEqualTo("status", OrderStatus.PENDING)
-                 .get()
-                 .addOnSuccessListener(snapshots -> {
-                     if (snapshots != null) {
-                         List<Order> orders = snapshots.toObjects(Order.class);
-                         executorService.execute(() -> {
-                             for (Order order : orders) {
-                                  orderDao.insertOrder(order);
-                             }
-                         });
-                     }
-                 });
+
+    // Stores fetched orders and, when given, the sync state they advance to in one transaction
+    private void storeOrders(List<Order> orders, @Nullable SyncState state) {
+        database.runInTransaction(() -> {
+            // Rows with queued local changes are newer than the server copy
+            List<Order> incoming = outbox.withoutPendingChanges(FirestoreHelper.COLLECTION_ORDERS, orders, Order::getOrderId);
+            if (!incoming.isEmpty()) {
+                orderDao.insertOrders(incoming);
+            }
+            if (state != null) {
+                syncStateDao.upsert(state);
+            }
+        });
+        if (!orders.isEmpty()) {
+            autoCancelScheduler.rescheduleFromDatabase();
+        }
+    }
+
+    public CompletableFuture<Void> syncAvailableOrders() {
+        return syncAvailableOrders(false);
+    }
+
+    public CompletableFuture<Void> syncAvailableOrders(boolean force) {
+        return syncCoordinator.run("orders:pending", SyncCoordinator.ORDERS_MIN_INTERVAL_MS, force, () ->
+                remoteStore.query(RemoteQuery.of(RemoteStore.Collection.ORDERS)
+                                .whereEqualTo("status", OrderStatus.PENDING), Order.class)
+                        .thenAcceptAsync(result -> {
+                            orderDao.insertOrders(result.items);
+                            autoCancelScheduler.rescheduleFromDatabase();
+                        }, syncExecutor));
     }
 
     public void updateOrder(Order order) {
-        executorService.execute(() -> orderDao.updateOrder(order));
+        writeExecutor.execute(() -> orderDao.updateOrder(order));
     }
 
     public void updateOrderStatus(String orderId, OrderStatus status) {
-        executorService.execute(() -> orderDao.updateOrderStatus(orderId, status));
+        writeExecutor.execute(() -> orderDao.updateOrderStatus(orderId, status));
     }
 
     public void updateOrderStatus(String orderId, OrderStatus status, StatusUpdateCallback callback) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             try {
                 if (status == OrderStatus.READY) {
                     orderDao.clearBikerAndSetReady(orderId);
@@ -140,7 +306,7 @@ public class OrderRepository {
 
     // Reject order with refund logic for digital payments
     public void rejectOrder(String orderId, StatusUpdateCallback callback) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             Order order = orderDao.getOrderByIdSync(orderId);
             if (order == null) {
                 mainHandler.post(() -> {
@@ -153,54 +319,49 @@ public class OrderRepository {
             boolean shouldRefund = (order.getPaymentMethod() == PaymentMethod.BKASH || 
                                    order.getPaymentMethod() == PaymentMethod.NAGAD) &&
                                    order.getPaymentSourceAccount() != null;
-            
-            if (shouldRefund) {
-                orderDao.updateRefundStatus(orderId, true);
-                order.setRefunded(true);
-            }
 
-            // Update status to CANCELLED
-            orderDao.updateOrderStatus(orderId, OrderStatus.CANCELLED);
-            order.setStatus(OrderStatus.CANCELLED);
-
-            // Update in Firestore
-            firestoreHelper.getOrdersCollection().document(orderId).set(order)
-                    .addOnSuccessListener(aVoid -> mainHandler.post(() -> {
-                        if (callback != null) callback.onSuccess();
-                    }))
-                    .addOnFailureListener(e -> mainHandler.post(() -> {
-                        if (callback != null) callback.onError(e.getMessage());
-                    }));
+            try {
+                // Cancelled locally now; the outbox uploads the row once online
+                outbox.applyLocally(() -> {
+                    if (shouldRefund) {
+                        orderDao.updateRefundStatus(orderId, true);
+                    }
+                    orderDao.updateOrderStatus(orderId, OrderStatus.CANCELLED);
+                }, Outbox.set(FirestoreHelper.COLLECTION_ORDERS, orderId, "order-reject:" + orderId));
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onSuccess();
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onError(e.getMessage());
+                });
+            }
         });
     }
 
     public void assignBiker(String orderId, String bikerId) {
-        executorService.execute(() -> orderDao.assignBiker(orderId, bikerId));
+        writeExecutor.execute(() -> orderDao.assignBiker(orderId, bikerId));
     }
 
+    // Claimed through OrderDispatcher, which retries contention and tracks the claim in flight
     public void tryAcceptOrder(String orderId, String bikerId, AcceptOrderCallback callback) {
-        firestoreHelper.getDb().runTransaction(transaction -> {
-            com.google.firebase.firestore.DocumentReference orderRef = firestoreHelper.getOrdersCollection().document(orderId);
-            com.google.firebase.firestore.DocumentSnapshot snapshot = transaction.get(orderRef);
-
-            if (!snapshot.exists()) {
-                throw new com.google.firebase.firestore.FirebaseFirestoreException("Order not found",
-                        com.google.firebase.firestore.FirebaseFirestoreException.Code.NOT_FOUND);
-            }
-
-            Order order = snapshot.toObject(Order.class);
-            if (order != null && order.getBikerId() == null && order.getStatus() == OrderStatus.PENDING) {
-                transaction.update(orderRef, "bikerId", bikerId);
-                transaction.update(orderRef, "status", OrderStatus.PREPARING);
-                transaction.update(orderRef, "acceptedAt", System.currentTimeMillis());
-                return null;
-            } else {
-                throw new com.google.firebase.firestore.FirebaseFirestoreException("Order already taken",
-                        com.google.firebase.firestore.FirebaseFirestoreException.Code.ABORTED);
+        orderDispatcher.claim(orderId, bikerId).whenComplete((result, error) -> {
+            if (error != null || result.outcome != OrderClaimer.Outcome.WON) {
+                mainHandler.post(() -> {
+                    if (error != null) {
+                        callback.onError(RemoteStoreException.from(error).getMessage());
+                    } else if (result.outcome == OrderClaimer.Outcome.TAKEN) {
+                        callback.onAlreadyTaken();
+                    } else if (result.outcome == OrderClaimer.Outcome.NOT_FOUND) {
+                        callback.onError("Order not found");
+                    } else {
+                        callback.onError(result.error != null ? result.error.getMessage() : "Could not accept order");
+                    }
+                });
+                return;
             }
-        }).addOnSuccessListener(result -> {
             // Update local DB to match
-            executorService.execute(() -> {
+            writeExecutor.execute(() -> {
                 try {
                     long timestamp = System.currentTimeMillis();
                     int rowsUpdated = orderDao.tryAcceptOrderAtomic(orderId, bikerId, OrderStatus.PREPARING, timestamp);
@@ -210,14 +371,6 @@ public class OrderRepository {
                    mainHandler.post(callback::onSuccess);
                 }
             });
-        }).addOnFailureListener(e -> {
-            mainHandler.post(() -> {
-                if (e.getMessage().contains("Order already taken")) {
-                    callback.onAlreadyTaken();
-                } else {
-                    callback.onError(e.getMessage());
-                }
-            });
         });
     }
 
@@ -226,7 +379,7 @@ public class OrderRepository {
     }
     
     public void getOrderById(String orderId, OrderCallback callback) {
-        executorService.execute(() -> {
+        readExecutor.execute(() -> {
             try {
                 Order order = orderDao.getOrderByIdSync(orderId);
                 if (order != null) {
@@ -244,8 +397,8 @@ public class OrderRepository {
         return orderDao.getOrdersByUserId(userId);
     }
 
-    public LiveData<List<Order>> getRefundedOrdersByUserId(String userId) {
-        return orderDao.getRefundedOrdersByUserId(userId);
+    public LiveData<List<OrderListRow>> getRefundedOrderRowsByUserId(String userId) {
+        return orderDao.getRefundedOrderRowsByUserId(userId);
     }
 
     public LiveData<List<Order>> getOrdersByRestaurantId(String restaurantId) {
@@ -264,14 +417,101 @@ public class OrderRepository {
         return orderDao.getCompletedOrdersByBiker(bikerId);
     }
 
+    public LiveData<List<OrderListRow>> getCompletedOrderRowsByBiker(String bikerId) {
+        return orderDao.getCompletedOrderRowsByBiker(bikerId);
+    }
+
+    public LiveData<List<OrderListRow>> getCompletedOrderRowsByBikerAfter(String bikerId, long startTime) {
+        return orderDao.getCompletedOrderRowsByBikerAfter(bikerId, startTime);
+    }
+
+    // Paged variants of the history lists above; search matches order id or restaurant name
+    public LiveData<PagingData<OrderListRow>> getOrdersByUserIdPaged(String userId, List<OrderStatus> statuses,
+                                                                     String search) {
+        String pattern = toLikePattern(search);
+        RemoteHistoryMediator<OrderPageKey, OrderListRow> mediator =
+                new RemoteHistoryMediator<>(() -> syncUserOrders(userId));
+        return page(mediator, () -> new OrderKeysetPagingSource<>(invalidationTracker, readExecutor,
+                OrderListRow::getOrder, Order::getCreatedAt,
+                (createdAt, orderId, limit) -> orderDao.getUserOrderRowsBefore(
+                        userId, statuses, pattern, createdAt, orderId, limit),
+                (createdAt, orderId, limit) -> orderDao.getUserOrderRowsAfter(
+                        userId, statuses, pattern, createdAt, orderId, limit),
+                "restaurants", "users"));
+    }
+
+    public LiveData<Integer> countOrdersByUserId(String userId, List<OrderStatus> statuses, String search) {
+        return orderDao.countUserOrders(userId, statuses, toLikePattern(search));
+    }
+
+    public LiveData<PagingData<Order>> getOrdersByRestaurantIdPaged(String restaurantId,
+                                                                    List<OrderStatus> statuses) {
+        RemoteHistoryMediator<OrderPageKey, Order> mediator =
+                new RemoteHistoryMediator<>(() -> syncRestaurantOrders(restaurantId));
+        return page(mediator, () -> new OrderKeysetPagingSource<>(invalidationTracker, readExecutor,
+                Function.identity(), Order::getCreatedAt,
+                (createdAt, orderId, limit) -> orderDao.getRestaurantOrdersBefore(
+                        restaurantId, statuses, createdAt, orderId, limit),
+                (createdAt, orderId, limit) -> orderDao.getRestaurantOrdersAfter(
+                        restaurantId, statuses, createdAt, orderId, limit)));
+    }
+
+    public LiveData<Integer> countOrdersByRestaurantId(String restaurantId, List<OrderStatus> statuses) {
+        return orderDao.countRestaurantOrders(restaurantId, statuses);
+    }
+
+    // Active orders are few and always recent, so the list needs no mediator
+    public LiveData<PagingData<Order>> getActiveOrdersByBikerPaged(String bikerId) {
+        return page(null, () -> new OrderKeysetPagingSource<>(invalidationTracker, readExecutor,
+                Function.identity(), Order::getCreatedAt,
+                (createdAt, orderId, limit) -> orderDao.getActiveBikerOrdersBefore(
+                        bikerId, createdAt, orderId, limit),
+                (createdAt, orderId, limit) -> orderDao.getActiveBikerOrdersAfter(
+                        bikerId, createdAt, orderId, limit)));
+    }
+
+    public LiveData<PagingData<Order>> getCompletedOrdersByBikerPaged(String bikerId) {
+        RemoteHistoryMediator<OrderPageKey, Order> mediator =
+                new RemoteHistoryMediator<>(() -> syncBikerOrders(bikerId));
+        return page(mediator, () -> new OrderKeysetPagingSource<>(invalidationTracker, readExecutor,
+                Function.identity(), Order::getDeliveredAt,
+                (deliveredAt, orderId, limit) -> orderDao.getCompletedBikerOrdersBefore(
+                        bikerId, deliveredAt, orderId, limit),
+                (deliveredAt, orderId, limit) -> orderDao.getCompletedBikerOrdersAfter(
+                        bikerId, deliveredAt, orderId, limit)));
+    }
+
+    public LiveData<Integer> getActiveOrderCountByBiker(String bikerId) {
+        return orderDao.getActiveOrderCountByBiker(bikerId);
+    }
+
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    private <T> LiveData<PagingData<T>> page(@Nullable RemoteHistoryMediator<OrderPageKey, T> mediator,
+                                             Supplier<OrderKeysetPagingSource<T>> factory) {
+        PagingConfig config = new PagingConfig(PAGE_SIZE, PAGE_SIZE, false, PAGE_SIZE * 2);
+        Pager<OrderPageKey, T> pager = new Pager<>(config, null, mediator, factory::get);
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    static String toLikePattern(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return null;
+        }
+        String escaped = search.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     public void updateOrderStatusToReady(String orderId, StatusUpdateCallback callback) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             try {
                 Order order = orderDao.getOrderByIdSync(orderId);
                 orderDao.updateOrderStatusToDelivered(orderId, OrderStatus.DELIVERED, System.currentTimeMillis());
                 
                 if (order != null && order.getBikerId() != null) {
-                    userDao.addEarnings(order.getBikerId(), 50.0);
+                    earningsRepository.creditUser(EarningsRepository.deliveryKey(orderId, "biker"), order.getBikerId(), 50.0);
                 }
                 
                 mainHandler.post(callback::onSuccess);
@@ -282,7 +522,7 @@ public class OrderRepository {
     }
 
     public void updateOrderStatusToDelivered(String orderId, StatusUpdateCallback callback) {
-        executorService.execute(() -> {
+        writeExecutor.execute(() -> {
             try {
                 Order order = orderDao.getOrderByIdSync(orderId);
                 orderDao.updateOrderStatusToDelivered(orderId, OrderStatus.DELIVERED, System.currentTimeMillis());
@@ -291,13 +531,13 @@ public class OrderRepository {
                     // Add earnings to biker: Base fee (50.0) + 2% of order total
                     if (order.getBikerId() != null) {
                         double bikerEarnings = 50.0 + (order.getTotalPrice() * 0.02);
-                        userRepository.addEarnings(order.getBikerId(), bikerEarnings);
+                        earningsRepository.creditUser(EarningsRepository.deliveryKey(orderId, "biker"), order.getBikerId(), bikerEarnings);
                     }
                     
                     // Add earnings to restaurant owner: 90% of order total (10% platform fee)
                     if (order.getRestaurantId() != null) {
                         double restaurantEarnings = order.getTotalPrice() * 0.90;
-                        restaurantDao.addEarnings(order.getRestaurantId(), restaurantEarnings);
+                        earningsRepository.creditRestaurant(EarningsRepository.deliveryKey(orderId, "restaurant"), order.getRestaurantId(), restaurantEarnings);
                     }
                 }
                 
@@ -316,16 +556,18 @@ public class OrderRepository {
         return orderDao.getOrdersByDistrictAndStatus(district, status);
     }
 
-    public LiveData<List<Order>> getAllOrders() {
-        return orderDao.getAllOrders();
+    // Orders this device is claiming right now; lists disable them until the claim resolves
+    public LiveData<Set<String>> getClaimingOrderIds() {
+        return orderDispatcher.getClaimingOrderIds();
     }
 
-    public LiveData<Integer> getTodayOrderCount(String restaurantId) {
-        return orderDao.getTodayOrderCountByRestaurant(restaurantId, getStartOfDay());
+    // READY orders for the biker feed, kept current by a shared snapshot listener while observed
+    public LiveData<List<OrderListRow>> observeAvailableOrders(String division, String district) {
+        return availableOrdersFeed.observe(division, district);
     }
 
-    public LiveData<Double> getTodayRevenue(String restaurantId) {
-        return orderDao.getTodayRevenueByRestaurant(restaurantId, getStartOfDay());
+    public LiveData<List<Order>> getAllOrders() {
+        return orderDao.getAllOrders();
     }
 
     public LiveData<Integer> getTodayDeliveryCount(String bikerId) {
@@ -357,10 +599,10 @@ public class OrderRepository {
     }
 
     public void exportDeliveryHistory(String bikerId, ExportCallback callback) {
-        executorService.execute(() -> {
+        readExecutor.execute(() -> {
             try {
-                List<Order> orders = orderDao.getCompletedOrdersByBikerSync(bikerId);
-                mainHandler.post(() -> callback.onSuccess(orders));
+                List<OrderListRow> rows = orderDao.getCompletedOrderRowsByBikerSync(bikerId);
+                mainHandler.post(() -> callback.onSuccess(rows));
             } catch (Exception e) {
                 mainHandler.post(() -> callback.onError(e.getMessage()));
             }
@@ -396,26 +638,6 @@ public class OrderRepository {
         return calendar.getTimeInMillis();
     }
 
-    private void startAutoCancelChecker() {
-        mainHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                checkAndAutoCancelOrders();
-                mainHandler.postDelayed(this, AUTO_CANCEL_CHECK_INTERVAL);
-            }
-        }, AUTO_CANCEL_CHECK_INTERVAL);
-    }
-
-    private void checkAndAutoCancelOrders() {
-        executorService.execute(() -> {
-            long threshold = System.currentTimeMillis() - ONE_HOUR_MILLIS;
-            List<Order> pendingOrders = orderDao.getPendingOrdersOlderThan(threshold);
-            for (Order order : pendingOrders) {
-                orderDao.updateOrderStatus(order.getOrderId(), OrderStatus.AUTO_CANCELLED);
-            }
-        });
-    }
-
     public interface OrderCallback {
         void onSuccess(Order order);
         void onError(String error);
@@ -433,7 +655,7 @@ public class OrderRepository {
     }
 
     public interface ExportCallback {
-        void onSuccess(List<Order> orders);
+        void onSuccess(List<OrderListRow> rows);
         void onError(String error);
     }
 }
@@ -6,26 +6,36 @@ import androidx.lifecycle.LiveData;
 
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.RestaurantApplicationDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.ApplicationStatus;
 import com.example.foodbikeandroid.data.model.RestaurantApplication;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class RestaurantApplicationRepository {
 
     private static volatile RestaurantApplicationRepository INSTANCE;
     private final RestaurantApplicationDao restaurantApplicationDao;
-    private final com.example.foodbikeandroid.data.remote.FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final android.os.Handler mainHandler;
 
     private RestaurantApplicationRepository(Context context) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
         restaurantApplicationDao = database.restaurantApplicationDao();
-        firestoreHelper = com.example.foodbikeandroid.data.remote.FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(4);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        AppExecutors executors = AppExecutors.getInstance();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
     }
 
@@ -41,35 +51,29 @@ public class RestaurantApplicationRepository {
     }
 
     public void insert(RestaurantApplication application) {
-        firestoreHelper.getApplicationsCollection().document(application.getApplicationId()).set(application)
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantApplicationDao.insert(application)));
+        remoteStore.set(RemoteStore.Collection.APPLICATIONS, application.getApplicationId(), application)
+                .thenRun(() -> writeExecutor.execute(() -> restaurantApplicationDao.insert(application)));
     }
 
     public void update(RestaurantApplication application) {
-        firestoreHelper.getApplicationsCollection().document(application.getApplicationId()).set(application)
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantApplicationDao.update(application)));
+        remoteStore.set(RemoteStore.Collection.APPLICATIONS, application.getApplicationId(), application)
+                .thenRun(() -> writeExecutor.execute(() -> restaurantApplicationDao.update(application)));
     }
 
-    public void syncApplications() {
-        firestoreHelper.getApplicationsCollection().get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null && !snapshots.isEmpty()) {
-                        List<RestaurantApplication> apps = snapshots.toObjects(RestaurantApplication.class);
-                        executorService.execute(() -> {
-                            for (RestaurantApplication app : apps) {
-                                try {
-                                    restaurantApplicationDao.insert(app); 
-                                    // Use simple insert (ABORT/IGNORE) or explicit update depending on DAO. 
-                                    // Given we don't know ConflictStrategy, safe to just try insert.
-                                    // Or better, use a loop that updates local from remote.
-                                    // For simplicity in this migration:
-                                } catch (Exception e) {
-                                    // likely exists
-                                }
+    public CompletableFuture<Void> syncApplications() {
+        return syncApplications(false);
+    }
+
+    // Deliberately a full fetch, unlike the paged order history: the admin list, its
+    // status filters and the dashboard's pending count all read every application
+    public CompletableFuture<Void> syncApplications(boolean force) {
+        return syncCoordinator.run("applications:all", SyncCoordinator.ADMIN_MIN_INTERVAL_MS, force, () ->
+                remoteStore.query(RemoteQuery.of(RemoteStore.Collection.APPLICATIONS), RestaurantApplication.class)
+                        .thenAcceptAsync(result -> {
+                            if (!result.isEmpty()) {
+                                restaurantApplicationDao.insertAll(result.items);
                             }
-                        });
-                    }
-                });
+                        }, syncExecutor));
     }
 
     public LiveData<List<RestaurantApplication>> getByEntrepreneur(String username) {
@@ -85,7 +89,7 @@ public class RestaurantApplicationRepository {
     }
 
     public void deleteById(String applicationId) {
-        firestoreHelper.getApplicationsCollection().document(applicationId).delete()
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantApplicationDao.deleteById(applicationId)));
+        remoteStore.delete(RemoteStore.Collection.APPLICATIONS, applicationId)
+                .thenRun(() -> writeExecutor.execute(() -> restaurantApplicationDao.deleteById(applicationId)));
     }
 }
@@ -5,35 +5,71 @@ import android.os.Handler;
 import android.os.Looper;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 
 import com.example.foodbikeandroid.data.LocationData;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.MenuItem;
 import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.RestaurantSummary;
+import com.example.foodbikeandroid.data.outbox.Outbox;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class RestaurantRepository {
 
     private static volatile RestaurantRepository INSTANCE;
+    // Restaurant documents embed their menus, so stay well under the 10 MiB request limit
+    private static final int SEED_BATCH_SIZE = 100;
+    // app_meta document written with the last seed chunk
+    private static final String SEED_MARKER_ID = "catalog_seed";
+    // Owner edits never write earnings or the rating totals, which other devices increment
+    // concurrently, nor rating, which is derived from those totals
+    private static final String[] EDITABLE_FIELDS = {"name", "division", "district", "address",
+            "menuItems", "cuisineType", "imageUrl", "open", "openingHours", "createdAt"};
     private final RestaurantDao restaurantDao;
-    private final FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final Handler mainHandler;
+    private final Outbox outbox;
+    private final EarningsRepository earningsRepository;
+    private final ReviewRepository reviewRepository;
+    private final AtomicBoolean sampleDataRequested = new AtomicBoolean(false);
 
     private RestaurantRepository(Context context) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
         restaurantDao = database.restaurantDao();
-        firestoreHelper = FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(4);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        AppExecutors executors = AppExecutors.getInstance();
+        readExecutor = executors.interactive();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new Handler(Looper.getMainLooper());
+        outbox = Outbox.getInstance(context);
+        earningsRepository = EarningsRepository.getInstance(context);
+        reviewRepository = ReviewRepository.getInstance(context);
     }
 
     public static RestaurantRepository getInstance(Context context) {
@@ -48,56 +84,138 @@ public class RestaurantRepository {
     }
 
     public void initializeSampleData() {
+        initializeSampleData(null);
+    }
+
+    public void initializeSampleData(SeedProgressCallback callback) {
+        // Splash and the dashboard both call this; one check per process is enough
+        if (!sampleDataRequested.compareAndSet(false, true)) return;
+
         // ALWAYS check Firestore state first to ensure Cloud is seeded
-        firestoreHelper.getRestaurantsCollection().get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots == null || snapshots.isEmpty()) {
-                        // Firestore is empty, upload sample data
-                        List<Restaurant> sampleRestaurants = createSampleRestaurants();
-                        
-                        // Upload to Firestore
-                        for (Restaurant r : sampleRestaurants) {
-                            firestoreHelper.getRestaurantsCollection().document(r.getId()).set(r);
-                        }
-                        
-                        // Insert locally
-                        executorService.execute(() -> restaurantDao.insertAll(sampleRestaurants));
-                    } else {
-                        // Firestore has data, sync to local
-                        List<Restaurant> remoteRestaurants = snapshots.toObjects(Restaurant.class);
-                        executorService.execute(() -> restaurantDao.insertAll(remoteRestaurants));
+        remoteStore.query(RemoteQuery.of(RemoteStore.Collection.RESTAURANTS), Restaurant.class)
+                .thenCombine(remoteStore.get(RemoteStore.Collection.APP_META, SEED_MARKER_ID, Map.class),
+                        (result, marker) -> {
+                            if (marker.exists()) {
+                                // Firestore has the whole catalog, sync to local
+                                syncExecutor.execute(() -> insertRemoteRestaurants(result.items));
+                                if (callback != null) mainHandler.post(() -> callback.onComplete(0));
+                                return null;
+                            }
+                            // Never seeded, or an earlier seed stopped partway: upload what's missing
+                            Set<String> uploaded = new HashSet<>(result.ids);
+                            List<Restaurant> missing = new ArrayList<>();
+                            for (Restaurant restaurant : createSampleRestaurants()) {
+                                if (!uploaded.contains(restaurant.getId())) missing.add(restaurant);
+                            }
+                            seedCloud(missing, 0, callback);
+                            syncExecutor.execute(() -> {
+                                insertRemoteRestaurants(result.items);
+                                restaurantDao.insertAllWithMenus(missing);
+                            });
+                            return null;
+                        })
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        // Offline: keep whatever is local and check again next launch
+                        sampleDataRequested.set(false);
+                        postSeedError(callback, error);
                     }
-                })
-                .addOnFailureListener(e -> {
-                     // If cloud fails (e.g. offline), check local
-                     executorService.execute(() -> {
-                         if (restaurantDao.getRestaurantCount() == 0) {
-                             // Fallback? Or just wait for connection.
-                         }
-                     });
                 });
     }
 
-    public void refreshRestaurants() {
-        firestoreHelper.getRestaurantsCollection().get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null && !snapshots.isEmpty()) {
-                        List<Restaurant> restaurants = snapshots.toObjects(Restaurant.class);
-                        executorService.execute(() -> restaurantDao.insertAll(restaurants));
+    // Uploads in WriteBatch chunks, one after another, so progress is reported per commit.
+    // The marker goes in the last chunk, so it only exists once every restaurant does.
+    private void seedCloud(List<Restaurant> restaurants, int from, SeedProgressCallback callback) {
+        int to = Math.min(from + SEED_BATCH_SIZE, restaurants.size());
+        RemoteStore.Batch batch = remoteStore.batch();
+        for (Restaurant r : restaurants.subList(from, to)) {
+            batch.set(RemoteStore.Collection.RESTAURANTS, r.getId(), r);
+        }
+        boolean last = to == restaurants.size();
+        if (last) {
+            Map<String, Object> marker = new HashMap<>();
+            marker.put("seededAt", System.currentTimeMillis());
+            batch.set(RemoteStore.Collection.APP_META, SEED_MARKER_ID, marker);
+        }
+        batch.commit()
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        // No marker yet, so the next launch uploads the restaurants still missing
+                        sampleDataRequested.set(false);
+                        postSeedError(callback, error);
+                        return;
+                    }
+                    if (callback != null) mainHandler.post(() -> callback.onProgress(to, restaurants.size()));
+                    if (!last) {
+                        seedCloud(restaurants, to, callback);
+                    } else if (callback != null) {
+                        mainHandler.post(() -> callback.onComplete(restaurants.size()));
                     }
                 });
     }
 
+    private void postSeedError(SeedProgressCallback callback, Throwable error) {
+        if (callback == null) return;
+        String message = RemoteStoreException.from(error).getMessage();
+        mainHandler.post(() -> callback.onError(message));
+    }
+
+    public CompletableFuture<Void> refreshRestaurants() {
+        return refreshRestaurants(false);
+    }
+
+    public CompletableFuture<Void> refreshRestaurants(boolean force) {
+        return syncCoordinator.run("restaurants:all", SyncCoordinator.CATALOG_MIN_INTERVAL_MS, force, () ->
+                remoteStore.query(RemoteQuery.of(RemoteStore.Collection.RESTAURANTS), Restaurant.class)
+                        .thenAcceptAsync(result -> {
+                            if (!result.isEmpty()) {
+                                insertRemoteRestaurants(result.items);
+                            }
+                        }, syncExecutor));
+    }
+
+    // Remote earnings and rating totals don't include changes this device hasn't sent yet
+    private void insertRemoteRestaurants(List<Restaurant> restaurants) {
+        for (Restaurant restaurant : restaurants) {
+            restaurant.setEarnings(earningsRepository.reconcile(FirestoreHelper.COLLECTION_RESTAURANTS,
+                    restaurant.getId(), restaurant.getEarnings()));
+            reviewRepository.reconcileRatings(restaurant);
+            if (!restaurant.isRatingTotalsComplete()) {
+                reviewRepository.backfillRatingTotals(restaurant.getId());
+            }
+        }
+        restaurantDao.insertAllWithMenus(restaurants);
+    }
+
     public LiveData<List<Restaurant>> getAllRestaurants() {
         return restaurantDao.getAllRestaurants();
     }
 
+    // Prefer this over getAllRestaurants() for lists and id -> name lookups
+    public LiveData<List<RestaurantSummary>> getAllRestaurantSummaries() {
+        return restaurantDao.getAllRestaurantSummaries();
+    }
+
     public LiveData<Restaurant> getRestaurantById(String id) {
         return restaurantDao.getRestaurantById(id);
     }
+
+    public LiveData<Restaurant> getRestaurantByName(String name) {
+        return restaurantDao.getRestaurantByName(name);
+    }
+
+    // Use for screens that display or edit the menu; plain lookups should not pay for it
+    public LiveData<Restaurant> getRestaurantWithMenu(String id) {
+        return Transformations.map(restaurantDao.getRestaurantWithMenu(id),
+                withMenu -> withMenu != null ? withMenu.toRestaurant() : null);
+    }
+
+    public LiveData<Map<String, Integer>> getMenuItemCounts() {
+        return restaurantDao.getMenuItemCounts();
+    }
     
     public void getRestaurantById(String id, RestaurantCallback callback) {
-        executorService.execute(() -> {
+        readExecutor.execute(() -> {
             try {
                 Restaurant restaurant = restaurantDao.getRestaurantByIdSync(id);
                 if (restaurant != null) {
@@ -129,78 +247,109 @@ public class RestaurantRepository {
     }
 
     public LiveData<List<Restaurant>> searchRestaurants(String query, String division, String district) {
-        if (query == null || query.isEmpty()) {
+        String ftsQuery = toFtsQuery(query);
+        if (ftsQuery == null) {
             return getRestaurantsByLocation(division, district);
         }
         if (division == null || division.equals("Filter by Division")) {
-            return restaurantDao.searchRestaurants(query);
+            return restaurantDao.searchRestaurants(ftsQuery);
         }
         if (district == null || district.equals("Filter by District")) {
-            return restaurantDao.searchRestaurantsInDivision(query, division);
+            return restaurantDao.searchRestaurantsInDivision(ftsQuery, division);
         }
-        return restaurantDao.searchRestaurantsInLocation(query, division, district);
+        return restaurantDao.searchRestaurantsInLocation(ftsQuery, division, district);
+    }
+
+    // "pizza hou" -> "pizza* hou*": every word must prefix-match a word in name or cuisine.
+    // FTS operators and punctuation are stripped so user input can't break the MATCH syntax.
+    static String toFtsQuery(String query) {
+        if (query == null) return null;
+        StringBuilder builder = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (builder.length() > 0) builder.append(' ');
+            builder.append(token).append('*');
+        }
+        return builder.length() > 0 ? builder.toString() : null;
     }
 
     public LiveData<List<Restaurant>> getRestaurantsByCuisine(String cuisineType) {
         return restaurantDao.getRestaurantsByCuisine(cuisineType);
     }
 
+    public interface SeedProgressCallback {
+        void onProgress(int uploaded, int total);
+        // total is 0 when the cloud was already seeded
+        void onComplete(int total);
+        void onError(String message);
+    }
+
     public interface OperationCallback {
         void onSuccess();
         void onError(String message);
     }
 
     public void insert(Restaurant restaurant) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).set(restaurant)
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantDao.insert(restaurant)));
+        remoteStore.set(RemoteStore.Collection.RESTAURANTS, restaurant.getId(), restaurant)
+                .thenRun(() -> writeExecutor.execute(() -> restaurantDao.insertWithMenu(restaurant)));
     }
 
     public void insert(Restaurant restaurant, OperationCallback callback) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).set(restaurant)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
-                        restaurantDao.insert(restaurant);
+        remoteStore.set(RemoteStore.Collection.RESTAURANTS, restaurant.getId(), restaurant)
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        if (callback != null) mainHandler.post(() -> callback.onError(RemoteStoreException.from(error).getMessage()));
+                        return;
+                    }
+                    writeExecutor.execute(() -> {
+                        restaurantDao.insertWithMenu(restaurant);
                         if (callback != null) mainHandler.post(callback::onSuccess);
                     });
-                })
-                .addOnFailureListener(e -> {
-                    if (callback != null) mainHandler.post(() -> callback.onError(e.getMessage()));
                 });
     }
 
     public void update(Restaurant restaurant) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).set(restaurant)
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantDao.update(restaurant)));
+        update(restaurant, null);
     }
 
+    // Saved locally and queued for upload; the callback doesn't wait for the network
     public void update(Restaurant restaurant, OperationCallback callback) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).set(restaurant)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
-                        restaurantDao.update(restaurant);
-                        if (callback != null) mainHandler.post(callback::onSuccess);
-                    });
-                })
-                .addOnFailureListener(e -> {
-                    if (callback != null) mainHandler.post(() -> callback.onError(e.getMessage()));
-                });
+        writeExecutor.execute(() -> {
+            try {
+                outbox.applyLocally(() -> {
+                            // Earnings only move through the ledger; keep the current balance
+                            Restaurant current = restaurantDao.getRestaurantByIdSync(restaurant.getId());
+                            if (current != null) {
+                                restaurant.setEarnings(current.getEarnings());
+                            }
+                            restaurantDao.updateWithMenu(restaurant);
+                        },
+                        Outbox.merge(FirestoreHelper.COLLECTION_RESTAURANTS, restaurant.getId(),
+                                "restaurant-update:" + restaurant.getId() + ":" + UUID.randomUUID(),
+                                EDITABLE_FIELDS));
+                if (callback != null) mainHandler.post(callback::onSuccess);
+            } catch (Exception e) {
+                if (callback != null) mainHandler.post(() -> callback.onError(e.getMessage()));
+            }
+        });
     }
 
     public void delete(Restaurant restaurant) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).delete()
-                .addOnSuccessListener(aVoid -> executorService.execute(() -> restaurantDao.delete(restaurant)));
+        remoteStore.delete(RemoteStore.Collection.RESTAURANTS, restaurant.getId())
+                .thenRun(() -> writeExecutor.execute(() -> restaurantDao.delete(restaurant)));
     }
 
     public void delete(Restaurant restaurant, OperationCallback callback) {
-        firestoreHelper.getRestaurantsCollection().document(restaurant.getId()).delete()
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
+        remoteStore.delete(RemoteStore.Collection.RESTAURANTS, restaurant.getId())
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        if (callback != null) mainHandler.post(() -> callback.onError(RemoteStoreException.from(error).getMessage()));
+                        return;
+                    }
+                    writeExecutor.execute(() -> {
                         restaurantDao.delete(restaurant);
                         if (callback != null) mainHandler.post(callback::onSuccess);
                     });
-                })
-                .addOnFailureListener(e -> {
-                    if (callback != null) mainHandler.post(() -> callback.onError(e.getMessage()));
                 });
     }
 
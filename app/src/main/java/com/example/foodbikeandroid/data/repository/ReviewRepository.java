@@ -3,34 +3,68 @@ package com.example.foodbikeandroid.data.repository;
 import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
 
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.RestaurantDao;
 import com.example.foodbikeandroid.data.database.ReviewDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
+import com.example.foodbikeandroid.data.model.RatingSummary;
+import com.example.foodbikeandroid.data.model.Restaurant;
 import com.example.foodbikeandroid.data.model.Review;
+import com.example.foodbikeandroid.data.model.ReviewWithUserInfo;
+import com.example.foodbikeandroid.data.outbox.Outbox;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.remote.RemoteValue;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ReviewRepository {
+    private static final String TAG = "ReviewRepository";
+
+    public static final String FIELD_RATING_SUM = "ratingSum";
+    public static final String FIELD_RATING_COUNT = "ratingCount";
+    public static final String FIELD_RATING_TOTALS_COMPLETE = "ratingTotalsComplete";
 
     private static volatile ReviewRepository INSTANCE;
     private final ReviewDao reviewDao;
     private final RestaurantDao restaurantDao;
-    private final com.example.foodbikeandroid.data.remote.FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final Handler mainHandler;
+    private final Outbox outbox;
+    // Restaurants whose backfill ran or is running in this process
+    private final Set<String> backfillsStarted = ConcurrentHashMap.newKeySet();
 
     private ReviewRepository(Context context) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
         reviewDao = database.reviewDao();
         restaurantDao = database.restaurantDao();
-        firestoreHelper = com.example.foodbikeandroid.data.remote.FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(2);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        AppExecutors executors = AppExecutors.getInstance();
+        readExecutor = executors.interactive();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new Handler(Looper.getMainLooper());
+        outbox = Outbox.getInstance(context);
     }
 
     public static ReviewRepository getInstance(Context context) {
@@ -44,51 +78,58 @@ public class ReviewRepository {
         return INSTANCE;
     }
 
+    /**
+     * Saves the review and counts it into the restaurant's rating totals in one
+     * transaction, then queues the review upload and server-side increments of the
+     * totals, so concurrent reviews from different devices all count. Saving the same
+     * review id twice counts it once.
+     */
     public void insert(Review review, ReviewInsertCallback callback) {
-        firestoreHelper.getReviewsCollection().document(review.getReviewId()).set(review)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
-                        try {
+        writeExecutor.execute(() -> {
+            try {
+                String restaurantId = review.getRestaurantId();
+                String reviewId = review.getReviewId();
+                int stars = review.getRating();
+                if (stars < 1 || stars > 5) {
+                    throw new IllegalArgumentException("Rating must be between 1 and 5");
+                }
+                // One write for all three counters, so a batch boundary can't split them
+                Map<String, Double> counters = new LinkedHashMap<>();
+                counters.put(FIELD_RATING_SUM, (double) stars);
+                counters.put(FIELD_RATING_COUNT, 1.0);
+                counters.put(starCountField(stars), 1.0);
+                outbox.applyLocallyIf(() -> {
+                            if (reviewDao.getByIdSync(reviewId) != null) return false;
                             reviewDao.insert(review);
-                            
-                            // Update restaurant average rating logic locally
-                            Double avgRating = reviewDao.getAverageRating(review.getRestaurantId());
-                            if (avgRating != null) {
-                                restaurantDao.updateRating(review.getRestaurantId(), avgRating);
-                                // Ideally update Firestore Restaurant rating as well here
-                                firestoreHelper.getRestaurantsCollection().document(review.getRestaurantId())
-                                        .update("rating", avgRating);
-                            }
-                            
-                            mainHandler.post(() -> {
-                                if (callback != null) callback.onSuccess();
-                            });
-                        } catch (Exception e) {
-                            mainHandler.post(() -> {
-                                if (callback != null) callback.onError(e.getMessage());
-                            });
-                        }
-                    });
-                })
-                .addOnFailureListener(e -> {
-                     mainHandler.post(() -> {
-                        if (callback != null) callback.onError(e.getMessage());
-                     });
+                            restaurantDao.addRating(restaurantId, stars);
+                            return true;
+                        },
+                        Outbox.set(FirestoreHelper.COLLECTION_REVIEWS, reviewId, "review-create:" + reviewId),
+                        Outbox.increment(FirestoreHelper.COLLECTION_RESTAURANTS, restaurantId,
+                                "review-rating:" + reviewId, counters));
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onSuccess();
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onError(e.getMessage());
                 });
+            }
+        });
     }
 
-    public void syncReviewsForRestaurant(String restaurantId) {
-        firestoreHelper.getReviewsCollection().whereEqualTo("restaurantId", restaurantId).get()
-                .addOnSuccessListener(snapshots -> {
-                    if (snapshots != null) {
-                        List<Review> reviews = snapshots.toObjects(Review.class);
-                        executorService.execute(() -> {
-                           for(Review r : reviews) {
-                               try { reviewDao.insert(r); } catch (Exception e) {}
-                           } 
-                        });
-                    }
-                });
+    public CompletableFuture<Void> syncReviewsForRestaurant(String restaurantId) {
+        return syncReviewsForRestaurant(restaurantId, false);
+    }
+
+    // Deliberately a full fetch, unlike the paged order history: the review screen sorts
+    // the whole set by rating as well as by date, which a newest-first page can't serve
+    public CompletableFuture<Void> syncReviewsForRestaurant(String restaurantId, boolean force) {
+        return syncCoordinator.run("reviews:restaurant:" + restaurantId, SyncCoordinator.CATALOG_MIN_INTERVAL_MS, force, () -> {
+            RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.REVIEWS).whereEqualTo("restaurantId", restaurantId);
+            return remoteStore.query(query, Review.class)
+                    .thenAcceptAsync(result -> reviewDao.insertAll(result.items), syncExecutor);
+        });
     }
 
     public LiveData<List<Review>> getByRestaurant(String restaurantId) {
@@ -104,21 +145,103 @@ public class ReviewRepository {
     }
 
     public void checkReviewExists(String orderId, ReviewExistsCallback callback) {
-        executorService.execute(() -> {
+        readExecutor.execute(() -> {
             int count = reviewDao.checkReviewExists(orderId);
             boolean exists = count > 0;
             mainHandler.post(() -> callback.onResult(exists));
         });
     }
 
+    // Read from the restaurant's totals; until those are complete it falls back to the cached reviews
     public void getAverageRating(String restaurantId, AverageRatingCallback callback) {
-        executorService.execute(() -> {
+        readExecutor.execute(() -> {
+            RatingSummary summary = restaurantDao.getRatingSummary(restaurantId);
+            if (summary != null && summary.getRatingCount() > 0) {
+                mainHandler.post(() -> callback.onResult(summary.getAverage(), summary.getRatingCount()));
+                return;
+            }
             Double avgRating = reviewDao.getAverageRating(restaurantId);
             int reviewCount = reviewDao.getReviewCount(restaurantId);
             mainHandler.post(() -> callback.onResult(avgRating != null ? avgRating : 0.0, reviewCount));
         });
     }
 
+    // Totals and 1-5 star histogram for rating breakdowns; null until the totals are complete
+    public LiveData<RatingSummary> getRatingSummary(String restaurantId) {
+        return restaurantDao.observeRatingSummary(restaurantId);
+    }
+
+    /**
+     * Adds the rating increments this device has queued but not yet sent to a freshly
+     * fetched restaurant, like EarningsRepository.reconcile does for earnings.
+     */
+    @WorkerThread
+    public void reconcileRatings(Restaurant restaurant) {
+        Map<String, Double> pending = outbox.getPendingIncrements(FirestoreHelper.COLLECTION_RESTAURANTS, restaurant.getId());
+        if (pending.isEmpty()) return;
+        restaurant.setRatingCount(restaurant.getRatingCount() + pending(pending, FIELD_RATING_COUNT));
+        restaurant.setRatingSum(restaurant.getRatingSum() + pending(pending, FIELD_RATING_SUM));
+        restaurant.setRating1Count(restaurant.getRating1Count() + pending(pending, starCountField(1)));
+        restaurant.setRating2Count(restaurant.getRating2Count() + pending(pending, starCountField(2)));
+        restaurant.setRating3Count(restaurant.getRating3Count() + pending(pending, starCountField(3)));
+        restaurant.setRating4Count(restaurant.getRating4Count() + pending(pending, starCountField(4)));
+        restaurant.setRating5Count(restaurant.getRating5Count() + pending(pending, starCountField(5)));
+    }
+
+    private static int pending(Map<String, Double> pending, String field) {
+        Double amount = pending.get(field);
+        return amount != null ? amount.intValue() : 0;
+    }
+
+    /**
+     * Counts the reviews written before the rating totals existed into them, once per
+     * restaurant. Reviews uploaded since are marked counted and reached the totals
+     * through their own increment, so the two never overlap; the transaction sets
+     * ratingTotalsComplete, which turns a second run from another device into a no-op.
+     */
+    public CompletableFuture<Boolean> backfillRatingTotals(String restaurantId) {
+        if (!backfillsStarted.add(restaurantId)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.REVIEWS).whereEqualTo("restaurantId", restaurantId);
+        return remoteStore.query(query, Review.class)
+                .thenCompose(result -> {
+                    long sum = 0;
+                    long[] stars = new long[6];
+                    for (Review review : result.items) {
+                        int rating = review.getRating();
+                        if (review.isCounted() || rating < 1 || rating > 5) continue;
+                        sum += rating;
+                        stars[rating]++;
+                    }
+                    Map<String, Object> fields = new HashMap<>();
+                    fields.put(FIELD_RATING_TOTALS_COMPLETE, true);
+                    fields.put(FIELD_RATING_SUM, RemoteValue.increment(sum));
+                    fields.put(FIELD_RATING_COUNT, RemoteValue.increment(stars[1] + stars[2] + stars[3] + stars[4] + stars[5]));
+                    for (int i = 1; i <= 5; i++) {
+                        fields.put(starCountField(i), RemoteValue.increment(stars[i]));
+                    }
+                    return remoteStore.runTransaction(transaction -> {
+                        Restaurant current = transaction.get(RemoteStore.Collection.RESTAURANTS, restaurantId, Restaurant.class);
+                        if (current == null || current.isRatingTotalsComplete()) return false;
+                        transaction.update(RemoteStore.Collection.RESTAURANTS, restaurantId, fields);
+                        return true;
+                    });
+                })
+                .whenComplete((backfilled, error) -> {
+                    if (error != null) {
+                        // Let the next sync try again
+                        backfillsStarted.remove(restaurantId);
+                        Log.w(TAG, "Rating backfill failed for " + restaurantId, error);
+                    }
+                });
+    }
+
+    // Histogram field on the restaurant document, e.g. rating4Count
+    public static String starCountField(int stars) {
+        return "rating" + stars + "Count";
+    }
+
     public List<Review> getByRestaurantNewestSync(String restaurantId) {
         return reviewDao.getByRestaurantNewest(restaurantId);
     }
@@ -143,6 +266,31 @@ public class ReviewRepository {
         return reviewDao.getByRestaurantLowestRatedLiveData(restaurantId);
     }
 
+    // Reviews with author names in one query; sortOrder is "newest", "highest" or "lowest"
+    public List<ReviewWithUserInfo> getWithUserInfoSync(String restaurantId, String sortOrder) {
+        switch (sortOrder != null ? sortOrder : "newest") {
+            case "highest":
+                return reviewDao.getWithUserHighestRated(restaurantId);
+            case "lowest":
+                return reviewDao.getWithUserLowestRated(restaurantId);
+            case "newest":
+            default:
+                return reviewDao.getWithUserNewest(restaurantId);
+        }
+    }
+
+    public LiveData<List<ReviewWithUserInfo>> getWithUserInfo(String restaurantId, String sortOrder) {
+        switch (sortOrder != null ? sortOrder : "newest") {
+            case "highest":
+                return reviewDao.getWithUserHighestRatedLiveData(restaurantId);
+            case "lowest":
+                return reviewDao.getWithUserLowestRatedLiveData(restaurantId);
+            case "newest":
+            default:
+                return reviewDao.getWithUserNewestLiveData(restaurantId);
+        }
+    }
+
     public interface ReviewInsertCallback {
         void onSuccess();
         void onError(String message);
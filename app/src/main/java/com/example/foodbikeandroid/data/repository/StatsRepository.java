@@ -0,0 +1,88 @@
+package com.example.foodbikeandroid.data.repository;
+
+import android.content.Context;
+
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.LiveData;
+
+import com.example.foodbikeandroid.data.database.DailyStatsDao;
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.model.DailyRestaurantStats;
+import com.example.foodbikeandroid.data.model.StatsTotals;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dashboard figures read from the daily_restaurant_stats rollup. A range covers at
+ * most a month of day rows per restaurant, however many orders those days hold.
+ */
+public class StatsRepository {
+
+    public enum Range {
+        TODAY,
+        THIS_WEEK,
+        THIS_MONTH,
+        ALL_TIME
+    }
+
+    // Bounds for ALL_TIME; ranges are open-ended so they always include today
+    private static final String FIRST_DAY = "0000-01-01";
+    private static final String LAST_DAY = "9999-12-31";
+
+    private static volatile StatsRepository INSTANCE;
+    private final DailyStatsDao dailyStatsDao;
+
+    private StatsRepository(Context context) {
+        dailyStatsDao = FoodBikeDatabase.getInstance(context).dailyStatsDao();
+    }
+
+    public static StatsRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (StatsRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new StatsRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public LiveData<StatsTotals> getTotals(String restaurantId, Range range) {
+        return dailyStatsDao.getTotals(restaurantId, startDay(range), LAST_DAY);
+    }
+
+    public LiveData<StatsTotals> getTotals(List<String> restaurantIds, Range range) {
+        return dailyStatsDao.getTotalsForRestaurants(restaurantIds, startDay(range), LAST_DAY);
+    }
+
+    // One row per day that had orders, oldest first
+    public LiveData<List<DailyRestaurantStats>> getDailyBreakdown(String restaurantId, Range range) {
+        return dailyStatsDao.getDays(restaurantId, startDay(range), LAST_DAY);
+    }
+
+    @WorkerThread
+    public StatsTotals getAllTotalsSync(Range range) {
+        return dailyStatsDao.getAllTotalsSync(startDay(range), LAST_DAY);
+    }
+
+    // Same local calendar as DailyStatsDao.ORDER_DAY
+    private static String startDay(Range range) {
+        Calendar calendar = Calendar.getInstance();
+        switch (range) {
+            case TODAY:
+                break;
+            case THIS_WEEK:
+                calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+                break;
+            case THIS_MONTH:
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+                break;
+            default:
+                return FIRST_DAY;
+        }
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(calendar.getTime());
+    }
+}
@@ -1,35 +1,79 @@
 package com.example.foodbikeandroid.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.lifecycle.LiveData;
 
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.UserDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.User;
 import com.example.foodbikeandroid.data.model.UserType;
 import com.example.foodbikeandroid.data.session.SessionManager;
 
 import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 public class UserRepository {
 
+    // Everything but earnings, which only ever moves by server-side increments
+    private static final List<String> PROFILE_FIELDS = Arrays.asList(
+            "username", "password", "email", "phoneNumber", "userType", "address", "createdAt");
+
     private final UserDao userDao;
-    private final FirestoreHelper firestoreHelper;
+    private final EarningsRepository earningsRepository;
+    private final RemoteStore remoteStore;
     private final SessionManager sessionManager;
-    private final ExecutorService executorService;
+    private final ExecutorService readExecutor;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
+    private final Handler mainHandler;
+
+    // Firestore caps whereIn at 30 values; Room's limit is 999 bind arguments
+    private static final int REMOTE_CHUNK_SIZE = 30;
+    private static final int LOCAL_CHUNK_SIZE = 500;
+    private static final int PROFILE_CACHE_SIZE = 500;
+    // Usernames with no remote document aren't asked for again within this window
+    private static final long MISSING_TTL_MS = 10 * 60_000;
+
+    // Access-ordered, so the least recently resolved profile is evicted first
+    private final Map<String, User> profileCache = new LinkedHashMap<String, User>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+            return size() > PROFILE_CACHE_SIZE;
+        }
+    };
+    private final Map<String, Long> missingProfiles = new HashMap<>();
 
     private static volatile UserRepository INSTANCE;
 
     private UserRepository(Context context) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(context);
         userDao = database.userDao();
+        earningsRepository = EarningsRepository.getInstance(context);
         sessionManager = SessionManager.getInstance(context);
-        firestoreHelper = FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(2);
+        remoteStore = RemoteStoreProvider.get();
+        AppExecutors executors = AppExecutors.getInstance();
+        readExecutor = executors.interactive();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
+        mainHandler = new Handler(Looper.getMainLooper());
     }
     public static UserRepository getInstance(Context context) {
         if (INSTANCE == null) {
@@ -49,40 +93,51 @@ public class UserRepository {
         void onSuccess();
         void onError(String message);
     }
+    public interface UsersCallback {
+        void onResult(Map<String, User> users);
+    }
     public void registerUser(String username, String password, String email,
                             String phoneNumber, UserType userType, String address, AuthCallback callback) {
         // Check if username exists in Firestore
-        firestoreHelper.getUsersCollection().document(username).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        callback.onError("Username already exists");
+        remoteStore.get(RemoteStore.Collection.USERS, username, User.class)
+                .whenComplete((existing, error) -> {
+                    if (error != null) {
+                        postError(callback, "Error checking username: " + RemoteStoreException.from(error).getMessage());
+                    } else if (existing.exists()) {
+                        postError(callback, "Username already exists");
+                    } else if (existing.fromCache) {
+                        // A cached miss can't rule out an account created elsewhere
+                        postError(callback, "Error checking username: the server could not be reached");
                     } else {
                         // Check if email exists
-                        firestoreHelper.getUsersCollection().whereEqualTo("email", email).get()
-                                .addOnSuccessListener(queryDocumentSnapshots -> {
-                                    if (!queryDocumentSnapshots.isEmpty()) {
-                                        callback.onError("Email already registered");
+                        remoteStore.query(RemoteQuery.of(RemoteStore.Collection.USERS).whereEqualTo("email", email).limit(1), User.class)
+                                .whenComplete((result, emailError) -> {
+                                    if (emailError != null) {
+                                        postError(callback, "Error checking email: " + RemoteStoreException.from(emailError).getMessage());
+                                    } else if (!result.isEmpty()) {
+                                        postError(callback, "Email already registered");
                                     } else {
                                         // Create user
                                         User user = new User(username, password, email, phoneNumber, userType, address);
                                         
                                         // Save to Firestore
-                                        firestoreHelper.getUsersCollection().document(username).set(user)
-                                                .addOnSuccessListener(aVoid -> {
+                                        remoteStore.set(RemoteStore.Collection.USERS, username, user)
+                                                .whenComplete((aVoid, setError) -> {
+                                                    if (setError != null) {
+                                                        postError(callback, "Registration failed: " + RemoteStoreException.from(setError).getMessage());
+                                                        return;
+                                                    }
                                                     // Save to local Room DB and Session
-                                                    executorService.execute(() -> {
+                                                    writeExecutor.execute(() -> {
                                                         userDao.insertUser(user);
                                                         sessionManager.createLoginSession(username, email, phoneNumber, userType);
                                                     });
-                                                    callback.onSuccess(user);
-                                                })
-                                                .addOnFailureListener(e -> callback.onError("Registration failed: " + e.getMessage()));
+                                                    mainHandler.post(() -> callback.onSuccess(user));
+                                                });
                                     }
-                                })
-                                .addOnFailureListener(e -> callback.onError("Error checking email: " + e.getMessage()));
+                                });
                     }
-                })
-                .addOnFailureListener(e -> callback.onError("Error checking username: " + e.getMessage()));
+                });
     }
     
     public void loginUser(String username, String password, AuthCallback callback) {
@@ -90,50 +145,47 @@ public class UserRepository {
     }
     
     public void loginUser(String username, String password, boolean rememberMe, AuthCallback callback) {
-        firestoreHelper.getUsersCollection().document(username).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        if (user != null && user.getPassword().equals(password)) {
-                            // Sync to local Room DB
-                            executorService.execute(() -> {
-                                if (userDao.isUsernameExists(username)) {
-                                    // Preserve local earnings before updating
-                                    User localUser = userDao.getUserByUsername(username);
-                                    double localEarnings = localUser != null ? localUser.getEarnings() : 0.0;
-                                    
-                                    // If local earnings are higher, keep them; otherwise use Firestore value
-                                    if (localEarnings > user.getEarnings()) {
-                                        user.setEarnings(localEarnings);
-                                    }
-                                    
-                                    userDao.updateUser(user);
-                                    
-                                    // Sync back to Firestore if local was higher
-                                    if (localEarnings > 0) {
-                                        firestoreHelper.getUsersCollection().document(username).set(user);
-                                    }
-                                } else {
-                                    userDao.insertUser(user);
-                                }
-                                sessionManager.createLoginSession(
-                                        user.getUsername(),
-                                        user.getEmail(),
-                                        user.getPhoneNumber(),
-                                        user.getUserType(),
-                                        rememberMe
-                                );
-                            });
-                            callback.onSuccess(user);
-                        } else {
-                            callback.onError("Invalid username or password");
-                        }
+        remoteStore.get(RemoteStore.Collection.USERS, username, User.class)
+                .thenApply(result -> result.value)
+                .whenComplete((user, error) -> {
+                    if (error != null) {
+                        postError(callback, "Login failed: " + RemoteStoreException.from(error).getMessage());
+                    } else if (user == null) {
+                        postError(callback, "User not found");
+                    } else if (user.getPassword().equals(password)) {
+                        // Sync to local Room DB
+                        writeExecutor.execute(() -> {
+                            cacheUser(user);
+                            sessionManager.createLoginSession(
+                                    user.getUsername(),
+                                    user.getEmail(),
+                                    user.getPhoneNumber(),
+                                    user.getUserType(),
+                                    rememberMe
+                            );
+                            mainHandler.post(() -> callback.onSuccess(user));
+                        });
                     } else {
-                        callback.onError("User not found");
+                        postError(callback, "Invalid username or password");
                     }
-                })
-                .addOnFailureListener(e -> callback.onError("Login failed: " + e.getMessage()));
+                });
     }
+
+    // The server total is authoritative; credits still queued on this device are added on top
+    private void cacheUser(User remoteUser) {
+        remoteUser.setEarnings(earningsRepository.reconcile(FirestoreHelper.COLLECTION_USERS,
+                remoteUser.getUsername(), remoteUser.getEarnings()));
+        if (userDao.isUsernameExists(remoteUser.getUsername())) {
+            userDao.updateUser(remoteUser);
+        } else {
+            userDao.insertUser(remoteUser);
+        }
+    }
+
+    private void postError(AuthCallback callback, String message) {
+        mainHandler.post(() -> callback.onError(message));
+    }
+
     public void logout() {
         sessionManager.logout();
     }
@@ -149,44 +201,26 @@ public class UserRepository {
     }
 
     public void getUserByUsername(String username, AuthCallback callback) {
-        firestoreHelper.getUsersCollection().document(username).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        User user = documentSnapshot.toObject(User.class);
-                        if (user != null) {
-                            // Update local cache
-                            executorService.execute(() -> {
-                                if (userDao.isUsernameExists(username)) {
-                                    userDao.updateUser(user);
-                                } else {
-                                    userDao.insertUser(user);
-                                }
-                            });
-                            callback.onSuccess(user);
-                        } else {
-                            callback.onError("Data parsing error");
-                        }
-                    } else {
-                        // Fallback to local if not found online? Or just return error?
-                        // For now, if not in Firestore, check local (offline mode support can be better, but this is simple migration)
-                        executorService.execute(() -> {
-                            User localUser = userDao.getUserByUsername(username);
-                            if (localUser != null) {
-                                callback.onSuccess(localUser);
-                            } else {
-                                callback.onError("User not found");
-                            }
+        remoteStore.get(RemoteStore.Collection.USERS, username, User.class)
+                .thenApply(result -> result.value)
+                .whenComplete((user, error) -> {
+                    if (error == null && user != null) {
+                        // Update local cache
+                        writeExecutor.execute(() -> {
+                            cacheUser(user);
+                            mainHandler.post(() -> callback.onSuccess(user));
                         });
+                        return;
                     }
-                })
-                .addOnFailureListener(e -> {
-                    // Fallback to local on network error
-                    executorService.execute(() -> {
+                    // Not in Firestore, or a network error: fall back to the local copy
+                    readExecutor.execute(() -> {
                         User localUser = userDao.getUserByUsername(username);
                         if (localUser != null) {
-                            callback.onSuccess(localUser);
+                            mainHandler.post(() -> callback.onSuccess(localUser));
+                        } else if (error != null) {
+                            postError(callback, "Error fetching user: " + RemoteStoreException.from(error).getMessage());
                         } else {
-                            callback.onError("Error fetching user: " + e.getMessage());
+                            postError(callback, "User not found");
                         }
                     });
                 });
@@ -196,6 +230,99 @@ public class UserRepository {
         return userDao.getUserByUsernameLive(username);
     }
 
+    /**
+     * Profiles for many usernames at once, e.g. every customer on an order list. Hits
+     * come from memory, then Room; only the remaining names go to the cloud, 30 per
+     * whereIn query. Names that resolve nowhere are left out of the map, and a failed
+     * query only drops its own chunk.
+     */
+    public CompletableFuture<Map<String, User>> resolveUsers(Collection<String> usernames) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username != null && !username.isEmpty()) wanted.add(username);
+        }
+        Map<String, User> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        synchronized (profileCache) {
+            long now = System.currentTimeMillis();
+            for (String username : wanted) {
+                User cached = profileCache.get(username);
+                Long missingSince = missingProfiles.get(username);
+                if (cached != null) {
+                    found.put(username, cached);
+                } else if (missingSince == null || now - missingSince > MISSING_TTL_MS) {
+                    misses.add(username);
+                }
+            }
+        }
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(found);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<String> remoteMisses = new ArrayList<>(misses);
+            for (int i = 0; i < misses.size(); i += LOCAL_CHUNK_SIZE) {
+                for (User user : userDao.getUsersByUsernames(misses.subList(i, Math.min(misses.size(), i + LOCAL_CHUNK_SIZE)))) {
+                    remember(user);
+                    found.put(user.getUsername(), user);
+                    remoteMisses.remove(user.getUsername());
+                }
+            }
+            return remoteMisses;
+        }, readExecutor).thenCompose(remoteMisses -> {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int i = 0; i < remoteMisses.size(); i += REMOTE_CHUNK_SIZE) {
+                List<String> chunk = new ArrayList<>(remoteMisses.subList(i, Math.min(remoteMisses.size(), i + REMOTE_CHUNK_SIZE)));
+                RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.USERS).whereIn("username", chunk);
+                chunks.add(remoteStore.query(query, User.class)
+                        .thenAcceptAsync(result -> {
+                            for (User user : result.items) {
+                                cacheUser(user);
+                                remember(user);
+                                synchronized (found) {
+                                    found.put(user.getUsername(), user);
+                                }
+                            }
+                            // A cached result may just be missing the document, so only the server's word counts
+                            if (!result.fromCache) {
+                                markMissing(chunk, result.items);
+                            }
+                        }, syncExecutor)
+                        .exceptionally(error -> null));
+            }
+            return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                    .thenApply(ignored -> {
+                        synchronized (found) {
+                            return new HashMap<>(found);
+                        }
+                    });
+        });
+    }
+
+    // Same as resolveUsers, delivered on the main thread; never fails, missing names are just absent
+    public void resolveUsers(Collection<String> usernames, UsersCallback callback) {
+        resolveUsers(usernames).whenComplete((users, error) ->
+                mainHandler.post(() -> callback.onResult(users != null ? users : new HashMap<>())));
+    }
+
+    private void remember(User user) {
+        synchronized (profileCache) {
+            profileCache.put(user.getUsername(), user);
+            missingProfiles.remove(user.getUsername());
+        }
+    }
+
+    private void markMissing(List<String> requested, List<User> returned) {
+        long now = System.currentTimeMillis();
+        synchronized (profileCache) {
+            for (String username : requested) {
+                missingProfiles.put(username, now);
+            }
+            for (User user : returned) {
+                missingProfiles.remove(user.getUsername());
+            }
+        }
+    }
+
     public String getUsernameSync(String userId) {
         try {
             User user = userDao.getUserByUsername(userId);
@@ -209,81 +336,69 @@ public class UserRepository {
         return userDao.getAllUsers();
     }
 
+    // Writes the profile fields only, so a stale earnings value can't overwrite credits
     public void updateUser(User user, SimpleCallback callback) {
-        firestoreHelper.getUsersCollection().document(user.getUsername()).set(user)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> userDao.updateUser(user));
-                    callback.onSuccess();
-                })
-                .addOnFailureListener(e -> callback.onError("Update failed: " + e.getMessage()));
+        remoteStore.batch()
+                .merge(RemoteStore.Collection.USERS, user.getUsername(), user, PROFILE_FIELDS)
+                .commit()
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        mainHandler.post(() -> callback.onError("Update failed: " + RemoteStoreException.from(error).getMessage()));
+                        return;
+                    }
+                    writeExecutor.execute(() -> {
+                        User localUser = userDao.getUserByUsername(user.getUsername());
+                        if (localUser != null) {
+                            user.setEarnings(localUser.getEarnings());
+                        }
+                        userDao.updateUser(user);
+                    });
+                    mainHandler.post(callback::onSuccess);
+                });
     }
     public void deleteUser(User user, SimpleCallback callback) {
-        firestoreHelper.getUsersCollection().document(user.getUsername()).delete()
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> userDao.deleteUser(user));
-                    callback.onSuccess();
-                })
-                .addOnFailureListener(e -> callback.onError("Delete failed: " + e.getMessage()));
+        remoteStore.delete(RemoteStore.Collection.USERS, user.getUsername())
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        mainHandler.post(() -> callback.onError("Delete failed: " + RemoteStoreException.from(error).getMessage()));
+                        return;
+                    }
+                    writeExecutor.execute(() -> userDao.deleteUser(user));
+                    mainHandler.post(callback::onSuccess);
+                });
     }
     public SessionManager getSessionManager() {
         return sessionManager;
     }
 
-    public void deductEarnings(String username, double amount) {
-        // Update local database and sync to Firestore
-        executorService.execute(() -> {
-            // First, deduct from local database
-            userDao.deductEarnings(username, amount);
-            
-            // Then get the updated user data
-            User updatedUser = userDao.getUserByUsername(username);
-            if (updatedUser != null) {
-                // Sync updated user to Firestore
-                firestoreHelper.getUsersCollection().document(username)
-                        .set(updatedUser)
-                        .addOnSuccessListener(aVoid -> {
-                            android.util.Log.d("UserRepository", "Earnings updated in Firestore: " + updatedUser.getEarnings());
-                        })
-                        .addOnFailureListener(e -> {
-                            android.util.Log.e("UserRepository", "Failed to update earnings in Firestore", e);
-                        });
+    // entryKey identifies the withdrawal, so deducting it twice only counts once
+    public void deductEarnings(String username, double amount, String entryKey) {
+        writeExecutor.execute(() -> {
+            if (!earningsRepository.creditUser(entryKey, username, -amount)) {
+                android.util.Log.d("UserRepository", "Earnings entry already recorded: " + entryKey);
             }
         });
     }
 
-    public void addEarnings(String username, double amount) {
-        // Update local database and sync to Firestore
-        executorService.execute(() -> {
-            // First, add to local database
-            userDao.addEarnings(username, amount);
-            
-            // Then get the updated user data
-            User updatedUser = userDao.getUserByUsername(username);
-            if (updatedUser != null) {
-                // Sync updated user to Firestore
-                firestoreHelper.getUsersCollection().document(username)
-                        .set(updatedUser)
-                        .addOnSuccessListener(aVoid -> {
-                            android.util.Log.d("UserRepository", "Earnings added in Firestore: " + updatedUser.getEarnings());
-                        })
-                        .addOnFailureListener(e -> {
-                            android.util.Log.e("UserRepository", "Failed to add earnings in Firestore", e);
-                        });
+    // entryKey identifies the credit, e.g. EarningsRepository.deliveryKey(orderId, "biker")
+    public void addEarnings(String username, double amount, String entryKey) {
+        writeExecutor.execute(() -> {
+            if (!earningsRepository.creditUser(entryKey, username, amount)) {
+                android.util.Log.d("UserRepository", "Earnings entry already recorded: " + entryKey);
             }
         });
     }
 
     public void createDefaultAdmin() {
         String adminUsername = "admin";
-        firestoreHelper.getUsersCollection().document(adminUsername).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (!documentSnapshot.exists()) {
+        remoteStore.get(RemoteStore.Collection.USERS, adminUsername, User.class)
+                .thenAccept(existing -> {
+                    // A cached miss must not overwrite an admin the server already has
+                    if (!existing.exists() && !existing.fromCache) {
                         // Create default admin
                         User admin = new User(adminUsername, "admin123", "admin@foodbike.com", "01700000000", UserType.ADMIN, "Headquarters");
-                        firestoreHelper.getUsersCollection().document(adminUsername).set(admin)
-                                .addOnSuccessListener(aVoid -> {
-                                    executorService.execute(() -> userDao.insertUser(admin));
-                                });
+                        remoteStore.set(RemoteStore.Collection.USERS, adminUsername, admin)
+                                .thenRun(() -> writeExecutor.execute(() -> userDao.insertUser(admin)));
                     }
                 });
     }
@@ -6,24 +6,34 @@ import androidx.lifecycle.LiveData;
 
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.WithdrawalDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.Withdrawal;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.data.sync.SyncCoordinator;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class WithdrawalRepository {
 
     private final WithdrawalDao withdrawalDao;
-    private final com.example.foodbikeandroid.data.remote.FirestoreHelper firestoreHelper;
-    private final ExecutorService executorService;
+    private final RemoteStore remoteStore;
+    private final SyncCoordinator syncCoordinator;
+    private final ExecutorService writeExecutor;
+    private final ExecutorService syncExecutor;
     private final android.os.Handler mainHandler;
 
     public WithdrawalRepository(Application application) {
         FoodBikeDatabase database = FoodBikeDatabase.getInstance(application);
         withdrawalDao = database.withdrawalDao();
-        firestoreHelper = com.example.foodbikeandroid.data.remote.FirestoreHelper.getInstance();
-        executorService = Executors.newFixedThreadPool(2);
+        remoteStore = RemoteStoreProvider.get();
+        syncCoordinator = SyncCoordinator.getInstance();
+        AppExecutors executors = AppExecutors.getInstance();
+        writeExecutor = executors.writes();
+        syncExecutor = executors.sync();
         mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
     }
 
@@ -60,9 +70,15 @@ public class WithdrawalRepository {
     }
 
     public void insert(Withdrawal withdrawal, Runnable onSuccess, Runnable onError) {
-        firestoreHelper.getWithdrawalsCollection().document(withdrawal.getId()).set(withdrawal)
-                .addOnSuccessListener(aVoid -> {
-                    executorService.execute(() -> {
+        remoteStore.set(RemoteStore.Collection.WITHDRAWALS, withdrawal.getId(), withdrawal)
+                .whenComplete((aVoid, error) -> {
+                    if (error != null) {
+                        if (onError != null) {
+                            mainHandler.post(onError);
+                        }
+                        return;
+                    }
+                    writeExecutor.execute(() -> {
                         try {
                             withdrawalDao.insert(withdrawal);
                             if (onSuccess != null) {
@@ -74,44 +90,29 @@ public class WithdrawalRepository {
                             }
                         }
                     });
-                })
-                .addOnFailureListener(e -> {
-                    if (onError != null) {
-                        mainHandler.post(onError);
-                    }
                 });
     }
 
-    public void refreshWithdrawals(String adminUsername) {
+    public CompletableFuture<Void> refreshWithdrawals(String adminUsername) {
+        return refreshWithdrawals(adminUsername, false);
+    }
+
+    public CompletableFuture<Void> refreshWithdrawals(String adminUsername, boolean force) {
         // Filter by admin? Or all? Usually withdrawals are for logged in admin/entrepreneur.
         // Assuming fetch all for now or filter by user if passed.
         // The model has 'adminUsername'.
         // If adminUsername is null, fetch all (Admin view).
-        com.google.firebase.firestore.Query query = firestoreHelper.getWithdrawalsCollection();
+        RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.WITHDRAWALS);
         if (adminUsername != null) {
             query = query.whereEqualTo("adminUsername", adminUsername);
         }
-        
-        query.get().addOnSuccessListener(snapshots -> {
-            if (snapshots != null && !snapshots.isEmpty()) {
-                List<Withdrawal> withdrawals = snapshots.toObjects(Withdrawal.class);
-                executorService.execute(() -> {
-                     for (Withdrawal w : withdrawals) {
-                         // Dao insert is just Insert (FAIL if exists? or Abort?). 
-                         // Default is ABORT usually if not specified.
-                         // But for syncing, we might want REPLACE.
-                         // Dao definition is just @Insert.
-                         // If we encounter conflict, we might catch exception.
-                         // Ideally we should use Insert(onConflict = REPLACE).
-                         // Given I didn't change DAO to REPLACE, I'll catch exception.
-                         try {
-                             withdrawalDao.insert(w);
-                         } catch (Exception e) {
-                             // Ignore conflict
-                         }
-                     }
-                });
-            }
-        });
+        RemoteQuery finalQuery = query;
+        String key = "withdrawals:" + (adminUsername != null ? adminUsername : "all");
+        return syncCoordinator.run(key, SyncCoordinator.ADMIN_MIN_INTERVAL_MS, force, () ->
+                remoteStore.query(finalQuery, Withdrawal.class).thenAcceptAsync(result -> {
+                    if (!result.isEmpty()) {
+                        withdrawalDao.insertAllIfAbsent(result.items);
+                    }
+                }, syncExecutor));
     }
 }
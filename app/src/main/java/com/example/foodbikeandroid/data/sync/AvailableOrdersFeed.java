@@ -0,0 +1,356 @@
+package com.example.foodbikeandroid.data.sync;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.foodbikeandroid.BuildConfig;
+import com.example.foodbikeandroid.data.LocationData;
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.database.OrderDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
+import com.example.foodbikeandroid.data.model.Division;
+import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
+import com.example.foodbikeandroid.data.model.OrderStatus;
+import com.example.foodbikeandroid.data.outbox.Outbox;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.RemoteQuery;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStoreException;
+import com.example.foodbikeandroid.data.remote.RemoteStoreProvider;
+import com.example.foodbikeandroid.work.AutoCancelScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Real-time feed of orders bikers can pick up, mirrored from Firestore into Room.
+ *
+ * One snapshot listener runs per district scope and is shared by every screen
+ * observing that scope. It attaches on the first active observer and detaches
+ * shortly after the last one goes away. Each snapshot's added, modified and removed
+ * documents are applied in a single Room transaction, and screens keep reading Room.
+ */
+public class AvailableOrdersFeed {
+
+    private static final String TAG = "AvailableOrdersFeed";
+    // Keeps the listener across a rotation instead of re-downloading the scope
+    private static final long DETACH_DELAY_MS = 5000;
+    private static final List<OrderStatus> FEED_STATUSES = Arrays.asList(OrderStatus.PENDING, OrderStatus.READY);
+
+    private static volatile AvailableOrdersFeed INSTANCE;
+
+    private final FoodBikeDatabase database;
+    private final OrderDao orderDao;
+    private final RemoteStore remoteStore;
+    private final AutoCancelScheduler autoCancelScheduler;
+    private final Outbox outbox;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Scope, Listener> listeners = new HashMap<>();
+    private final LatencyTracker latency = new LatencyTracker();
+
+    private AvailableOrdersFeed(Context context) {
+        database = FoodBikeDatabase.getInstance(context);
+        orderDao = database.orderDao();
+        remoteStore = RemoteStoreProvider.get();
+        autoCancelScheduler = AutoCancelScheduler.getInstance(context);
+        outbox = Outbox.getInstance(context);
+    }
+
+    public static AvailableOrdersFeed getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (AvailableOrdersFeed.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new AvailableOrdersFeed(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * READY orders for the given filter, kept live while observed. A real district
+     * scopes to that district and a real division to its districts. Without a division
+     * the feed stays empty and attaches nothing, rather than listening nationwide.
+     * Rows carry the restaurant name, so the list needs no other table.
+     */
+    public LiveData<List<OrderListRow>> observe(String division, String district) {
+        Scope scope = Scope.of(division, district);
+        if (scope == null) {
+            return new MutableLiveData<>(Collections.emptyList());
+        }
+        LiveData<List<OrderListRow>> local;
+        if (scope.districts.size() == 1) {
+            local = orderDao.getOrderRowsByDistrictAndStatus(scope.districts.get(0), OrderStatus.READY);
+        } else {
+            local = orderDao.getOrderRowsByDistrictsAndStatus(scope.districts, OrderStatus.READY);
+        }
+        return new FeedLiveData(scope, local);
+    }
+
+    public LatencyTracker getLatencyTracker() {
+        return latency;
+    }
+
+    @MainThread
+    private void acquire(Scope scope) {
+        Listener listener = listeners.get(scope);
+        if (listener == null) {
+            listener = new Listener(scope);
+            listeners.put(scope, listener);
+        }
+        mainHandler.removeCallbacks(listener.detach);
+        if (listener.refCount++ == 0 && listener.registration == null) {
+            listener.attach();
+        }
+    }
+
+    @MainThread
+    private void release(Scope scope) {
+        Listener listener = listeners.get(scope);
+        if (listener == null || listener.refCount == 0) return;
+        if (--listener.refCount == 0) {
+            mainHandler.postDelayed(listener.detach, DETACH_DELAY_MS);
+        }
+    }
+
+    private final class Listener {
+        final Scope scope;
+        int refCount;
+        RemoteStore.ListenerHandle registration;
+        boolean initialSnapshotApplied;
+        final Runnable detach = this::detach;
+
+        Listener(Scope scope) {
+            this.scope = scope;
+        }
+
+        void attach() {
+            RemoteQuery query = RemoteQuery.of(RemoteStore.Collection.ORDERS).whereIn("status", FEED_STATUSES);
+            query = scope.districts.size() == 1
+                    ? query.whereEqualTo("district", scope.districts.get(0))
+                    : query.whereIn("district", scope.districts);
+            initialSnapshotApplied = false;
+            registration = remoteStore.listen(query, Order.class, new RemoteStore.ChangeListener<Order>() {
+                @Override
+                public void onChanges(@NonNull List<RemoteStore.Change<Order>> changes, boolean fromCache) {
+                    apply(changes, initialSnapshotApplied);
+                    initialSnapshotApplied = true;
+                }
+
+                @Override
+                public void onError(@NonNull RemoteStoreException e) {
+                    Log.w(TAG, "Listener failed for " + scope, e);
+                }
+            });
+            Log.d(TAG, "Attached " + scope);
+        }
+
+        void detach() {
+            if (refCount > 0) return;
+            if (registration != null) {
+                registration.remove();
+                registration = null;
+            }
+            listeners.remove(scope);
+            Log.d(TAG, "Detached " + scope);
+        }
+    }
+
+    private void apply(List<RemoteStore.Change<Order>> changes, boolean trackLatency) {
+        List<Order> upserts = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        boolean pendingChanged = false;
+        for (RemoteStore.Change<Order> change : changes) {
+            if (change.type == RemoteStore.Change.Type.REMOVED) {
+                removed.add(change.id);
+            } else {
+                pendingChanged |= change.value.getStatus() == OrderStatus.PENDING;
+                upserts.add(change.value);
+            }
+        }
+        if (upserts.isEmpty() && removed.isEmpty()) return;
+
+        // Initial snapshots replay old documents, so only live changes are timed. Only
+        // READY orders can appear in the list; anything else would never be delivered.
+        for (Order order : upserts) {
+            if (trackLatency && order.getStatus() == OrderStatus.READY && order.getUpdatedAt() != null) {
+                latency.expect(order.getOrderId(), order.getUpdatedAt().getTime());
+            } else {
+                latency.forget(order.getOrderId());
+            }
+        }
+        for (String orderId : removed) {
+            latency.forget(orderId);
+        }
+        boolean reschedule = pendingChanged;
+        AppExecutors.getInstance().sync().execute(() -> {
+            database.runInTransaction(() -> {
+                List<Order> incoming = outbox.withoutPendingChanges(FirestoreHelper.COLLECTION_ORDERS, upserts, Order::getOrderId);
+                if (!incoming.isEmpty()) {
+                    orderDao.insertOrders(incoming);
+                }
+                if (!removed.isEmpty()) {
+                    orderDao.deleteUnclaimedOrders(removed);
+                }
+            });
+            if (reschedule) {
+                autoCancelScheduler.rescheduleFromDatabase();
+            }
+        });
+    }
+
+    private final class FeedLiveData extends MediatorLiveData<List<OrderListRow>> {
+        private final Scope scope;
+
+        FeedLiveData(Scope scope, LiveData<List<OrderListRow>> local) {
+            this.scope = scope;
+            addSource(local, rows -> {
+                if (rows != null) {
+                    latency.delivered(rows);
+                }
+                setValue(rows);
+            });
+        }
+
+        @Override
+        protected void onActive() {
+            super.onActive();
+            acquire(scope);
+        }
+
+        @Override
+        protected void onInactive() {
+            super.onInactive();
+            release(scope);
+        }
+    }
+
+    static final class Scope {
+        final List<String> districts;
+
+        private Scope(List<String> districts) {
+            this.districts = districts;
+        }
+
+        // null unless divisionName is a real division
+        @Nullable
+        static Scope of(String divisionName, String district) {
+            Division division = divisionName != null ? LocationData.getDivision(divisionName) : null;
+            if (division == null) {
+                return null;
+            }
+            if (district != null && division.getDistricts().contains(district)) {
+                return new Scope(Collections.singletonList(district));
+            }
+            return new Scope(new ArrayList<>(division.getDistricts()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Scope)) return false;
+            return Objects.equals(districts, ((Scope) o).districts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(districts);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Scope" + districts;
+        }
+    }
+
+    /**
+     * Cloud-write-to-list latency: from the order's server updatedAt to the moment the
+     * Room-backed list first contains that version. Includes device/server clock skew.
+     */
+    public static final class LatencyTracker {
+        private static final int WINDOW = 128;
+        // Orders that never reach the list, e.g. held back by a queued local change, are
+        // dropped after this long or once this many are waiting, oldest first
+        private static final long EXPECT_TIMEOUT_MS = 60_000;
+        private static final int MAX_EXPECTED = 256;
+
+        // orderId -> {updatedAt, time expected}, in the order they were expected
+        private final LinkedHashMap<String, long[]> expected = new LinkedHashMap<>();
+        private final long[] samples = new long[WINDOW];
+        private int sampleCount;
+        private long totalSamples;
+
+        synchronized void expect(String orderId, long updatedAt) {
+            long now = System.currentTimeMillis();
+            expected.remove(orderId);
+            expected.put(orderId, new long[]{updatedAt, now});
+            Iterator<long[]> oldest = expected.values().iterator();
+            while (oldest.hasNext()) {
+                long[] entry = oldest.next();
+                if (expected.size() <= MAX_EXPECTED && now - entry[1] < EXPECT_TIMEOUT_MS) break;
+                oldest.remove();
+            }
+        }
+
+        synchronized void forget(String orderId) {
+            expected.remove(orderId);
+        }
+
+        synchronized void delivered(List<OrderListRow> rows) {
+            if (expected.isEmpty()) return;
+            long now = System.currentTimeMillis();
+            for (OrderListRow row : rows) {
+                Order order = row.getOrder();
+                long[] entry = expected.get(order.getOrderId());
+                if (entry != null && order.getUpdatedAt() != null
+                        && order.getUpdatedAt().getTime() >= entry[0]) {
+                    long updatedAt = entry[0];
+                    expected.remove(order.getOrderId());
+                    samples[(int) (totalSamples++ % WINDOW)] = now - updatedAt;
+                    sampleCount = (int) Math.min(totalSamples, WINDOW);
+                    if (BuildConfig.DEBUG) {
+                        Log.d(TAG, "Order " + order.getOrderId() + " visible after " + (now - updatedAt) + "ms");
+                    }
+                }
+            }
+        }
+
+        // Percentile (0-100) over the most recent samples, or -1 if none yet
+        public synchronized long percentileMillis(int percentile) {
+            if (sampleCount == 0) return -1;
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int index = Math.min(sampleCount - 1, (int) Math.ceil(percentile / 100.0 * sampleCount) - 1);
+            return sorted[Math.max(0, index)];
+        }
+
+        public synchronized long getSampleCount() {
+            return totalSamples;
+        }
+
+        @NonNull
+        @Override
+        public synchronized String toString() {
+            return "latency{n=" + totalSamples + ", p50=" + percentileMillis(50)
+                    + "ms, p95=" + percentileMillis(95) + "ms}";
+        }
+    }
+}
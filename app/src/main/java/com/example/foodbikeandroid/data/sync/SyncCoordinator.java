@@ -0,0 +1,154 @@
+package com.example.foodbikeandroid.data.sync;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Front door for repository sync calls. Screens ask for a refresh on every create,
+ * resume and swipe; this keeps that from turning into one remote query per ask.
+ *
+ * A call for a key that is already running gets the running call's future. A call
+ * within the key's minimum interval of its last success completes at once without
+ * querying, unless it is forced (pull-to-refresh). Failures don't count as a refresh,
+ * so the next call after one goes out again.
+ */
+public class SyncCoordinator {
+
+    private static final String TAG = "SyncCoordinator";
+
+    public static final long ORDERS_MIN_INTERVAL_MS = 30_000;
+    public static final long CATALOG_MIN_INTERVAL_MS = 5 * 60_000;
+    public static final long ADMIN_MIN_INTERVAL_MS = 60_000;
+
+    private static volatile SyncCoordinator INSTANCE;
+
+    private final LongSupplier clock;
+    private final Map<String, CompletableFuture<Void>> inFlight = new HashMap<>();
+    // Elapsed realtime of the last successful run per key
+    private final Map<String, Long> lastSuccess = new HashMap<>();
+    private long requested;
+    private long started;
+    private long coalesced;
+    private long throttled;
+    private long failed;
+
+    private SyncCoordinator() {
+        this(SystemClock::elapsedRealtime);
+    }
+
+    // clock returns monotonic milliseconds, like elapsedRealtime()
+    @VisibleForTesting
+    SyncCoordinator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static SyncCoordinator getInstance() {
+        if (INSTANCE == null) {
+            synchronized (SyncCoordinator.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SyncCoordinator();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Runs request for key unless an identical one is running or ran recently. The
+     * returned future completes when the shared run, if any, has finished.
+     */
+    public CompletableFuture<Void> run(@NonNull String key, long minIntervalMillis, boolean force,
+                                       @NonNull Supplier<CompletableFuture<?>> request) {
+        CompletableFuture<Void> shared;
+        synchronized (this) {
+            requested++;
+            CompletableFuture<Void> running = inFlight.get(key);
+            if (running != null) {
+                coalesced++;
+                return running;
+            }
+            Long last = lastSuccess.get(key);
+            if (!force && last != null && clock.getAsLong() - last < minIntervalMillis) {
+                throttled++;
+                return CompletableFuture.completedFuture(null);
+            }
+            started++;
+            shared = new CompletableFuture<>();
+            inFlight.put(key, shared);
+        }
+
+        CompletableFuture<?> source;
+        try {
+            source = request.get();
+        } catch (RuntimeException e) {
+            source = failedFuture(e);
+        }
+        source.whenComplete((result, error) -> {
+            synchronized (this) {
+                inFlight.remove(key);
+                if (error == null) {
+                    lastSuccess.put(key, clock.getAsLong());
+                } else {
+                    failed++;
+                }
+            }
+            if (error == null) {
+                shared.complete(null);
+            } else {
+                Log.w(TAG, "Sync failed for " + key, error);
+                shared.completeExceptionally(error);
+            }
+        });
+        return shared;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(requested, started, coalesced, throttled, failed, inFlight.size());
+    }
+
+    private static CompletableFuture<Void> failedFuture(Throwable error) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    public static final class Stats {
+        public final long requested;
+        public final long started;
+        // Joined a run already in flight
+        public final long coalesced;
+        // Skipped because the key refreshed within its interval
+        public final long throttled;
+        public final long failed;
+        public final int inFlight;
+
+        Stats(long requested, long started, long coalesced, long throttled, long failed, int inFlight) {
+            this.requested = requested;
+            this.started = started;
+            this.coalesced = coalesced;
+            this.throttled = throttled;
+            this.failed = failed;
+            this.inFlight = inFlight;
+        }
+
+        public long getSuppressed() {
+            return coalesced + throttled;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "sync{requested=" + requested + ", started=" + started + ", coalesced=" + coalesced
+                    + ", throttled=" + throttled + ", failed=" + failed + ", inFlight=" + inFlight + "}";
+        }
+    }
+}
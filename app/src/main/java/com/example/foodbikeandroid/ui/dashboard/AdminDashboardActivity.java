@@ -14,19 +14,18 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.database.AdminActionDao;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
-import com.example.foodbikeandroid.data.database.OrderDao;
 import com.example.foodbikeandroid.data.database.RestaurantApplicationDao;
 import com.example.foodbikeandroid.data.database.RestaurantDao;
 import com.example.foodbikeandroid.data.database.UserDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.AdminAction;
 import com.example.foodbikeandroid.data.model.ApplicationStatus;
+import com.example.foodbikeandroid.data.repository.StatsRepository;
 import com.example.foodbikeandroid.databinding.ActivityAdminDashboardBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 import com.example.foodbikeandroid.ui.auth.SignInActivity;
 
-import java.util.Calendar;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 public class AdminDashboardActivity extends AppCompatActivity {
 
@@ -37,7 +36,7 @@ public class AdminDashboardActivity extends AppCompatActivity {
     private UserDao userDao;
     private RestaurantDao restaurantDao;
     private RestaurantApplicationDao applicationDao;
-    private OrderDao orderDao;
+    private StatsRepository statsRepository;
     private AdminActionDao adminActionDao;
 
     @Override
@@ -52,7 +51,7 @@ public class AdminDashboardActivity extends AppCompatActivity {
         userDao = database.userDao();
         restaurantDao = database.restaurantDao();
         applicationDao = database.restaurantApplicationDao();
-        orderDao = database.orderDao();
+        statsRepository = StatsRepository.getInstance(this);
         adminActionDao = database.adminActionDao();
 
         setupToolbar();
@@ -65,7 +64,7 @@ public class AdminDashboardActivity extends AppCompatActivity {
     }
 
     private void seedDummyDataIfEmpty() {
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().maintenance().execute(() -> {
             try {
                 int count = restaurantDao.getRestaurantCount();
                 
@@ -174,18 +173,11 @@ public class AdminDashboardActivity extends AppCompatActivity {
     }
 
     private void loadStatistics() {
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().interactive().execute(() -> {
             int totalUsers = userDao.getUserCount();
             int totalRestaurants = restaurantDao.getRestaurantCount();
 
-            Calendar startOfDay = Calendar.getInstance();
-            startOfDay.set(Calendar.HOUR_OF_DAY, 0);
-            startOfDay.set(Calendar.MINUTE, 0);
-            startOfDay.set(Calendar.SECOND, 0);
-            startOfDay.set(Calendar.MILLISECOND, 0);
-            long todayStart = startOfDay.getTimeInMillis();
-
-            int todaysOrders = orderDao.getOrderCountAfterTimestamp(todayStart);
+            int todaysOrders = statsRepository.getAllTotalsSync(StatsRepository.Range.TODAY).getOrders();
 
             runOnUiThread(() -> {
                 binding.tvTotalUsers.setText(String.valueOf(totalUsers));
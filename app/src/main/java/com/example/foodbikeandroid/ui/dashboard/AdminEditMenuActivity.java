@@ -14,6 +14,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.database.AdminActionDao;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.ActionType;
 import com.example.foodbikeandroid.data.model.AdminAction;
 import com.example.foodbikeandroid.data.model.MenuItem;
@@ -26,7 +27,6 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 public class AdminEditMenuActivity extends AppCompatActivity implements ManageMenuItemAdapter.OnMenuItemActionListener {
 
@@ -89,7 +89,7 @@ public class AdminEditMenuActivity extends AppCompatActivity implements ManageMe
     private void loadData() {
         binding.progressBar.setVisibility(View.VISIBLE);
         
-        restaurantRepository.getRestaurantById(restaurantId).observe(this, restaurant -> {
+        restaurantRepository.getRestaurantWithMenu(restaurantId).observe(this, restaurant -> {
             binding.progressBar.setVisibility(View.GONE);
             if (restaurant != null) {
                 currentRestaurant = restaurant;
@@ -329,7 +329,7 @@ public class AdminEditMenuActivity extends AppCompatActivity implements ManageMe
         if (adminUsername == null) adminUsername = "Admin";
         
         final String finalAdminUsername = adminUsername;
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().writes().execute(() -> {
             AdminAction action = new AdminAction(finalAdminUsername, actionType, targetName, details);
             adminActionDao.insert(action);
         });
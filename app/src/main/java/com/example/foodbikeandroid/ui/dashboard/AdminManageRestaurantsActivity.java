@@ -21,6 +21,7 @@ import com.example.foodbikeandroid.data.LocationData;
 import com.example.foodbikeandroid.data.database.AdminActionDao;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.ActionType;
 import com.example.foodbikeandroid.data.model.AdminAction;
 import com.example.foodbikeandroid.data.model.Restaurant;
@@ -33,7 +34,6 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 public class AdminManageRestaurantsActivity extends AppCompatActivity 
         implements AdminRestaurantAdapter.OnRestaurantActionListener {
@@ -118,6 +118,8 @@ public class AdminManageRestaurantsActivity extends AppCompatActivity
     private void observeRestaurants() {
         binding.progressBar.setVisibility(View.VISIBLE);
         
+        restaurantRepository.getMenuItemCounts().observe(this, adapter::setMenuItemCounts);
+
         restaurantRepository.getAllRestaurants().observe(this, restaurants -> {
             binding.progressBar.setVisibility(View.GONE);
             
@@ -217,7 +219,7 @@ public class AdminManageRestaurantsActivity extends AppCompatActivity
         restaurantRepository.delete(restaurant, new RestaurantRepository.OperationCallback() {
             @Override
             public void onSuccess() {
-                Executors.newSingleThreadExecutor().execute(() -> {
+                AppExecutors.getInstance().writes().execute(() -> {
                     AdminAction action = new AdminAction(
                             adminUsername,
                             ActionType.DELETED_RESTAURANT,
@@ -351,7 +353,7 @@ public class AdminManageRestaurantsActivity extends AppCompatActivity
 
         String adminUsername = authViewModel.getCurrentUsername();
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().writes().execute(() -> {
             int count = restaurantDao.getRestaurantCountByPrefix(LocationData.getDivisionPrefix(division));
             String restaurantId = LocationData.generateRestaurantId(division, count + 1);
 
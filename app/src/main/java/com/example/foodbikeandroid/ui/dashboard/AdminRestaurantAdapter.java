@@ -21,9 +21,13 @@ import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Restaurant;
 import com.google.android.material.card.MaterialCardView;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class AdminRestaurantAdapter extends ListAdapter<Restaurant, AdminRestaurantAdapter.RestaurantViewHolder> {
 
     private OnRestaurantActionListener listener;
+    private Map<String, Integer> menuItemCounts = new HashMap<>();
 
     public interface OnRestaurantActionListener {
         void onRestaurantClick(Restaurant restaurant);
@@ -56,6 +60,11 @@ public class AdminRestaurantAdapter extends ListAdapter<Restaurant, AdminRestaur
         this.listener = listener;
     }
 
+    public void setMenuItemCounts(Map<String, Integer> counts) {
+        this.menuItemCounts = counts != null ? counts : new HashMap<>();
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
     @NonNull
     @Override
     public RestaurantViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -108,7 +117,8 @@ public class AdminRestaurantAdapter extends ListAdapter<Restaurant, AdminRestaur
                     restaurant.getAddress()));
             tvRating.setText(String.format("%.1f", restaurant.getRating()));
             
-            int menuCount = restaurant.getMenuItems() != null ? restaurant.getMenuItems().size() : 0;
+            Integer storedCount = menuItemCounts.get(restaurant.getId());
+            int menuCount = storedCount != null ? storedCount : 0;
             tvMenuItemCount.setText(itemView.getContext().getString(R.string.menu_item_count_short, menuCount));
 
             cardView.setOnClickListener(v -> {
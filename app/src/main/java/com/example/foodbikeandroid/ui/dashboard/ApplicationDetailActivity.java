@@ -17,6 +17,7 @@ import com.example.foodbikeandroid.data.database.AdminActionDao;
 import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
 import com.example.foodbikeandroid.data.database.RestaurantApplicationDao;
 import com.example.foodbikeandroid.data.database.RestaurantDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.ActionType;
 import com.example.foodbikeandroid.data.model.AdminAction;
 import com.example.foodbikeandroid.data.model.ApplicationStatus;
@@ -32,7 +33,6 @@ import com.google.android.material.textfield.TextInputLayout;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 import androidx.lifecycle.ViewModelProvider;
 
@@ -91,7 +91,7 @@ public class ApplicationDetailActivity extends AppCompatActivity {
             return;
         }
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().interactive().execute(() -> {
             currentApplication = applicationDao.getById(applicationId);
             
             runOnUiThread(() -> {
@@ -244,7 +244,7 @@ public class ApplicationDetailActivity extends AppCompatActivity {
         binding.btnApprove.setEnabled(false);
         binding.btnReject.setEnabled(false);
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().writes().execute(() -> {
             // Generate unique restaurant ID with division prefix
             String divisionPrefix = getDivisionPrefix(currentApplication.getDivision());
             int count = restaurantDao.getRestaurantCountByPrefix(divisionPrefix);
@@ -293,7 +293,7 @@ public class ApplicationDetailActivity extends AppCompatActivity {
                 @Override
                 public void onSuccess() {
                     // Log admin action after successful restaurant creation
-                    Executors.newSingleThreadExecutor().execute(() -> {
+                    AppExecutors.getInstance().writes().execute(() -> {
                         String adminUsername = authViewModel.getCurrentUsername();
                         if (adminUsername == null) adminUsername = "Admin";
                         AdminAction action = new AdminAction(adminUsername, ActionType.APPROVED_APPLICATION,
@@ -328,7 +328,7 @@ public class ApplicationDetailActivity extends AppCompatActivity {
         binding.btnApprove.setEnabled(false);
         binding.btnReject.setEnabled(false);
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.getInstance().writes().execute(() -> {
             // Update application status and set admin message
             currentApplication.setStatus(ApplicationStatus.REJECTED);
             currentApplication.setAdminMessage(reason);
@@ -8,13 +8,16 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.databinding.ItemAvailableOrderBinding;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class AvailableOrderAdapter extends RecyclerView.Adapter<AvailableOrderAdapter.OrderViewHolder> {
 
@@ -23,33 +26,31 @@ public class AvailableOrderAdapter extends RecyclerView.Adapter<AvailableOrderAd
         HIGHEST_VALUE
     }
 
-    private List<Order> orders = new ArrayList<>();
-    private List<Order> displayedOrders = new ArrayList<>();
+    private List<OrderListRow> orders = new ArrayList<>();
+    private List<OrderListRow> displayedOrders = new ArrayList<>();
     private OnOrderClickListener listener;
-    private RestaurantNameProvider restaurantNameProvider;
     private SortOrder currentSortOrder = SortOrder.NEWEST_FIRST;
+    private Set<String> claimingOrderIds = new HashSet<>();
 
     public interface OnOrderClickListener {
         void onAcceptOrder(Order order);
     }
 
-    public interface RestaurantNameProvider {
-        String getRestaurantName(String restaurantId);
-    }
-
     public void setOnOrderClickListener(OnOrderClickListener listener) {
         this.listener = listener;
     }
 
-    public void setRestaurantNameProvider(RestaurantNameProvider provider) {
-        this.restaurantNameProvider = provider;
-    }
-
-    public void setOrders(List<Order> orders) {
+    public void setOrders(List<OrderListRow> orders) {
         this.orders = orders != null ? new ArrayList<>(orders) : new ArrayList<>();
         applySorting();
     }
 
+    // Orders with a claim in flight show a disabled "Claiming" button
+    public void setClaimingOrderIds(Set<String> orderIds) {
+        this.claimingOrderIds = orderIds != null ? new HashSet<>(orderIds) : new HashSet<>();
+        notifyDataSetChanged();
+    }
+
     public void setSortOrder(SortOrder sortOrder) {
         this.currentSortOrder = sortOrder;
         applySorting();
@@ -59,9 +60,9 @@ public class AvailableOrderAdapter extends RecyclerView.Adapter<AvailableOrderAd
         displayedOrders = new ArrayList<>(orders);
         
         if (currentSortOrder == SortOrder.NEWEST_FIRST) {
-            Collections.sort(displayedOrders, (o1, o2) -> Long.compare(o2.getCreatedAt(), o1.getCreatedAt()));
+            Collections.sort(displayedOrders, (o1, o2) -> Long.compare(o2.getOrder().getCreatedAt(), o1.getOrder().getCreatedAt()));
         } else {
-            Collections.sort(displayedOrders, (o1, o2) -> Double.compare(o2.getTotalPrice(), o1.getTotalPrice()));
+            Collections.sort(displayedOrders, (o1, o2) -> Double.compare(o2.getOrder().getTotalPrice(), o1.getOrder().getTotalPrice()));
         }
         
         notifyDataSetChanged();
@@ -97,13 +98,12 @@ public class AvailableOrderAdapter extends RecyclerView.Adapter<AvailableOrderAd
             this.binding = binding;
         }
 
-        void bind(Order order) {
+        void bind(OrderListRow row) {
+            Order order = row.getOrder();
             binding.tvOrderId.setText("#" + order.getOrderId());
             binding.tvTimeSince.setText(getTimeSince(order.getCreatedAt()));
             
-            String restaurantName = restaurantNameProvider != null 
-                    ? restaurantNameProvider.getRestaurantName(order.getRestaurantId()) 
-                    : order.getRestaurantId();
+            String restaurantName = row.getRestaurantName();
             binding.tvRestaurantName.setText(restaurantName != null ? restaurantName : "Unknown Restaurant");
             
             String fullAddress = order.getDeliveryAddress();
@@ -124,6 +124,9 @@ public class AvailableOrderAdapter extends RecyclerView.Adapter<AvailableOrderAd
             
             binding.tvTotalPrice.setText(String.format(Locale.getDefault(), "৳%.2f", order.getTotalPrice()));
             
+            boolean claiming = claimingOrderIds.contains(order.getOrderId());
+            binding.btnAcceptOrder.setEnabled(!claiming);
+            binding.btnAcceptOrder.setText(claiming ? R.string.claiming_order : R.string.accept_delivery);
             binding.btnAcceptOrder.setOnClickListener(v -> {
                 if (listener != null) {
                     listener.onAcceptOrder(order);
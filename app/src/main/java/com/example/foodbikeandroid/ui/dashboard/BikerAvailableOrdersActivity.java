@@ -16,17 +16,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.LocationData;
 import com.example.foodbikeandroid.data.model.Order;
-import com.example.foodbikeandroid.data.model.OrderStatus;
-import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
-import com.example.foodbikeandroid.data.repository.RestaurantRepository;
 import com.example.foodbikeandroid.databinding.ActivityBikerAvailableOrdersBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 import com.google.android.material.chip.Chip;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import androidx.lifecycle.ViewModelProvider;
 
@@ -35,13 +31,11 @@ public class BikerAvailableOrdersActivity extends AppCompatActivity {
     private ActivityBikerAvailableOrdersBinding binding;
     private AvailableOrderAdapter adapter;
     private OrderRepository orderRepository;
-    private RestaurantRepository restaurantRepository;
     private AuthViewModel authViewModel;
 
     private String selectedDivision = "All Divisions";
     private String selectedDistrict = "All Districts";
-    private Map<String, String> restaurantNames = new HashMap<>();
-    private LiveData<List<Order>> currentOrdersLiveData;
+    private LiveData<List<OrderListRow>> currentOrdersLiveData;
 
     private final ActivityResultLauncher<Intent> orderDetailLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(),
@@ -58,8 +52,7 @@ public class BikerAvailableOrdersActivity extends AppCompatActivity {
         binding = ActivityBikerAvailableOrdersBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        orderRepository = new OrderRepository(getApplication());
-        restaurantRepository = RestaurantRepository.getInstance(this);
+        orderRepository = OrderRepository.getInstance(this);
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
         setupToolbar();
@@ -69,7 +62,6 @@ public class BikerAvailableOrdersActivity extends AppCompatActivity {
         setupSortChips();
         setupSwipeRefresh();
         setupEmptyStateButton();
-        loadRestaurantNames();
         loadOrders();
     }
 
@@ -79,8 +71,8 @@ public class BikerAvailableOrdersActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         adapter = new AvailableOrderAdapter();
-        adapter.setRestaurantNameProvider(restaurantId -> restaurantNames.get(restaurantId));
         adapter.setOnOrderClickListener(this::acceptOrder);
+        orderRepository.getClaimingOrderIds().observe(this, adapter::setClaimingOrderIds);
         
         binding.rvOrders.setLayoutManager(new LinearLayoutManager(this));
         binding.rvOrders.setAdapter(adapter);
@@ -153,30 +145,26 @@ public class BikerAvailableOrdersActivity extends AppCompatActivity {
         binding.btnRefresh.setOnClickListener(v -> refreshOrders());
     }
 
-    private void loadRestaurantNames() {
-        restaurantRepository.getAllRestaurants().observe(this, restaurants -> {
-            if (restaurants != null) {
-                restaurantNames.clear();
-                for (Restaurant restaurant : restaurants) {
-                    restaurantNames.put(restaurant.getId(), restaurant.getName());
-                }
-                adapter.notifyDataSetChanged();
-            }
-        });
-    }
-
     private void loadOrders() {
         if (currentOrdersLiveData != null) {
             currentOrdersLiveData.removeObservers(this);
         }
 
+        // The feed only listens within a division, so ask for one first
+        if (LocationData.getDivision(selectedDivision) == null) {
+            currentOrdersLiveData = null;
+            binding.swipeRefresh.setRefreshing(false);
+            adapter.setOrders(null);
+            binding.rvOrders.setVisibility(View.GONE);
+            binding.emptyState.setVisibility(View.VISIBLE);
+            binding.tvOrderCount.setText(getString(R.string.no_orders_found));
+            binding.tvEmptyMessage.setText(getString(R.string.select_division_to_see_orders));
+            return;
+        }
+
         binding.swipeRefresh.setRefreshing(true);
 
-        if (selectedDistrict.equals("All Districts")) {
-            currentOrdersLiveData = orderRepository.getOrdersByStatus(OrderStatus.READY);
-        } else {
-            currentOrdersLiveData = orderRepository.getOrdersByDistrictAndStatus(selectedDistrict, OrderStatus.READY);
-        }
+        currentOrdersLiveData = orderRepository.observeAvailableOrders(selectedDivision, selectedDistrict);
 
         currentOrdersLiveData.observe(this, orders -> {
             binding.swipeRefresh.setRefreshing(false);
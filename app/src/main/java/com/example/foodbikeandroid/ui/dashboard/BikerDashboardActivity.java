@@ -38,7 +38,7 @@ public class BikerDashboardActivity extends AppCompatActivity {
 
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
         userRepository = UserRepository.getInstance(this);
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
 
         setupToolbar();
         displayUserInfo();
@@ -17,11 +17,10 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Order;
-import com.example.foodbikeandroid.data.model.Restaurant;
-import com.example.foodbikeandroid.data.model.User;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.model.Withdrawal;
+import com.example.foodbikeandroid.data.repository.EarningsRepository;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
-import com.example.foodbikeandroid.data.repository.RestaurantRepository;
 import com.example.foodbikeandroid.data.repository.UserRepository;
 import com.example.foodbikeandroid.data.repository.WithdrawalRepository;
 import com.example.foodbikeandroid.databinding.ActivityBikerHistoryBinding;
@@ -32,10 +31,8 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 public class BikerHistoryActivity extends AppCompatActivity {
@@ -46,14 +43,11 @@ public class BikerHistoryActivity extends AppCompatActivity {
     private ActivityBikerHistoryBinding binding;
     private HistoryDeliveryAdapter adapter;
     private OrderRepository orderRepository;
-    private RestaurantRepository restaurantRepository;
     private UserRepository userRepository;
     private WithdrawalRepository withdrawalRepository;
     private AuthViewModel authViewModel;
 
-    private Map<String, String> restaurantNames = new HashMap<>();
-    private Map<String, String> customerNames = new HashMap<>();
-    private LiveData<List<Order>> currentOrdersLiveData;
+    private LiveData<List<OrderListRow>> currentOrdersLiveData;
     private String bikerId;
 
     public enum DateFilter {
@@ -68,8 +62,7 @@ public class BikerHistoryActivity extends AppCompatActivity {
         binding = ActivityBikerHistoryBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        orderRepository = new OrderRepository(getApplication());
-        restaurantRepository = RestaurantRepository.getInstance(this);
+        orderRepository = OrderRepository.getInstance(this);
         userRepository = UserRepository.getInstance(this);
         withdrawalRepository = new WithdrawalRepository(getApplication());
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
@@ -87,8 +80,6 @@ public class BikerHistoryActivity extends AppCompatActivity {
         setupWithdrawButton();
         setupWithdrawalHistoryButton();
         setupSwipeRefresh();
-        loadRestaurantNames();
-        loadCustomerNames();
         loadStats();
         loadHistory();
     }
@@ -99,8 +90,6 @@ public class BikerHistoryActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         adapter = new HistoryDeliveryAdapter();
-        adapter.setRestaurantNameProvider(restaurantId -> restaurantNames.get(restaurantId));
-        adapter.setCustomerNameProvider(userId -> customerNames.get(userId));
 
         binding.rvHistory.setLayoutManager(new LinearLayoutManager(this));
         binding.rvHistory.setAdapter(adapter);
@@ -158,30 +147,6 @@ public class BikerHistoryActivity extends AppCompatActivity {
         });
     }
 
-    private void loadRestaurantNames() {
-        restaurantRepository.getAllRestaurants().observe(this, restaurants -> {
-            if (restaurants != null) {
-                restaurantNames.clear();
-                for (Restaurant restaurant : restaurants) {
-                    restaurantNames.put(restaurant.getId(), restaurant.getName());
-                }
-                adapter.notifyDataSetChanged();
-            }
-        });
-    }
-
-    private void loadCustomerNames() {
-        userRepository.getAllUsers().observe(this, users -> {
-            if (users != null) {
-                customerNames.clear();
-                for (User user : users) {
-                    customerNames.put(user.getUsername(), user.getUsername());
-                }
-                adapter.notifyDataSetChanged();
-            }
-        });
-    }
-
     private void loadStats() {
         orderRepository.getTotalDeliveryCount(bikerId).observe(this, count -> {
             if (count != null) {
@@ -240,9 +205,9 @@ public class BikerHistoryActivity extends AppCompatActivity {
         long startTime = getStartTimeForFilter();
 
         if (startTime > 0) {
-            currentOrdersLiveData = orderRepository.getCompletedOrdersByBikerAfter(bikerId, startTime);
+            currentOrdersLiveData = orderRepository.getCompletedOrderRowsByBikerAfter(bikerId, startTime);
         } else {
-            currentOrdersLiveData = orderRepository.getCompletedOrdersByBiker(bikerId);
+            currentOrdersLiveData = orderRepository.getCompletedOrderRowsByBiker(bikerId);
         }
 
         currentOrdersLiveData.observe(this, orders -> {
@@ -258,8 +223,8 @@ public class BikerHistoryActivity extends AppCompatActivity {
 
                 // Calculate total earnings from filtered orders (Period Earnings)
                 double periodEarnings = 0;
-                for (Order order : orders) {
-                    double orderEarnings = BASE_DELIVERY_FEE + (order.getTotalPrice() * PERCENTAGE_BONUS);
+                for (OrderListRow row : orders) {
+                    double orderEarnings = BASE_DELIVERY_FEE + (row.getOrder().getTotalPrice() * PERCENTAGE_BONUS);
                     periodEarnings += orderEarnings;
                 }
                 
@@ -330,13 +295,13 @@ public class BikerHistoryActivity extends AppCompatActivity {
     private void exportHistory() {
         orderRepository.exportDeliveryHistory(bikerId, new OrderRepository.ExportCallback() {
             @Override
-            public void onSuccess(List<Order> orders) {
+            public void onSuccess(List<OrderListRow> rows) {
                 runOnUiThread(() -> {
-                    if (orders == null || orders.isEmpty()) {
+                    if (rows == null || rows.isEmpty()) {
                         Toast.makeText(BikerHistoryActivity.this, R.string.no_data_to_export, Toast.LENGTH_SHORT).show();
                         return;
                     }
-                    generateAndShareCsv(orders);
+                    generateAndShareCsv(rows);
                 });
             }
 
@@ -350,7 +315,7 @@ public class BikerHistoryActivity extends AppCompatActivity {
         });
     }
 
-    private void generateAndShareCsv(List<Order> orders) {
+    private void generateAndShareCsv(List<OrderListRow> rows) {
         try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm", Locale.getDefault());
             String fileName = "delivery_history_" + dateFormat.format(new Date()) + ".csv";
@@ -367,9 +332,10 @@ public class BikerHistoryActivity extends AppCompatActivity {
 
             SimpleDateFormat csvDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
 
-            for (Order order : orders) {
-                String restaurantName = restaurantNames.get(order.getRestaurantId());
-                String customerName = customerNames.get(order.getUserId());
+            for (OrderListRow row : rows) {
+                Order order = row.getOrder();
+                String restaurantName = row.getRestaurantName();
+                String customerName = row.getCustomerName();
 
                 long deliveryTime = 0;
                 if (order.getAcceptedAt() > 0 && order.getDeliveredAt() > 0) {
@@ -620,7 +586,7 @@ public class BikerHistoryActivity extends AppCompatActivity {
         withdrawalRepository.insert(withdrawal, 
             () -> {
                 // Deduct amount from user earnings
-                userRepository.deductEarnings(bikerId, amount);
+                userRepository.deductEarnings(bikerId, amount, EarningsRepository.withdrawalKey(bikerId, withdrawal.getId()));
 
                 runOnUiThread(() -> {
                     new AlertDialog.Builder(this)
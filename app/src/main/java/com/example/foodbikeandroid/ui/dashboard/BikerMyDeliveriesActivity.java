@@ -8,18 +8,19 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Order;
-import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.RestaurantSummary;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
 import com.example.foodbikeandroid.data.repository.RestaurantRepository;
 import com.example.foodbikeandroid.databinding.ActivityBikerMyDeliveriesBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -32,7 +33,8 @@ public class BikerMyDeliveriesActivity extends AppCompatActivity {
     private AuthViewModel authViewModel;
 
     private Map<String, String> restaurantNames = new HashMap<>();
-    private LiveData<List<Order>> currentOrdersLiveData;
+    private LiveData<PagingData<Order>> currentOrdersLiveData;
+    private LiveData<Integer> currentCountLiveData;
     private boolean showingActive = true;
 
     @Override
@@ -41,7 +43,7 @@ public class BikerMyDeliveriesActivity extends AppCompatActivity {
         binding = ActivityBikerMyDeliveriesBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         restaurantRepository = RestaurantRepository.getInstance(this);
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
@@ -50,6 +52,11 @@ public class BikerMyDeliveriesActivity extends AppCompatActivity {
         setupFilterTabs();
         setupSwipeRefresh();
         loadRestaurantNames();
+        String bikerId = authViewModel.getCurrentUsername();
+        if (bikerId != null) {
+            // Throttled by the sync coordinator, so reopening the screen doesn't refetch
+            orderRepository.syncBikerOrders(bikerId);
+        }
         loadOrders();
     }
 
@@ -89,14 +96,20 @@ public class BikerMyDeliveriesActivity extends AppCompatActivity {
 
     private void setupSwipeRefresh() {
         binding.swipeRefresh.setColorSchemeResources(R.color.primary);
-        binding.swipeRefresh.setOnRefreshListener(this::loadOrders);
+        binding.swipeRefresh.setOnRefreshListener(() -> {
+            String bikerId = authViewModel.getCurrentUsername();
+            if (bikerId != null) {
+                orderRepository.syncBikerOrders(bikerId, true);
+            }
+            loadOrders();
+        });
     }
 
     private void loadRestaurantNames() {
-        restaurantRepository.getAllRestaurants().observe(this, restaurants -> {
+        restaurantRepository.getAllRestaurantSummaries().observe(this, restaurants -> {
             if (restaurants != null) {
                 restaurantNames.clear();
-                for (Restaurant restaurant : restaurants) {
+                for (RestaurantSummary restaurant : restaurants) {
                     restaurantNames.put(restaurant.getId(), restaurant.getName());
                 }
                 adapter.notifyDataSetChanged();
@@ -114,27 +127,33 @@ public class BikerMyDeliveriesActivity extends AppCompatActivity {
         if (currentOrdersLiveData != null) {
             currentOrdersLiveData.removeObservers(this);
         }
+        if (currentCountLiveData != null) {
+            currentCountLiveData.removeObservers(this);
+        }
 
         binding.swipeRefresh.setRefreshing(true);
 
         if (showingActive) {
-            currentOrdersLiveData = orderRepository.getActiveOrdersByBiker(bikerId);
+            currentOrdersLiveData = orderRepository.getActiveOrdersByBikerPaged(bikerId);
+            currentCountLiveData = orderRepository.getActiveOrderCountByBiker(bikerId);
         } else {
-            currentOrdersLiveData = orderRepository.getCompletedOrdersByBiker(bikerId);
+            currentOrdersLiveData = orderRepository.getCompletedOrdersByBikerPaged(bikerId);
+            currentCountLiveData = orderRepository.getTotalDeliveryCount(bikerId);
         }
+        currentOrdersLiveData = PagingLiveData.cachedIn(currentOrdersLiveData, getLifecycle());
+        currentOrdersLiveData.observe(this, pagingData -> adapter.submitData(getLifecycle(), pagingData));
 
-        currentOrdersLiveData.observe(this, orders -> {
+        currentCountLiveData.observe(this, count -> {
             binding.swipeRefresh.setRefreshing(false);
 
-            if (orders != null && !orders.isEmpty()) {
-                adapter.setOrders(orders);
+            int total = count != null ? count : 0;
+            if (total > 0) {
                 binding.rvDeliveries.setVisibility(View.VISIBLE);
                 binding.emptyState.setVisibility(View.GONE);
                 
                 binding.tvOrderCount.setText(getResources().getQuantityString(
-                        R.plurals.delivery_count, orders.size(), orders.size()));
+                        R.plurals.delivery_count, total, total));
             } else {
-                adapter.setOrders(null);
                 binding.rvDeliveries.setVisibility(View.GONE);
                 binding.emptyState.setVisibility(View.VISIBLE);
                 binding.tvOrderCount.setText(R.string.no_orders_found);
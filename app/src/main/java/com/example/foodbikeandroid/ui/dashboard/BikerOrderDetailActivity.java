@@ -49,7 +49,7 @@ public class BikerOrderDetailActivity extends AppCompatActivity {
             return;
         }
 
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         restaurantRepository = RestaurantRepository.getInstance(this);
         userRepository = UserRepository.getInstance(this);
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
@@ -178,12 +178,19 @@ public class BikerOrderDetailActivity extends AppCompatActivity {
 
             @Override
             public void onError(String error) {
-                // No action needed
+                runOnUiThread(() -> {
+                    showLoading(false);
+                    Toast.makeText(BikerOrderDetailActivity.this,
+                            getString(R.string.error_accepting_order, error), Toast.LENGTH_SHORT).show();
+                });
             }
 
             @Override
             public void onAlreadyTaken() {
-                // No action needed
+                runOnUiThread(() -> {
+                    showLoading(false);
+                    Toast.makeText(BikerOrderDetailActivity.this, R.string.order_already_taken, Toast.LENGTH_LONG).show();
+                });
             }
         });
     }
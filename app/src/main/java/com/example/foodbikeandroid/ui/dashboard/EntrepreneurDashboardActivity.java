@@ -8,18 +8,23 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.ApplicationStatus;
-import com.example.foodbikeandroid.data.model.Order;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 import com.example.foodbikeandroid.data.model.Restaurant;
+import com.example.foodbikeandroid.data.model.RestaurantSummary;
 import com.example.foodbikeandroid.data.model.RestaurantApplication;
+import com.example.foodbikeandroid.data.model.StatsTotals;
+import com.example.foodbikeandroid.data.repository.EarningsRepository;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
 import com.example.foodbikeandroid.data.repository.RestaurantApplicationRepository;
 import com.example.foodbikeandroid.data.repository.RestaurantRepository;
+import com.example.foodbikeandroid.data.repository.StatsRepository;
 import com.example.foodbikeandroid.databinding.ActivityEntrepreneurDashboardBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 import com.example.foodbikeandroid.ui.auth.SignInActivity;
@@ -32,8 +37,10 @@ import android.text.InputType;
 import android.view.Gravity;
 
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class EntrepreneurDashboardActivity extends AppCompatActivity {
 
@@ -50,6 +57,10 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
     private UserRepository userRepository;
     private WithdrawalRepository withdrawalRepository;
     private double currentBalance = 0.0;
+    private StatsRepository statsRepository;
+    private LiveData<List<RestaurantSummary>> restaurantSummariesLiveData;
+    private final List<LiveData<?>> statsSources = new ArrayList<>();
+    private final Map<String, Integer> pendingCounts = new HashMap<>();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,7 +71,8 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
         applicationRepository = RestaurantApplicationRepository.getInstance(this);
         restaurantRepository = RestaurantRepository.getInstance(getApplication());
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
+        statsRepository = StatsRepository.getInstance(this);
         userRepository = UserRepository.getInstance(this);
         withdrawalRepository = new WithdrawalRepository(getApplication());
 
@@ -150,82 +162,98 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
         }
     }
 
+    // Totals come from the daily stats rollup and pending counts from SQL, so no
+    // restaurant's order list is loaded here
     private void loadTotalOrdersAndRevenue() {
-        final int[] totalOrders = {0};
-        final double[] totalRevenue = {0.0};
-        final int[] newOrdersCount = {0};
-        final int[] completedRequests = {0};
-        final int totalRequests = approvedApplications.size();
-        
+        if (restaurantSummariesLiveData != null) {
+            restaurantSummariesLiveData.removeObservers(this);
+        }
+        restaurantSummariesLiveData = restaurantRepository.getAllRestaurantSummaries();
+        restaurantSummariesLiveData.observe(this, allRestaurants -> {
+            if (allRestaurants != null) {
+                observeRestaurantStats(allRestaurants);
+            }
+        });
+    }
+
+    private void observeRestaurantStats(List<RestaurantSummary> allRestaurants) {
+        clearStatsSources();
+        pendingCounts.clear();
+
+        List<String> restaurantIds = new ArrayList<>();
         for (RestaurantApplication app : approvedApplications) {
-            restaurantRepository.getAllRestaurants().observe(this, allRestaurants -> {
-                if (allRestaurants == null) return;
-                
-                String restaurantId = null;
-                for (Restaurant restaurant : allRestaurants) {
-                    if (restaurant.getName().equals(app.getRestaurantName())) {
-                        restaurantId = restaurant.getId();
-                        break;
-                    }
-                }
-                
-                if (restaurantId == null) {
-                    completedRequests[0]++;
-                    return;
+            for (RestaurantSummary restaurant : allRestaurants) {
+                if (restaurant.getName().equals(app.getRestaurantName())) {
+                    restaurantIds.add(restaurant.getId());
+                    observeRestaurantCard(app.getApplicationId(), restaurant.getId());
+                    break;
                 }
-                
-                String finalRestaurantId = restaurantId;
-                orderRepository.getOrdersByRestaurantId(finalRestaurantId).observe(this, orders -> {
-                    if (orders != null) {
-                        totalOrders[0] += orders.size();
-                        for (Order order : orders) {
-                            if (order.getStatus() != OrderStatus.CANCELLED && 
-                                order.getStatus() != OrderStatus.AUTO_CANCELLED) {
-                                totalRevenue[0] += order.getTotalPrice();
-                            }
-                        }
-                        
-                        int pendingCount = 0;
-                        int todayCount = 0;
-                        double todayRevenue = 0.0;
-                        long startOfDay = getStartOfDay();
-                        
-                        for (Order order : orders) {
-                            if (order.getStatus() == OrderStatus.PENDING) {
-                                pendingCount++;
-                                newOrdersCount[0]++;
-                            }
-                            if (order.getCreatedAt() >= startOfDay) {
-                                todayCount++;
-                                if (order.getStatus() != OrderStatus.CANCELLED && 
-                                    order.getStatus() != OrderStatus.AUTO_CANCELLED) {
-                                    todayRevenue += order.getTotalPrice();
-                                }
-                            }
-                        }
-                        
-                        restaurantAdapter.updateRestaurantStats(
-                                app.getApplicationId(), pendingCount, todayCount, todayRevenue);
-                    }
-                    
-                    completedRequests[0]++;
-                    if (completedRequests[0] >= totalRequests) {
-                        binding.tvTotalOrders.setText(String.valueOf(totalOrders[0]));
-                        binding.tvTotalRevenue.setText("৳" + (int) totalRevenue[0]);
-                        
-                        if (newOrdersCount[0] > 0) {
-                            binding.newOrdersBadge.setText(String.valueOf(newOrdersCount[0]));
-                            binding.newOrdersBadge.setVisibility(View.VISIBLE);
-                        } else {
-                            binding.newOrdersBadge.setVisibility(View.GONE);
-                        }
-                    }
-                });
-            });
+            }
+        }
+
+        if (restaurantIds.isEmpty()) {
+            binding.tvTotalOrders.setText("0");
+            binding.tvTotalRevenue.setText("৳0");
+            binding.newOrdersBadge.setVisibility(View.GONE);
+            return;
+        }
+
+        observeStats(statsRepository.getTotals(restaurantIds, StatsRepository.Range.ALL_TIME), totals -> {
+            binding.tvTotalOrders.setText(String.valueOf(totals != null ? totals.getOrders() : 0));
+            binding.tvTotalRevenue.setText("৳" + (int) (totals != null ? totals.getRevenue() : 0.0));
+        });
+    }
+
+    private void observeRestaurantCard(String applicationId, String restaurantId) {
+        final int[] pendingCount = {0};
+        final StatsTotals[] today = {null};
+
+        observeStats(orderRepository.countOrdersByRestaurantId(restaurantId,
+                Collections.singletonList(OrderStatus.PENDING)), count -> {
+            pendingCount[0] = count != null ? count : 0;
+            pendingCounts.put(applicationId, pendingCount[0]);
+            updateNewOrdersBadge();
+            updateRestaurantCard(applicationId, pendingCount[0], today[0]);
+        });
+        observeStats(statsRepository.getTotals(restaurantId, StatsRepository.Range.TODAY), totals -> {
+            today[0] = totals;
+            updateRestaurantCard(applicationId, pendingCount[0], totals);
+        });
+    }
+
+    private void updateRestaurantCard(String applicationId, int pendingCount, StatsTotals today) {
+        restaurantAdapter.updateRestaurantStats(applicationId, pendingCount,
+                today != null ? today.getOrders() : 0,
+                today != null ? today.getRevenue() : 0.0);
+    }
+
+    private void updateNewOrdersBadge() {
+        int newOrdersCount = 0;
+        for (int count : pendingCounts.values()) {
+            newOrdersCount += count;
+        }
+        if (newOrdersCount > 0) {
+            binding.newOrdersBadge.setText(String.valueOf(newOrdersCount));
+            binding.newOrdersBadge.setVisibility(View.VISIBLE);
+        } else {
+            binding.newOrdersBadge.setVisibility(View.GONE);
+        }
+    }
+
+    private <T> void observeStats(LiveData<T> source, Observer<T> observer) {
+        statsSources.add(source);
+        source.observe(this, observer);
+    }
+
+    // Applications and restaurants reload on every resume; drop the previous observers first
+    private void clearStatsSources() {
+        for (LiveData<?> source : statsSources) {
+            source.removeObservers(this);
         }
+        statsSources.clear();
     }
 
-    private androidx.lifecycle.LiveData<List<Restaurant>> currentRestaurantsLiveData;
+    private androidx.lifecycle.LiveData<Restaurant> currentRestaurantLiveData;
 
     private void updateRestaurantsList() {
         if (approvedApplications.isEmpty()) {
@@ -242,56 +270,42 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
             
             String restaurantName = approvedApplications.get(0).getRestaurantName();
             if (restaurantName != null) {
-                if (currentRestaurantsLiveData != null) {
-                    currentRestaurantsLiveData.removeObservers(this);
+                if (currentRestaurantLiveData != null) {
+                    currentRestaurantLiveData.removeObservers(this);
                 }
                 
-                currentRestaurantsLiveData = restaurantRepository.getAllRestaurants();
-                currentRestaurantsLiveData.observe(this, allRestaurants -> {
-                    if (allRestaurants != null) {
-                        for (Restaurant restaurant : allRestaurants) {
-                            if (restaurant.getName().equals(restaurantName)) {
-                                currentRestaurant = restaurant;
-                                binding.switchRestaurantStatus.setChecked(restaurant.isOpen());
-                                if (restaurant.isOpen()) {
-                                    binding.tvRestaurantStatus.setText("Open");
-                                    binding.tvRestaurantStatus.setTextColor(getColor(R.color.success));
-                                } else {
-                                    binding.tvRestaurantStatus.setText("Closed");
-                                    binding.tvRestaurantStatus.setTextColor(getColor(R.color.error));
-                                }
-                                
-                                // Display opening hours
-                                String hours = restaurant.getOpeningHours();
-                                binding.tvOpeningHours.setText(hours != null ? hours : "9:00 AM - 10:00 PM");
-                                break;
-                            }
+                currentRestaurantLiveData = restaurantRepository.getRestaurantByName(restaurantName);
+                currentRestaurantLiveData.observe(this, restaurant -> {
+                    if (restaurant != null) {
+                        currentRestaurant = restaurant;
+                        binding.switchRestaurantStatus.setChecked(restaurant.isOpen());
+                        if (restaurant.isOpen()) {
+                            binding.tvRestaurantStatus.setText("Open");
+                            binding.tvRestaurantStatus.setTextColor(getColor(R.color.success));
+                        } else {
+                            binding.tvRestaurantStatus.setText("Closed");
+                            binding.tvRestaurantStatus.setTextColor(getColor(R.color.error));
                         }
+                        
+                        // Display opening hours
+                        String hours = restaurant.getOpeningHours();
+                        binding.tvOpeningHours.setText(hours != null ? hours : "9:00 AM - 10:00 PM");
                     }
                 });
             }
         }
     }
 
-    private long getStartOfDay() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        return calendar.getTimeInMillis();
-    }
-
     private void openRestaurantOrders(RestaurantApplication restaurant) {
-        androidx.lifecycle.LiveData<List<Restaurant>> restaurantsLiveData = restaurantRepository.getAllRestaurants();
-        restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<Restaurant>>() {
+        androidx.lifecycle.LiveData<List<RestaurantSummary>> restaurantsLiveData = restaurantRepository.getAllRestaurantSummaries();
+        restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<RestaurantSummary>>() {
             @Override
-            public void onChanged(List<Restaurant> allRestaurants) {
+            public void onChanged(List<RestaurantSummary> allRestaurants) {
                 restaurantsLiveData.removeObserver(this);
                 if (allRestaurants == null) return;
                 
                 String restaurantId = null;
-                for (Restaurant r : allRestaurants) {
+                for (RestaurantSummary r : allRestaurants) {
                     if (r.getName().equals(restaurant.getRestaurantName())) {
                         restaurantId = r.getId();
                         break;
@@ -384,14 +398,14 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
     }
 
     private void openRatingsForRestaurant(RestaurantApplication application) {
-        androidx.lifecycle.LiveData<List<Restaurant>> restaurantsLiveData = restaurantRepository.getAllRestaurants();
-        restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<Restaurant>>() {
+        androidx.lifecycle.LiveData<List<RestaurantSummary>> restaurantsLiveData = restaurantRepository.getAllRestaurantSummaries();
+        restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<RestaurantSummary>>() {
             @Override
-            public void onChanged(List<Restaurant> allRestaurants) {
+            public void onChanged(List<RestaurantSummary> allRestaurants) {
                 restaurantsLiveData.removeObserver(this);
                 
                 if (allRestaurants != null) {
-                    for (Restaurant restaurant : allRestaurants) {
+                    for (RestaurantSummary restaurant : allRestaurants) {
                         if (restaurant.getName().equals(application.getRestaurantName())) {
                             Intent intent = new Intent(EntrepreneurDashboardActivity.this, ReviewsListActivity.class);
                             intent.putExtra(ReviewsListActivity.EXTRA_RESTAURANT_ID, restaurant.getId());
@@ -426,14 +440,14 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
 
     private void openMenuForApplication(RestaurantApplication application) {
         if (application.getStatus() == ApplicationStatus.APPROVED) {
-            androidx.lifecycle.LiveData<List<Restaurant>> restaurantsLiveData = restaurantRepository.getAllRestaurants();
-            restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<Restaurant>>() {
+            androidx.lifecycle.LiveData<List<RestaurantSummary>> restaurantsLiveData = restaurantRepository.getAllRestaurantSummaries();
+            restaurantsLiveData.observe(this, new androidx.lifecycle.Observer<List<RestaurantSummary>>() {
                 @Override
-                public void onChanged(List<Restaurant> allRestaurants) {
+                public void onChanged(List<RestaurantSummary> allRestaurants) {
                     restaurantsLiveData.removeObserver(this);
                     
                     if (allRestaurants != null) {
-                        for (Restaurant r : allRestaurants) {
+                        for (RestaurantSummary r : allRestaurants) {
                             if (r.getName().equals(application.getRestaurantName())) {
                                 Intent intent = new Intent(EntrepreneurDashboardActivity.this, ManageMenuActivity.class);
                                 intent.putExtra(ManageMenuActivity.EXTRA_APPLICATION_ID, application.getApplicationId());
@@ -780,7 +794,7 @@ public class EntrepreneurDashboardActivity extends AppCompatActivity {
             @Override
             public void onSuccess() {
                 // Deduct from entrepreneur earnings (stored in User entity)
-                userRepository.deductEarnings(username, amount);
+                userRepository.deductEarnings(username, amount, EarningsRepository.withdrawalKey(username, withdrawal.getId()));
                 
                 runOnUiThread(() -> {
                     currentBalance -= amount;
@@ -8,6 +8,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.databinding.ItemHistoryDeliveryBinding;
 
 import java.text.SimpleDateFormat;
@@ -19,28 +20,10 @@ import java.util.concurrent.TimeUnit;
 
 public class HistoryDeliveryAdapter extends RecyclerView.Adapter<HistoryDeliveryAdapter.HistoryViewHolder> {
 
-    private List<Order> orders = new ArrayList<>();
-    private RestaurantNameProvider restaurantNameProvider;
-    private CustomerNameProvider customerNameProvider;
+    private List<OrderListRow> rows = new ArrayList<>();
 
-    public interface RestaurantNameProvider {
-        String getRestaurantName(String restaurantId);
-    }
-
-    public interface CustomerNameProvider {
-        String getCustomerName(String userId);
-    }
-
-    public void setRestaurantNameProvider(RestaurantNameProvider provider) {
-        this.restaurantNameProvider = provider;
-    }
-
-    public void setCustomerNameProvider(CustomerNameProvider provider) {
-        this.customerNameProvider = provider;
-    }
-
-    public void setOrders(List<Order> orders) {
-        this.orders = orders != null ? new ArrayList<>(orders) : new ArrayList<>();
+    public void setOrders(List<OrderListRow> rows) {
+        this.rows = rows != null ? new ArrayList<>(rows) : new ArrayList<>();
         notifyDataSetChanged();
     }
 
@@ -54,12 +37,12 @@ public class HistoryDeliveryAdapter extends RecyclerView.Adapter<HistoryDelivery
 
     @Override
     public void onBindViewHolder(@NonNull HistoryViewHolder holder, int position) {
-        holder.bind(orders.get(position));
+        holder.bind(rows.get(position));
     }
 
     @Override
     public int getItemCount() {
-        return orders.size();
+        return rows.size();
     }
 
     class HistoryViewHolder extends RecyclerView.ViewHolder {
@@ -72,17 +55,14 @@ public class HistoryDeliveryAdapter extends RecyclerView.Adapter<HistoryDelivery
             this.binding = binding;
         }
 
-        void bind(Order order) {
+        void bind(OrderListRow row) {
+            Order order = row.getOrder();
             binding.tvOrderId.setText("#" + order.getOrderId());
 
-            String restaurantName = restaurantNameProvider != null
-                    ? restaurantNameProvider.getRestaurantName(order.getRestaurantId())
-                    : order.getRestaurantId();
+            String restaurantName = row.getRestaurantName();
             binding.tvRestaurantName.setText(restaurantName != null ? restaurantName : "Unknown Restaurant");
 
-            String customerName = customerNameProvider != null
-                    ? customerNameProvider.getCustomerName(order.getUserId())
-                    : order.getUserId();
+            String customerName = row.getCustomerName();
             binding.tvCustomerName.setText(customerName != null ? customerName : "Unknown Customer");
 
             binding.tvDistrict.setText(order.getDistrict());
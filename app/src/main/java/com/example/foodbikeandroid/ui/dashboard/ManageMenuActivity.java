@@ -96,7 +96,7 @@ public class ManageMenuActivity extends AppCompatActivity implements ManageMenuI
     }
 
     private void loadRestaurantData() {
-        restaurantRepository.getRestaurantById(restaurantId).observe(this, restaurant -> {
+        restaurantRepository.getRestaurantWithMenu(restaurantId).observe(this, restaurant -> {
             binding.progressBar.setVisibility(View.GONE);
             if (restaurant != null) {
                 currentRestaurant = restaurant;
@@ -6,6 +6,8 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodbikeandroid.R;
@@ -13,14 +15,11 @@ import com.example.foodbikeandroid.data.model.Order;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 import com.example.foodbikeandroid.databinding.ItemMyDeliveryBinding;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
-public class MyDeliveryAdapter extends RecyclerView.Adapter<MyDeliveryAdapter.DeliveryViewHolder> {
+public class MyDeliveryAdapter extends PagingDataAdapter<Order, MyDeliveryAdapter.DeliveryViewHolder> {
 
-    private List<Order> orders = new ArrayList<>();
     private OnStatusUpdateListener statusUpdateListener;
     private RestaurantNameProvider restaurantNameProvider;
 
@@ -33,6 +32,10 @@ public class MyDeliveryAdapter extends RecyclerView.Adapter<MyDeliveryAdapter.De
         String getRestaurantName(String restaurantId);
     }
 
+    public MyDeliveryAdapter() {
+        super(ORDER_DIFF_CALLBACK);
+    }
+
     public void setOnStatusUpdateListener(OnStatusUpdateListener listener) {
         this.statusUpdateListener = listener;
     }
@@ -41,10 +44,19 @@ public class MyDeliveryAdapter extends RecyclerView.Adapter<MyDeliveryAdapter.De
         this.restaurantNameProvider = provider;
     }
 
-    public void setOrders(List<Order> orders) {
-        this.orders = orders != null ? new ArrayList<>(orders) : new ArrayList<>();
-        notifyDataSetChanged();
-    }
+    private static final DiffUtil.ItemCallback<Order> ORDER_DIFF_CALLBACK = new DiffUtil.ItemCallback<Order>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return oldItem.getOrderId().equals(newItem.getOrderId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return oldItem.getStatus() == newItem.getStatus()
+                    && oldItem.getTotalPrice() == newItem.getTotalPrice()
+                    && oldItem.getDeliveredAt() == newItem.getDeliveredAt();
+        }
+    };
 
     @NonNull
     @Override
@@ -56,12 +68,10 @@ public class MyDeliveryAdapter extends RecyclerView.Adapter<MyDeliveryAdapter.De
 
     @Override
     public void onBindViewHolder(@NonNull DeliveryViewHolder holder, int position) {
-        holder.bind(orders.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return orders.size();
+        Order order = getItem(position);
+        if (order != null) {
+            holder.bind(order);
+        }
     }
 
     class DeliveryViewHolder extends RecyclerView.ViewHolder {
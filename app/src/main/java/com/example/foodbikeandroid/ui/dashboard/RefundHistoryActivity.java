@@ -5,16 +5,14 @@ import android.view.View;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
-import com.example.foodbikeandroid.data.model.Order;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
 import com.example.foodbikeandroid.databinding.ActivityRefundHistoryBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 
-import java.util.List;
-
 public class RefundHistoryActivity extends AppCompatActivity {
 
     private ActivityRefundHistoryBinding binding;
@@ -28,7 +26,7 @@ public class RefundHistoryActivity extends AppCompatActivity {
         binding = ActivityRefundHistoryBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
         setupToolbar();
@@ -53,9 +51,10 @@ public class RefundHistoryActivity extends AppCompatActivity {
             return;
         }
 
-        orderRepository.getRefundedOrdersByUserId(userId).observe(this, orders -> {
-            if (orders != null && !orders.isEmpty()) {
-                adapter.submitList(orders);
+        // Refunds are few, so the history adapter gets them as a single static page
+        orderRepository.getRefundedOrderRowsByUserId(userId).observe(this, rows -> {
+            if (rows != null && !rows.isEmpty()) {
+                adapter.submitData(getLifecycle(), PagingData.from(rows));
                 binding.recyclerView.setVisibility(View.VISIBLE);
                 binding.layoutEmpty.setVisibility(View.GONE);
             } else {
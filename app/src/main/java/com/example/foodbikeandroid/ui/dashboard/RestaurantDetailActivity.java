@@ -113,7 +113,7 @@ public class RestaurantDetailActivity extends AppCompatActivity implements CartM
     }
 
     private void loadRestaurantDetails(String restaurantId) {
-        viewModel.getRestaurantById(restaurantId).observe(this, restaurant -> {
+        viewModel.getRestaurantWithMenu(restaurantId).observe(this, restaurant -> {
             if (restaurant != null) {
                 currentRestaurantName = restaurant.getName();
                 displayRestaurantDetails(restaurant);
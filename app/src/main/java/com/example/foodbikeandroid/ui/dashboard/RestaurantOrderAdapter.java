@@ -7,6 +7,8 @@ import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodbikeandroid.R;
@@ -17,17 +19,14 @@ import com.example.foodbikeandroid.data.model.PaymentMethod;
 import com.example.foodbikeandroid.databinding.ItemRestaurantOrderBinding;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class RestaurantOrderAdapter extends RecyclerView.Adapter<RestaurantOrderAdapter.OrderViewHolder> {
+public class RestaurantOrderAdapter extends PagingDataAdapter<Order, RestaurantOrderAdapter.OrderViewHolder> {
 
-    private List<Order> orders = new ArrayList<>();
-    private List<Order> filteredOrders = new ArrayList<>();
     private OnOrderActionListener listener;
-    private OrderStatus currentFilter = null;
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy hh:mm a", Locale.getDefault());
 
     public interface OnOrderActionListener {
@@ -37,33 +36,27 @@ public class RestaurantOrderAdapter extends RecyclerView.Adapter<RestaurantOrder
         String getCustomerName(String userId);
     }
 
-    public void setOnOrderActionListener(OnOrderActionListener listener) {
-        this.listener = listener;
+    public RestaurantOrderAdapter() {
+        super(ORDER_DIFF_CALLBACK);
     }
 
-    public void setOrders(List<Order> orders) {
-        this.orders = orders != null ? orders : new ArrayList<>();
-        applyFilter();
+    public void setOnOrderActionListener(OnOrderActionListener listener) {
+        this.listener = listener;
     }
 
-    public void setFilter(OrderStatus status) {
-        this.currentFilter = status;
-        applyFilter();
-    }
+    private static final DiffUtil.ItemCallback<Order> ORDER_DIFF_CALLBACK = new DiffUtil.ItemCallback<Order>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return oldItem.getOrderId().equals(newItem.getOrderId());
+        }
 
-    private void applyFilter() {
-        filteredOrders.clear();
-        if (currentFilter == null) {
-            filteredOrders.addAll(orders);
-        } else {
-            for (Order order : orders) {
-                if (order.getStatus() == currentFilter) {
-                    filteredOrders.add(order);
-                }
-            }
+        @Override
+        public boolean areContentsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+            return oldItem.getStatus() == newItem.getStatus()
+                    && oldItem.getTotalPrice() == newItem.getTotalPrice()
+                    && Objects.equals(oldItem.getBikerId(), newItem.getBikerId());
         }
-        notifyDataSetChanged();
-    }
+    };
 
     @NonNull
     @Override
@@ -75,12 +68,10 @@ public class RestaurantOrderAdapter extends RecyclerView.Adapter<RestaurantOrder
 
     @Override
     public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
-        holder.bind(filteredOrders.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return filteredOrders.size();
+        Order order = getItem(position);
+        if (order != null) {
+            holder.bind(order);
+        }
     }
 
     class OrderViewHolder extends RecyclerView.ViewHolder {
@@ -6,20 +6,27 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.Order;
 import com.example.foodbikeandroid.data.model.OrderStatus;
+import com.example.foodbikeandroid.data.model.User;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
+import com.example.foodbikeandroid.data.repository.StatsRepository;
 import com.example.foodbikeandroid.data.repository.UserRepository;
 import com.example.foodbikeandroid.databinding.ActivityRestaurantOrdersBinding;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
-import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class RestaurantOrdersActivity extends AppCompatActivity {
 
@@ -33,6 +40,12 @@ public class RestaurantOrdersActivity extends AppCompatActivity {
     private RestaurantOrderAdapter adapter;
     private String restaurantId;
     private Map<String, String> userNameCache = new HashMap<>();
+    private final Set<String> pendingUserLookups = new HashSet<>();
+    private final Set<String> queuedUserLookups = new HashSet<>();
+    private boolean userLookupScheduled;
+    private List<OrderStatus> currentStatuses = Arrays.asList(OrderStatus.values());
+    private LiveData<PagingData<Order>> currentOrdersLiveData;
+    private LiveData<Integer> currentCountLiveData;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -49,7 +62,7 @@ public class RestaurantOrdersActivity extends AppCompatActivity {
             return;
         }
 
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         userRepository = UserRepository.getInstance(this);
 
         setupToolbar();
@@ -57,6 +70,7 @@ public class RestaurantOrdersActivity extends AppCompatActivity {
         setupRecyclerView();
         setupFilterChips();
         setupSwipeRefresh();
+        loadStats();
         loadOrders();
     }
 
@@ -89,7 +103,7 @@ public class RestaurantOrdersActivity extends AppCompatActivity {
 
             @Override
             public String getCustomerName(String userId) {
-                return userNameCache.getOrDefault(userId, userId);
+                return resolveCustomerName(userId);
             }
         });
         
@@ -103,101 +117,88 @@ public class RestaurantOrdersActivity extends AppCompatActivity {
             
             int checkedId = checkedIds.get(0);
             if (checkedId == R.id.chipAll) {
-                adapter.setFilter(null);
+                currentStatuses = Arrays.asList(OrderStatus.values());
             } else if (checkedId == R.id.chipPending) {
-                adapter.setFilter(OrderStatus.PENDING);
+                currentStatuses = Collections.singletonList(OrderStatus.PENDING);
             } else if (checkedId == R.id.chipConfirmed) {
-                adapter.setFilter(OrderStatus.CONFIRMED);
+                currentStatuses = Collections.singletonList(OrderStatus.CONFIRMED);
             } else if (checkedId == R.id.chipPreparing) {
-                adapter.setFilter(OrderStatus.PREPARING);
+                currentStatuses = Collections.singletonList(OrderStatus.PREPARING);
             } else if (checkedId == R.id.chipReady) {
-                adapter.setFilter(OrderStatus.READY);
+                currentStatuses = Collections.singletonList(OrderStatus.READY);
             }
+            loadOrders();
         });
     }
 
     private void setupSwipeRefresh() {
         binding.swipeRefresh.setColorSchemeResources(R.color.primary);
-        binding.swipeRefresh.setOnRefreshListener(this::loadOrders);
+        binding.swipeRefresh.setOnRefreshListener(() -> {
+            adapter.refresh();
+            binding.swipeRefresh.setRefreshing(false);
+        });
     }
 
     private void loadOrders() {
-        orderRepository.getOrdersByRestaurantId(restaurantId).observe(this, orders -> {
+        if (currentOrdersLiveData != null) {
+            currentOrdersLiveData.removeObservers(this);
+        }
+        if (currentCountLiveData != null) {
+            currentCountLiveData.removeObservers(this);
+        }
+
+        currentOrdersLiveData = PagingLiveData.cachedIn(
+                orderRepository.getOrdersByRestaurantIdPaged(restaurantId, currentStatuses), getLifecycle());
+        currentOrdersLiveData.observe(this, pagingData -> adapter.submitData(getLifecycle(), pagingData));
+
+        currentCountLiveData = orderRepository.countOrdersByRestaurantId(restaurantId, currentStatuses);
+        currentCountLiveData.observe(this, count -> {
             binding.swipeRefresh.setRefreshing(false);
-            
-            if (orders == null || orders.isEmpty()) {
-                binding.emptyState.setVisibility(View.VISIBLE);
-                binding.rvOrders.setVisibility(View.GONE);
-                updateStats(0, 0, 0.0);
-            } else {
-                binding.emptyState.setVisibility(View.GONE);
-                binding.rvOrders.setVisibility(View.VISIBLE);
-                adapter.setOrders(orders);
-                
-                loadUserNames(orders);
-                calculateStats(orders);
-            }
+            boolean empty = count == null || count == 0;
+            binding.emptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+            binding.rvOrders.setVisibility(empty ? View.GONE : View.VISIBLE);
         });
     }
 
-    private void loadUserNames(List<Order> orders) {
-        for (Order order : orders) {
-            String userId = order.getUserId();
-            if (!userNameCache.containsKey(userId)) {
-                userRepository.getUserByUsername(userId, new UserRepository.AuthCallback() {
-                    @Override
-                    public void onSuccess(com.example.foodbikeandroid.data.model.User user) {
-                        runOnUiThread(() -> {
-                            userNameCache.put(userId, user.getUsername());
-                            adapter.notifyDataSetChanged();
-                        });
-                    }
-
-                    @Override
-                    public void onError(String message) {
-                        userNameCache.put(userId, userId);
-                    }
+    // Pending is counted in SQL; today's figures come from the daily stats rollup
+    private void loadStats() {
+        orderRepository.countOrdersByRestaurantId(restaurantId, Collections.singletonList(OrderStatus.PENDING))
+                .observe(this, count -> binding.tvPendingOrders.setText(String.valueOf(count != null ? count : 0)));
+        StatsRepository.getInstance(this).getTotals(restaurantId, StatsRepository.Range.TODAY)
+                .observe(this, totals -> {
+                    binding.tvTodayOrders.setText(String.valueOf(totals != null ? totals.getOrders() : 0));
+                    binding.tvTodayRevenue.setText("৳" + (int) (totals != null ? totals.getRevenue() : 0.0));
                 });
-            }
-        }
     }
 
-    private void calculateStats(List<Order> orders) {
-        int pendingCount = 0;
-        int todayCount = 0;
-        double todayRevenue = 0.0;
-        
-        long startOfDay = getStartOfDay();
-        
-        for (Order order : orders) {
-            if (order.getStatus() == OrderStatus.PENDING) {
-                pendingCount++;
-            }
-            if (order.getCreatedAt() >= startOfDay) {
-                todayCount++;
-                if (order.getStatus() != OrderStatus.CANCELLED && 
-                    order.getStatus() != OrderStatus.AUTO_CANCELLED) {
-                    todayRevenue += order.getTotalPrice();
-                }
+    // Names are resolved lazily for the rows that are actually bound. Lookups requested
+    // while binding one frame are sent together as a single batch.
+    private String resolveCustomerName(String userId) {
+        String cached = userNameCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        if (pendingUserLookups.add(userId)) {
+            queuedUserLookups.add(userId);
+            if (!userLookupScheduled) {
+                userLookupScheduled = true;
+                binding.rvOrders.post(this::resolveQueuedCustomerNames);
             }
         }
-        
-        updateStats(pendingCount, todayCount, todayRevenue);
-    }
-
-    private void updateStats(int pendingCount, int todayCount, double todayRevenue) {
-        binding.tvPendingOrders.setText(String.valueOf(pendingCount));
-        binding.tvTodayOrders.setText(String.valueOf(todayCount));
-        binding.tvTodayRevenue.setText("৳" + (int) todayRevenue);
+        return userId;
     }
 
-    private long getStartOfDay() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, 0);
-        calendar.set(Calendar.MINUTE, 0);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        return calendar.getTimeInMillis();
+    private void resolveQueuedCustomerNames() {
+        userLookupScheduled = false;
+        Set<String> batch = new HashSet<>(queuedUserLookups);
+        queuedUserLookups.clear();
+        userRepository.resolveUsers(batch, users -> {
+            for (String userId : batch) {
+                User user = users.get(userId);
+                userNameCache.put(userId, user != null ? user.getUsername() : userId);
+            }
+            adapter.notifyDataSetChanged();
+        });
     }
 
     private void confirmAcceptOrder(Order order) {
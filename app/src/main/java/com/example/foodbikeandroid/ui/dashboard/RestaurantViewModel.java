@@ -83,4 +83,8 @@ public class RestaurantViewModel extends AndroidViewModel {
     public LiveData<Restaurant> getRestaurantById(String id) {
         return repository.getRestaurantById(id);
     }
+
+    public LiveData<Restaurant> getRestaurantWithMenu(String id) {
+        return repository.getRestaurantWithMenu(id);
+    }
 }
@@ -7,21 +7,17 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.example.foodbikeandroid.data.model.Review;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
 import com.example.foodbikeandroid.data.model.ReviewWithUserInfo;
 import com.example.foodbikeandroid.data.repository.ReviewRepository;
-import com.example.foodbikeandroid.data.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ReviewViewModel extends AndroidViewModel {
 
     private final ReviewRepository reviewRepository;
-    private final UserRepository userRepository;
     private final ExecutorService executorService;
 
     private final MutableLiveData<String> restaurantId = new MutableLiveData<>();
@@ -32,14 +28,10 @@ public class ReviewViewModel extends AndroidViewModel {
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> emptyMessage = new MutableLiveData<>("No reviews yet");
 
-    // Cache for user data
-    private Map<String, String> userCache;
-
     public ReviewViewModel(@NonNull Application application) {
         super(application);
         this.reviewRepository = ReviewRepository.getInstance(application);
-        this.userRepository = UserRepository.getInstance(application);
-        this.executorService = Executors.newFixedThreadPool(2);
+        this.executorService = AppExecutors.getInstance().interactive();
     }
 
     public void setRestaurantId(String id) {
@@ -87,23 +79,16 @@ public class ReviewViewModel extends AndroidViewModel {
         }
 
         isLoading.setValue(true);
+        String order = sortOrder.getValue();
         executorService.execute(() -> {
             try {
-                List<Review> reviews = getReviewsBySortOrder(resId);
-                
+                // One JOIN query; authors missing locally come back as "Anonymous"
+                List<ReviewWithUserInfo> reviews = reviewRepository.getWithUserInfoSync(resId, order);
                 if (reviews == null || reviews.isEmpty()) {
                     reviewsWithUserInfo.postValue(new ArrayList<>());
                     emptyMessage.postValue("No reviews yet");
                 } else {
-                    List<ReviewWithUserInfo> enrichedReviews = new ArrayList<>();
-                    for (Review review : reviews) {
-                        String username = userRepository.getUsernameSync(review.getUserId());
-                        if (username == null) {
-                            username = "Anonymous";
-                        }
-                        enrichedReviews.add(new ReviewWithUserInfo(review, username));
-                    }
-                    reviewsWithUserInfo.postValue(enrichedReviews);
+                    reviewsWithUserInfo.postValue(reviews);
                 }
             } catch (Exception e) {
                 emptyMessage.postValue("Error loading reviews");
@@ -114,21 +99,6 @@ public class ReviewViewModel extends AndroidViewModel {
         });
     }
 
-    private List<Review> getReviewsBySortOrder(String restaurantId) {
-        String order = sortOrder.getValue();
-        if (order == null) order = "newest";
-
-        switch (order) {
-            case "highest":
-                return reviewRepository.getByRestaurantHighestRatedSync(restaurantId);
-            case "lowest":
-                return reviewRepository.getByRestaurantLowestRatedSync(restaurantId);
-            case "newest":
-            default:
-                return reviewRepository.getByRestaurantNewestSync(restaurantId);
-        }
-    }
-
     private void loadAverageRating() {
         String resId = restaurantId.getValue();
         if (resId == null || resId.isEmpty()) {
@@ -142,10 +112,4 @@ public class ReviewViewModel extends AndroidViewModel {
             reviewCount.postValue(count);
         });
     }
-
-    @Override
-    protected void onCleared() {
-        super.onCleared();
-        executorService.shutdown();
-    }
 }
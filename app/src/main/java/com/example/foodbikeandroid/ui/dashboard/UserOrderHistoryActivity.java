@@ -9,37 +9,33 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.foodbikeandroid.R;
-import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.model.OrderStatus;
-import com.example.foodbikeandroid.data.model.Restaurant;
 import com.example.foodbikeandroid.data.repository.OrderRepository;
-import com.example.foodbikeandroid.data.repository.RestaurantRepository;
 import com.example.foodbikeandroid.data.repository.ReviewRepository;
 import com.example.foodbikeandroid.databinding.ActivityUserOrderHistoryBinding;
 import com.example.foodbikeandroid.ui.auth.AuthViewModel;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 public class UserOrderHistoryActivity extends AppCompatActivity {
 
     private ActivityUserOrderHistoryBinding binding;
     private UserOrderHistoryAdapter adapter;
     private OrderRepository orderRepository;
-    private RestaurantRepository restaurantRepository;
     private ReviewRepository reviewRepository;
     private AuthViewModel authViewModel;
 
-    private Map<String, String> restaurantNames = new HashMap<>();
-    private List<Order> allOrders = new ArrayList<>();
-    private LiveData<List<Order>> currentOrdersLiveData;
+    private LiveData<PagingData<OrderListRow>> currentOrdersLiveData;
+    private LiveData<Integer> currentCountLiveData;
     private String userId;
 
     public enum OrderFilter {
@@ -55,8 +51,7 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
         binding = ActivityUserOrderHistoryBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        orderRepository = new OrderRepository(getApplication());
-        restaurantRepository = RestaurantRepository.getInstance(this);
+        orderRepository = OrderRepository.getInstance(this);
         reviewRepository = ReviewRepository.getInstance(this);
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
@@ -72,6 +67,8 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
         setupFilterChips();
         setupSearch();
         setupSwipeRefresh();
+        // Throttled by the sync coordinator, so reopening the screen doesn't refetch
+        orderRepository.syncUserOrders(userId);
         
         // Check for specific order to track
         String orderIdFilter = getIntent().getStringExtra("ORDER_ID_FILTER");
@@ -80,7 +77,6 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
             binding.etSearch.setText(orderIdFilter);
         }
         
-        loadRestaurantNames();
         loadOrders();
         showLoading();
     }
@@ -91,7 +87,6 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
 
     private void setupRecyclerView() {
         adapter = new UserOrderHistoryAdapter();
-        adapter.setRestaurantNameProvider(restaurantId -> restaurantNames.get(restaurantId));
         adapter.setOrderClickListener(order -> {
             // Navigate to OrderDetailActivity
             android.content.Intent intent = new android.content.Intent(this, 
@@ -99,23 +94,21 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
             intent.putExtra("orderId", order.getOrderId());
             startActivity(intent);
         });
-        adapter.setReviewClickListener(order -> {
+        adapter.setReviewClickListener((order, restaurantName) -> {
             // Navigate to ReviewSubmissionActivity
             android.content.Intent intent = new android.content.Intent(this,
                 com.example.foodbikeandroid.ui.review.ReviewSubmissionActivity.class);
             intent.putExtra("ORDER_ID", order.getOrderId());
             intent.putExtra("RESTAURANT_ID", order.getRestaurantId());
-            String restaurantName = restaurantNames.get(order.getRestaurantId());
             intent.putExtra("RESTAURANT_NAME", restaurantName);
             startActivityForResult(intent, 100);
         });
-        adapter.setViewReviewClickListener(order -> {
+        adapter.setViewReviewClickListener((order, restaurantName) -> {
             // Navigate to ReviewSubmissionActivity in view-only mode
             android.content.Intent intent = new android.content.Intent(this,
                 com.example.foodbikeandroid.ui.review.ReviewSubmissionActivity.class);
             intent.putExtra("ORDER_ID", order.getOrderId());
             intent.putExtra("RESTAURANT_ID", order.getRestaurantId());
-            String restaurantName = restaurantNames.get(order.getRestaurantId());
             intent.putExtra("RESTAURANT_NAME", restaurantName);
             intent.putExtra("VIEW_ONLY", true);
             startActivity(intent);
@@ -177,134 +170,86 @@ public class UserOrderHistoryActivity extends AppCompatActivity {
     private void setupSwipeRefresh() {
         binding.swipeRefresh.setColorSchemeResources(R.color.primary);
         binding.swipeRefresh.setOnRefreshListener(() -> {
-            loadRestaurantNames();
-            loadOrders();
+            orderRepository.syncUserOrders(userId, true);
+            adapter.refresh();
+            binding.swipeRefresh.setRefreshing(false);
         });
     }
 
-    private void loadRestaurantNames() {
-        restaurantRepository.getAllRestaurants().observe(this, restaurants -> {
-            if (restaurants != null) {
-                restaurantNames.clear();
-                for (Restaurant restaurant : restaurants) {
-                    restaurantNames.put(restaurant.getId(), restaurant.getName());
-                }
-                adapter.notifyDataSetChanged();
-            }
-        });
+    private void loadOrders() {
+        applyFilters();
     }
 
-    private void loadOrders() {
-        // Remove previous observer if exists
+    // Filter and search run in SQL; the list is paged and only the count is observed in full
+    private void applyFilters() {
         if (currentOrdersLiveData != null) {
             currentOrdersLiveData.removeObservers(this);
         }
+        if (currentCountLiveData != null) {
+            currentCountLiveData.removeObservers(this);
+        }
+
+        List<OrderStatus> statuses = getStatusesForFilter(currentFilter);
+        currentOrdersLiveData = PagingLiveData.cachedIn(
+                orderRepository.getOrdersByUserIdPaged(userId, statuses, searchQuery), getLifecycle());
+        currentOrdersLiveData.observe(this, pagingData -> adapter.submitData(getLifecycle(), pagingData));
 
-        currentOrdersLiveData = orderRepository.getOrdersByUserId(userId);
-        currentOrdersLiveData.observe(this, orders -> {
+        currentCountLiveData = orderRepository.countOrdersByUserId(userId, statuses, searchQuery);
+        currentCountLiveData.observe(this, count -> {
             binding.swipeRefresh.setRefreshing(false);
             hideLoading();
-
-            if (orders != null) {
-                // Sort by date (newest first)
-                allOrders = new ArrayList<>(orders);
-                Collections.sort(allOrders, (o1, o2) -> 
-                        Long.compare(o2.getCreatedAt(), o1.getCreatedAt()));
-                applyFilters();
+            int total = count != null ? count : 0;
+            updateOrderCount(total);
+            if (total == 0) {
+                showFilteredEmptyState();
             } else {
-                showEmptyState(getString(R.string.no_orders_title), getString(R.string.no_orders_message));
+                hideEmptyState();
             }
         });
     }
 
-    private void applyFilters() {
-        List<Order> filteredOrders = new ArrayList<>();
+    private void showFilteredEmptyState() {
+        String emptyTitle;
+        String emptyMessage;
 
-        for (Order order : allOrders) {
-            // Apply status filter
-            boolean matchesFilter = false;
+        if (!searchQuery.isEmpty()) {
+            emptyTitle = getString(R.string.no_search_results);
+            emptyMessage = getString(R.string.no_search_results_message);
+        } else {
             switch (currentFilter) {
-                case ALL:
-                    matchesFilter = true;
-                    break;
                 case ACTIVE:
-                    matchesFilter = isActiveStatus(order.getStatus());
+                    emptyTitle = getString(R.string.no_active_orders);
+                    emptyMessage = getString(R.string.no_active_orders_message);
                     break;
                 case COMPLETED:
-                    matchesFilter = order.getStatus() == OrderStatus.DELIVERED;
+                    emptyTitle = getString(R.string.no_completed_orders);
+                    emptyMessage = getString(R.string.no_completed_orders_message);
                     break;
                 case CANCELLED:
-                    matchesFilter = order.getStatus() == OrderStatus.CANCELLED 
-                            || order.getStatus() == OrderStatus.AUTO_CANCELLED;
+                    emptyTitle = getString(R.string.no_cancelled_orders);
+                    emptyMessage = getString(R.string.no_cancelled_orders_message);
+                    break;
+                default:
+                    emptyTitle = getString(R.string.no_orders_title);
+                    emptyMessage = getString(R.string.no_orders_message);
                     break;
             }
-
-            if (!matchesFilter) continue;
-
-            // Apply search filter
-            if (!searchQuery.isEmpty()) {
-                String restaurantName = restaurantNames.get(order.getRestaurantId());
-                boolean matchesSearch = false;
-
-                // Search by order ID
-                if (order.getOrderId().toLowerCase(Locale.getDefault()).contains(searchQuery)) {
-                    matchesSearch = true;
-                }
-
-                // Search by restaurant name
-                if (restaurantName != null && 
-                        restaurantName.toLowerCase(Locale.getDefault()).contains(searchQuery)) {
-                    matchesSearch = true;
-                }
-
-                if (!matchesSearch) continue;
-            }
-
-            filteredOrders.add(order);
-        }
-
-        // Update UI
-        adapter.submitList(filteredOrders);
-        updateOrderCount(filteredOrders.size());
-
-        if (filteredOrders.isEmpty()) {
-            String emptyTitle;
-            String emptyMessage;
-
-            if (!searchQuery.isEmpty()) {
-                emptyTitle = getString(R.string.no_search_results);
-                emptyMessage = getString(R.string.no_search_results_message);
-            } else {
-                switch (currentFilter) {
-                    case ACTIVE:
-                        emptyTitle = getString(R.string.no_active_orders);
-                        emptyMessage = getString(R.string.no_active_orders_message);
-                        break;
-                    case COMPLETED:
-                        emptyTitle = getString(R.string.no_completed_orders);
-                        emptyMessage = getString(R.string.no_completed_orders_message);
-                        break;
-                    case CANCELLED:
-                        emptyTitle = getString(R.string.no_cancelled_orders);
-                        emptyMessage = getString(R.string.no_cancelled_orders_message);
-                        break;
-                    default:
-                        emptyTitle = getString(R.string.no_orders_title);
-                        emptyMessage = getString(R.string.no_orders_message);
-                        break;
-                }
-            }
-            showEmptyState(emptyTitle, emptyMessage);
-        } else {
-            hideEmptyState();
         }
+        showEmptyState(emptyTitle, emptyMessage);
     }
 
-    private boolean isActiveStatus(OrderStatus status) {
-        return status == OrderStatus.PENDING
-                || status == OrderStatus.CONFIRMED
-                || status == OrderStatus.PREPARING
-                || status == OrderStatus.READY;
+    private List<OrderStatus> getStatusesForFilter(OrderFilter filter) {
+        switch (filter) {
+            case ACTIVE:
+                return Arrays.asList(OrderStatus.PENDING, OrderStatus.CONFIRMED,
+                        OrderStatus.PREPARING, OrderStatus.READY);
+            case COMPLETED:
+                return Collections.singletonList(OrderStatus.DELIVERED);
+            case CANCELLED:
+                return Arrays.asList(OrderStatus.CANCELLED, OrderStatus.AUTO_CANCELLED);
+            default:
+                return Arrays.asList(OrderStatus.values());
+        }
     }
 
     private void updateOrderCount(int count) {
@@ -12,13 +12,14 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.DiffUtil;
-import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.foodbikeandroid.R;
 import com.example.foodbikeandroid.data.model.CartItem;
 import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderListRow;
 import com.example.foodbikeandroid.data.model.OrderStatus;
 import com.example.foodbikeandroid.data.model.PaymentMethod;
 import com.example.foodbikeandroid.databinding.ItemUserOrderBinding;
@@ -30,41 +31,32 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
-public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistoryAdapter.OrderViewHolder> {
+public class UserOrderHistoryAdapter extends PagingDataAdapter<OrderListRow, UserOrderHistoryAdapter.OrderViewHolder> {
 
     private static final double DELIVERY_FEE = 50.0;
 
-    private RestaurantNameProvider restaurantNameProvider;
     private OrderClickListener orderClickListener;
     private ReviewClickListener reviewClickListener;
     private ViewReviewClickListener viewReviewClickListener;
     private final Set<String> expandedOrderIds = new HashSet<>();
     private final Set<String> reviewedOrderIds = new HashSet<>();
 
-    public interface RestaurantNameProvider {
-        String getRestaurantName(String restaurantId);
-    }
-    
     public interface OrderClickListener {
         void onOrderClick(Order order);
     }
 
     public interface ReviewClickListener {
-        void onReviewClick(Order order);
+        void onReviewClick(Order order, String restaurantName);
     }
 
     public interface ViewReviewClickListener {
-        void onViewReviewClick(Order order);
+        void onViewReviewClick(Order order, String restaurantName);
     }
 
     public UserOrderHistoryAdapter() {
         super(ORDER_DIFF_CALLBACK);
     }
 
-    public void setRestaurantNameProvider(RestaurantNameProvider provider) {
-        this.restaurantNameProvider = provider;
-    }
-    
     public void setOrderClickListener(OrderClickListener listener) {
         this.orderClickListener = listener;
     }
@@ -85,17 +77,20 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
         notifyDataSetChanged();
     }
 
-    private static final DiffUtil.ItemCallback<Order> ORDER_DIFF_CALLBACK = new DiffUtil.ItemCallback<Order>() {
+    private static final DiffUtil.ItemCallback<OrderListRow> ORDER_DIFF_CALLBACK = new DiffUtil.ItemCallback<OrderListRow>() {
         @Override
-        public boolean areItemsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
+        public boolean areItemsTheSame(@NonNull OrderListRow oldItem, @NonNull OrderListRow newItem) {
             return oldItem.getOrderId().equals(newItem.getOrderId());
         }
 
         @Override
-        public boolean areContentsTheSame(@NonNull Order oldItem, @NonNull Order newItem) {
-            return oldItem.getOrderId().equals(newItem.getOrderId())
-                    && oldItem.getStatus() == newItem.getStatus()
-                    && oldItem.getTotalPrice() == newItem.getTotalPrice();
+        public boolean areContentsTheSame(@NonNull OrderListRow oldItem, @NonNull OrderListRow newItem) {
+            Order oldOrder = oldItem.getOrder();
+            Order newOrder = newItem.getOrder();
+            return oldOrder.getOrderId().equals(newOrder.getOrderId())
+                    && oldOrder.getStatus() == newOrder.getStatus()
+                    && oldOrder.getTotalPrice() == newOrder.getTotalPrice()
+                    && oldItem.sameNames(newItem);
         }
     };
 
@@ -109,9 +104,10 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
 
     @Override
     public void onBindViewHolder(@NonNull OrderViewHolder holder, int position) {
-        Order order = getItem(position);
-        boolean isExpanded = expandedOrderIds.contains(order.getOrderId());
-        holder.bind(order, isExpanded);
+        OrderListRow row = getItem(position);
+        if (row == null) return;
+        boolean isExpanded = expandedOrderIds.contains(row.getOrderId());
+        holder.bind(row, isExpanded);
     }
 
     class OrderViewHolder extends RecyclerView.ViewHolder {
@@ -123,13 +119,12 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
             this.binding = binding;
         }
 
-        void bind(Order order, boolean isExpanded) {
+        void bind(OrderListRow row, boolean isExpanded) {
             Context context = binding.getRoot().getContext();
+            Order order = row.getOrder();
 
             // Restaurant Name
-            String restaurantName = restaurantNameProvider != null
-                    ? restaurantNameProvider.getRestaurantName(order.getRestaurantId())
-                    : order.getRestaurantId();
+            String restaurantName = row.getRestaurantName();
             binding.tvRestaurantName.setText(restaurantName != null ? restaurantName : context.getString(R.string.unknown_restaurant));
 
             // Order ID
@@ -174,7 +169,7 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
 
             // Populate expanded details
             if (isExpanded) {
-                populateDetails(context, order);
+                populateDetails(context, row);
             }
 
             // Show refund message for cancelled orders with digital payments
@@ -272,13 +267,16 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
                 Context context = binding.getRoot().getContext();
                 int position = getBindingAdapterPosition();
                 if (position != RecyclerView.NO_POSITION) {
-                    Order order = getItem(position);
-                    populateDetails(context, order);
+                    OrderListRow row = getItem(position);
+                    if (row != null) {
+                        populateDetails(context, row);
+                    }
                 }
             }
         }
 
-        private void populateDetails(Context context, Order order) {
+        private void populateDetails(Context context, OrderListRow row) {
+            Order order = row.getOrder();
             // Clear previous items
             binding.layoutOrderItems.removeAllViews();
 
@@ -333,7 +331,7 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
                 binding.btnViewReview.setVisibility(View.GONE);
                 binding.btnLeaveReview.setOnClickListener(v -> {
                     if (reviewClickListener != null) {
-                        reviewClickListener.onReviewClick(order);
+                        reviewClickListener.onReviewClick(order, row.getRestaurantName());
                     }
                 });
             } else if (isDelivered && hasReview) {
@@ -342,7 +340,7 @@ public class UserOrderHistoryAdapter extends ListAdapter<Order, UserOrderHistory
                 binding.btnViewReview.setVisibility(View.VISIBLE);
                 binding.btnViewReview.setOnClickListener(v -> {
                     if (viewReviewClickListener != null) {
-                        viewReviewClickListener.onViewReviewClick(order);
+                        viewReviewClickListener.onViewReviewClick(order, row.getRestaurantName());
                     }
                 });
             } else {
@@ -36,7 +36,7 @@ public class OrderConfirmationActivity extends AppCompatActivity {
         setContentView(binding.getRoot());
 
         cartManager = CartManager.getInstance();
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         sessionManager = SessionManager.getInstance(this);
 
         setupToolbar();
@@ -61,7 +61,7 @@ public class OrderDetailActivity extends AppCompatActivity {
     }
 
     private void initializeRepositories() {
-        orderRepository = new OrderRepository(getApplication());
+        orderRepository = OrderRepository.getInstance(this);
         restaurantRepository = RestaurantRepository.getInstance(getApplication());
         userRepository = UserRepository.getInstance(getApplication());
         sessionManager = SessionManager.getInstance(this);
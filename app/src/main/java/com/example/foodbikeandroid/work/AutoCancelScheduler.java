@@ -0,0 +1,196 @@
+package com.example.foodbikeandroid.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+import com.example.foodbikeandroid.data.database.OrderDao;
+import com.example.foodbikeandroid.data.executor.AppExecutors;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Single owner of order auto-cancellation. While the app is running, a timer is armed
+ * for the earliest PENDING deadline (createdAt + 1h), so orders are cancelled close to
+ * their deadline instead of on a fixed poll. AutoCancelOrderWorker covers the time the
+ * process is not alive. Both run the same sweep, and the sweep lock keeps them apart.
+ *
+ * The pending-orders index is the delay queue: its head is MIN(createdAt), so only one
+ * timer is needed however many orders are waiting.
+ */
+public class AutoCancelScheduler {
+
+    private static final String TAG = "AutoCancelScheduler";
+    static final long PENDING_TIMEOUT_MILLIS = 60 * 60 * 1000;
+    // Fire a little after the deadline so the strict createdAt < threshold check includes it
+    private static final long DEADLINE_SLACK_MILLIS = 1000;
+
+    private static volatile AutoCancelScheduler INSTANCE;
+
+    // The two OrderDao queries the scheduler needs
+    interface PendingOrders {
+        List<String> cancelOlderThan(long threshold);
+
+        @Nullable
+        Long oldestCreatedAt();
+    }
+
+    private final PendingOrders pendingOrders;
+    private final ScheduledExecutorService timer;
+    private final Executor sweeper;
+    // Wall-clock milliseconds, the same clock as createdAt
+    private final LongSupplier clock;
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private final Runnable deadlineCheck = () -> {
+        synchronized (this) {
+            armedDeadline = Long.MAX_VALUE;
+        }
+        requestSweep();
+    };
+    private boolean started;
+    @Nullable
+    private ScheduledFuture<?> armed;
+    // Wall-clock time the armed timer fires at, or Long.MAX_VALUE when none is armed
+    private long armedDeadline = Long.MAX_VALUE;
+
+    private AutoCancelScheduler(Context context) {
+        this(pendingOrdersOf(FoodBikeDatabase.getInstance(context).orderDao()),
+                AppExecutors.getInstance().scheduled(), AppExecutors.getInstance().maintenance(),
+                System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    AutoCancelScheduler(PendingOrders pendingOrders, ScheduledExecutorService timer, Executor sweeper,
+                        LongSupplier clock) {
+        this.pendingOrders = pendingOrders;
+        this.timer = timer;
+        this.sweeper = sweeper;
+        this.clock = clock;
+    }
+
+    public static AutoCancelScheduler getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (AutoCancelScheduler.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new AutoCancelScheduler(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Sweeps anything already overdue, then arms the timer; later calls are no-ops
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        requestSweep();
+    }
+
+    public synchronized void stop() {
+        started = false;
+        disarm();
+    }
+
+    /**
+     * Called when an order enters PENDING locally (placed or synced), so the timer can be
+     * pulled forward if this order expires before the one currently armed.
+     */
+    public void onPendingOrder(long createdAt) {
+        arm(createdAt + PENDING_TIMEOUT_MILLIS);
+    }
+
+    // Re-reads the earliest pending deadline, e.g. after a batch of orders was synced
+    public void rescheduleFromDatabase() {
+        sweeper.execute(this::armNextDeadline);
+    }
+
+    public void requestSweep() {
+        sweeper.execute(() -> {
+            runSweep();
+            armNextDeadline();
+        });
+    }
+
+    /**
+     * Cancels PENDING orders older than the timeout in one UPDATE and returns their ids.
+     * Returns an empty list without waiting if another sweep is already running.
+     */
+    @WorkerThread
+    public List<String> runSweep() {
+        if (!sweepLock.tryLock()) {
+            Log.d(TAG, "Sweep already in progress, skipping");
+            return Collections.emptyList();
+        }
+        try {
+            long threshold = clock.getAsLong() - PENDING_TIMEOUT_MILLIS;
+            List<String> cancelled = pendingOrders.cancelOlderThan(threshold);
+            if (!cancelled.isEmpty()) {
+                Log.d(TAG, "Auto-cancelled orders: " + cancelled);
+            }
+            return cancelled;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    // Test hook: runs one sweep on the calling thread, waiting for any sweep in flight
+    @VisibleForTesting
+    @WorkerThread
+    public List<String> runSweepNow() {
+        sweepLock.lock();
+        try {
+            return runSweep();
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    @WorkerThread
+    private void armNextDeadline() {
+        // Disarm first so a deadline armed by onPendingOrder meanwhile is kept
+        disarm();
+        Long oldestPending = pendingOrders.oldestCreatedAt();
+        if (oldestPending != null) {
+            arm(oldestPending + PENDING_TIMEOUT_MILLIS);
+        }
+    }
+
+    private synchronized void arm(long deadline) {
+        if (!started || deadline >= armedDeadline) return;
+        if (armed != null) armed.cancel(false);
+        armedDeadline = deadline;
+        long delay = Math.max(0, deadline - clock.getAsLong()) + DEADLINE_SLACK_MILLIS;
+        armed = timer.schedule(deadlineCheck, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void disarm() {
+        if (armed != null) armed.cancel(false);
+        armed = null;
+        armedDeadline = Long.MAX_VALUE;
+    }
+
+    private static PendingOrders pendingOrdersOf(OrderDao orderDao) {
+        return new PendingOrders() {
+            @Override
+            public List<String> cancelOlderThan(long threshold) {
+                return orderDao.autoCancelPendingOlderThan(threshold);
+            }
+
+            @Override
+            public Long oldestCreatedAt() {
+                return orderDao.getOldestPendingCreatedAt();
+            }
+        };
+    }
+}
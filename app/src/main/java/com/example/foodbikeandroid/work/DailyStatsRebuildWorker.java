@@ -0,0 +1,35 @@
+package com.example.foodbikeandroid.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.foodbikeandroid.data.database.FoodBikeDatabase;
+
+/**
+ * Recomputes daily_restaurant_stats from the orders table. The triggers keep it current
+ * between runs; this repairs drift and re-buckets days after a time zone change.
+ */
+public class DailyStatsRebuildWorker extends Worker {
+    private static final String TAG = "DailyStatsRebuildWorker";
+
+    public DailyStatsRebuildWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            FoodBikeDatabase.getInstance(getApplicationContext()).dailyStatsDao().rebuild();
+            Log.d(TAG, "Daily stats rebuilt");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error rebuilding daily stats", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.foodbikeandroid.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.foodbikeandroid.data.outbox.Outbox;
+
+public class OutboxFlushWorker extends Worker {
+    private static final String TAG = "OutboxFlushWorker";
+
+    public OutboxFlushWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            Outbox.FlushResult result = Outbox.getInstance(getApplicationContext()).flush();
+            // Anything still queued is backing off; WorkManager's own backoff brings us back
+            return result.hasPending ? Result.retry() : Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Error flushing outbox", e);
+            return Result.retry();
+        }
+    }
+}
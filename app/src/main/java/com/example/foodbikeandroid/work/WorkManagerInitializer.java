@@ -2,9 +2,12 @@ package com.example.foodbikeandroid.work;
 
 import android.content.Context;
 
+import androidx.work.BackoffPolicy;
 import androidx.work.Constraints;
 import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
 import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 
@@ -13,6 +16,8 @@ import java.util.concurrent.TimeUnit;
 public class WorkManagerInitializer {
     
     private static final String AUTO_CANCEL_WORK_NAME = "auto_cancel_orders";
+    private static final String OUTBOX_FLUSH_WORK_NAME = "outbox_flush";
+    private static final String DAILY_STATS_REBUILD_WORK_NAME = "daily_stats_rebuild";
     
     public static void initialize(Context context) {
         Constraints constraints = new Constraints.Builder()
@@ -32,5 +37,41 @@ public class WorkManagerInitializer {
                 ExistingPeriodicWorkPolicy.KEEP,
                 autoCancelRequest
         );
+
+        // The stats triggers keep the rollup current; this only corrects drift
+        PeriodicWorkRequest statsRebuildRequest = new PeriodicWorkRequest.Builder(
+                DailyStatsRebuildWorker.class,
+                1, TimeUnit.DAYS)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiresBatteryNotLow(true)
+                        .build())
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                DAILY_STATS_REBUILD_WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                statsRebuildRequest
+        );
+
+        // Writes queued in a previous session
+        scheduleOutboxFlush(context);
+    }
+
+    public static void scheduleOutboxFlush(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest flushRequest = new OneTimeWorkRequest.Builder(OutboxFlushWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.SECONDS)
+                .build();
+
+        // APPEND so a mutation queued while a flush is finishing still gets its own run
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                OUTBOX_FLUSH_WORK_NAME,
+                ExistingWorkPolicy.APPEND_OR_REPLACE,
+                flushRequest
+        );
     }
 }
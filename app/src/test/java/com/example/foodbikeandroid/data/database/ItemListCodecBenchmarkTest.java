@@ -0,0 +1,141 @@
+package com.example.foodbikeandroid.data.database;
+
+import com.example.foodbikeandroid.data.model.CartItem;
+import com.example.foodbikeandroid.data.model.MenuItem;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Encode/decode cost of a cart column with 1, 10 and 100 items, for the streaming codec
+ * and the org.json converters it replaced. Logs time and bytes allocated per operation.
+ * Skipped in the normal test run; run it with
+ * ./gradlew testDebugUnitTest -Pbenchmarks=true --tests '*ItemListCodecBenchmarkTest' -i
+ */
+public class ItemListCodecBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(ItemListCodecBenchmarkTest.class.getName());
+    private static final int WARMUP_ITEMS = 200_000;
+    private static final int MEASURED_ITEMS = 1_000_000;
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        assumeTrue("benchmarks run only with -Pbenchmarks=true", Boolean.getBoolean("benchmarks"));
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    public void encodeAndDecodeCartItems() {
+        for (int size : new int[]{1, 10, 100}) {
+            List<CartItem> items = cart(size);
+            String codecJson = ItemListCodec.encodeCartItems(items);
+            String legacyJson = OrgJsonConverters.fromCartItemList(items);
+            assertEquals(size, ItemListCodec.decodeCartItems(codecJson).size());
+            assertEquals(size, OrgJsonConverters.toCartItemList(legacyJson).size());
+            // Rows written before the codec still decode
+            assertEquals(size, ItemListCodec.decodeCartItems(legacyJson).size());
+
+            int iterations = MEASURED_ITEMS / size;
+            report(size, "codec  encode", measure(items, ItemListCodec::encodeCartItems, iterations));
+            report(size, "codec  decode", measure(codecJson, ItemListCodec::decodeCartItems, iterations));
+            report(size, "orgjson encode", measure(items, OrgJsonConverters::fromCartItemList, iterations));
+            report(size, "orgjson decode", measure(legacyJson, OrgJsonConverters::toCartItemList, iterations));
+        }
+    }
+
+    // Warms up, then returns {ns/op, bytes/op} on this thread
+    private <T> double[] measure(T input, Function<T, ?> op, int iterations) {
+        int sink = 0;
+        for (int i = 0; i < iterations / (MEASURED_ITEMS / WARMUP_ITEMS); i++) {
+            sink += op.apply(input).hashCode();
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += op.apply(input).hashCode();
+        }
+        long nanos = System.nanoTime() - start;
+        bytes = threads.getThreadAllocatedBytes(threadId) - bytes;
+        // Keeps the JIT from discarding the loops
+        if (sink == 42) LOG.finest("");
+        return new double[]{(double) nanos / iterations, (double) bytes / iterations};
+    }
+
+    private static void report(int size, String label, double[] result) {
+        LOG.info(String.format(Locale.US, "%3d items %s: %9.0f ns/op %9.0f B/op", size, label, result[0], result[1]));
+    }
+
+    private static List<CartItem> cart(int size) {
+        List<CartItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new CartItem(new MenuItem("item_" + i, "Chicken Biryani " + i,
+                    "Basmati rice, chicken, potato and egg", 180.0 + i, "Rice", true), 1 + i % 3));
+        }
+        return items;
+    }
+
+    // The cart converters as they were before ItemListCodec, the baseline being compared
+    private static final class OrgJsonConverters {
+
+        static String fromCartItemList(List<CartItem> cartItems) {
+            JSONArray jsonArray = new JSONArray();
+            for (CartItem cartItem : cartItems) {
+                try {
+                    JSONObject jsonObject = new JSONObject();
+                    MenuItem item = cartItem.getMenuItem();
+                    jsonObject.put("id", item.getId());
+                    jsonObject.put("name", item.getName());
+                    jsonObject.put("description", item.getDescription());
+                    jsonObject.put("price", item.getPrice());
+                    jsonObject.put("category", item.getCategory());
+                    jsonObject.put("available", item.isAvailable());
+                    jsonObject.put("quantity", cartItem.getQuantity());
+                    jsonArray.put(jsonObject);
+                } catch (JSONException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return jsonArray.toString();
+        }
+
+        static List<CartItem> toCartItemList(String value) {
+            List<CartItem> cartItems = new ArrayList<>();
+            try {
+                JSONArray jsonArray = new JSONArray(value);
+                for (int i = 0; i < jsonArray.length(); i++) {
+                    JSONObject jsonObject = jsonArray.getJSONObject(i);
+                    MenuItem menuItem = new MenuItem(
+                            jsonObject.optString("id", "ITEM_" + System.currentTimeMillis() + i),
+                            jsonObject.getString("name"),
+                            jsonObject.getString("description"),
+                            jsonObject.getDouble("price"),
+                            jsonObject.getString("category"),
+                            jsonObject.optBoolean("available", true)
+                    );
+                    cartItems.add(new CartItem(menuItem, jsonObject.getInt("quantity")));
+                }
+            } catch (JSONException e) {
+                throw new IllegalStateException(e);
+            }
+            return cartItems;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.foodbikeandroid.data.database;
+
+import com.example.foodbikeandroid.data.model.CartItem;
+import com.example.foodbikeandroid.data.model.MenuItem;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ItemListCodecTest {
+
+    @Test
+    public void encodeMenuItems_writesVersionedPositionalRows() {
+        String json = ItemListCodec.encodeMenuItems(Collections.singletonList(
+                new MenuItem("m1", "Kacchi", "Mutton", 250.0, "Rice", true)));
+
+        assertEquals("[2,[\"m1\",\"Kacchi\",\"Mutton\",250.0,\"Rice\",true]]", json);
+    }
+
+    @Test
+    public void menuItems_roundTrip() {
+        List<MenuItem> items = Arrays.asList(
+                new MenuItem("m1", "Kacchi \"Special\"", "Line one\nline two \\ tab\t", 250.5, "Rice", true),
+                new MenuItem("m2", "Borhani", null, 0.0, null, false),
+                new MenuItem("m3", "ফুচকা", " ", 40.0, "Street Food", true));
+
+        List<MenuItem> decoded = ItemListCodec.decodeMenuItems(ItemListCodec.encodeMenuItems(items));
+
+        assertEquals(items.size(), decoded.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertMenuItem(items.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    public void cartItems_roundTrip() {
+        MenuItem tea = new MenuItem("m1", "Tea", "Milk tea", 20.0, "Drinks", true);
+        List<CartItem> items = Arrays.asList(new CartItem(tea, 3), new CartItem(tea, 1));
+
+        List<CartItem> decoded = ItemListCodec.decodeCartItems(ItemListCodec.encodeCartItems(items));
+
+        assertEquals(2, decoded.size());
+        assertMenuItem(tea, decoded.get(0).getMenuItem());
+        assertEquals(3, decoded.get(0).getQuantity());
+        assertEquals(1, decoded.get(1).getQuantity());
+    }
+
+    @Test
+    public void nullLists_stayNull() {
+        assertNull(ItemListCodec.encodeMenuItems(null));
+        assertNull(ItemListCodec.decodeMenuItems(null));
+        assertNull(ItemListCodec.encodeCartItems(null));
+        assertNull(ItemListCodec.decodeCartItems(null));
+    }
+
+    @Test
+    public void decodeCartItems_readsLegacyOrgJsonRows() {
+        String legacy = "[{\"id\":\"m1\",\"name\":\"Tea\\/Coffee\",\"description\":\"Hot\",\"price\":20,"
+                + "\"category\":\"Drinks\",\"available\":false,\"quantity\":2,\"extra\":{\"a\":[1,2]}},"
+                + " {\"name\":\"No id\",\"price\":1.5,\"quantity\":1}]";
+
+        List<CartItem> decoded = ItemListCodec.decodeCartItems(legacy);
+
+        assertEquals(2, decoded.size());
+        assertMenuItem(new MenuItem("m1", "Tea/Coffee", "Hot", 20.0, "Drinks", false),
+                decoded.get(0).getMenuItem());
+        assertEquals(2, decoded.get(0).getQuantity());
+        // Legacy rows without an id get one that is stable across reads
+        assertEquals("ITEM_1", decoded.get(1).getMenuItem().getId());
+        assertTrue(decoded.get(1).getMenuItem().isAvailable());
+    }
+
+    @Test
+    public void decodeMenuItems_readsLegacyOrgJsonRows() {
+        String legacy = "[{\"id\":\"m1\",\"name\":\"Naan\",\"description\":\"Butter\",\"price\":30.5,"
+                + "\"category\":\"Bread\",\"available\":true}]";
+
+        List<MenuItem> decoded = ItemListCodec.decodeMenuItems(legacy);
+
+        assertEquals(1, decoded.size());
+        assertMenuItem(new MenuItem("m1", "Naan", "Butter", 30.5, "Bread", true), decoded.get(0));
+    }
+
+    @Test
+    public void decode_ignoresFieldsAppendedByNewerWriters() {
+        List<CartItem> decoded = ItemListCodec.decodeCartItems(
+                "[2,[\"m1\",\"Tea\",null,20.0,null,true,4,\"future\",[1,{\"x\":null}]]]");
+
+        assertEquals(1, decoded.size());
+        assertEquals(4, decoded.get(0).getQuantity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsUnknownVersion() {
+        ItemListCodec.decodeMenuItems("[3,[\"m1\"]]");
+    }
+
+    @Test
+    public void decode_rejectsMalformedRowsInsteadOfTruncating() {
+        String[] malformed = {
+                // truncated after the first item
+                "[2,[\"m1\",\"Tea\",null,20.0,null,true,1],[\"m2\",\"Coffee\"",
+                // missing separators
+                "[2 [\"m1\",\"Tea\",null,20.0,null,true,1]]",
+                "[2,[\"m1\" \"Tea\",null,20.0,null,true,1]]",
+                "[{\"id\" \"m1\",\"name\":\"Tea\",\"price\":20,\"quantity\":1}]",
+                // separators in the wrong place
+                "[2,[\"m1\":\"Tea\",null,20.0,null,true,1]]",
+                "[2,[\"m1\",\"Tea\",null,20.0,null,true,1],]",
+                "[{\"id\":\"m1\",,\"name\":\"Tea\",\"price\":20,\"quantity\":1}]",
+                // trailing data
+                "[2,[\"m1\",\"Tea\",null,20.0,null,true,1]]]",
+                "",
+        };
+        for (String row : malformed) {
+            try {
+                ItemListCodec.decodeCartItems(row);
+                fail("Decoded " + row);
+            } catch (IllegalArgumentException expected) {
+                // thrown rather than saved back as a shorter list
+            }
+        }
+    }
+
+    private static void assertMenuItem(MenuItem expected, MenuItem actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPrice(), actual.getPrice(), 0.0);
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.isAvailable(), actual.isAvailable());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.foodbikeandroid.data.dispatch;
+
+import androidx.annotation.NonNull;
+
+import com.example.foodbikeandroid.data.model.Order;
+import com.example.foodbikeandroid.data.model.OrderStatus;
+import com.example.foodbikeandroid.data.model.PaymentMethod;
+import com.example.foodbikeandroid.data.remote.InMemoryRemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded acceptance benchmark for OrderClaimer against an InMemoryRemoteStore,
+ * run by DispatchSimulationTest. Each biker thread works one district and always goes for the
+ * newest order it hasn't tried yet, so bikers in the same district tap the same
+ * order at the same time, as they do on the real feed.
+ *
+ * The report gives accepted orders per second, the claimer's contention counters, the
+ * store's conflict count, and whether any order was won by more than one biker.
+ */
+public final class DispatchSimulation {
+
+    private final Builder config;
+
+    private DispatchSimulation(Builder config) {
+        this.config = config;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int bikers = 16;
+        private int districts = 4;
+        private int ordersPerDistrict = 50;
+        private long minLatencyMillis = 20;
+        private long maxLatencyMillis = 80;
+        private double failureRate;
+        private int storeThreads = 8;
+        private long seed = 42;
+
+        public Builder bikers(int bikers) {
+            this.bikers = bikers;
+            return this;
+        }
+
+        public Builder districts(int districts) {
+            this.districts = districts;
+            return this;
+        }
+
+        public Builder ordersPerDistrict(int ordersPerDistrict) {
+            this.ordersPerDistrict = ordersPerDistrict;
+            return this;
+        }
+
+        public Builder latencyMillis(long min, long max) {
+            this.minLatencyMillis = min;
+            this.maxLatencyMillis = max;
+            return this;
+        }
+
+        // Probability that a store call fails with UNAVAILABLE
+        public Builder failureRate(double failureRate) {
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        public Builder storeThreads(int storeThreads) {
+            this.storeThreads = storeThreads;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public DispatchSimulation build() {
+            return new DispatchSimulation(this);
+        }
+    }
+
+    public Report run() throws InterruptedException {
+        InMemoryRemoteStore store = InMemoryRemoteStore.builder()
+                .latencyMillis(config.minLatencyMillis, config.maxLatencyMillis)
+                .failureRate(config.failureRate)
+                .threads(config.storeThreads)
+                .seed(config.seed)
+                .build();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService bikers = Executors.newFixedThreadPool(config.bikers);
+        OrderClaimer claimer = new OrderClaimer(store, scheduler, new DispatchMetrics(), new Random(config.seed));
+        try {
+            // Newest first per district, the order the feed shows them in
+            Map<Integer, List<String>> byDistrict = new HashMap<>();
+            long createdAt = 1_000_000;
+            for (int district = 0; district < config.districts; district++) {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < config.ordersPerDistrict; i++) {
+                    String orderId = "SIM_" + district + "_" + i;
+                    store.seed(RemoteStore.Collection.ORDERS, orderId, pendingOrder(orderId, "D" + district, createdAt++));
+                    ids.add(0, orderId);
+                }
+                byDistrict.put(district, ids);
+            }
+
+            Map<String, AtomicInteger> wins = new ConcurrentHashMap<>();
+            AtomicInteger failures = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(config.bikers);
+            for (int b = 0; b < config.bikers; b++) {
+                String bikerId = "biker" + b;
+                List<String> feed = byDistrict.get(b % config.districts);
+                bikers.execute(() -> {
+                    try {
+                        start.await();
+                        for (String orderId : feed) {
+                            OrderClaimer.Result result = claimer.claim(orderId, bikerId).join();
+                            if (result.outcome == OrderClaimer.Outcome.WON) {
+                                wins.computeIfAbsent(orderId, id -> new AtomicInteger()).incrementAndGet();
+                            } else if (result.outcome == OrderClaimer.Outcome.FAILED) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+
+            int doubleAssigned = 0;
+            for (AtomicInteger count : wins.values()) {
+                if (count.get() > 1) doubleAssigned++;
+            }
+            int totalOrders = config.districts * config.ordersPerDistrict;
+            return new Report(totalOrders, wins.size(), failures.get(), doubleAssigned, elapsedMillis,
+                    claimer.getMetrics().snapshot(), store.getStats());
+        } finally {
+            bikers.shutdownNow();
+            scheduler.shutdownNow();
+            store.shutdown();
+        }
+    }
+
+    private static Order pendingOrder(String orderId, String district, long createdAt) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setUserId("customer");
+        order.setRestaurantId("restaurant");
+        order.setDistrict(district);
+        order.setTotalPrice(100);
+        order.setPaymentMethod(PaymentMethod.CASH_ON_DELIVERY);
+        order.setStatus(OrderStatus.PENDING);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+    public static final class Report {
+        public final int orders;
+        public final int accepted;
+        // Claims that gave up; their orders may be left unaccepted
+        public final int failedClaims;
+        // Orders more than one biker was told they won; must be zero
+        public final int doubleAssigned;
+        public final long elapsedMillis;
+        public final DispatchMetrics.Snapshot dispatch;
+        public final InMemoryRemoteStore.Stats store;
+
+        Report(int orders, int accepted, int failedClaims, int doubleAssigned, long elapsedMillis,
+               DispatchMetrics.Snapshot dispatch, InMemoryRemoteStore.Stats store) {
+            this.orders = orders;
+            this.accepted = accepted;
+            this.failedClaims = failedClaims;
+            this.doubleAssigned = doubleAssigned;
+            this.elapsedMillis = elapsedMillis;
+            this.dispatch = dispatch;
+            this.store = store;
+        }
+
+        public double getAcceptedPerSecond() {
+            return accepted * 1000.0 / elapsedMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "accepted %d/%d in %dms (%.1f/s), failed=%d, doubleAssigned=%d%n  %s%n  %s",
+                    accepted, orders, elapsedMillis, getAcceptedPerSecond(), failedClaims, doubleAssigned,
+                    dispatch, store);
+        }
+    }
+}
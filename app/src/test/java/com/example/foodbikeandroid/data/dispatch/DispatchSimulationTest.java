@@ -0,0 +1,65 @@
+package com.example.foodbikeandroid.data.dispatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DispatchSimulationTest {
+
+    // Floors several times below a laptop's rate, so a loaded CI machine still clears them
+    private static final double MIN_ACCEPTED_PER_SECOND_FAST = 100;
+    private static final double MIN_ACCEPTED_PER_SECOND_FLAKY = 20;
+
+    @Test
+    public void run_sameDistrictBikers_neverWinTheSameOrder() throws Exception {
+        DispatchSimulation.Report report = DispatchSimulation.builder()
+                .bikers(16)
+                .districts(4)
+                .ordersPerDistrict(50)
+                .latencyMillis(1, 5)
+                .build()
+                .run();
+
+        assertEquals(0, report.doubleAssigned);
+        assertEquals(0, report.failedClaims);
+        assertEquals(report.orders, report.accepted);
+        // Every biker tries every order in its district once; losing is TAKEN, not a retry
+        DispatchMetrics.Snapshot dispatch = report.dispatch;
+        assertEquals(16 * 50, dispatch.claims);
+        assertEquals(report.orders, dispatch.won);
+        assertEquals(dispatch.claims - dispatch.won, dispatch.taken);
+        assertEquals(0, dispatch.retries);
+        assertEquals(dispatch.claims, dispatch.attempts);
+        assertTrue(report.toString(), report.getAcceptedPerSecond() >= MIN_ACCEPTED_PER_SECOND_FAST);
+    }
+
+    @Test
+    public void run_flakyStore_neverWinsTheSameOrderTwice() throws Exception {
+        DispatchSimulation.Report report = DispatchSimulation.builder()
+                .bikers(16)
+                .districts(2)
+                .ordersPerDistrict(40)
+                .latencyMillis(1, 5)
+                .failureRate(0.2)
+                .build()
+                .run();
+
+        assertEquals(0, report.doubleAssigned);
+        DispatchMetrics.Snapshot dispatch = report.dispatch;
+        assertEquals(16 * 40, dispatch.claims);
+        assertEquals(dispatch.claims, dispatch.won + dispatch.taken + dispatch.notFound + dispatch.failed);
+        assertEquals(report.failedClaims, dispatch.failed);
+        // Each transient failure is retried unless the claim is out of attempts
+        assertEquals(dispatch.aborts, dispatch.retries + dispatch.failed);
+        assertEquals(dispatch.claims + dispatch.retries, dispatch.attempts);
+        // About a fifth of attempts hit an injected failure
+        assertTrue(report.toString(), dispatch.aborts >= dispatch.attempts / 10);
+        assertTrue(report.toString(), dispatch.aborts <= dispatch.attempts * 3 / 10);
+        // Four failures in a row are rare (0.2^4 per claim), and another biker in the
+        // district usually wins the order anyway
+        assertTrue(report.toString(), report.failedClaims <= dispatch.claims / 50);
+        assertTrue(report.toString(), report.accepted >= report.orders - report.failedClaims);
+        assertTrue(report.toString(), report.getAcceptedPerSecond() >= MIN_ACCEPTED_PER_SECOND_FLAKY);
+    }
+}
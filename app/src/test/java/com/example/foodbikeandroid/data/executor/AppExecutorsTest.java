@@ -0,0 +1,92 @@
+package com.example.foodbikeandroid.data.executor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+// Stays under every lane's queue capacity: in JVM tests Looper.myLooper() and
+// getMainLooper() are both null, so a rejected task would take the main-thread path
+public class AppExecutorsTest {
+
+    @After
+    public void tearDown() throws InterruptedException {
+        AppExecutors.shutdownForTesting(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void lanes_runOnTheirOwnNamedThreads() throws Exception {
+        AppExecutors executors = AppExecutors.getInstance();
+
+        assertTrue(threadName(executors.interactive()).startsWith("foodbike-interactive-"));
+        assertTrue(threadName(executors.writes()).startsWith("foodbike-write-"));
+        assertTrue(threadName(executors.sync()).startsWith("foodbike-sync-"));
+        assertTrue(threadName(executors.maintenance()).startsWith("foodbike-maintenance-"));
+        String scheduled = executors.scheduled()
+                .schedule(() -> Thread.currentThread().getName(), 10, TimeUnit.MILLISECONDS)
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(scheduled.startsWith("foodbike-scheduled-"));
+    }
+
+    @Test
+    public void shutdownForTesting_drainsQueuedWorkAndResetsTheInstance() throws Exception {
+        AppExecutors executors = AppExecutors.getInstance();
+        AtomicInteger ran = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            executors.writes().execute(ran::incrementAndGet);
+        }
+        executors.scheduled().schedule(ran::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(AppExecutors.shutdownForTesting(5, TimeUnit.SECONDS));
+
+        assertEquals(21, ran.get());
+        assertTrue(executors.writes().isTerminated());
+        assertTrue(executors.scheduled().isTerminated());
+        assertNotSame(executors, AppExecutors.getInstance());
+    }
+
+    @Test
+    public void shutdownForTesting_reportsWorkStillRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        AppExecutors.getInstance().maintenance().execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await();
+
+        assertFalse(AppExecutors.shutdownForTesting(50, TimeUnit.MILLISECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void getStats_countsCompletedTasksPerLane() throws Exception {
+        AppExecutors executors = AppExecutors.getInstance();
+        for (int i = 0; i < 5; i++) {
+            executors.sync().execute(() -> { });
+        }
+        // The completed count moves just after each task returns, so drain before reading it
+        assertTrue(AppExecutors.shutdownForTesting(5, TimeUnit.SECONDS));
+
+        for (AppExecutors.LaneStats stats : executors.getStats()) {
+            assertEquals(stats.toString(), stats.lane == AppExecutors.Lane.SYNC ? 5 : 0, stats.completedTasks);
+            assertEquals(0, stats.rejectedTasks);
+        }
+    }
+
+    private static String threadName(ExecutorService lane) throws Exception {
+        return lane.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import androidx.annotation.NonNull;
+
+import com.example.foodbikeandroid.data.model.MutationType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline stand-in for Firestore. Stores the written objects by path, applies each
+ * batch atomically, and can be told to fail upcoming commits, reject writes to a
+ * document, or lose the acknowledgement of a commit that did apply.
+ */
+public class InMemoryOutboxRemote implements OutboxRemote {
+
+    public static class PermanentFailure extends Exception {
+        public PermanentFailure(String message) {
+            super(message);
+        }
+    }
+
+    private final Map<String, Object> documents = new HashMap<>();
+    private final Set<String> appliedKeys = new HashSet<>();
+    private final Deque<Exception> scriptedFailures = new ArrayDeque<>();
+    private final Set<String> rejectedPaths = new HashSet<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private Exception lostAcknowledgement;
+    private int duplicateWrites;
+
+    @Override
+    public synchronized void commit(@NonNull List<RemoteWrite> writes) throws Exception {
+        if (writes.size() > MAX_BATCH_SIZE) {
+            throw new PermanentFailure("Batch of " + writes.size() + " exceeds " + MAX_BATCH_SIZE);
+        }
+        Exception failure = scriptedFailures.poll();
+        if (failure != null) {
+            throw failure;
+        }
+        for (RemoteWrite write : writes) {
+            if (rejectedPaths.contains(write.getPath())) {
+                throw new PermanentFailure("Rejected write to " + write.getPath());
+            }
+        }
+        batchSizes.add(writes.size());
+        for (RemoteWrite write : writes) {
+            if (!appliedKeys.add(write.idempotencyKey)) {
+                duplicateWrites++;
+            }
+            if (write.type == MutationType.INCREMENT) {
+                // Counters are kept as a plain Double per path and field
+                for (Map.Entry<?, ?> amount : ((Map<?, ?>) write.data).entrySet()) {
+                    String path = write.getPath() + "#" + amount.getKey();
+                    Object current = documents.get(path);
+                    double base = current instanceof Double ? (Double) current : 0;
+                    documents.put(path, base + (Double) amount.getValue());
+                }
+            } else if (write.data == null) {
+                documents.remove(write.getPath());
+            } else {
+                documents.put(write.getPath(), write.data);
+            }
+        }
+        if (lostAcknowledgement != null) {
+            Exception e = lostAcknowledgement;
+            lostAcknowledgement = null;
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized boolean isApplied(@NonNull String idempotencyKey) {
+        return appliedKeys.contains(idempotencyKey);
+    }
+
+    @Override
+    public boolean isPermanent(@NonNull Exception e) {
+        return e instanceof PermanentFailure;
+    }
+
+    // The next commit throws this instead of applying; call repeatedly to fail several
+    public synchronized void failNextCommit(Exception e) {
+        scriptedFailures.add(e);
+    }
+
+    // Every batch touching this document fails permanently, like a security rules rejection
+    public synchronized void rejectWritesTo(String collection, String documentId) {
+        rejectedPaths.add(collection + "/" + documentId);
+    }
+
+    // The next commit applies, then throws this as if the response never arrived
+    public synchronized void loseNextAcknowledgement(Exception e) {
+        lostAcknowledgement = e;
+    }
+
+    public synchronized Object getDocument(String collection, String documentId) {
+        return documents.get(collection + "/" + documentId);
+    }
+
+    public synchronized double getCounter(String collection, String documentId, String field) {
+        Object value = documents.get(collection + "/" + documentId + "#" + field);
+        return value instanceof Double ? (Double) value : 0;
+    }
+
+    public synchronized int getDocumentCount() {
+        return documents.size();
+    }
+
+    public synchronized List<Integer> getBatchSizes() {
+        return new ArrayList<>(batchSizes);
+    }
+
+    // Writes whose idempotency key had already been applied, i.e. replays
+    public synchronized int getDuplicateWrites() {
+        return duplicateWrites;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.foodbikeandroid.data.database.PendingMutationDao;
+import com.example.foodbikeandroid.data.model.MutationType;
+import com.example.foodbikeandroid.data.model.PendingMutation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * PendingMutationDao over a map, with the same semantics as the Room queries, so the
+ * outbox can be flushed in a plain JVM test.
+ */
+class InMemoryPendingMutationDao implements PendingMutationDao {
+
+    private final TreeMap<Long, PendingMutation> rows = new TreeMap<>();
+    private long nextId = 1;
+
+    @Override
+    public synchronized long insert(PendingMutation mutation) {
+        for (PendingMutation row : rows.values()) {
+            if (row.getIdempotencyKey().equals(mutation.getIdempotencyKey())) return -1;
+        }
+        mutation.setId(nextId++);
+        rows.put(mutation.getId(), mutation);
+        return mutation.getId();
+    }
+
+    @Override
+    public synchronized List<PendingMutation> getDue(long now, int limit) {
+        List<PendingMutation> due = new ArrayList<>();
+        for (PendingMutation row : rows.values()) {
+            if (due.size() == limit) break;
+            if (!row.isFailed() && row.getNextAttemptAt() <= now) due.add(row);
+        }
+        return due;
+    }
+
+    @Override
+    public synchronized Long getNextAttemptAt() {
+        Long next = null;
+        for (PendingMutation row : rows.values()) {
+            if (!row.isFailed() && (next == null || row.getNextAttemptAt() < next)) next = row.getNextAttemptAt();
+        }
+        return next;
+    }
+
+    @Override
+    public synchronized void deleteByIds(List<Long> ids) {
+        for (Long id : ids) rows.remove(id);
+    }
+
+    @Override
+    public synchronized void markRetry(List<Long> ids, long nextAttemptAt, String error) {
+        for (Long id : ids) {
+            PendingMutation row = rows.get(id);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(nextAttemptAt);
+            row.setLastError(error);
+        }
+    }
+
+    @Override
+    public synchronized void markFailed(List<Long> ids, String error) {
+        for (Long id : ids) {
+            PendingMutation row = rows.get(id);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setFailed(true);
+            row.setLastError(error);
+        }
+    }
+
+    @Override
+    public synchronized List<String> getPendingDocumentIds(String collection) {
+        List<String> ids = new ArrayList<>();
+        for (PendingMutation row : rows.values()) {
+            if (!row.isFailed() && row.getCollection().equals(collection) && !ids.contains(row.getDocumentId())) {
+                ids.add(row.getDocumentId());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public synchronized List<PendingMutation> getPendingIncrements(String collection, String documentId) {
+        List<PendingMutation> increments = new ArrayList<>();
+        for (PendingMutation row : rows.values()) {
+            if (!row.isFailed() && row.getType() == MutationType.INCREMENT && row.getCollection().equals(collection)
+                    && row.getDocumentId().equals(documentId)) {
+                increments.add(row);
+            }
+        }
+        return increments;
+    }
+
+    @Override
+    public LiveData<Integer> getPendingCount() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized int getFailedCount() {
+        int failed = 0;
+        for (PendingMutation row : rows.values()) {
+            if (row.isFailed()) failed++;
+        }
+        return failed;
+    }
+
+    synchronized List<PendingMutation> getAll() {
+        return new ArrayList<>(rows.values());
+    }
+
+    // Ends every backoff, as if the clock had moved past it
+    synchronized void makeAllDue() {
+        for (PendingMutation row : rows.values()) row.setNextAttemptAt(0);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import com.example.foodbikeandroid.data.model.PendingMutation;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OutboxTest {
+
+    private static final String ORDERS = FirestoreHelper.COLLECTION_ORDERS;
+    private static final String USERS = FirestoreHelper.COLLECTION_USERS;
+    private static final String RESTAURANTS = FirestoreHelper.COLLECTION_RESTAURANTS;
+
+    private InMemoryPendingMutationDao queue;
+    private InMemoryOutboxRemote remote;
+    private Outbox outbox;
+
+    @Before
+    public void setUp() {
+        queue = new InMemoryPendingMutationDao();
+        remote = new InMemoryOutboxRemote();
+        Map<String, Outbox.LocalDocumentReader> readers = new HashMap<>();
+        readers.put(ORDERS, id -> "order " + id);
+        outbox = new Outbox(queue, remote, readers);
+    }
+
+    @Test
+    public void flush_sendsAtMost500WritesPerBatch() {
+        enqueueOrders(1203);
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(Arrays.asList(500, 500, 203), remote.getBatchSizes());
+        assertEquals(1203, result.written);
+        assertEquals(1203, remote.getDocumentCount());
+        assertTrue(queue.getAll().isEmpty());
+        assertFalse(result.hasPending);
+    }
+
+    @Test
+    public void flush_transientFailure_backsOffAndKeepsTheQueue() {
+        enqueueOrders(3);
+        remote.failNextCommit(new IOException("unavailable"));
+        long before = System.currentTimeMillis();
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(0, result.written);
+        assertEquals(3, result.retrying);
+        assertTrue(result.hasPending);
+        for (PendingMutation mutation : queue.getAll()) {
+            assertEquals(1, mutation.getAttempts());
+            assertEquals("unavailable", mutation.getLastError());
+            // 5s base backoff with +/-20% jitter
+            assertTrue(mutation.getNextAttemptAt() >= before + 4_000);
+            assertTrue(mutation.getNextAttemptAt() <= System.currentTimeMillis() + 6_000);
+        }
+
+        // Still backing off: nothing is sent
+        assertEquals(0, outbox.flush().written);
+        assertTrue(remote.getBatchSizes().isEmpty());
+
+        queue.makeAllDue();
+        assertEquals(3, outbox.flush().written);
+        assertTrue(queue.getAll().isEmpty());
+    }
+
+    @Test
+    public void flush_transientFailure_growsBackoffWithAttempts() {
+        enqueueOrders(1);
+        remote.failNextCommit(new IOException("first"));
+        outbox.flush();
+        queue.makeAllDue();
+        remote.failNextCommit(new IOException("second"));
+        long before = System.currentTimeMillis();
+
+        outbox.flush();
+
+        PendingMutation mutation = queue.getAll().get(0);
+        assertEquals(2, mutation.getAttempts());
+        // Second attempt: 10s +/-20%
+        assertTrue(mutation.getNextAttemptAt() >= before + 8_000);
+    }
+
+    @Test
+    public void flush_permanentFailure_isolatesTheRejectedWrite() {
+        enqueueOrders(5);
+        remote.rejectWritesTo(ORDERS, "o2");
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(4, result.written);
+        assertEquals(1, result.failed);
+        assertEquals(4, remote.getDocumentCount());
+        assertNull(remote.getDocument(ORDERS, "o2"));
+        List<PendingMutation> left = queue.getAll();
+        assertEquals(1, left.size());
+        assertEquals("o2", left.get(0).getDocumentId());
+        assertTrue(left.get(0).isFailed());
+        // A rejected mutation is kept for inspection but never retried
+        assertFalse(result.hasPending);
+        assertEquals(0, outbox.flush().written);
+    }
+
+    @Test
+    public void flush_lostAcknowledgement_doesNotApplyAnIncrementTwice() {
+        queue.insert(Outbox.increment(USERS, "biker1", "delivery:o1:biker1", "earnings", 60.0));
+        remote.loseNextAcknowledgement(new IOException("timeout"));
+
+        Outbox.FlushResult first = outbox.flush();
+        assertEquals(1, first.retrying);
+        assertEquals(60.0, remote.getCounter(USERS, "biker1", "earnings"), 0.0);
+
+        queue.makeAllDue();
+        Outbox.FlushResult replay = outbox.flush();
+
+        // The marker shows the increment landed, so it is dropped instead of resent
+        assertEquals(0, replay.written);
+        assertTrue(queue.getAll().isEmpty());
+        assertEquals(60.0, remote.getCounter(USERS, "biker1", "earnings"), 0.0);
+        assertEquals(0, remote.getDuplicateWrites());
+    }
+
+    @Test
+    public void increment_severalCounters_goOutAsOneWrite() {
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        amounts.put("ratingSum", 4.0);
+        amounts.put("ratingCount", 1.0);
+        amounts.put("rating4Count", 1.0);
+        queue.insert(Outbox.increment(RESTAURANTS, "r1", "review-rating:rev1", amounts));
+        queue.insert(Outbox.increment(RESTAURANTS, "r1", "review-rating:rev2", Collections.singletonMap("ratingCount", 1.0)));
+
+        assertEquals(2.0, outbox.getPendingIncrement(RESTAURANTS, "r1", "ratingCount"), 0.0);
+        assertEquals(4.0, outbox.getPendingIncrements(RESTAURANTS, "r1").get("ratingSum"), 0.0);
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(2, result.written);
+        assertEquals(4.0, remote.getCounter(RESTAURANTS, "r1", "ratingSum"), 0.0);
+        assertEquals(2.0, remote.getCounter(RESTAURANTS, "r1", "ratingCount"), 0.0);
+        assertEquals(1.0, remote.getCounter(RESTAURANTS, "r1", "rating4Count"), 0.0);
+        assertEquals(0.0, outbox.getPendingIncrement(RESTAURANTS, "r1", "ratingCount"), 0.0);
+    }
+
+    @Test
+    public void flush_lostAcknowledgement_replaysSetsIdempotently() {
+        enqueueOrders(2);
+        remote.loseNextAcknowledgement(new IOException("timeout"));
+
+        outbox.flush();
+        queue.makeAllDue();
+        Outbox.FlushResult replay = outbox.flush();
+
+        assertEquals(2, replay.written);
+        assertEquals(2, remote.getDocumentCount());
+        assertEquals("order o0", remote.getDocument(ORDERS, "o0"));
+    }
+
+    @Test
+    public void enqueue_sameIdempotencyKey_queuesOnce() {
+        assertTrue(queue.insert(Outbox.set(ORDERS, "o1", "order:o1:placed")) > 0);
+        assertEquals(-1, queue.insert(Outbox.set(ORDERS, "o1", "order:o1:placed")));
+
+        outbox.flush();
+
+        assertEquals(Collections.singletonList(1), remote.getBatchSizes());
+    }
+
+    private void enqueueOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            queue.insert(Outbox.set(ORDERS, "o" + i, "order:o" + i));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.foodbikeandroid.data.outbox;
+
+import com.example.foodbikeandroid.data.model.MutationType;
+import com.example.foodbikeandroid.data.model.PendingMutation;
+import com.example.foodbikeandroid.data.remote.FirestoreHelper;
+import com.example.foodbikeandroid.data.remote.InMemoryRemoteStore;
+import com.example.foodbikeandroid.data.remote.RemoteStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// The outbox's sync path end to end: Outbox -> RemoteStoreOutboxRemote -> a RemoteStore
+public class RemoteStoreOutboxRemoteTest {
+
+    private static final String ORDERS = FirestoreHelper.COLLECTION_ORDERS;
+    private static final String USERS = FirestoreHelper.COLLECTION_USERS;
+    private static final String RESTAURANTS = FirestoreHelper.COLLECTION_RESTAURANTS;
+
+    private InMemoryRemoteStore store;
+    private InMemoryPendingMutationDao queue;
+    private Outbox outbox;
+
+    @Before
+    public void setUp() {
+        store = InMemoryRemoteStore.builder().build();
+        queue = new InMemoryPendingMutationDao();
+        Map<String, Outbox.LocalDocumentReader> readers = new HashMap<>();
+        readers.put(ORDERS, id -> document("status", "PENDING", "totalPrice", 100.0));
+        readers.put(USERS, id -> document("username", "biker", "earnings", 0.0));
+        outbox = new Outbox(queue, new RemoteStoreOutboxRemote(store), readers);
+    }
+
+    @After
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    public void flush_writesDocumentsAndIncrementMarkers() throws Exception {
+        queue.insert(Outbox.set(ORDERS, "o1", "order:o1:placed"));
+        queue.insert(Outbox.merge(USERS, "biker1", "user:biker1:name", "username"));
+        queue.insert(Outbox.increment(USERS, "biker1", "delivery:o1:biker1", "earnings", 60.0));
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(3, result.written);
+        assertTrue(queue.getAll().isEmpty());
+        Map<?, ?> order = store.get(RemoteStore.Collection.ORDERS, "o1", Map.class).get().value;
+        assertEquals("PENDING", order.get("status"));
+        Map<?, ?> biker = store.get(RemoteStore.Collection.USERS, "biker1", Map.class).get().value;
+        assertEquals("biker", biker.get("username"));
+        // The merge leaves earnings to the increment
+        assertEquals(60.0, ((Number) biker.get("earnings")).doubleValue(), 0.0);
+        Map<?, ?> marker = store.get(RemoteStore.Collection.APPLIED_MUTATIONS, "delivery:o1:biker1", Map.class).get().value;
+        assertEquals(USERS + "/biker1", marker.get("path"));
+    }
+
+    @Test
+    public void flush_incrementThatAlreadyLanded_isDroppedInsteadOfResent() throws Exception {
+        PendingMutation increment = Outbox.increment(USERS, "biker1", "delivery:o1:biker1", "earnings", 60.0);
+        long id = queue.insert(increment);
+        // A first attempt committed but its acknowledgement never arrived
+        new RemoteStoreOutboxRemote(store).commit(Collections.singletonList(new OutboxRemote.RemoteWrite(
+                "delivery:o1:biker1", USERS, "biker1", MutationType.INCREMENT, Collections.singletonMap("earnings", 60.0),
+                Collections.singletonList("earnings"))));
+        queue.markRetry(Collections.singletonList(id), 0, "timeout");
+
+        Outbox.FlushResult replay = outbox.flush();
+
+        assertEquals(0, replay.written);
+        assertTrue(queue.getAll().isEmpty());
+        Map<?, ?> biker = store.get(RemoteStore.Collection.USERS, "biker1", Map.class).get().value;
+        assertEquals(60.0, ((Number) biker.get("earnings")).doubleValue(), 0.0);
+    }
+
+    @Test
+    public void flush_severalCounters_landInOneMergeWithOneMarker() throws Exception {
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        amounts.put("ratingSum", 4.0);
+        amounts.put("ratingCount", 1.0);
+        amounts.put("rating4Count", 1.0);
+        queue.insert(Outbox.increment(RESTAURANTS, "r1", "review-rating:rev1", amounts));
+
+        assertEquals(1, outbox.flush().written);
+
+        Map<?, ?> restaurant = store.get(RemoteStore.Collection.RESTAURANTS, "r1", Map.class).get().value;
+        assertEquals(4.0, ((Number) restaurant.get("ratingSum")).doubleValue(), 0.0);
+        assertEquals(1.0, ((Number) restaurant.get("ratingCount")).doubleValue(), 0.0);
+        assertEquals(1.0, ((Number) restaurant.get("rating4Count")).doubleValue(), 0.0);
+        assertEquals(1, store.getDocumentCount(RemoteStore.Collection.APPLIED_MUTATIONS));
+    }
+
+    @Test
+    public void flush_storeUnavailable_keepsTheQueueAndWritesNothing() {
+        store.shutdown();
+        store = InMemoryRemoteStore.builder().failureRate(1.0).build();
+        outbox = new Outbox(queue, new RemoteStoreOutboxRemote(store),
+                Collections.singletonMap(ORDERS, id -> document("status", "PENDING")));
+        queue.insert(Outbox.set(ORDERS, "o1", "order:o1:placed"));
+
+        Outbox.FlushResult result = outbox.flush();
+
+        assertEquals(0, result.written);
+        assertEquals(1, result.retrying);
+        assertFalse(queue.getAll().get(0).isFailed());
+        assertEquals(0, store.getDocumentCount(RemoteStore.Collection.ORDERS));
+    }
+
+    private static Map<String, Object> document(Object... fields) {
+        Map<String, Object> document = new HashMap<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            document.put((String) fields[i], fields[i + 1]);
+        }
+        return document;
+    }
+}
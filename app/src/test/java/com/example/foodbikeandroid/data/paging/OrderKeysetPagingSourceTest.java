@@ -0,0 +1,171 @@
+package com.example.foodbikeandroid.data.paging;
+
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingSource.LoadParams;
+import androidx.paging.PagingSource.LoadResult;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+
+import com.example.foodbikeandroid.data.model.Order;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OrderKeysetPagingSourceTest {
+
+    private static final int PAGE = 5;
+    private static final Comparator<Order> NEWEST_FIRST = Comparator.comparingLong(Order::getCreatedAt)
+            .thenComparing(Order::getOrderId).reversed();
+
+    // Newest first, as the list shows them; pairs of orders share a createdAt
+    private final List<Order> orders = new ArrayList<>();
+    private final List<InvalidationTracker.Observer> observers = new ArrayList<>();
+    private OrderKeysetPagingSource<Order> source;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 23; i++) {
+            orders.add(order(String.format("o%02d", i), 1_000 + i / 2));
+        }
+        orders.sort(NEWEST_FIRST);
+        source = newSource();
+    }
+
+    @Test
+    public void refresh_fromTop_loadsTheNewestPage() throws Exception {
+        LoadResult.Page<OrderPageKey, Order> page = load(new LoadParams.Refresh<>(null, PAGE, false));
+
+        assertEquals(ids(orders.subList(0, PAGE)), ids(page.getData()));
+        assertNull(page.getPrevKey());
+        assertEquals(keyOf(orders.get(PAGE - 1)), page.getNextKey());
+    }
+
+    @Test
+    public void append_walksEveryRowOnceAcrossEqualTimestamps() throws Exception {
+        List<Order> seen = new ArrayList<>();
+        LoadResult.Page<OrderPageKey, Order> page = load(new LoadParams.Refresh<>(null, PAGE, false));
+        seen.addAll(page.getData());
+        while (page.getNextKey() != null) {
+            page = load(new LoadParams.Append<>(page.getNextKey(), PAGE, false));
+            seen.addAll(page.getData());
+        }
+
+        assertEquals(ids(orders), ids(seen));
+    }
+
+    @Test
+    public void prepend_returnsTheRowsJustAboveInListOrder() throws Exception {
+        LoadResult.Page<OrderPageKey, Order> page = load(new LoadParams.Prepend<>(keyOf(orders.get(12)), PAGE, false));
+
+        assertEquals(ids(orders.subList(7, 12)), ids(page.getData()));
+        assertEquals(keyOf(orders.get(7)), page.getPrevKey());
+        assertEquals(keyOf(orders.get(11)), page.getNextKey());
+
+        // Fewer rows than asked for means the top was reached
+        page = load(new LoadParams.Prepend<>(keyOf(orders.get(3)), PAGE, false));
+        assertEquals(ids(orders.subList(0, 3)), ids(page.getData()));
+        assertNull(page.getPrevKey());
+    }
+
+    @Test
+    public void refresh_midList_startsBelowTheKeyAndCanPrepend() throws Exception {
+        LoadResult.Page<OrderPageKey, Order> page = load(new LoadParams.Refresh<>(keyOf(orders.get(9)), PAGE, false));
+
+        assertEquals(ids(orders.subList(10, 15)), ids(page.getData()));
+        assertEquals(keyOf(orders.get(10)), page.getPrevKey());
+        assertEquals(keyOf(orders.get(14)), page.getNextKey());
+    }
+
+    @Test
+    public void getRefreshKey_resumesHalfAnInitialLoadAboveTheAnchor() throws Exception {
+        PagingConfig config = new PagingConfig(PAGE, PAGE, false, 2 * PAGE);
+        List<LoadResult.Page<OrderPageKey, Order>> pages = Collections.singletonList(
+                new LoadResult.Page<>(orders, null, null));
+
+        assertNull(source.getRefreshKey(new PagingState<>(pages, null, config, 0)));
+        // Near the top the refresh starts from the top
+        assertNull(source.getRefreshKey(new PagingState<>(pages, PAGE, config, 0)));
+
+        OrderPageKey key = source.getRefreshKey(new PagingState<>(pages, 15, config, 0));
+        assertEquals(keyOf(orders.get(9)), key);
+        LoadResult.Page<OrderPageKey, Order> page = load(new LoadParams.Refresh<>(key, 2 * PAGE, false));
+        assertEquals(orders.get(10).getOrderId(), page.getData().get(0).getOrderId());
+    }
+
+    @Test
+    public void tableChange_invalidatesAndUnregisters() throws Exception {
+        load(new LoadParams.Refresh<>(null, PAGE, false));
+        assertEquals(1, observers.size());
+
+        observers.get(0).onInvalidated(Collections.singleton("orders"));
+
+        assertTrue(source.getInvalid());
+        assertTrue(observers.isEmpty());
+        LoadResult<OrderPageKey, Order> result = source.loadFuture(new LoadParams.Refresh<>(null, PAGE, false)).get();
+        assertTrue(result instanceof LoadResult.Invalid);
+    }
+
+    private OrderKeysetPagingSource<Order> newSource() {
+        return new OrderKeysetPagingSource<>(observers::add, observers::remove,
+                MoreExecutors.newDirectExecutorService(), Function.identity(), Order::getCreatedAt,
+                (createdAt, orderId, limit) -> {
+                    // WHERE (createdAt, orderId) < (?, ?) ORDER BY createdAt DESC, orderId DESC
+                    List<Order> rows = new ArrayList<>();
+                    for (Order order : orders) {
+                        if (compare(order, createdAt, orderId) < 0 && rows.size() < limit) rows.add(order);
+                    }
+                    return rows;
+                },
+                (createdAt, orderId, limit) -> {
+                    // WHERE (createdAt, orderId) > (?, ?) ORDER BY createdAt ASC, orderId ASC
+                    List<Order> rows = new ArrayList<>();
+                    for (int i = orders.size() - 1; i >= 0; i--) {
+                        Order order = orders.get(i);
+                        if (compare(order, createdAt, orderId) > 0 && rows.size() < limit) rows.add(order);
+                    }
+                    return rows;
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private LoadResult.Page<OrderPageKey, Order> load(LoadParams<OrderPageKey> params) throws Exception {
+        LoadResult<OrderPageKey, Order> result = source.loadFuture(params).get();
+        assertTrue(String.valueOf(result), result instanceof LoadResult.Page);
+        return (LoadResult.Page<OrderPageKey, Order>) result;
+    }
+
+    private static int compare(Order order, long createdAt, String orderId) {
+        int bySort = Long.compare(order.getCreatedAt(), createdAt);
+        return bySort != 0 ? bySort : order.getOrderId().compareTo(orderId);
+    }
+
+    private static OrderPageKey keyOf(Order order) {
+        return new OrderPageKey(order.getCreatedAt(), order.getOrderId());
+    }
+
+    private static List<String> ids(List<Order> rows) {
+        List<String> ids = new ArrayList<>();
+        for (Order order : rows) {
+            ids.add(order.getOrderId());
+        }
+        return ids;
+    }
+
+    private static Order order(String orderId, long createdAt) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
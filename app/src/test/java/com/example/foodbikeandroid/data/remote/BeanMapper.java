@@ -0,0 +1,201 @@
+package com.example.foodbikeandroid.data.remote;
+
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.ServerTimestamp;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts model objects to and from plain document maps the way Firestore does: public
+ * getters become fields unless marked @Exclude, enums are stored by name, whole numbers
+ * as Long and fractions as Double. Used by InMemoryRemoteStore, which keeps maps so that
+ * queries can read fields and callers can't mutate stored documents.
+ */
+final class BeanMapper {
+
+    private static final Map<Class<?>, Map<String, Method>> GETTERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<String, Method>> SETTERS = new ConcurrentHashMap<>();
+
+    private BeanMapper() {
+    }
+
+    // Field names whose getter or backing field is annotated @ServerTimestamp
+    static List<String> serverTimestampFields(Class<?> type) {
+        List<String> fields = new ArrayList<>();
+        for (Map.Entry<String, Method> entry : getters(type).entrySet()) {
+            if (entry.getValue().isAnnotationPresent(ServerTimestamp.class)
+                    || fieldAnnotated(type, entry.getKey(), ServerTimestamp.class)) {
+                fields.add(entry.getKey());
+            }
+        }
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> toMap(Object bean) {
+        if (bean instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) bean).entrySet()) {
+                copy.put(entry.getKey(), normalize(entry.getValue()));
+            }
+            return copy;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Method> entry : getters(bean.getClass()).entrySet()) {
+            try {
+                map.put(entry.getKey(), normalize(entry.getValue().invoke(bean)));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot read " + entry.getKey() + " of " + bean.getClass().getSimpleName(), e);
+            }
+        }
+        return map;
+    }
+
+    // Plain document value: null, Boolean, Long, Double, String, Date, List or Map
+    static Object normalize(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof String
+                || value instanceof Long || value instanceof Double || value instanceof RemoteValue) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        }
+        if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(normalize(element));
+            }
+            return list;
+        }
+        return toMap(value);
+    }
+
+    static <T> T fromMap(Map<String, Object> map, Class<T> type) {
+        if (type == Map.class) {
+            @SuppressWarnings("unchecked")
+            T copy = (T) toMap(map);
+            return copy;
+        }
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            T bean = constructor.newInstance();
+            for (Map.Entry<String, Method> entry : setters(type).entrySet()) {
+                if (!map.containsKey(entry.getKey())) continue;
+                Method setter = entry.getValue();
+                Object value = convert(map.get(entry.getKey()), setter.getGenericParameterTypes()[0]);
+                if (value == null && setter.getParameterTypes()[0].isPrimitive()) continue;
+                setter.invoke(bean, value);
+            }
+            return bean;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot create " + type.getSimpleName(), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Object value, Type target) {
+        if (value == null) return null;
+        Class<?> raw = target instanceof ParameterizedType
+                ? (Class<?>) ((ParameterizedType) target).getRawType()
+                : (Class<?>) target;
+        if (raw == Object.class) return value;
+        if (raw == long.class || raw == Long.class) return ((Number) value).longValue();
+        if (raw == int.class || raw == Integer.class) return ((Number) value).intValue();
+        if (raw == double.class || raw == Double.class) return ((Number) value).doubleValue();
+        if (raw == float.class || raw == Float.class) return ((Number) value).floatValue();
+        if (raw == boolean.class || raw == Boolean.class) return value;
+        if (raw == String.class) return value.toString();
+        if (raw == Date.class) return new Date(((Date) value).getTime());
+        if (raw.isEnum()) return Enum.valueOf((Class<Enum>) raw, value.toString());
+        if (List.class.isAssignableFrom(raw)) {
+            Type element = target instanceof ParameterizedType
+                    ? ((ParameterizedType) target).getActualTypeArguments()[0]
+                    : Object.class;
+            List<Object> list = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                list.add(convert(item, element));
+            }
+            return list;
+        }
+        if (Map.class.isAssignableFrom(raw)) return toMap(value);
+        return fromMap((Map<String, Object>) value, raw);
+    }
+
+    private static Map<String, Method> getters(Class<?> type) {
+        return GETTERS.computeIfAbsent(type, t -> {
+            Map<String, Method> getters = new LinkedHashMap<>();
+            for (Method method : t.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                        || method.getDeclaringClass() == Object.class
+                        || method.isAnnotationPresent(Exclude.class)) {
+                    continue;
+                }
+                String name = method.getName();
+                String property = null;
+                if (name.startsWith("get") && name.length() > 3) {
+                    property = decapitalize(name.substring(3));
+                } else if (name.startsWith("is") && name.length() > 2
+                        && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+                    property = decapitalize(name.substring(2));
+                }
+                if (property != null && !fieldAnnotated(t, property, Exclude.class)) {
+                    getters.put(property, method);
+                }
+            }
+            return getters;
+        });
+    }
+
+    private static Map<String, Method> setters(Class<?> type) {
+        return SETTERS.computeIfAbsent(type, t -> {
+            Map<String, Method> setters = new LinkedHashMap<>();
+            for (Method method : t.getMethods()) {
+                String name = method.getName();
+                if (!Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 1
+                        && name.startsWith("set") && name.length() > 3
+                        && !method.isAnnotationPresent(Exclude.class)) {
+                    setters.put(decapitalize(name.substring(3)), method);
+                }
+            }
+            return setters;
+        });
+    }
+
+    private static boolean fieldAnnotated(Class<?> type, String property, Class<? extends java.lang.annotation.Annotation> annotation) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(property);
+                return field.isAnnotationPresent(annotation);
+            } catch (NoSuchFieldException ignored) {
+                // Try the superclass
+            }
+        }
+        return false;
+    }
+
+    private static String decapitalize(String name) {
+        return name.substring(0, 1).toLowerCase(Locale.US) + name.substring(1);
+    }
+}
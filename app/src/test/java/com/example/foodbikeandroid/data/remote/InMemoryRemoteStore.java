@@ -0,0 +1,662 @@
+package com.example.foodbikeandroid.data.remote;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * RemoteStore backed by maps in this process, for unit tests, load tests and benchmarks.
+ *
+ * Every call waits a latency drawn uniformly from [minLatency, maxLatency] and fails with
+ * UNAVAILABLE at the configured rate before touching any data. Both are drawn from one
+ * seeded Random in call order, so a single-threaded driver replays exactly. Transactions
+ * are optimistic like Firestore's: reads are re-validated at commit and the function is
+ * re-run on conflict, up to five attempts. Futures and listener callbacks are delivered
+ * in order on one callback thread unless another executor is supplied.
+ */
+public class InMemoryRemoteStore implements RemoteStore {
+
+    private static final int MAX_TRANSACTION_ATTEMPTS = 5;
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final long minLatencyMillis;
+    private final long maxLatencyMillis;
+    private final double failureRate;
+    private final Random random;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+    private final ExecutorService ownedCallbackExecutor;
+
+    private final Map<Collection, Map<String, Document>> collections = new EnumMap<>(Collection.class);
+    private final List<Listener<?>> listeners = new CopyOnWriteArrayList<>();
+    private long lastTimestamp;
+
+    private final AtomicLong documentReads = new AtomicLong();
+    private final AtomicLong documentWrites = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong transactionAttempts = new AtomicLong();
+    private final AtomicLong transactionConflicts = new AtomicLong();
+    private final AtomicLong injectedFailures = new AtomicLong();
+
+    private static final class Document {
+        final Map<String, Object> fields;
+        final long version;
+
+        Document(Map<String, Object> fields, long version) {
+            this.fields = fields;
+            this.version = version;
+        }
+    }
+
+    private InMemoryRemoteStore(Builder builder) {
+        minLatencyMillis = builder.minLatencyMillis;
+        maxLatencyMillis = Math.max(builder.minLatencyMillis, builder.maxLatencyMillis);
+        failureRate = builder.failureRate;
+        random = new Random(builder.seed);
+        clock = builder.clock;
+        scheduler = Executors.newScheduledThreadPool(builder.threads);
+        if (builder.callbackExecutor != null) {
+            callbackExecutor = builder.callbackExecutor;
+            ownedCallbackExecutor = null;
+        } else {
+            ownedCallbackExecutor = Executors.newSingleThreadExecutor();
+            callbackExecutor = ownedCallbackExecutor;
+        }
+        for (Collection collection : Collection.values()) {
+            collections.put(collection, new HashMap<>());
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private long minLatencyMillis;
+        private long maxLatencyMillis;
+        private double failureRate;
+        private long seed = 42;
+        private int threads = 4;
+        private Executor callbackExecutor;
+        private LongSupplier clock = System::currentTimeMillis;
+
+        public Builder latencyMillis(long min, long max) {
+            this.minLatencyMillis = min;
+            this.maxLatencyMillis = max;
+            return this;
+        }
+
+        // Probability in [0, 1] that a call fails with UNAVAILABLE
+        public Builder failureRate(double failureRate) {
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        // Worker threads; transactions run on them, so this bounds transaction concurrency
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder callbackExecutor(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        // Source of server timestamps; values are forced strictly increasing
+        public Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public InMemoryRemoteStore build() {
+            return new InMemoryRemoteStore(this);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<DocumentResult<T>> get(Collection collection, String id, Class<T> type) {
+        return schedule(() -> {
+            synchronized (this) {
+                documentReads.incrementAndGet();
+                Document document = collections.get(collection).get(id);
+                return new DocumentResult<>(document != null ? BeanMapper.fromMap(document.fields, type) : null, false);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<QueryResult<T>> query(RemoteQuery query, Class<T> type) {
+        return schedule(() -> {
+            synchronized (this) {
+                queries.incrementAndGet();
+                List<Map.Entry<String, Document>> matches = evaluate(query);
+                // Firestore bills an empty result as one read
+                documentReads.addAndGet(Math.max(1, matches.size()));
+                List<T> items = new ArrayList<>(matches.size());
+                List<String> ids = new ArrayList<>(matches.size());
+                for (Map.Entry<String, Document> match : matches) {
+                    items.add(BeanMapper.fromMap(match.getValue().fields, type));
+                    ids.add(match.getKey());
+                }
+                return new QueryResult<>(items, ids, false);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> set(Collection collection, String id, Object data) {
+        return commitWrites(Collections.singletonList(Write.set(collection, id, data)));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(Collection collection, String id, Map<String, Object> fields) {
+        return commitWrites(Collections.singletonList(Write.update(collection, id, fields)));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(Collection collection, String id) {
+        return commitWrites(Collections.singletonList(Write.delete(collection, id)));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> runTransaction(TransactionFunction<R> function) {
+        return schedule(() -> {
+            for (int attempt = 1; ; attempt++) {
+                transactionAttempts.incrementAndGet();
+                MemoryTransaction transaction = new MemoryTransaction();
+                R result = function.apply(transaction);
+                synchronized (this) {
+                    if (transaction.readsStillValid()) {
+                        apply(transaction.writes);
+                        return result;
+                    }
+                }
+                transactionConflicts.incrementAndGet();
+                if (attempt == MAX_TRANSACTION_ATTEMPTS) {
+                    throw new RemoteStoreException("Transaction failed after " + attempt + " attempts",
+                            RemoteStoreException.Code.ABORTED);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Batch batch() {
+        return new MemoryBatch();
+    }
+
+    @Override
+    public <T> ListenerHandle listen(RemoteQuery query, Class<T> type, ChangeListener<T> listener) {
+        Listener<T> registration = new Listener<>(query, type, listener);
+        listeners.add(registration);
+        synchronized (this) {
+            registration.refresh();
+        }
+        return () -> {
+            registration.removed = true;
+            listeners.remove(registration);
+        };
+    }
+
+    // Puts a document without latency, failures or listener events, e.g. to load fixtures
+    public synchronized void seed(Collection collection, String id, Object data) {
+        collections.get(collection).put(id, new Document(BeanMapper.toMap(data), 0));
+    }
+
+    public synchronized int getDocumentCount(Collection collection) {
+        return collections.get(collection).size();
+    }
+
+    public Stats getStats() {
+        return new Stats(documentReads.get(), documentWrites.get(), queries.get(),
+                transactionAttempts.get(), transactionConflicts.get(), injectedFailures.get());
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (ownedCallbackExecutor != null) {
+            ownedCallbackExecutor.shutdownNow();
+        }
+    }
+
+    public static final class Stats {
+        public final long documentReads;
+        public final long documentWrites;
+        public final long queries;
+        public final long transactionAttempts;
+        public final long transactionConflicts;
+        public final long injectedFailures;
+
+        Stats(long documentReads, long documentWrites, long queries,
+              long transactionAttempts, long transactionConflicts, long injectedFailures) {
+            this.documentReads = documentReads;
+            this.documentWrites = documentWrites;
+            this.queries = queries;
+            this.transactionAttempts = transactionAttempts;
+            this.transactionConflicts = transactionConflicts;
+            this.injectedFailures = injectedFailures;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "reads=" + documentReads + " writes=" + documentWrites + " queries=" + queries
+                    + " txAttempts=" + transactionAttempts + " txConflicts=" + transactionConflicts
+                    + " injectedFailures=" + injectedFailures;
+        }
+    }
+
+    private <R> CompletableFuture<R> schedule(Callable<R> operation) {
+        long delay;
+        boolean fail;
+        synchronized (random) {
+            delay = minLatencyMillis + (maxLatencyMillis > minLatencyMillis
+                    ? (long) (random.nextDouble() * (maxLatencyMillis - minLatencyMillis)) : 0);
+            fail = failureRate > 0 && random.nextDouble() < failureRate;
+        }
+        CompletableFuture<R> future = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            if (fail) {
+                injectedFailures.incrementAndGet();
+                Exception e = new RemoteStoreException("Injected failure", RemoteStoreException.Code.UNAVAILABLE);
+                callbackExecutor.execute(() -> future.completeExceptionally(e));
+                return;
+            }
+            try {
+                R result = operation.call();
+                callbackExecutor.execute(() -> future.complete(result));
+            } catch (Exception e) {
+                RemoteStoreException error = RemoteStoreException.from(e);
+                callbackExecutor.execute(() -> future.completeExceptionally(error));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private CompletableFuture<Void> commitWrites(List<Write> writes) {
+        return schedule(() -> {
+            synchronized (this) {
+                apply(writes);
+            }
+            return null;
+        });
+    }
+
+    // Caller holds the lock. Validates every write before applying any of them.
+    private void apply(List<Write> writes) throws RemoteStoreException {
+        if (writes.size() > MAX_BATCH_SIZE) {
+            throw new RemoteStoreException("Maximum " + MAX_BATCH_SIZE + " writes allowed per request",
+                    RemoteStoreException.Code.INVALID_ARGUMENT);
+        }
+        Set<String> created = new HashSet<>();
+        for (Write write : writes) {
+            if (write.kind == Write.Kind.UPDATE && !collections.get(write.collection).containsKey(write.id)
+                    && !created.contains(write.collection.path + "/" + write.id)) {
+                throw new RemoteStoreException("No document to update: " + write.collection.path + "/" + write.id,
+                        RemoteStoreException.Code.NOT_FOUND);
+            }
+            if (write.kind == Write.Kind.SET || write.kind == Write.Kind.MERGE) {
+                created.add(write.collection.path + "/" + write.id);
+            }
+        }
+        Set<Collection> touched = new HashSet<>();
+        for (Write write : writes) {
+            Map<String, Document> documents = collections.get(write.collection);
+            Document existing = documents.get(write.id);
+            long version = existing != null ? existing.version + 1 : 1;
+            switch (write.kind) {
+                case DELETE:
+                    documents.remove(write.id);
+                    break;
+                case SET:
+                    documents.put(write.id, new Document(resolve(new HashMap<>(), write.fields), version));
+                    break;
+                case MERGE:
+                case UPDATE:
+                    Map<String, Object> fields = existing != null ? new HashMap<>(existing.fields) : new HashMap<>();
+                    documents.put(write.id, new Document(resolve(fields, write.fields), version));
+                    break;
+            }
+            documentWrites.incrementAndGet();
+            touched.add(write.collection);
+        }
+        for (Listener<?> listener : listeners) {
+            if (touched.contains(listener.query.collection)) {
+                listener.refresh();
+            }
+        }
+    }
+
+    private Map<String, Object> resolve(Map<String, Object> target, Map<String, Object> changes) {
+        for (Map.Entry<String, Object> entry : changes.entrySet()) {
+            Object value = entry.getValue();
+            if (!(value instanceof RemoteValue)) {
+                target.put(entry.getKey(), value);
+                continue;
+            }
+            RemoteValue remoteValue = (RemoteValue) value;
+            switch (remoteValue.kind) {
+                case SERVER_TIMESTAMP:
+                    target.put(entry.getKey(), new Date(nextTimestamp()));
+                    break;
+                case DELETE:
+                    target.remove(entry.getKey());
+                    break;
+                case INCREMENT:
+                    Object current = target.get(entry.getKey());
+                    Number base = current instanceof Number ? (Number) current : 0L;
+                    if (base instanceof Double || remoteValue.amount instanceof Double) {
+                        target.put(entry.getKey(), base.doubleValue() + remoteValue.amount.doubleValue());
+                    } else {
+                        target.put(entry.getKey(), base.longValue() + remoteValue.amount.longValue());
+                    }
+                    break;
+            }
+        }
+        return target;
+    }
+
+    // Strictly increasing, so updatedAt watermarks never see two writes at the same instant
+    private long nextTimestamp() {
+        lastTimestamp = Math.max(clock.getAsLong(), lastTimestamp + 1);
+        return lastTimestamp;
+    }
+
+    private List<Map.Entry<String, Document>> evaluate(RemoteQuery query) {
+        List<Map.Entry<String, Document>> matches = new ArrayList<>();
+        for (Map.Entry<String, Document> entry : collections.get(query.collection).entrySet()) {
+            if (matches(entry.getValue().fields, query)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort((a, b) -> {
+            for (RemoteQuery.Order order : query.orderBy) {
+                int c = compare(a.getValue().fields.get(order.field), b.getValue().fields.get(order.field));
+                if (c != 0) return order.descending ? -c : c;
+            }
+            return a.getKey().compareTo(b.getKey());
+        });
+        if (!query.startAfter.isEmpty()) {
+            matches.removeIf(entry -> !isAfterCursor(entry.getValue().fields, query));
+        }
+        if (query.limit > 0 && matches.size() > query.limit) {
+            return new ArrayList<>(matches.subList(0, query.limit));
+        }
+        return matches;
+    }
+
+    private static boolean matches(Map<String, Object> fields, RemoteQuery query) {
+        for (RemoteQuery.Order order : query.orderBy) {
+            // Firestore leaves out documents that lack an orderBy field
+            if (fields.get(order.field) == null) return false;
+        }
+        for (RemoteQuery.Filter filter : query.filters) {
+            Object actual = fields.get(filter.field);
+            Object expected = BeanMapper.normalize(filter.value);
+            switch (filter.operator) {
+                case EQUAL:
+                    if (!valueEquals(actual, expected)) return false;
+                    break;
+                case IN:
+                    boolean found = false;
+                    for (Object candidate : (List<?>) expected) {
+                        if (valueEquals(actual, candidate)) {
+                            found = true;
+                            break;
+                        }
+                    }
+                    if (!found) return false;
+                    break;
+                default:
+                    if (actual == null || expected == null) return false;
+                    int c = compare(actual, expected);
+                    if (filter.operator == RemoteQuery.Operator.GREATER_THAN && c <= 0) return false;
+                    if (filter.operator == RemoteQuery.Operator.GREATER_THAN_OR_EQUAL && c < 0) return false;
+                    if (filter.operator == RemoteQuery.Operator.LESS_THAN && c >= 0) return false;
+                    if (filter.operator == RemoteQuery.Operator.LESS_THAN_OR_EQUAL && c > 0) return false;
+                    break;
+            }
+        }
+        return true;
+    }
+
+    // Like Firestore, compares only the fields the cursor has values for
+    private static boolean isAfterCursor(Map<String, Object> fields, RemoteQuery query) {
+        for (int i = 0; i < query.startAfter.size(); i++) {
+            RemoteQuery.Order order = query.orderBy.get(i);
+            int c = compare(fields.get(order.field), BeanMapper.normalize(query.startAfter.get(i)));
+            if (c != 0) return order.descending ? c < 0 : c > 0;
+        }
+        return false;
+    }
+
+    private static boolean valueEquals(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return Objects.equals(a, b);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        if (a instanceof Number && b instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        if (a.getClass() == b.getClass() && a instanceof Comparable) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return a.getClass().getName().compareTo(b.getClass().getName());
+    }
+
+    private static final class Write {
+        enum Kind {
+            SET,
+            MERGE,
+            UPDATE,
+            DELETE
+        }
+
+        final Kind kind;
+        final Collection collection;
+        final String id;
+        final Map<String, Object> fields;
+
+        private Write(Kind kind, Collection collection, String id, Map<String, Object> fields) {
+            this.kind = kind;
+            this.collection = collection;
+            this.id = id;
+            this.fields = fields;
+        }
+
+        static Write set(Collection collection, String id, Object data) {
+            Map<String, Object> fields = BeanMapper.toMap(data);
+            if (!(data instanceof Map)) {
+                for (String field : BeanMapper.serverTimestampFields(data.getClass())) {
+                    if (fields.get(field) == null) {
+                        fields.put(field, RemoteValue.serverTimestamp());
+                    }
+                }
+            }
+            return new Write(Kind.SET, collection, id, fields);
+        }
+
+        static Write merge(Collection collection, String id, Object data, List<String> mergeFields) {
+            Map<String, Object> all = BeanMapper.toMap(data);
+            Map<String, Object> fields = new HashMap<>();
+            for (String field : mergeFields) {
+                fields.put(field, all.get(field));
+            }
+            return new Write(Kind.MERGE, collection, id, fields);
+        }
+
+        static Write update(Collection collection, String id, Map<String, Object> fields) {
+            return new Write(Kind.UPDATE, collection, id, BeanMapper.toMap(fields));
+        }
+
+        static Write delete(Collection collection, String id) {
+            return new Write(Kind.DELETE, collection, id, Collections.emptyMap());
+        }
+    }
+
+    private final class MemoryTransaction implements Transaction {
+        // Version seen per document path; 0 means it didn't exist
+        private final Map<String, Long> readVersions = new HashMap<>();
+        private final List<Write> writes = new ArrayList<>();
+
+        @Override
+        public <T> T get(Collection collection, String id, Class<T> type) {
+            if (!writes.isEmpty()) {
+                throw new IllegalStateException("Transactions require all reads before all writes");
+            }
+            synchronized (InMemoryRemoteStore.this) {
+                documentReads.incrementAndGet();
+                Document document = collections.get(collection).get(id);
+                readVersions.put(collection.path + "/" + id, document != null ? document.version : 0L);
+                return document != null ? BeanMapper.fromMap(document.fields, type) : null;
+            }
+        }
+
+        @Override
+        public void set(Collection collection, String id, Object data) {
+            writes.add(Write.set(collection, id, data));
+        }
+
+        @Override
+        public void update(Collection collection, String id, Map<String, Object> fields) {
+            writes.add(Write.update(collection, id, fields));
+        }
+
+        @Override
+        public void delete(Collection collection, String id) {
+            writes.add(Write.delete(collection, id));
+        }
+
+        // Caller holds the store lock
+        boolean readsStillValid() {
+            for (Map.Entry<String, Long> read : readVersions.entrySet()) {
+                String[] path = read.getKey().split("/", 2);
+                Document document = collections.get(Collection.fromPath(path[0])).get(path[1]);
+                long version = document != null ? document.version : 0L;
+                if (version != read.getValue()) return false;
+            }
+            return true;
+        }
+    }
+
+    private final class MemoryBatch implements Batch {
+        private final List<Write> writes = new ArrayList<>();
+
+        @Override
+        public Batch set(Collection collection, String id, Object data) {
+            writes.add(Write.set(collection, id, data));
+            return this;
+        }
+
+        @Override
+        public Batch merge(Collection collection, String id, Object data, List<String> fields) {
+            writes.add(Write.merge(collection, id, data, fields));
+            return this;
+        }
+
+        @Override
+        public Batch update(Collection collection, String id, Map<String, Object> fields) {
+            writes.add(Write.update(collection, id, fields));
+            return this;
+        }
+
+        @Override
+        public Batch delete(Collection collection, String id) {
+            writes.add(Write.delete(collection, id));
+            return this;
+        }
+
+        @Override
+        public int size() {
+            return writes.size();
+        }
+
+        @Override
+        public CompletableFuture<Void> commit() {
+            return commitWrites(new ArrayList<>(writes));
+        }
+    }
+
+    private final class Listener<T> {
+        final RemoteQuery query;
+        final Class<T> type;
+        final ChangeListener<T> callback;
+        // id -> version last delivered
+        Map<String, Long> delivered = new HashMap<>();
+        Map<String, Map<String, Object>> lastValues = new HashMap<>();
+        boolean initialDelivered;
+        volatile boolean removed;
+
+        Listener(RemoteQuery query, Class<T> type, ChangeListener<T> callback) {
+            this.query = query;
+            this.type = type;
+            this.callback = callback;
+        }
+
+        // Caller holds the store lock, so diffs are computed in commit order
+        void refresh() {
+            Map<String, Long> current = new HashMap<>();
+            Map<String, Map<String, Object>> values = new HashMap<>();
+            List<Change<T>> changes = new ArrayList<>();
+            for (Map.Entry<String, Document> match : evaluate(query)) {
+                String id = match.getKey();
+                Document document = match.getValue();
+                current.put(id, document.version);
+                values.put(id, document.fields);
+                Long previous = delivered.get(id);
+                if (previous == null) {
+                    changes.add(new Change<>(Change.Type.ADDED, id, BeanMapper.fromMap(document.fields, type)));
+                } else if (previous != document.version) {
+                    changes.add(new Change<>(Change.Type.MODIFIED, id, BeanMapper.fromMap(document.fields, type)));
+                }
+            }
+            for (String id : delivered.keySet()) {
+                if (!current.containsKey(id)) {
+                    changes.add(new Change<>(Change.Type.REMOVED, id, BeanMapper.fromMap(lastValues.get(id), type)));
+                }
+            }
+            // The first snapshot is delivered even when empty, as Firestore does
+            boolean first = !initialDelivered;
+            initialDelivered = true;
+            delivered = current;
+            lastValues = values;
+            if (changes.isEmpty() && !first) return;
+            documentReads.addAndGet(changes.size());
+            callbackExecutor.execute(() -> {
+                if (!removed) callback.onChanges(changes, false);
+            });
+        }
+    }
+}
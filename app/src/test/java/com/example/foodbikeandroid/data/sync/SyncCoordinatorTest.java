@@ -0,0 +1,118 @@
+package com.example.foodbikeandroid.data.sync;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SyncCoordinatorTest {
+
+    private static final long INTERVAL = 30_000;
+
+    private long now;
+    private SyncCoordinator coordinator;
+    private AtomicInteger queries;
+    private CompletableFuture<Void> remote;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000;
+        coordinator = new SyncCoordinator(() -> now);
+        queries = new AtomicInteger();
+        remote = new CompletableFuture<>();
+    }
+
+    @Test
+    public void run_whileRunning_joinsTheRunInFlight() {
+        CompletableFuture<Void> first = run("orders", false);
+        CompletableFuture<Void> second = run("orders", false);
+        // A forced refresh also joins rather than starting a second query
+        CompletableFuture<Void> forced = run("orders", true);
+
+        assertSame(first, second);
+        assertSame(first, forced);
+        assertEquals(1, queries.get());
+        assertFalse(first.isDone());
+
+        remote.complete(null);
+        assertTrue(first.isDone());
+        SyncCoordinator.Stats stats = coordinator.getStats();
+        assertEquals(3, stats.requested);
+        assertEquals(1, stats.started);
+        assertEquals(2, stats.coalesced);
+        assertEquals(0, stats.inFlight);
+    }
+
+    @Test
+    public void run_differentKeys_runIndependently() {
+        run("orders", false);
+        run("restaurants", false);
+
+        assertEquals(2, queries.get());
+        assertEquals(2, coordinator.getStats().inFlight);
+    }
+
+    @Test
+    public void run_withinInterval_isThrottledUntilItPasses() {
+        remote.complete(null);
+        run("orders", false);
+
+        now += INTERVAL - 1;
+        CompletableFuture<Void> throttled = run("orders", false);
+        assertTrue(throttled.isDone());
+        assertEquals(1, queries.get());
+        assertEquals(1, coordinator.getStats().throttled);
+
+        now += 1;
+        run("orders", false);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void run_forced_skipsTheInterval() {
+        remote.complete(null);
+        run("orders", false);
+
+        run("orders", true);
+
+        assertEquals(2, queries.get());
+        assertEquals(0, coordinator.getStats().throttled);
+    }
+
+    @Test
+    public void run_afterFailure_isNotThrottled() {
+        CompletableFuture<Void> failed = run("orders", false);
+        remote.completeExceptionally(new IOException("unavailable"));
+        assertTrue(failed.isCompletedExceptionally());
+
+        remote = CompletableFuture.completedFuture(null);
+        run("orders", false);
+
+        assertEquals(2, queries.get());
+        assertEquals(1, coordinator.getStats().failed);
+    }
+
+    @Test
+    public void run_requestThatThrows_failsTheSharedFuture() {
+        CompletableFuture<Void> result = coordinator.run("orders", INTERVAL, false, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, coordinator.getStats().inFlight);
+    }
+
+    private CompletableFuture<Void> run(String key, boolean force) {
+        return coordinator.run(key, INTERVAL, force, () -> {
+            queries.incrementAndGet();
+            return remote;
+        });
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.foodbikeandroid.work;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AutoCancelSchedulerTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long SLACK = 1000;
+
+    private long now;
+    private FakePendingOrders pending;
+    private ScheduledThreadPoolExecutor timer;
+    private AutoCancelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        now = 1_700_000_000_000L;
+        pending = new FakePendingOrders();
+        // Only inspected and fired by hand; every deadline here is minutes away
+        timer = new ScheduledThreadPoolExecutor(1);
+        timer.setRemoveOnCancelPolicy(true);
+        scheduler = new AutoCancelScheduler(pending, timer, Runnable::run, () -> now);
+    }
+
+    @After
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void start_sweepsOverdueOrdersAndArmsTheOldestDeadline() {
+        pending.add("o1", now - 120 * MINUTE);
+        pending.add("o2", now - 30 * MINUTE);
+
+        scheduler.start();
+
+        assertEquals(Collections.singletonList("o1"), pending.cancelled);
+        assertArmed(30 * MINUTE + SLACK);
+    }
+
+    @Test
+    public void onPendingOrder_earlierDeadline_pullsTheTimerForward() {
+        pending.add("o1", now - 10 * MINUTE);
+        scheduler.start();
+        assertArmed(50 * MINUTE + SLACK);
+
+        scheduler.onPendingOrder(now - 40 * MINUTE);
+        assertArmed(20 * MINUTE + SLACK);
+
+        // A later deadline leaves the armed one alone
+        scheduler.onPendingOrder(now);
+        assertArmed(20 * MINUTE + SLACK);
+    }
+
+    @Test
+    public void deadline_cancelsTheOrderAndRearmsForTheNext() {
+        pending.add("o1", now - 50 * MINUTE);
+        pending.add("o2", now - 20 * MINUTE);
+        scheduler.start();
+        assertArmed(10 * MINUTE + SLACK);
+
+        now += 10 * MINUTE + SLACK;
+        fireArmed();
+
+        assertEquals(Collections.singletonList("o1"), pending.cancelled);
+        // o2's deadline is 40 minutes after the start, 30 minutes minus the slack from now
+        assertArmed(30 * MINUTE);
+    }
+
+    @Test
+    public void deadline_lastOrderCancelled_leavesNothingArmed() {
+        pending.add("o1", now - 59 * MINUTE);
+        scheduler.start();
+
+        now += MINUTE + SLACK;
+        fireArmed();
+
+        assertEquals(Collections.singletonList("o1"), pending.cancelled);
+        assertTrue(timer.getQueue().isEmpty());
+    }
+
+    @Test
+    public void stop_disarmsAndIgnoresNewOrders() {
+        pending.add("o1", now - 10 * MINUTE);
+        scheduler.start();
+
+        scheduler.stop();
+        scheduler.onPendingOrder(now);
+
+        assertTrue(timer.getQueue().isEmpty());
+    }
+
+    private void assertArmed(long expectedDelayMillis) {
+        assertEquals(1, timer.getQueue().size());
+        long delay = ((ScheduledFuture<?>) timer.getQueue().peek()).getDelay(TimeUnit.MILLISECONDS);
+        // The executor counts down in real time from when the timer was armed
+        assertTrue("armed in " + delay + "ms", delay <= expectedDelayMillis && delay > expectedDelayMillis - 1000);
+    }
+
+    private void fireArmed() {
+        Runnable task = timer.getQueue().peek();
+        timer.remove(task);
+        task.run();
+    }
+
+    private static final class FakePendingOrders implements AutoCancelScheduler.PendingOrders {
+
+        final Map<String, Long> createdAt = new HashMap<>();
+        final List<String> cancelled = new ArrayList<>();
+
+        void add(String orderId, long created) {
+            createdAt.put(orderId, created);
+        }
+
+        @Override
+        public List<String> cancelOlderThan(long threshold) {
+            List<String> ids = new ArrayList<>();
+            for (Iterator<Map.Entry<String, Long>> it = createdAt.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Long> entry = it.next();
+                if (entry.getValue() < threshold) {
+                    ids.add(entry.getKey());
+                    it.remove();
+                }
+            }
+            cancelled.addAll(ids);
+            return ids;
+        }
+
+        @Override
+        public Long oldestCreatedAt() {
+            return createdAt.isEmpty() ? null : Collections.min(createdAt.values());
+        }
+    }
+}